@@ -22,6 +22,8 @@ package org.apache.tsfile;
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.encoding.decoder.ChunkDictionaryDecoder;
 import org.apache.tsfile.encoding.decoder.Decoder;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.MetaMarker;
@@ -87,6 +89,8 @@ public class TsFileSequenceRead {
             System.out.println("\t[Chunk]");
             System.out.println("\tchunk type: " + marker);
             System.out.println("\tposition: " + reader.position());
+            // the chunk header starts with the marker
+            long chunkOffset = reader.position() - 1;
             ChunkHeader header = reader.readChunkHeader(marker);
             System.out.println("\tMeasurement: " + header.getMeasurementID());
             if (header.getDataSize() == 0) {
@@ -103,6 +107,16 @@ public class TsFileSequenceRead {
             Decoder valueDecoder =
                 Decoder.getDecoderByType(header.getEncodingType(), header.getDataType());
             int dataSize = header.getDataSize();
+            // the dictionary of the chunk is in front of the pages
+            long dictionaryOffset = reader.position();
+            if (header.getEncodingType() == TSEncoding.CHUNK_DICTIONARY) {
+              ((ChunkDictionaryDecoder) valueDecoder)
+                  .setDictionary(
+                      reader.readChunkDictionary(header.getCompressionType(), chunkOffset));
+            }
+            IUnCompressor unCompressor =
+                reader.readChunkUnCompressor(header.getCompressionType(), chunkOffset);
+            dataSize -= (int) (reader.position() - dictionaryOffset);
             pageIndex = 0;
             if (header.getDataType() == TSDataType.VECTOR) {
               timeBatch.clear();
@@ -116,7 +130,8 @@ public class TsFileSequenceRead {
                       header.getDataType(),
                       (header.getChunkType() & 0x3F) == MetaMarker.CHUNK_HEADER);
               System.out.println("\t\tPage data position: " + reader.position());
-              ByteBuffer pageData = reader.readPage(pageHeader, header.getCompressionType());
+              ByteBuffer pageData =
+                  reader.readPage(pageHeader, unCompressor, chunkOffset, pageIndex);
               System.out.println(
                   "\t\tUncompressed page data size: " + pageHeader.getUncompressedSize());
               System.out.println(
@@ -0,0 +1,180 @@
+<@pp.dropOutputFile />
+<@pp.changeOutputFile name="/org/apache/tsfile/encoding/bitpacking/BitUnpacker.java" />
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tsfile.encoding.bitpacking;
+
+import java.util.Arrays;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+/**
+ * Unpacks values that are stored back to back with a fixed bit-width, the most significant bit
+ * first, e.g. the deltas written by {@code DeltaBinaryEncoder}.
+ *
+ * <p>The packed bytes are loaded into big-endian 64-bit words first. Each bit-width has its own
+ * unrolled kernel that extracts {@link #VALUES_PER_KERNEL} values out of bit-width words with
+ * constant shifts and masks, the values left over are extracted one at a time.
+ */
+public final class BitUnpacker {
+
+  /** Number of values extracted by one call of a kernel. */
+  public static final int VALUES_PER_KERNEL = 64;
+
+  private BitUnpacker() {
+    // util class
+  }
+
+  /**
+   * Returns the number of 64-bit words that hold the given number of bytes.
+   *
+   * @param byteNum number of bytes
+   * @return number of words
+   */
+  public static int getWordNum(int byteNum) {
+    return (byteNum + 7) >>> 3;
+  }
+
+  /**
+   * Loads the bytes into big-endian 64-bit words, the last word is padded with zeros.
+   *
+   * @param bytes packed bytes
+   * @param length number of bytes to load
+   * @param words destination, its length should be at least {@code getWordNum(length)}
+   */
+  public static void loadWords(byte[] bytes, int length, long[] words) {
+    int fullWordNum = length >>> 3;
+    for (int i = 0, b = 0; i < fullWordNum; i++, b += 8) {
+      words[i] =
+          ((bytes[b] & 0xFFL) << 56)
+              | ((bytes[b + 1] & 0xFFL) << 48)
+              | ((bytes[b + 2] & 0xFFL) << 40)
+              | ((bytes[b + 3] & 0xFFL) << 32)
+              | ((bytes[b + 4] & 0xFFL) << 24)
+              | ((bytes[b + 5] & 0xFFL) << 16)
+              | ((bytes[b + 6] & 0xFFL) << 8)
+              | (bytes[b + 7] & 0xFFL);
+    }
+    if ((length & 7) != 0) {
+      long word = 0;
+      for (int b = fullWordNum << 3, shift = 56; b < length; b++, shift -= 8) {
+        word |= (bytes[b] & 0xFFL) << shift;
+      }
+      words[fullWordNum] = word;
+    }
+  }
+
+  /**
+   * Unpacks {@code count} values of {@code width} bits.
+   *
+   * @param words packed words loaded by {@link #loadWords(byte[], int, long[])}
+   * @param width bit-width of the values, between 0 and 32
+   * @param values destination of the unpacked values
+   * @param count number of values to unpack
+   */
+  public static void unpackInts(long[] words, int width, int[] values, int count) {
+    int i = 0;
+    switch (width) {
+      case 0:
+        Arrays.fill(values, 0, count, 0);
+        return;
+<#list 1..32 as width>
+      case ${width}:
+        for (int w = 0; i + VALUES_PER_KERNEL <= count; i += VALUES_PER_KERNEL, w += ${width}) {
+          unpackInts${width}(words, w, values, i);
+        }
+        break;
+</#list>
+      default:
+        throw new IllegalArgumentException("bit-width of int should be in [0, 32]: " + width);
+    }
+    for (; i < count; i++) {
+      values[i] = (int) extract(words, (long) i * width, width);
+    }
+  }
+
+  /**
+   * Unpacks {@code count} values of {@code width} bits.
+   *
+   * @param words packed words loaded by {@link #loadWords(byte[], int, long[])}
+   * @param width bit-width of the values, between 0 and 64
+   * @param values destination of the unpacked values
+   * @param count number of values to unpack
+   */
+  public static void unpackLongs(long[] words, int width, long[] values, int count) {
+    int i = 0;
+    switch (width) {
+      case 0:
+        Arrays.fill(values, 0, count, 0L);
+        return;
+<#list 1..64 as width>
+      case ${width}:
+        for (int w = 0; i + VALUES_PER_KERNEL <= count; i += VALUES_PER_KERNEL, w += ${width}) {
+          unpackLongs${width}(words, w, values, i);
+        }
+        break;
+</#list>
+      default:
+        throw new IllegalArgumentException("bit-width of long should be in [0, 64]: " + width);
+    }
+    for (; i < count; i++) {
+      values[i] = extract(words, (long) i * width, width);
+    }
+  }
+
+  /** Extracts the value of {@code width} bits that starts at the given bit of the words. */
+  private static long extract(long[] words, long bitIndex, int width) {
+    int wordIndex = (int) (bitIndex >>> 6);
+    int shift = (int) (bitIndex & 63);
+    long value = words[wordIndex] << shift;
+    if (shift + width > 64) {
+      value |= words[wordIndex + 1] >>> (64 - shift);
+    }
+    return value >>> (64 - width);
+  }
+<#macro kernel type width>
+  <#assign cast = (type == "int")?then("(int) ", "")>
+
+  private static void unpack${(type == "int")?then("Ints", "Longs")}${width}(long[] words, int w, ${type}[] values, int i) {
+  <#if width lt 64>
+    final long mask = -1L >>> ${(64 - width)?c};
+  </#if>
+  <#list 0..63 as j>
+    <#assign bit = j * width>
+    <#assign wordIndex = (bit / 64)?floor>
+    <#assign shift = bit % 64>
+    <#if width == 64>
+    values[i + ${j?c}] = words[w + ${wordIndex?c}];
+    <#elseif shift + width == 64>
+    values[i + ${j?c}] = ${cast}(words[w + ${wordIndex?c}] & mask);
+    <#elseif shift + width < 64>
+    values[i + ${j?c}] = ${cast}((words[w + ${wordIndex?c}] >>> ${(64 - shift - width)?c}) & mask);
+    <#else>
+    values[i + ${j?c}] =
+        ${cast}(((words[w + ${wordIndex?c}] << ${(shift + width - 64)?c})
+            | (words[w + ${(wordIndex + 1)?c}] >>> ${(128 - shift - width)?c}))
+            & mask);
+    </#if>
+  </#list>
+  }
+</#macro>
+<#list 1..32 as width>
+<@kernel type="int" width=width />
+</#list>
+<#list 1..64 as width>
+<@kernel type="long" width=width />
+</#list>
+}
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.common.cache;
+
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * A process-wide cache of the blocks read from TsFiles, e.g. the serialized MetadataIndexNodes,
+ * TimeseriesMetadata and chunk bodies, so that the readers opened for the same file one after
+ * another share the warm blocks instead of reading them from disk again.
+ *
+ * <p>A block is identified by its file, its offset and its length. The file is identified by its
+ * path together with its size, so a file that has grown or been truncated never serves the blocks
+ * read before. The blocks of a file should be invalidated once its content is finalized or it is
+ * removed, see {@link #invalidate(String)}.
+ */
+public class BlockCache {
+
+  /** an estimation of the memory taken by a key and a ByteBuffer besides the content */
+  private static final long BLOCK_OVERHEAD_IN_BYTE = 128;
+
+  /** used to size the frequency sketch of the TinyLFU policy */
+  private static final long EXPECTED_BLOCK_SIZE_IN_BYTE = 16 * 1024L;
+
+  private final WeightedLRUCache<BlockKey, ByteBuffer> cache;
+
+  public BlockCache(long capacityInByte) {
+    this(capacityInByte, TSFileDescriptor.getInstance().getConfig().isTinyLfuCachePolicy());
+  }
+
+  public BlockCache(long capacityInByte, boolean tinyLfuAdmission) {
+    this.cache =
+        new WeightedLRUCache<>(
+            capacityInByte,
+            buffer -> BLOCK_OVERHEAD_IN_BYTE + buffer.capacity(),
+            null,
+            tinyLfuAdmission ? capacityInByte / EXPECTED_BLOCK_SIZE_IN_BYTE : 0);
+  }
+
+  public static BlockCache getInstance() {
+    return BlockCacheHolder.INSTANCE;
+  }
+
+  /**
+   * Gets the block, loading it with the given loader if absent. The returned buffer is a duplicate
+   * of the cached one, so its position and limit can be changed freely, but its content should not
+   * be modified.
+   *
+   * @param filePath path of the file
+   * @param fileSize size of the file when the block is read
+   * @param offset offset of the block in the file
+   * @param length length of the block
+   * @param loader reads the block from the file on a miss
+   */
+  public ByteBuffer get(
+      String filePath,
+      long fileSize,
+      long offset,
+      int length,
+      WeightedLRUCache.CacheLoader<BlockKey, ByteBuffer> loader)
+      throws IOException {
+    return cache.get(new BlockKey(filePath, fileSize, offset, length), loader).duplicate();
+  }
+
+  /** Removes all the blocks of the file. */
+  public void invalidate(String filePath) {
+    String absolutePath = toAbsolutePath(filePath);
+    cache.removeIf(key -> key.filePath.equals(absolutePath));
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  public CacheStats getStats() {
+    return cache.getStats();
+  }
+
+  /** The memory taken by the cached blocks. */
+  public long weight() {
+    return cache.weight();
+  }
+
+  private static String toAbsolutePath(String filePath) {
+    return new File(filePath).getAbsolutePath();
+  }
+
+  public static class BlockKey {
+
+    private final String filePath;
+    private final long fileSize;
+    private final long offset;
+    private final int length;
+
+    private BlockKey(String filePath, long fileSize, long offset, int length) {
+      this.filePath = toAbsolutePath(filePath);
+      this.fileSize = fileSize;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    public String getFilePath() {
+      return filePath;
+    }
+
+    public long getOffset() {
+      return offset;
+    }
+
+    public int getLength() {
+      return length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      BlockKey that = (BlockKey) o;
+      return fileSize == that.fileSize
+          && offset == that.offset
+          && length == that.length
+          && filePath.equals(that.filePath);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(filePath, fileSize, offset, length);
+    }
+  }
+
+  private static class BlockCacheHolder {
+
+    private static final BlockCache INSTANCE =
+        new BlockCache(TSFileDescriptor.getInstance().getConfig().getBlockCacheSizeInByte());
+
+    private BlockCacheHolder() {}
+  }
+}
@@ -27,5 +27,28 @@ public interface Cache<K, T> {
 
   T get(K key) throws CacheException, IOException;
 
+  /**
+   * Whether the value of the key is cached. Implementations that can not tell it without loading
+   * the value fall back to {@link #get(Object)}, a value that fails to load is not cached.
+   */
+  default boolean containsKey(K key) {
+    try {
+      return get(key) != null;
+    } catch (CacheException | IOException e) {
+      return false;
+    }
+  }
+
+  /** Puts a value into the cache, which is not supported by caches that only load values. */
+  default void put(K key, T value) {
+    throw new UnsupportedOperationException(
+        getClass().getSimpleName() + " does not support putting values");
+  }
+
   void clear();
+
+  /** The hit and miss counters of the cache, which are all 0 if the cache does not count them. */
+  default CacheStats getStats() {
+    return new CacheStats();
+  }
 }
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.common.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Counters of a cache, which are used to compare the cache policies. */
+public class CacheStats {
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  /** number of values that are not cached because they are accessed less than the victims */
+  private final AtomicLong rejectionCount = new AtomicLong();
+
+  void recordHit() {
+    hitCount.incrementAndGet();
+  }
+
+  void recordMiss() {
+    missCount.incrementAndGet();
+  }
+
+  void recordEviction() {
+    evictionCount.incrementAndGet();
+  }
+
+  void recordRejection() {
+    rejectionCount.incrementAndGet();
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  public long getRejectionCount() {
+    return rejectionCount.get();
+  }
+
+  /** The ratio of the lookups that hit the cache, 1.0 if there is no lookup. */
+  public double getHitRate() {
+    long hit = hitCount.get();
+    long total = hit + missCount.get();
+    return total == 0 ? 1.0 : (double) hit / total;
+  }
+
+  public void reset() {
+    hitCount.set(0);
+    missCount.set(0);
+    evictionCount.set(0);
+    rejectionCount.set(0);
+  }
+
+  @Override
+  public String toString() {
+    return "CacheStats{"
+        + "hitCount="
+        + hitCount
+        + ", missCount="
+        + missCount
+        + ", evictionCount="
+        + evictionCount
+        + ", rejectionCount="
+        + rejectionCount
+        + ", hitRate="
+        + getHitRate()
+        + '}';
+  }
+}
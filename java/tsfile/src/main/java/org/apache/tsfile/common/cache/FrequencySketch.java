@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.common.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A count-min sketch estimating how often the keys are accessed recently, which is the frequency
+ * filter of TinyLFU.
+ *
+ * <p>Each key is mapped to 4 counters of 4 bits, and its frequency is the minimum of them, so the
+ * frequency is at most 15. Once the number of recorded accesses reaches 10 times the expected
+ * number of keys, all the counters are halved so that the keys that used to be hot fade out. The
+ * counters are updated without locking, an access may occasionally be lost under contention, which
+ * does not matter for an estimation.
+ */
+public class FrequencySketch<K> {
+
+  private static final long[] SEEDS = {
+    0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final int MAX_WIDTH = 1 << 22;
+
+  /** number of longs, i.e. 64 counters, for each expected key */
+  private static final int LONGS_PER_KEY = 4;
+
+  /** each long holds 16 counters of 4 bits */
+  private final AtomicLongArray table;
+
+  private final int tableMask;
+  private final int sampleSize;
+  private final AtomicInteger size = new AtomicInteger();
+
+  /**
+   * @param expectedSize the expected number of keys in the cache. The sketch holds 64 counters for
+   *     each of them, fewer counters make the frequencies of the rarely accessed keys overestimated
+   *     due to collisions.
+   */
+  public FrequencySketch(long expectedSize) {
+    int keyNum = (int) Math.min(MAX_WIDTH / LONGS_PER_KEY, Math.max(16, expectedSize));
+    int width = Integer.highestOneBit(keyNum * LONGS_PER_KEY - 1) << 1;
+    this.table = new AtomicLongArray(width);
+    this.tableMask = width - 1;
+    this.sampleSize = 10 * keyNum;
+  }
+
+  /** Returns the estimated number of recent accesses of the key, which is at most 15. */
+  public int frequency(K key) {
+    int hash = spread(key.hashCode());
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < SEEDS.length; i++) {
+      long indexHash = indexHash(hash, i);
+      long value = table.get((int) indexHash & tableMask);
+      frequency = Math.min(frequency, (int) ((value >>> offsetOf(indexHash)) & 0xfL));
+    }
+    return frequency;
+  }
+
+  /** Records an access of the key. */
+  public void increment(K key) {
+    int hash = spread(key.hashCode());
+    boolean added = false;
+    for (int i = 0; i < SEEDS.length; i++) {
+      long indexHash = indexHash(hash, i);
+      added |= tryIncrement((int) indexHash & tableMask, offsetOf(indexHash));
+    }
+    if (added && size.incrementAndGet() >= sampleSize) {
+      reset();
+    }
+  }
+
+  private boolean tryIncrement(int index, int offset) {
+    long mask = 0xfL << offset;
+    while (true) {
+      long value = table.get(index);
+      if ((value & mask) == mask) {
+        return false;
+      }
+      if (table.compareAndSet(index, value, value + (1L << offset))) {
+        return true;
+      }
+    }
+  }
+
+  /** Halves all the counters. */
+  private synchronized void reset() {
+    if (size.get() < sampleSize) {
+      // another thread has reset the sketch
+      return;
+    }
+    for (int i = 0; i < table.length(); i++) {
+      long value;
+      do {
+        value = table.get(i);
+      } while (!table.compareAndSet(i, value, (value >>> 1) & RESET_MASK));
+    }
+    size.set(size.get() / 2);
+  }
+
+  private static long indexHash(int hash, int i) {
+    long h = (hash + SEEDS[i]) * SEEDS[i];
+    return h + (h >>> 32);
+  }
+
+  /** the bit offset of the counter in the long, the 16 counters are chosen by the high bits */
+  private static int offsetOf(long indexHash) {
+    return (int) ((indexHash >>> 40) & 0xfL) << 2;
+  }
+
+  private static int spread(int hash) {
+    int h = hash * 0x9e3779b9;
+    return h ^ (h >>> 16);
+  }
+}
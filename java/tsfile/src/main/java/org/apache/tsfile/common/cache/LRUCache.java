@@ -28,12 +28,18 @@ public abstract class LRUCache<K, T> implements Cache<K, T> {
 
   protected Map<K, T> cache;
 
+  private final CacheStats stats = new CacheStats();
+
   protected LRUCache(int cacheSize) {
     this.cache =
         new LinkedHashMap<K, T>(cacheSize, 0.75f, true) {
           @Override
           protected boolean removeEldestEntry(Map.Entry eldest) {
-            return size() > cacheSize;
+            if (size() > cacheSize) {
+              stats.recordEviction();
+              return true;
+            }
+            return false;
           }
         };
   }
@@ -41,8 +47,10 @@ public abstract class LRUCache<K, T> implements Cache<K, T> {
   @Override
   public synchronized T get(K key) throws IOException {
     if (cache.containsKey(key)) {
+      stats.recordHit();
       return cache.get(key);
     } else {
+      stats.recordMiss();
       T value = loadObjectByKey(key);
       if (value != null) {
         cache.put(key, value);
@@ -51,7 +59,8 @@ public abstract class LRUCache<K, T> implements Cache<K, T> {
     }
   }
 
-  public boolean containsKey(K key) {
+  @Override
+  public synchronized boolean containsKey(K key) {
     return cache.containsKey(key);
   }
 
@@ -60,10 +69,16 @@ public abstract class LRUCache<K, T> implements Cache<K, T> {
     cache.clear();
   }
 
+  @Override
   public synchronized void put(K key, T value) {
     cache.put(key, value);
   }
 
+  @Override
+  public CacheStats getStats() {
+    return stats;
+  }
+
   protected abstract T loadObjectByKey(K key) throws IOException;
 
   public synchronized void removeItem(K key) {
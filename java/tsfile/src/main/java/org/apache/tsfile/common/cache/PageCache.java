@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.common.cache;
+
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * A process-wide cache of the decompressed and decrypted page data, so that the queries reading the
+ * same pages again and again, e.g. the refreshes of a dashboard, do not have to decompress them
+ * every time. It is separate from the chunk cache and the block cache, which hold the compressed
+ * bytes.
+ *
+ * <p>A page is identified by its file, the offset of its chunk header in the file and its index in
+ * the chunk. The pages of a file should be invalidated once its content is finalized or it is
+ * removed, see {@link #invalidate(String)}.
+ */
+public class PageCache {
+
+  /** an estimation of the memory taken by a key and a ByteBuffer besides the content */
+  private static final long PAGE_OVERHEAD_IN_BYTE = 128;
+
+  /** used to size the frequency sketch of the TinyLFU policy */
+  private static final long EXPECTED_PAGE_SIZE_IN_BYTE = 64 * 1024L;
+
+  private final WeightedLRUCache<PageKey, ByteBuffer> cache;
+
+  public PageCache(long capacityInByte) {
+    this(capacityInByte, TSFileDescriptor.getInstance().getConfig().isTinyLfuCachePolicy());
+  }
+
+  public PageCache(long capacityInByte, boolean tinyLfuAdmission) {
+    this.cache =
+        new WeightedLRUCache<>(
+            capacityInByte,
+            buffer -> PAGE_OVERHEAD_IN_BYTE + buffer.capacity(),
+            null,
+            tinyLfuAdmission ? capacityInByte / EXPECTED_PAGE_SIZE_IN_BYTE : 0);
+  }
+
+  public static PageCache getInstance() {
+    return PageCacheHolder.INSTANCE;
+  }
+
+  /**
+   * Gets the page data, loading it with the given loader if absent. The returned buffer is a
+   * duplicate of the cached one, so its position and limit can be changed freely, but its content
+   * should not be modified.
+   *
+   * @param key key of the page
+   * @param loader decompresses the page on a miss
+   */
+  public ByteBuffer get(PageKey key, WeightedLRUCache.CacheLoader<PageKey, ByteBuffer> loader)
+      throws IOException {
+    return cache.get(key, loader).duplicate();
+  }
+
+  /** Removes all the pages of the file. */
+  public void invalidate(String filePath) {
+    String absolutePath = toAbsolutePath(filePath);
+    cache.removeIf(key -> key.filePath.equals(absolutePath));
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  public CacheStats getStats() {
+    return cache.getStats();
+  }
+
+  /** The memory taken by the cached pages. */
+  public long weight() {
+    return cache.weight();
+  }
+
+  private static String toAbsolutePath(String filePath) {
+    return new File(filePath).getAbsolutePath();
+  }
+
+  public static class PageKey {
+
+    private final String filePath;
+    private final long offsetOfChunkHeader;
+    private final int pageIndex;
+
+    /**
+     * @param filePath path of the file
+     * @param offsetOfChunkHeader offset of the header of the chunk the page belongs to
+     * @param pageIndex index of the page in the chunk, counting from 0
+     */
+    public PageKey(String filePath, long offsetOfChunkHeader, int pageIndex) {
+      this.filePath = toAbsolutePath(filePath);
+      this.offsetOfChunkHeader = offsetOfChunkHeader;
+      this.pageIndex = pageIndex;
+    }
+
+    public String getFilePath() {
+      return filePath;
+    }
+
+    public long getOffsetOfChunkHeader() {
+      return offsetOfChunkHeader;
+    }
+
+    public int getPageIndex() {
+      return pageIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      PageKey that = (PageKey) o;
+      return offsetOfChunkHeader == that.offsetOfChunkHeader
+          && pageIndex == that.pageIndex
+          && filePath.equals(that.filePath);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(filePath, offsetOfChunkHeader, pageIndex);
+    }
+  }
+
+  private static class PageCacheHolder {
+
+    private static final PageCache INSTANCE =
+        new PageCache(TSFileDescriptor.getInstance().getConfig().getPageCacheSizeInByte());
+
+    private PageCacheHolder() {}
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.common.cache;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache bounded by the number of entries with the W-TinyLFU policy, which keeps a one-off scan
+ * from flushing the frequently accessed entries as {@link LRUCache} does.
+ *
+ * <p>New entries enter a small LRU window (1% of the capacity). An entry evicted from the window is
+ * admitted to the main space only if it is accessed more often than the entry the main space would
+ * evict, according to a {@link FrequencySketch} of the recent accesses. The main space is a
+ * segmented LRU: entries enter the probation segment and are promoted to the protected segment (80%
+ * of the main space) when they are accessed again.
+ */
+public abstract class WTinyLFUCache<K, T> implements Cache<K, T> {
+
+  private final int windowCapacity;
+  private final int mainCapacity;
+  private final int protectedCapacity;
+
+  private final LinkedHashMap<K, T> window = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<K, T> probation = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<K, T> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+  private final FrequencySketch<K> sketch;
+  private final CacheStats stats = new CacheStats();
+
+  protected WTinyLFUCache(int cacheSize) {
+    this.windowCapacity = Math.max(1, cacheSize / 100);
+    this.mainCapacity = Math.max(0, cacheSize - windowCapacity);
+    this.protectedCapacity = mainCapacity * 8 / 10;
+    this.sketch = new FrequencySketch<>(cacheSize);
+  }
+
+  @Override
+  public synchronized T get(K key) throws IOException {
+    sketch.increment(key);
+    T value = getIfPresent(key);
+    if (value != null) {
+      stats.recordHit();
+      return value;
+    }
+    stats.recordMiss();
+    value = loadObjectByKey(key);
+    if (value != null) {
+      add(key, value);
+    }
+    return value;
+  }
+
+  private T getIfPresent(K key) {
+    T value = window.get(key);
+    if (value != null) {
+      return value;
+    }
+    value = protectedSegment.get(key);
+    if (value != null) {
+      return value;
+    }
+    value = probation.remove(key);
+    if (value != null) {
+      // accessed again in the probation segment, so promote it
+      protectedSegment.put(key, value);
+      if (protectedSegment.size() > protectedCapacity) {
+        Map.Entry<K, T> demoted = pollEldest(protectedSegment);
+        probation.put(demoted.getKey(), demoted.getValue());
+      }
+    }
+    return value;
+  }
+
+  @Override
+  public synchronized boolean containsKey(K key) {
+    return window.containsKey(key)
+        || protectedSegment.containsKey(key)
+        || probation.containsKey(key);
+  }
+
+  @Override
+  public synchronized void put(K key, T value) {
+    sketch.increment(key);
+    if (window.containsKey(key)) {
+      window.put(key, value);
+    } else if (protectedSegment.containsKey(key)) {
+      protectedSegment.put(key, value);
+    } else if (probation.containsKey(key)) {
+      probation.put(key, value);
+    } else {
+      add(key, value);
+    }
+  }
+
+  private void add(K key, T value) {
+    window.put(key, value);
+    if (window.size() > windowCapacity) {
+      Map.Entry<K, T> candidate = pollEldest(window);
+      admit(candidate.getKey(), candidate.getValue());
+    }
+  }
+
+  /** Moves the candidate evicted from the window into the main space if it is worth it. */
+  private void admit(K candidateKey, T candidateValue) {
+    if (probation.size() + protectedSegment.size() < mainCapacity) {
+      probation.put(candidateKey, candidateValue);
+      return;
+    }
+    LinkedHashMap<K, T> victimSegment = probation.isEmpty() ? protectedSegment : probation;
+    if (victimSegment.isEmpty()) {
+      stats.recordRejection();
+      return;
+    }
+    K victimKey = victimSegment.keySet().iterator().next();
+    if (sketch.frequency(candidateKey) > sketch.frequency(victimKey)) {
+      victimSegment.remove(victimKey);
+      stats.recordEviction();
+      probation.put(candidateKey, candidateValue);
+    } else {
+      stats.recordRejection();
+    }
+  }
+
+  private static <K, T> Map.Entry<K, T> pollEldest(LinkedHashMap<K, T> segment) {
+    Iterator<Map.Entry<K, T>> iterator = segment.entrySet().iterator();
+    Map.Entry<K, T> eldest = iterator.next();
+    Map.Entry<K, T> result = new AbstractMap.SimpleImmutableEntry<>(eldest);
+    iterator.remove();
+    return result;
+  }
+
+  @Override
+  public synchronized void clear() {
+    window.clear();
+    probation.clear();
+    protectedSegment.clear();
+  }
+
+  public synchronized void removeItem(K key) {
+    if (window.remove(key) == null && protectedSegment.remove(key) == null) {
+      probation.remove(key);
+    }
+  }
+
+  public synchronized int size() {
+    return window.size() + probation.size() + protectedSegment.size();
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return stats;
+  }
+
+  protected abstract T loadObjectByKey(K key) throws IOException;
+}
@@ -0,0 +1,362 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.common.cache;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread safe LRU cache bounded by the total weight of its values, e.g. the retained size of
+ * chunks.
+ *
+ * <p>The entries are spread over several segments, each of which is an access-ordered map guarded
+ * by its own lock, so that threads looking up different keys rarely contend. When the total weight
+ * exceeds the capacity, the least recently used entries of the segment being written are evicted
+ * first, then those of the other segments. Values heavier than the whole capacity are not cached.
+ *
+ * <p>Concurrent misses of the same key are loaded only once: the first thread loads the value and
+ * the others wait for its result.
+ *
+ * <p>Optionally, new values are admitted with the TinyLFU policy: when the cache is full, a new
+ * value is cached only if its key is accessed more often recently than the key that would be
+ * evicted, so that a one-off scan cannot flush the frequently accessed values.
+ */
+public class WeightedLRUCache<K, V> implements Cache<K, V> {
+
+  private static final int SEGMENT_NUM = 16;
+
+  private final long capacity;
+  private final ToLongFunction<? super V> weigher;
+  private final CacheLoader<K, V> defaultLoader;
+
+  private final Segment<K, V>[] segments;
+  private final AtomicLong totalWeight = new AtomicLong();
+  private final Map<K, CompletableFuture<V>> loadingValues = new ConcurrentHashMap<>();
+
+  /** the recent access frequency of the keys, null if every new value is admitted */
+  private final FrequencySketch<K> sketch;
+
+  private final CacheStats stats = new CacheStats();
+
+  /** Loads the value of a key on a cache miss. */
+  @FunctionalInterface
+  public interface CacheLoader<K, V> {
+
+    V load(K key) throws IOException;
+  }
+
+  /**
+   * Creates a cache whose values can only be loaded by {@link #get(Object, CacheLoader)}, which is
+   * useful when the cache is shared by several loaders, e.g. readers of different files.
+   */
+  public WeightedLRUCache(long capacity, ToLongFunction<? super V> weigher) {
+    this(capacity, weigher, null);
+  }
+
+  public WeightedLRUCache(
+      long capacity, ToLongFunction<? super V> weigher, CacheLoader<K, V> defaultLoader) {
+    this(capacity, weigher, defaultLoader, 0);
+  }
+
+  /**
+   * @param expectedSize the expected number of values in the cache if new values are admitted with
+   *     the TinyLFU policy, or 0 if every new value is admitted
+   */
+  @SuppressWarnings("unchecked")
+  public WeightedLRUCache(
+      long capacity,
+      ToLongFunction<? super V> weigher,
+      CacheLoader<K, V> defaultLoader,
+      long expectedSize) {
+    this.capacity = capacity;
+    this.weigher = weigher;
+    this.defaultLoader = defaultLoader;
+    this.sketch = expectedSize > 0 ? new FrequencySketch<>(expectedSize) : null;
+    this.segments = new Segment[SEGMENT_NUM];
+    for (int i = 0; i < SEGMENT_NUM; i++) {
+      segments[i] = new Segment<>();
+    }
+  }
+
+  @Override
+  public V get(K key) throws IOException {
+    if (defaultLoader == null) {
+      throw new UnsupportedOperationException("The cache has no default loader");
+    }
+    return get(key, defaultLoader);
+  }
+
+  /**
+   * Gets the value of the key, loading it with the given loader if absent. A null value is returned
+   * but not cached.
+   */
+  public V get(K key, CacheLoader<? super K, ? extends V> loader) throws IOException {
+    if (sketch != null) {
+      sketch.increment(key);
+    }
+    V value = getIfPresent(key);
+    if (value != null) {
+      stats.recordHit();
+      return value;
+    }
+    stats.recordMiss();
+
+    CompletableFuture<V> future = new CompletableFuture<>();
+    CompletableFuture<V> loadingValue = loadingValues.putIfAbsent(key, future);
+    if (loadingValue != null) {
+      return waitFor(loadingValue);
+    }
+    try {
+      // the value may be put by another thread between the lookup and the registration
+      value = getIfPresent(key);
+      if (value == null) {
+        value = loader.load(key);
+        if (value != null) {
+          put(key, value);
+        }
+      }
+      future.complete(value);
+      return value;
+    } catch (Throwable t) {
+      future.completeExceptionally(t);
+      throw t;
+    } finally {
+      loadingValues.remove(key, future);
+    }
+  }
+
+  private V waitFor(CompletableFuture<V> loadingValue) throws IOException {
+    try {
+      return loadingValue.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the value being loaded", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  /** Returns the cached value of the key, or null if absent. */
+  public V getIfPresent(K key) {
+    return segmentFor(key).get(key);
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    return segmentFor(key).containsKey(key);
+  }
+
+  @Override
+  public void put(K key, V value) {
+    long weight = weigher.applyAsLong(value);
+    Segment<K, V> segment = segmentFor(key);
+    if (weight > capacity) {
+      totalWeight.addAndGet(-segment.remove(key));
+      return;
+    }
+    if (sketch != null
+        && totalWeight.get() + weight > capacity
+        && !segment.containsKey(key)
+        && !isWorthAdmitting(segment, key)) {
+      stats.recordRejection();
+      return;
+    }
+    totalWeight.addAndGet(weight - segment.put(key, value, weight));
+    evictIfNeeded(segment, key);
+  }
+
+  /** Whether the key is accessed more often than the key that would be evicted for it. */
+  private boolean isWorthAdmitting(Segment<K, V> firstSegment, K key) {
+    int start = indexOf(firstSegment);
+    for (int i = 0; i < SEGMENT_NUM; i++) {
+      K victimKey = segments[(start + i) % SEGMENT_NUM].peekEldest(key);
+      if (victimKey != null) {
+        return sketch.frequency(key) > sketch.frequency(victimKey);
+      }
+    }
+    return true;
+  }
+
+  private void evictIfNeeded(Segment<K, V> firstSegment, K keepKey) {
+    int start = indexOf(firstSegment);
+    for (int i = 0; i < SEGMENT_NUM && totalWeight.get() > capacity; i++) {
+      Segment<K, V> segment = segments[(start + i) % SEGMENT_NUM];
+      long evictedWeight;
+      while (totalWeight.get() > capacity && (evictedWeight = segment.evict(keepKey)) >= 0) {
+        totalWeight.addAndGet(-evictedWeight);
+        stats.recordEviction();
+      }
+    }
+  }
+
+  private int indexOf(Segment<K, V> segment) {
+    int index = 0;
+    while (index < SEGMENT_NUM && segments[index] != segment) {
+      index++;
+    }
+    return index;
+  }
+
+  public void remove(K key) {
+    totalWeight.addAndGet(-segmentFor(key).remove(key));
+  }
+
+  /** Removes all the entries whose keys match the predicate, e.g. those of a closed file. */
+  public void removeIf(Predicate<? super K> predicate) {
+    for (Segment<K, V> segment : segments) {
+      totalWeight.addAndGet(-segment.removeIf(predicate));
+    }
+  }
+
+  @Override
+  public void clear() {
+    for (Segment<K, V> segment : segments) {
+      totalWeight.addAndGet(-segment.clear());
+    }
+  }
+
+  public long size() {
+    long size = 0;
+    for (Segment<K, V> segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  /** The total weight of the cached values. */
+  public long weight() {
+    return totalWeight.get();
+  }
+
+  public long getCapacity() {
+    return capacity;
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return stats;
+  }
+
+  private Segment<K, V> segmentFor(K key) {
+    int hash = key.hashCode();
+    return segments[(hash ^ (hash >>> 16)) & (SEGMENT_NUM - 1)];
+  }
+
+  private static class Entry<V> {
+
+    private final V value;
+    private final long weight;
+
+    private Entry(V value, long weight) {
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+  /** An access-ordered map, all the methods returning weights return the weight removed. */
+  private static class Segment<K, V> {
+
+    private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+
+    private synchronized V get(K key) {
+      Entry<V> entry = map.get(key);
+      return entry == null ? null : entry.value;
+    }
+
+    private synchronized boolean containsKey(K key) {
+      return map.containsKey(key);
+    }
+
+    private synchronized long put(K key, V value, long weight) {
+      Entry<V> previous = map.put(key, new Entry<>(value, weight));
+      return previous == null ? 0 : previous.weight;
+    }
+
+    private synchronized long remove(K key) {
+      Entry<V> previous = map.remove(key);
+      return previous == null ? 0 : previous.weight;
+    }
+
+    /** Returns the least recently used key except the given one, or null if there is none. */
+    private synchronized K peekEldest(K keepKey) {
+      for (K key : map.keySet()) {
+        if (!key.equals(keepKey)) {
+          return key;
+        }
+      }
+      return null;
+    }
+
+    /** Evicts the least recently used entry except the given key, returns -1 if none evicted. */
+    private synchronized long evict(K keepKey) {
+      Iterator<Map.Entry<K, Entry<V>>> iterator = map.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<K, Entry<V>> eldest = iterator.next();
+        if (!eldest.getKey().equals(keepKey)) {
+          iterator.remove();
+          return eldest.getValue().weight;
+        }
+      }
+      return -1;
+    }
+
+    private synchronized long removeIf(Predicate<? super K> predicate) {
+      long removedWeight = 0;
+      Iterator<Map.Entry<K, Entry<V>>> iterator = map.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<K, Entry<V>> entry = iterator.next();
+        if (predicate.test(entry.getKey())) {
+          removedWeight += entry.getValue().weight;
+          iterator.remove();
+        }
+      }
+      return removedWeight;
+    }
+
+    private synchronized long clear() {
+      long removedWeight = 0;
+      for (Entry<V> entry : map.values()) {
+        removedWeight += entry.weight;
+      }
+      map.clear();
+      return removedWeight;
+    }
+
+    private synchronized int size() {
+      return map.size();
+    }
+  }
+}
@@ -104,8 +104,8 @@ public class TSFileConfig implements Serializable {
   private int floatPrecision = 2;
 
   /**
-   * Encoder of time column, TsFile supports TS_2DIFF, PLAIN and RLE(run-length encoding) Default
-   * value is TS_2DIFF.
+   * Encoder of time column, TsFile supports TS_2DIFF, PFOR, PLAIN and RLE(run-length encoding)
+   * Default value is TS_2DIFF.
    */
   private String timeEncoding = "TS_2DIFF";
 
@@ -144,7 +144,13 @@ public class TSFileConfig implements Serializable {
   /** encryptKey, this should be 16 bytes String. */
   private String encryptKey = "abcdefghijklmnop";
 
-  /** default encryptType is "UNENCRYPTED", TsFile supports UNENCRYPTED, SM4128 or AES128. */
+  /**
+   * default encryptType is "UNENCRYPTED", TsFile supports UNENCRYPTED, SM4128, AES128 or
+   * AES128_OFFSET_IV. AES128 encrypts every page with the same keystream. AES128_OFFSET_IV derives
+   * the IV of a page from its position in the file, but two files encrypted by the same key still
+   * share the keystream at the same positions, so the key should not be shared by files whose
+   * contents must not be compared.
+   */
   private EncryptionType encryptType = EncryptionType.UNENCRYPTED;
 
   /** Line count threshold for checking page memory occupied size. */
@@ -219,6 +225,138 @@ public class TSFileConfig implements Serializable {
 
   private String objectStorageTsFileOutput = "org.apache.iotdb.os.fileSystem.OSTsFileOutput";
 
+  /**
+   * Whether local TsFiles are read through memory mapping, in which case chunk data is served as
+   * views of the mapping rather than copied into the heap. Only suitable for sealed TsFiles.
+   */
+  private boolean memoryMappedReadEnabled = false;
+
+  /**
+   * When reading a batch of chunks, two neighbouring ranges are read at once if the gap between
+   * them is no larger than this, default value is 512KB.
+   */
+  private int coalescedReadMaxGapInByte = 512 * 1024;
+
+  /** The max size of a range that merges several ranges of a batch read, default value is 16MB. */
+  private int coalescedReadMaxSizeInByte = 16 * 1024 * 1024;
+
+  /**
+   * The max number of upcoming chunks a series reader loads in the background while the current
+   * chunk is being decoded, 0 means chunk prefetch is disabled.
+   */
+  private int chunkPrefetchDepth = 0;
+
+  /** The max size of the prefetched chunks a series reader holds, default value is 64MB. */
+  private long chunkPrefetchMemoryBudgetInByte = 64L * 1024 * 1024;
+
+  /** The number of threads shared by all series readers to prefetch chunks. */
+  private int chunkPrefetchThreadNum = 4;
+
+  /** The max retained size of the chunks cached by a chunk loader, default value is 64MB. */
+  private long chunkCacheSizeInByte = 64L * 1024 * 1024;
+
+  /**
+   * Whether the readers put the blocks they read from a TsFile, e.g. the metadata index nodes, the
+   * timeseries metadata and the chunk bodies, into the process-wide block cache by default.
+   */
+  private boolean blockCacheEnabled = false;
+
+  /** The max size of the process-wide block cache, default value is 256MB. */
+  private long blockCacheSizeInByte = 256L * 1024 * 1024;
+
+  /**
+   * The policy of the chunk metadata cache, the chunk cache, the block cache and the page cache,
+   * LRU or TINY_LFU. With TINY_LFU, a new entry is cached only if it is accessed more often
+   * recently than the entry it would evict, which keeps one-off scans from flushing the hot
+   * entries.
+   */
+  private String cachePolicy = "LRU";
+
+  /**
+   * Whether the readers put the decompressed and decrypted pages into the process-wide page cache,
+   * so that the pages read again are not decompressed again.
+   */
+  private boolean pageCacheEnabled = false;
+
+  /** The max size of the process-wide page cache, default value is 128MB. */
+  private long pageCacheSizeInByte = 128L * 1024 * 1024;
+
+  /**
+   * The max memory taken by the pooled buffers holding the decompressed page data, 0 means the
+   * buffers are not pooled, which is the default.
+   */
+  private long bufferPoolSizeInByte = 0;
+
+  /** The largest buffer to be pooled, larger ones are allocated on demand. Default value is 4MB. */
+  private int bufferPoolMaxBufferSizeInByte = 4 * 1024 * 1024;
+
+  /** The max number of the readers kept opened by the process-wide TsFileReaderManager. */
+  private int readerManagerMaxOpenFileNum = 1000;
+
+  /**
+   * Whether the chunk writers choose the value encoding of each chunk from the data of its first
+   * page instead of using the encoding of the schema.
+   */
+  private boolean encodingAdvisorEnabled = false;
+
+  /**
+   * What the encoding advisor optimizes for, SIZE for the smallest encoded data or DECODE_TIME for
+   * the fastest decoding.
+   */
+  private String encodingAdvisorObjective = "SIZE";
+
+  /**
+   * Whether the decoders use the kernels of the optional vector module, which needs JDK 17+ with
+   * {@code --add-modules jdk.incubator.vector}. The scalar kernels are used if the module cannot be
+   * loaded.
+   */
+  private boolean vectorDecodeEnabled = false;
+
+  /**
+   * The max size of the dictionary of a chunk encoded by CHUNK_DICTIONARY. A chunk whose dictionary
+   * grows larger is encoded by PLAIN instead. Default value is 1MB.
+   */
+  private int chunkDictionaryMaxSizeInByte = 1024 * 1024;
+
+  /**
+   * The compression level of ZSTD, which can be overridden by the props of a measurement. The max
+   * level 22 compresses only a little better than the default level 3 but is many times slower.
+   */
+  private int zstdCompressionLevel = 3;
+
+  /**
+   * The max size of the dictionary trained for a chunk compressed by ZSTD_DICTIONARY. The
+   * dictionary is stored in front of the pages of the chunk, so it only pays off for a chunk of
+   * many small pages. Default value is 4KB.
+   */
+  private int zstdDictionaryMaxSizeInByte = 4 * 1024;
+
+  /**
+   * The number of threads shared by all chunk writers to compress and encrypt the sealed pages in
+   * the background, 0 means the pages are compressed in the thread of the writer.
+   */
+  private int pageCompressionThreadNum = 0;
+
+  /**
+   * The comma separated compressions the chunk writers choose from for each chunk, e.g.
+   * UNCOMPRESSED,LZ4,SNAPPY,ZSTD:1,ZSTD:9 where the number after a colon is the compression level
+   * of ZSTD. The choice is made from the first page of the chunk. Empty means every chunk uses the
+   * compression of its schema.
+   */
+  private String compressionAdvisorCandidates = "";
+
+  /**
+   * What the compression advisor optimizes for, SIZE for the smallest compressed data or SPEED for
+   * the fastest decompression which still saves enough space.
+   */
+  private String compressionAdvisorObjective = "SPEED";
+
+  /**
+   * With the objective SPEED, the ratio of the size a compression should save compared with a
+   * faster one to be chosen.
+   */
+  private double compressionAdvisorMinGain = 0.1;
+
   /** customizedProperties, this should be empty by default. */
   private Properties customizedProperties = new Properties();
 
@@ -611,4 +749,208 @@ public class TSFileConfig implements Serializable {
   public void setObjectStorageTsFileOutput(String objectStorageTsFileOutput) {
     this.objectStorageTsFileOutput = objectStorageTsFileOutput;
   }
+
+  public boolean isMemoryMappedReadEnabled() {
+    return memoryMappedReadEnabled;
+  }
+
+  public void setMemoryMappedReadEnabled(boolean memoryMappedReadEnabled) {
+    this.memoryMappedReadEnabled = memoryMappedReadEnabled;
+  }
+
+  public int getCoalescedReadMaxGapInByte() {
+    return coalescedReadMaxGapInByte;
+  }
+
+  public void setCoalescedReadMaxGapInByte(int coalescedReadMaxGapInByte) {
+    this.coalescedReadMaxGapInByte = coalescedReadMaxGapInByte;
+  }
+
+  public int getCoalescedReadMaxSizeInByte() {
+    return coalescedReadMaxSizeInByte;
+  }
+
+  public void setCoalescedReadMaxSizeInByte(int coalescedReadMaxSizeInByte) {
+    this.coalescedReadMaxSizeInByte = coalescedReadMaxSizeInByte;
+  }
+
+  public int getChunkPrefetchDepth() {
+    return chunkPrefetchDepth;
+  }
+
+  public void setChunkPrefetchDepth(int chunkPrefetchDepth) {
+    this.chunkPrefetchDepth = chunkPrefetchDepth;
+  }
+
+  public long getChunkPrefetchMemoryBudgetInByte() {
+    return chunkPrefetchMemoryBudgetInByte;
+  }
+
+  public void setChunkPrefetchMemoryBudgetInByte(long chunkPrefetchMemoryBudgetInByte) {
+    this.chunkPrefetchMemoryBudgetInByte = chunkPrefetchMemoryBudgetInByte;
+  }
+
+  public int getChunkPrefetchThreadNum() {
+    return chunkPrefetchThreadNum;
+  }
+
+  public void setChunkPrefetchThreadNum(int chunkPrefetchThreadNum) {
+    this.chunkPrefetchThreadNum = chunkPrefetchThreadNum;
+  }
+
+  public long getChunkCacheSizeInByte() {
+    return chunkCacheSizeInByte;
+  }
+
+  public void setChunkCacheSizeInByte(long chunkCacheSizeInByte) {
+    this.chunkCacheSizeInByte = chunkCacheSizeInByte;
+  }
+
+  public boolean isBlockCacheEnabled() {
+    return blockCacheEnabled;
+  }
+
+  public void setBlockCacheEnabled(boolean blockCacheEnabled) {
+    this.blockCacheEnabled = blockCacheEnabled;
+  }
+
+  public long getBlockCacheSizeInByte() {
+    return blockCacheSizeInByte;
+  }
+
+  public void setBlockCacheSizeInByte(long blockCacheSizeInByte) {
+    this.blockCacheSizeInByte = blockCacheSizeInByte;
+  }
+
+  public String getCachePolicy() {
+    return cachePolicy;
+  }
+
+  public void setCachePolicy(String cachePolicy) {
+    this.cachePolicy = cachePolicy;
+  }
+
+  public boolean isTinyLfuCachePolicy() {
+    return "TINY_LFU".equals(cachePolicy);
+  }
+
+  public boolean isPageCacheEnabled() {
+    return pageCacheEnabled;
+  }
+
+  public void setPageCacheEnabled(boolean pageCacheEnabled) {
+    this.pageCacheEnabled = pageCacheEnabled;
+  }
+
+  public long getPageCacheSizeInByte() {
+    return pageCacheSizeInByte;
+  }
+
+  public void setPageCacheSizeInByte(long pageCacheSizeInByte) {
+    this.pageCacheSizeInByte = pageCacheSizeInByte;
+  }
+
+  public long getBufferPoolSizeInByte() {
+    return bufferPoolSizeInByte;
+  }
+
+  public void setBufferPoolSizeInByte(long bufferPoolSizeInByte) {
+    this.bufferPoolSizeInByte = bufferPoolSizeInByte;
+  }
+
+  public int getBufferPoolMaxBufferSizeInByte() {
+    return bufferPoolMaxBufferSizeInByte;
+  }
+
+  public void setBufferPoolMaxBufferSizeInByte(int bufferPoolMaxBufferSizeInByte) {
+    this.bufferPoolMaxBufferSizeInByte = bufferPoolMaxBufferSizeInByte;
+  }
+
+  public int getReaderManagerMaxOpenFileNum() {
+    return readerManagerMaxOpenFileNum;
+  }
+
+  public void setReaderManagerMaxOpenFileNum(int readerManagerMaxOpenFileNum) {
+    this.readerManagerMaxOpenFileNum = readerManagerMaxOpenFileNum;
+  }
+
+  public boolean isEncodingAdvisorEnabled() {
+    return encodingAdvisorEnabled;
+  }
+
+  public void setEncodingAdvisorEnabled(boolean encodingAdvisorEnabled) {
+    this.encodingAdvisorEnabled = encodingAdvisorEnabled;
+  }
+
+  public String getEncodingAdvisorObjective() {
+    return encodingAdvisorObjective;
+  }
+
+  public void setEncodingAdvisorObjective(String encodingAdvisorObjective) {
+    this.encodingAdvisorObjective = encodingAdvisorObjective;
+  }
+
+  public boolean isVectorDecodeEnabled() {
+    return vectorDecodeEnabled;
+  }
+
+  public void setVectorDecodeEnabled(boolean vectorDecodeEnabled) {
+    this.vectorDecodeEnabled = vectorDecodeEnabled;
+  }
+
+  public int getChunkDictionaryMaxSizeInByte() {
+    return chunkDictionaryMaxSizeInByte;
+  }
+
+  public void setChunkDictionaryMaxSizeInByte(int chunkDictionaryMaxSizeInByte) {
+    this.chunkDictionaryMaxSizeInByte = chunkDictionaryMaxSizeInByte;
+  }
+
+  public int getZstdCompressionLevel() {
+    return zstdCompressionLevel;
+  }
+
+  public void setZstdCompressionLevel(int zstdCompressionLevel) {
+    this.zstdCompressionLevel = zstdCompressionLevel;
+  }
+
+  public int getZstdDictionaryMaxSizeInByte() {
+    return zstdDictionaryMaxSizeInByte;
+  }
+
+  public void setZstdDictionaryMaxSizeInByte(int zstdDictionaryMaxSizeInByte) {
+    this.zstdDictionaryMaxSizeInByte = zstdDictionaryMaxSizeInByte;
+  }
+
+  public int getPageCompressionThreadNum() {
+    return pageCompressionThreadNum;
+  }
+
+  public void setPageCompressionThreadNum(int pageCompressionThreadNum) {
+    this.pageCompressionThreadNum = pageCompressionThreadNum;
+  }
+
+  public String getCompressionAdvisorCandidates() {
+    return compressionAdvisorCandidates;
+  }
+
+  public void setCompressionAdvisorCandidates(String compressionAdvisorCandidates) {
+    this.compressionAdvisorCandidates = compressionAdvisorCandidates;
+  }
+
+  public String getCompressionAdvisorObjective() {
+    return compressionAdvisorObjective;
+  }
+
+  public void setCompressionAdvisorObjective(String compressionAdvisorObjective) {
+    this.compressionAdvisorObjective = compressionAdvisorObjective;
+  }
+
+  public double getCompressionAdvisorMinGain() {
+    return compressionAdvisorMinGain;
+  }
+
+  public void setCompressionAdvisorMinGain(double compressionAdvisorMinGain) {
+    this.compressionAdvisorMinGain = compressionAdvisorMinGain;
+  }
 }
@@ -81,10 +81,36 @@ public class TSFileDescriptor {
     writer.setInt(conf::setFloatPrecision, "float_precision");
     writer.setString(conf::setValueEncoder, "value_encoder");
     writer.setString(conf::setCompressor, "compressor");
+    writer.setInt(conf::setChunkDictionaryMaxSizeInByte, "chunk_dictionary_max_size_in_byte");
+    writer.setInt(conf::setZstdCompressionLevel, "zstd_compression_level");
+    writer.setInt(conf::setZstdDictionaryMaxSizeInByte, "zstd_dictionary_max_size_in_byte");
+    writer.setInt(conf::setPageCompressionThreadNum, "page_compression_thread_num");
+    writer.setString(conf::setCompressionAdvisorCandidates, "compression_advisor_candidates");
+    writer.setString(conf::setCompressionAdvisorObjective, "compression_advisor_objective");
+    writer.setDouble(conf::setCompressionAdvisorMinGain, "compression_advisor_min_gain");
     writer.setInt(conf::setBatchSize, "batch_size");
     writer.setString(conf::setEncryptFlag, "encrypt_flag");
     writer.setString(conf::setEncryptType, "encrypt_type");
     writer.setString(conf::setEncryptKeyFromPath, "encrypt_key_path");
+    writer.setBoolean(conf::setMemoryMappedReadEnabled, "memory_mapped_read_enabled");
+    writer.setInt(conf::setCoalescedReadMaxGapInByte, "coalesced_read_max_gap_in_byte");
+    writer.setInt(conf::setCoalescedReadMaxSizeInByte, "coalesced_read_max_size_in_byte");
+    writer.setInt(conf::setChunkPrefetchDepth, "chunk_prefetch_depth");
+    writer.setLong(
+        conf::setChunkPrefetchMemoryBudgetInByte, "chunk_prefetch_memory_budget_in_byte");
+    writer.setInt(conf::setChunkPrefetchThreadNum, "chunk_prefetch_thread_num");
+    writer.setLong(conf::setChunkCacheSizeInByte, "chunk_cache_size_in_byte");
+    writer.setBoolean(conf::setBlockCacheEnabled, "block_cache_enabled");
+    writer.setLong(conf::setBlockCacheSizeInByte, "block_cache_size_in_byte");
+    writer.setString(conf::setCachePolicy, "cache_policy");
+    writer.setBoolean(conf::setPageCacheEnabled, "page_cache_enabled");
+    writer.setLong(conf::setPageCacheSizeInByte, "page_cache_size_in_byte");
+    writer.setLong(conf::setBufferPoolSizeInByte, "buffer_pool_size_in_byte");
+    writer.setInt(conf::setBufferPoolMaxBufferSizeInByte, "buffer_pool_max_buffer_size_in_byte");
+    writer.setInt(conf::setReaderManagerMaxOpenFileNum, "reader_manager_max_open_file_num");
+    writer.setBoolean(conf::setEncodingAdvisorEnabled, "encoding_advisor_enabled");
+    writer.setString(conf::setEncodingAdvisorObjective, "encoding_advisor_objective");
+    writer.setBoolean(conf::setVectorDecodeEnabled, "vector_decode_enabled");
   }
 
   private static class PropertiesOverWriter {
@@ -102,10 +128,18 @@ public class TSFileDescriptor {
       set(setter, propertyKey, Integer::parseInt);
     }
 
+    public void setLong(Consumer<Long> setter, String propertyKey) {
+      set(setter, propertyKey, Long::parseLong);
+    }
+
     public void setDouble(Consumer<Double> setter, String propertyKey) {
       set(setter, propertyKey, Double::parseDouble);
     }
 
+    public void setBoolean(Consumer<Boolean> setter, String propertyKey) {
+      set(setter, propertyKey, Boolean::parseBoolean);
+    }
+
     public void setString(Consumer<String> setter, String propertyKey) {
       set(setter, propertyKey, Function.identity());
     }
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.compress;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CompressionAdvisor chooses the compression of a chunk from a sample of its data, i.e. the
+ * uncompressed data of its first page.
+ *
+ * <p>The sample is trial-compressed with every candidate, and decompressed again to measure the
+ * decompression time. With the objective {@link Objective#SIZE}, the advisor picks the candidate
+ * with the smallest compressed size. With {@link Objective#SPEED}, it starts from the candidate
+ * decompressing the fastest, and only moves to a slower one if that shrinks the sample by at least
+ * {@code minGain} of the current choice. So the high-entropy data, e.g. the noisy FLOAT values,
+ * which hardly shrink, stays uncompressed instead of paying the decompression on every read.
+ */
+public class CompressionAdvisor {
+
+  private static final Logger logger = LoggerFactory.getLogger(CompressionAdvisor.class);
+
+  /** the sample is decompressed several times and the shortest time counts, to reduce the noise */
+  private static final int DECOMPRESSION_ROUNDS = 3;
+
+  /** What the advisor optimizes for. */
+  public enum Objective {
+    /** the smallest compressed size. */
+    SIZE,
+    /** the fastest decompression which still saves enough space. */
+    SPEED
+  }
+
+  private final List<ICompressor> candidates;
+  private final Objective objective;
+  private final double minGain;
+
+  /**
+   * @param candidates the candidates, in the order of preference if two of them score the same
+   * @param minGain the ratio of the size a slower candidate should save to be chosen with the
+   *     objective {@link Objective#SPEED}
+   */
+  public CompressionAdvisor(List<ICompressor> candidates, Objective objective, double minGain) {
+    if (candidates.isEmpty()) {
+      throw new IllegalArgumentException("There should be at least one candidate compression");
+    }
+    this.candidates = candidates;
+    this.objective = objective;
+    this.minGain = minGain;
+  }
+
+  /**
+   * @return the advisor configured by {@link TSFileConfig#getCompressionAdvisorCandidates()}, or
+   *     null if the advisor is disabled
+   */
+  public static CompressionAdvisor getAdvisor(TSFileConfig config) {
+    String candidates = config.getCompressionAdvisorCandidates();
+    if (candidates == null || candidates.trim().isEmpty()) {
+      return null;
+    }
+    return new CompressionAdvisor(
+        parseCandidates(candidates),
+        Objective.valueOf(config.getCompressionAdvisorObjective()),
+        config.getCompressionAdvisorMinGain());
+  }
+
+  /**
+   * Parses the comma separated candidates, e.g. {@code UNCOMPRESSED,LZ4,ZSTD:1,ZSTD:9}, where the
+   * number after a colon is the compression level of ZSTD.
+   */
+  public static List<ICompressor> parseCandidates(String candidates) {
+    List<ICompressor> compressors = new ArrayList<>();
+    for (String candidate : candidates.split(",")) {
+      candidate = candidate.trim();
+      if (candidate.isEmpty()) {
+        continue;
+      }
+      int separator = candidate.indexOf(':');
+      if (separator < 0) {
+        compressors.add(ICompressor.getCompressor(CompressionType.valueOf(candidate)));
+      } else if (CompressionType.valueOf(candidate.substring(0, separator).trim())
+          == CompressionType.ZSTD) {
+        compressors.add(
+            new ICompressor.ZstdCompressor(
+                Integer.parseInt(candidate.substring(separator + 1).trim())));
+      } else {
+        throw new IllegalArgumentException(
+            "Only ZSTD supports a compression level, but got " + candidate);
+      }
+    }
+    return compressors;
+  }
+
+  public Objective getObjective() {
+    return objective;
+  }
+
+  /**
+   * Chooses the compressor of the sample, which is one of the candidates.
+   *
+   * @param sample the uncompressed data, whose position is not changed
+   */
+  public ICompressor advise(ByteBuffer sample) {
+    byte[] data = new byte[sample.remaining()];
+    sample.duplicate().get(data);
+
+    List<Trial> trials = new ArrayList<>(candidates.size());
+    for (ICompressor candidate : candidates) {
+      try {
+        trials.add(trial(candidate, data));
+      } catch (IOException | RuntimeException e) {
+        // the candidate fails on the sample
+        logger.debug("skip compression {}: {}", candidate.getType(), e.getMessage());
+      }
+    }
+    if (trials.isEmpty()) {
+      return candidates.get(0);
+    }
+
+    Trial best = trials.get(0);
+    if (objective == Objective.SIZE) {
+      for (Trial trial : trials) {
+        if (trial.size < best.size) {
+          best = trial;
+        }
+      }
+    } else {
+      // stable, so the candidates decompressing equally fast keep their order of preference
+      trials.sort((a, b) -> Long.compare(a.decompressTime, b.decompressTime));
+      best = trials.get(0);
+      for (Trial trial : trials) {
+        if (trial.size <= best.size * (1 - minGain)) {
+          best = trial;
+        }
+      }
+    }
+    return best.compressor;
+  }
+
+  private static Trial trial(ICompressor compressor, byte[] data) throws IOException {
+    if (compressor.getType() == CompressionType.UNCOMPRESSED) {
+      // the page data is read as it is
+      return new Trial(compressor, data.length, 0);
+    }
+    byte[] compressed = compressor.compress(data, 0, data.length);
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(compressor.getType());
+    byte[] uncompressed = new byte[data.length];
+    long decompressTime = Long.MAX_VALUE;
+    for (int i = 0; i < DECOMPRESSION_ROUNDS; i++) {
+      long startTime = System.nanoTime();
+      unCompressor.uncompress(compressed, 0, compressed.length, uncompressed, 0);
+      decompressTime = Math.min(decompressTime, System.nanoTime() - startTime);
+    }
+    if (!Arrays.equals(data, uncompressed)) {
+      throw new IOException("The decompressed data is different from the sample");
+    }
+    return new Trial(compressor, compressed.length, decompressTime);
+  }
+
+  private static class Trial {
+
+    private final ICompressor compressor;
+    private final int size;
+    private final long decompressTime;
+
+    private Trial(ICompressor compressor, int size, long decompressTime) {
+      this.compressor = compressor;
+      this.size = size;
+      this.decompressTime = decompressTime;
+    }
+  }
+}
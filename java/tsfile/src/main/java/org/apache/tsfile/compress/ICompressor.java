@@ -19,11 +19,17 @@
 
 package org.apache.tsfile.compress;
 
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.encrypt.IEncryptor;
 import org.apache.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.tsfile.exception.compress.GZIPCompressOverflowException;
 import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.EncryptionType;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
 
 import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDictCompress;
 import net.jpountz.lz4.LZ4Factory;
 import org.tukaani.xz.LZMA2Options;
 import org.tukaani.xz.XZInputStream;
@@ -35,6 +41,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -43,6 +52,7 @@ import static org.apache.tsfile.file.metadata.enums.CompressionType.LZ4;
 import static org.apache.tsfile.file.metadata.enums.CompressionType.LZMA2;
 import static org.apache.tsfile.file.metadata.enums.CompressionType.SNAPPY;
 import static org.apache.tsfile.file.metadata.enums.CompressionType.ZSTD;
+import static org.apache.tsfile.file.metadata.enums.CompressionType.ZSTD_DICTIONARY;
 
 /** compress data according to type in schema. */
 public interface ICompressor extends Serializable {
@@ -71,6 +81,8 @@ public interface ICompressor extends Serializable {
       case GZIP:
         return new GZIPCompressor();
       case ZSTD:
+        // the chunk writers train the dictionary of ZSTD_DICTIONARY from the pages of each chunk
+      case ZSTD_DICTIONARY:
         return new ZstdCompressor();
       case LZMA2:
         return new LZMA2Compressor();
@@ -79,6 +91,23 @@ public interface ICompressor extends Serializable {
     }
   }
 
+  /**
+   * get Compressor according to CompressionType and the props of a measurement, which may carry the
+   * settings of the compressor, e.g. {@link ZstdCompressor#COMPRESSION_LEVEL}.
+   *
+   * @param name CompressionType
+   * @param props the props of the measurement, nullable
+   * @return the Compressor of specified CompressionType
+   */
+  static ICompressor getCompressor(CompressionType name, Map<String, String> props) {
+    if ((name == ZSTD || name == ZSTD_DICTIONARY)
+        && props != null
+        && props.containsKey(ZstdCompressor.COMPRESSION_LEVEL)) {
+      return new ZstdCompressor(Integer.parseInt(props.get(ZstdCompressor.COMPRESSION_LEVEL)));
+    }
+    return getCompressor(name);
+  }
+
   byte[] compress(byte[] data) throws IOException;
 
   /**
@@ -106,6 +135,37 @@ public interface ICompressor extends Serializable {
    */
   int compress(ByteBuffer data, ByteBuffer compressed) throws IOException;
 
+  /**
+   * Compress the remaining bytes of {@code data} into {@code compressed} from its position, the
+   * positions of both buffers are not changed. Unlike {@link #compress(ByteBuffer, ByteBuffer)},
+   * the buffers can be heap or direct buffers in any combination: the codecs that {@link
+   * #supportDirectBuffer() support direct buffers} compress direct memory in place, the others copy
+   * it through heap arrays. {@code compressed} should have at least {@link
+   * #getMaxBytesForCompression(int)} bytes remaining.
+   *
+   * @return the compressed size
+   */
+  default int compressBuffer(ByteBuffer data, ByteBuffer compressed) throws IOException {
+    byte[] result;
+    if (data.hasArray()) {
+      result = compress(data.array(), data.arrayOffset() + data.position(), data.remaining());
+    } else {
+      byte[] input = new byte[data.remaining()];
+      data.duplicate().get(input);
+      result = compress(input, 0, input.length);
+    }
+    compressed.duplicate().put(result);
+    return result.length;
+  }
+
+  /**
+   * Whether {@link #compressBuffer(ByteBuffer, ByteBuffer)} compresses a direct buffer into a
+   * direct buffer without copying any of them into the heap.
+   */
+  default boolean supportDirectBuffer() {
+    return false;
+  }
+
   /**
    * Get the maximum byte size needed for compressing data of the given byte size. For GZIP, this
    * method is insecure and may cause {@code GZIPCompressOverflowException}
@@ -185,6 +245,27 @@ public interface ICompressor extends Serializable {
       return Snappy.compress(data, compressed);
     }
 
+    @Override
+    public int compressBuffer(ByteBuffer data, ByteBuffer compressed) throws IOException {
+      if (data.isDirect() && compressed.isDirect()) {
+        return Snappy.compress(data.duplicate(), compressed.duplicate());
+      }
+      if (data.hasArray() && compressed.hasArray()) {
+        return Snappy.compress(
+            data.array(),
+            data.arrayOffset() + data.position(),
+            data.remaining(),
+            compressed.array(),
+            compressed.arrayOffset() + compressed.position());
+      }
+      return ICompressor.super.compressBuffer(data, compressed);
+    }
+
+    @Override
+    public boolean supportDirectBuffer() {
+      return true;
+    }
+
     @Override
     public int getMaxBytesForCompression(int uncompressedDataSize) {
       return Snappy.maxCompressedLength(uncompressedDataSize);
@@ -238,6 +319,19 @@ public interface ICompressor extends Serializable {
       return compressed.position() - startPosition;
     }
 
+    @Override
+    public int compressBuffer(ByteBuffer data, ByteBuffer compressed) {
+      // heap and direct buffers are both compressed in place
+      ByteBuffer output = compressed.duplicate();
+      compressor.compress(data.duplicate(), output);
+      return output.position() - compressed.position();
+    }
+
+    @Override
+    public boolean supportDirectBuffer() {
+      return true;
+    }
+
     @Override
     public int getMaxBytesForCompression(int uncompressedDataSize) {
       return compressor.maxCompressedLength(uncompressedDataSize);
@@ -334,18 +428,119 @@ public interface ICompressor extends Serializable {
     }
   }
 
+  /**
+   * The compression level is taken from {@link
+   * org.apache.tsfile.common.conf.TSFileConfig#getZstdCompressionLevel()} unless it is given. The
+   * native compression context is reused by all the compressors of a thread instead of being
+   * allocated for every page.
+   *
+   * <p>A compressor created with a dictionary, e.g. one trained by {@link #trainDictionary(List,
+   * int)} from the first pages of a chunk, compresses small pages much better, but the data can
+   * only be uncompressed by a {@link IUnCompressor.ZstdUnCompressor} with the same dictionary. Its
+   * type is {@link CompressionType#ZSTD_DICTIONARY}, and the chunk writers store the dictionary in
+   * front of the pages by {@link #writeDictionary(IEncryptor, ByteArrayOutputStream)}.
+   */
   class ZstdCompressor implements ICompressor {
 
-    private int compressionLevel;
+    /** the key of the measurement props to set the compression level of a series. */
+    public static final String COMPRESSION_LEVEL = "zstd_compression_level";
+
+    /**
+     * the max ratio of the size of the samples to the size of the dictionary to train, zstd
+     * recommends samples of about 100 times the size of the dictionary.
+     */
+    public static final int DICTIONARY_SAMPLE_RATIO = 100;
+
+    private static final ThreadLocal<ZstdCompressCtx> COMPRESS_CONTEXT =
+        ThreadLocal.withInitial(ZstdCompressCtx::new);
+
+    private final int compressionLevel;
+
+    private final byte[] dictionary;
+
+    /** the dictionary digested for the compression level, created on first use. */
+    private transient ZstdDictCompress digestedDictionary;
 
     public ZstdCompressor() {
+      this(TSFileDescriptor.getInstance().getConfig().getZstdCompressionLevel());
+    }
+
+    public ZstdCompressor(int compressionLevel) {
+      this(compressionLevel, null);
+    }
+
+    public ZstdCompressor(int compressionLevel, byte[] dictionary) {
       super();
-      compressionLevel = Zstd.maxCompressionLevel();
+      this.compressionLevel = compressionLevel;
+      this.dictionary = dictionary;
+    }
+
+    public int getCompressionLevel() {
+      return compressionLevel;
+    }
+
+    /** null if the data is compressed without a dictionary. */
+    public byte[] getDictionary() {
+      return dictionary;
+    }
+
+    /**
+     * Writes the dictionary of this compressor as the dictionary block in front of the pages of a
+     * chunk compressed by {@link CompressionType#ZSTD_DICTIONARY}, which is read by {@link
+     * IUnCompressor.ZstdUnCompressor#readDictionary(ByteBuffer,
+     * org.apache.tsfile.encrypt.IDecryptor)}. The block is encrypted like the pages but not
+     * compressed.
+     *
+     * <pre>dictionary block := <dictionary size> <stored size> <stored dictionary></pre>
+     *
+     * @return the size of the dictionary block
+     */
+    public int writeDictionary(IEncryptor encryptor, ByteArrayOutputStream out) throws IOException {
+      byte[] stored = dictionary;
+      if (encryptor.getEncryptionType() != EncryptionType.UNENCRYPTED) {
+        stored = encryptor.encrypt(dictionary, 0, dictionary.length);
+      }
+      int size = ReadWriteForEncodingUtils.writeUnsignedVarInt(dictionary.length, out);
+      size += ReadWriteForEncodingUtils.writeUnsignedVarInt(stored.length, out);
+      out.write(stored, 0, stored.length);
+      return size + stored.length;
+    }
+
+    /**
+     * Trains a dictionary from the samples, e.g. the uncompressed first pages of a series.
+     *
+     * @param samples the samples to train the dictionary from
+     * @param dictionarySize the max size of the dictionary
+     * @return the trained dictionary
+     * @throws IOException if the samples are not enough to train a dictionary
+     */
+    public static byte[] trainDictionary(List<byte[]> samples, int dictionarySize)
+        throws IOException {
+      byte[] dictionary = new byte[dictionarySize];
+      long size = Zstd.trainFromBuffer(samples.toArray(new byte[0][]), dictionary);
+      if (Zstd.isError(size)) {
+        throw new IOException("Failed to train the zstd dictionary: " + Zstd.getErrorName(size));
+      }
+      return size == dictionarySize ? dictionary : Arrays.copyOf(dictionary, (int) size);
+    }
+
+    private ZstdCompressCtx getContext() {
+      ZstdCompressCtx context = COMPRESS_CONTEXT.get();
+      // clear the level and the dictionary left by the last compressor of this thread
+      context.reset();
+      context.setLevel(compressionLevel);
+      if (dictionary != null) {
+        if (digestedDictionary == null) {
+          digestedDictionary = new ZstdDictCompress(dictionary, compressionLevel);
+        }
+        context.loadDict(digestedDictionary);
+      }
+      return context;
     }
 
     @Override
     public byte[] compress(byte[] data) throws IOException {
-      return Zstd.compress(data, compressionLevel);
+      return getContext().compress(data);
     }
 
     @Override
@@ -362,9 +557,7 @@ public interface ICompressor extends Serializable {
 
     @Override
     public int compress(byte[] data, int offset, int length, byte[] compressed) throws IOException {
-      return (int)
-          Zstd.compressByteArray(
-              compressed, 0, compressed.length, data, offset, length, compressionLevel);
+      return getContext().compressByteArray(compressed, 0, compressed.length, data, offset, length);
     }
 
     /**
@@ -374,7 +567,37 @@ public interface ICompressor extends Serializable {
      */
     @Override
     public int compress(ByteBuffer data, ByteBuffer compressed) throws IOException {
-      return Zstd.compress(compressed, data, compressionLevel);
+      return getContext().compress(compressed, data);
+    }
+
+    @Override
+    public int compressBuffer(ByteBuffer data, ByteBuffer compressed) throws IOException {
+      if (data.isDirect() && compressed.isDirect()) {
+        return getContext()
+            .compressDirectByteBuffer(
+                compressed,
+                compressed.position(),
+                compressed.remaining(),
+                data,
+                data.position(),
+                data.remaining());
+      }
+      if (data.hasArray() && compressed.hasArray()) {
+        return getContext()
+            .compressByteArray(
+                compressed.array(),
+                compressed.arrayOffset() + compressed.position(),
+                compressed.remaining(),
+                data.array(),
+                data.arrayOffset() + data.position(),
+                data.remaining());
+      }
+      return ICompressor.super.compressBuffer(data, compressed);
+    }
+
+    @Override
+    public boolean supportDirectBuffer() {
+      return true;
     }
 
     @Override
@@ -384,7 +607,7 @@ public interface ICompressor extends Serializable {
 
     @Override
     public CompressionType getType() {
-      return ZSTD;
+      return dictionary == null ? ZSTD : ZSTD_DICTIONARY;
     }
   }
 
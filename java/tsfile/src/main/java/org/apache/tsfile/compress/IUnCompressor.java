@@ -19,10 +19,15 @@
 
 package org.apache.tsfile.compress;
 
+import org.apache.tsfile.encrypt.IDecryptor;
 import org.apache.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.EncryptionType;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
 
 import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import com.github.luben.zstd.ZstdDictDecompress;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4SafeDecompressor;
 import org.slf4j.Logger;
@@ -58,6 +63,9 @@ public interface IUnCompressor {
         return new ZstdUnCompressor();
       case LZMA2:
         return new LZMA2UnCompressor();
+      case ZSTD_DICTIONARY:
+        throw new CompressionTypeNotSupportedException(
+            name + " without the dictionary of the chunk, see ZstdUnCompressor#readDictionary");
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -101,6 +109,49 @@ public interface IUnCompressor {
    */
   int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException;
 
+  /**
+   * Uncompress the remaining bytes of {@code compressed} into {@code uncompressed} from its
+   * position, the positions of both buffers are not changed. Unlike {@link #uncompress(ByteBuffer,
+   * ByteBuffer)}, the buffers can be heap or direct buffers in any combination: the codecs that
+   * {@link #supportDirectBuffer() support direct buffers} uncompress direct memory in place, the
+   * others copy it through heap arrays.
+   *
+   * @return the uncompressed size
+   */
+  default int uncompressBuffer(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+    int length = compressed.remaining();
+    byte[] input;
+    int inputOffset;
+    if (compressed.hasArray()) {
+      input = compressed.array();
+      inputOffset = compressed.arrayOffset() + compressed.position();
+    } else {
+      input = new byte[length];
+      inputOffset = 0;
+      compressed.duplicate().get(input);
+    }
+    if (uncompressed.hasArray()) {
+      return uncompress(
+          input,
+          inputOffset,
+          length,
+          uncompressed.array(),
+          uncompressed.arrayOffset() + uncompressed.position());
+    }
+    byte[] output = new byte[uncompressed.remaining()];
+    int uncompressedSize = uncompress(input, inputOffset, length, output, 0);
+    uncompressed.duplicate().put(output, 0, uncompressedSize);
+    return uncompressedSize;
+  }
+
+  /**
+   * Whether {@link #uncompressBuffer(ByteBuffer, ByteBuffer)} uncompresses a direct buffer into a
+   * direct buffer without copying any of them into the heap.
+   */
+  default boolean supportDirectBuffer() {
+    return false;
+  }
+
   CompressionType getCodecName();
 
   class NoUnCompressor implements IUnCompressor {
@@ -187,6 +238,19 @@ public interface IUnCompressor {
       return 0;
     }
 
+    @Override
+    public int uncompressBuffer(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      if (compressed.isDirect() && uncompressed.isDirect()) {
+        return Snappy.uncompress(compressed.duplicate(), uncompressed.duplicate());
+      }
+      return IUnCompressor.super.uncompressBuffer(compressed, uncompressed);
+    }
+
+    @Override
+    public boolean supportDirectBuffer() {
+      return true;
+    }
+
     @Override
     public CompressionType getCodecName() {
       return CompressionType.SNAPPY;
@@ -260,6 +324,24 @@ public interface IUnCompressor {
       }
     }
 
+    @Override
+    public int uncompressBuffer(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      ByteBuffer output = uncompressed.duplicate();
+      try {
+        // heap and direct buffers are both uncompressed in place
+        decompressor.decompress(compressed.duplicate(), output);
+      } catch (RuntimeException e) {
+        logger.error(UNCOMPRESS_INPUT_ERROR, e);
+        throw new IOException(e);
+      }
+      return output.position() - uncompressed.position();
+    }
+
+    @Override
+    public boolean supportDirectBuffer() {
+      return true;
+    }
+
     @Override
     public CompressionType getCodecName() {
       return CompressionType.LZ4;
@@ -315,8 +397,68 @@ public interface IUnCompressor {
     }
   }
 
+  /**
+   * The native decompression context is reused by all the uncompressors of a thread instead of
+   * being allocated for every page. The data compressed with a dictionary can only be uncompressed
+   * by an uncompressor with the same dictionary.
+   */
   class ZstdUnCompressor implements IUnCompressor {
 
+    private static final ThreadLocal<ZstdDecompressCtx> DECOMPRESS_CONTEXT =
+        ThreadLocal.withInitial(ZstdDecompressCtx::new);
+
+    /** null if the data is compressed without a dictionary. */
+    private final ZstdDictDecompress dictionary;
+
+    public ZstdUnCompressor() {
+      this(null);
+    }
+
+    public ZstdUnCompressor(byte[] dictionary) {
+      this.dictionary = dictionary == null ? null : new ZstdDictDecompress(dictionary);
+    }
+
+    /**
+     * Reads the dictionary block at the position of {@code chunkData}, see {@link
+     * ICompressor.ZstdCompressor#writeDictionary(org.apache.tsfile.encrypt.IEncryptor,
+     * java.io.ByteArrayOutputStream)}, and moves the position to the first page of the chunk.
+     *
+     * @param decryptor null if the chunk is not encrypted
+     * @return the uncompressor of the pages of the chunk
+     */
+    public static ZstdUnCompressor readDictionary(ByteBuffer chunkData, IDecryptor decryptor)
+        throws IOException {
+      int dictionarySize = ReadWriteForEncodingUtils.readUnsignedVarInt(chunkData);
+      int storedSize = ReadWriteForEncodingUtils.readUnsignedVarInt(chunkData);
+      if (storedSize > chunkData.remaining()) {
+        throw new IOException(
+            "do not has a complete dictionary. Expected:"
+                + storedSize
+                + ". Actual:"
+                + chunkData.remaining());
+      }
+      byte[] dictionary = new byte[storedSize];
+      chunkData.get(dictionary);
+      if (decryptor != null && decryptor.getEncryptionType() != EncryptionType.UNENCRYPTED) {
+        dictionary = decryptor.decrypt(dictionary, 0, storedSize);
+      }
+      if (dictionary.length != dictionarySize) {
+        throw new IOException(
+            "The size of the dictionary is " + dictionary.length + " instead of " + dictionarySize);
+      }
+      return new ZstdUnCompressor(dictionary);
+    }
+
+    private ZstdDecompressCtx getContext() {
+      ZstdDecompressCtx context = DECOMPRESS_CONTEXT.get();
+      // clear the dictionary left by the last uncompressor of this thread
+      context.reset();
+      if (dictionary != null) {
+        context.loadDict(dictionary);
+      }
+      return context;
+    }
+
     @Override
     public int getUncompressedLength(byte[] array, int offset, int length) throws IOException {
       return (int) Zstd.decompressedSize(array, offset, length);
@@ -329,14 +471,16 @@ public interface IUnCompressor {
 
     @Override
     public byte[] uncompress(byte[] byteArray) throws IOException {
-      return Zstd.decompress(byteArray, getUncompressedLength(byteArray, 0, byteArray.length));
+      return getContext()
+          .decompress(byteArray, getUncompressedLength(byteArray, 0, byteArray.length));
     }
 
     @Override
     public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
         throws IOException {
-      return (int)
-          Zstd.decompressByteArray(output, outOffset, output.length, byteArray, offset, length);
+      return getContext()
+          .decompressByteArray(
+              output, outOffset, output.length - outOffset, byteArray, offset, length);
     }
 
     /**
@@ -346,12 +490,32 @@ public interface IUnCompressor {
      */
     @Override
     public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
-      return Zstd.decompress(uncompressed, compressed);
+      return getContext().decompress(uncompressed, compressed);
+    }
+
+    @Override
+    public int uncompressBuffer(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      if (compressed.isDirect() && uncompressed.isDirect()) {
+        return getContext()
+            .decompressDirectByteBuffer(
+                uncompressed,
+                uncompressed.position(),
+                uncompressed.remaining(),
+                compressed,
+                compressed.position(),
+                compressed.remaining());
+      }
+      return IUnCompressor.super.uncompressBuffer(compressed, uncompressed);
+    }
+
+    @Override
+    public boolean supportDirectBuffer() {
+      return true;
     }
 
     @Override
     public CompressionType getCodecName() {
-      return CompressionType.ZSTD;
+      return dictionary == null ? CompressionType.ZSTD : CompressionType.ZSTD_DICTIONARY;
     }
   }
 
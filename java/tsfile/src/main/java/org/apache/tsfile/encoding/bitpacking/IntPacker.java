@@ -19,6 +19,8 @@
 
 package org.apache.tsfile.encoding.bitpacking;
 
+import org.apache.tsfile.encoding.kernel.DecodeKernels;
+
 /**
  * This class is used to encode(decode) Integer in Java with specified bit-width. User need to
  * guarantee that the length of every given Integer in binary mode is less than or equal to the
@@ -145,16 +147,15 @@ public class IntPacker {
    * @param values decoded result.
    */
   public void unpackAllValues(byte[] buf, int length, int[] values) {
-    int idx = 0;
-    int k = 0;
-    while (idx < length) {
-      int[] tv = new int[8];
-      // decode 8 values one time, current result will be saved in the array named 'tv'
-      unpack8Values(buf, idx, tv);
-      System.arraycopy(tv, 0, values, k, 8);
-      idx += width;
-      k += 8;
+    if (length <= 0) {
+      return;
     }
+    // each group of 8 values takes 'width' bytes, the last group may be cut short
+    int groupNum = (length + width - 1) / width;
+    int byteNum = Math.min(groupNum * width, buf.length);
+    long[] words = new long[BitUnpacker.getWordNum(byteNum)];
+    BitUnpacker.loadWords(buf, byteNum, words);
+    DecodeKernels.getKernel().unpackInts(words, width, values, groupNum * NUM_OF_INTS);
   }
 
   public void setWidth(int width) {
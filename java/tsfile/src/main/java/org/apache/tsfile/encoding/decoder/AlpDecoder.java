@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.encoding.bitpacking.BitUnpacker;
+import org.apache.tsfile.encoding.encoder.AlpEncoder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.encoding.TsFileDecodingException;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decoder of ALP, see {@link AlpEncoder} for the format. A whole block is decoded at a time: the
+ * deltas are unpacked with {@link BitUnpacker}, turned back into values by one multiplication each
+ * and then the exceptions are patched in.
+ */
+public abstract class AlpDecoder extends Decoder {
+
+  /** The unpacked deltas of the current block. */
+  protected final long[] deltas = new long[AlpEncoder.BLOCK_SIZE];
+
+  private final long[] words =
+      new long[BitUnpacker.getWordNum(AlpEncoder.BLOCK_SIZE / 8 * Long.SIZE)];
+  private final byte[] packedBytes = new byte[AlpEncoder.BLOCK_SIZE / 8 * Long.SIZE];
+
+  /** Number of values in the current block. */
+  protected int count;
+
+  /** Index of the next value to read in the current block. */
+  protected int readIndex;
+
+  protected AlpDecoder() {
+    super(TSEncoding.ALP);
+  }
+
+  /** Reads {@code count} raw values into the current block. */
+  protected abstract void readRawValues(ByteBuffer buffer);
+
+  /** Turns the deltas into the values of the current block. */
+  protected abstract void decodeValues(long base, int exponent, int factor);
+
+  /** Reads a raw value into the current block at {@code position}. */
+  protected abstract void readException(ByteBuffer buffer, int position);
+
+  protected void loadBlock(ByteBuffer buffer) {
+    count = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    readIndex = 0;
+    byte mode = buffer.get();
+    if (mode == AlpEncoder.MODE_RAW) {
+      readRawValues(buffer);
+      return;
+    }
+    if (mode != AlpEncoder.MODE_ALP) {
+      throw new TsFileDecodingException("Unknown ALP block mode: " + mode);
+    }
+    int exponent = buffer.get();
+    int factor = buffer.get();
+    long base = buffer.getLong();
+    int width = buffer.get();
+    int byteNum = (count + 7) / 8 * width;
+    buffer.get(packedBytes, 0, byteNum);
+    BitUnpacker.loadWords(packedBytes, byteNum, words);
+    BitUnpacker.unpackLongs(words, width, deltas, count);
+    decodeValues(base, exponent, factor);
+
+    int exceptionNum = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    int positionStart = buffer.position();
+    buffer.position(positionStart + exceptionNum * Short.BYTES);
+    for (int i = 0; i < exceptionNum; i++) {
+      readException(buffer, buffer.getShort(positionStart + i * Short.BYTES) & 0xFFFF);
+    }
+  }
+
+  @Override
+  public boolean hasNext(ByteBuffer buffer) {
+    return readIndex < count || buffer.hasRemaining();
+  }
+
+  /**
+   * Makes sure that there is a value to read in the current block.
+   *
+   * @return false if there is no value left
+   */
+  protected boolean prepareBlock(ByteBuffer buffer) {
+    if (readIndex < count) {
+      return true;
+    }
+    if (!buffer.hasRemaining()) {
+      return false;
+    }
+    loadBlock(buffer);
+    return true;
+  }
+
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int count) {
+    int skipped = 0;
+    while (skipped < count && prepareBlock(buffer)) {
+      int length = Math.min(this.count - readIndex, count - skipped);
+      readIndex += length;
+      skipped += length;
+    }
+    return skipped;
+  }
+
+  @Override
+  public void reset() {
+    count = 0;
+    readIndex = 0;
+  }
+}
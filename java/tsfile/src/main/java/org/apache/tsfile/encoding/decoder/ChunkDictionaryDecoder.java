@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.encrypt.IDecryptor;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.encoding.TsFileDecodingException;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.EncryptionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Decoder for {@link TSEncoding#CHUNK_DICTIONARY}. The dictionary is stored once in front of the
+ * pages of a chunk, the chunk readers read it by {@link #readDictionary(ByteBuffer, IUnCompressor,
+ * IDecryptor)} and hand it to the decoder of each page by {@link #setDictionary(Binary[])}.
+ *
+ * @see org.apache.tsfile.encoding.encoder.ChunkDictionaryEncoder
+ */
+public class ChunkDictionaryDecoder extends Decoder {
+
+  private Binary[] dictionary;
+  private final IntRleDecoder idDecoder;
+
+  /** buffer of the ids decoded in bulk. */
+  private int[] ids;
+
+  public ChunkDictionaryDecoder() {
+    super(TSEncoding.CHUNK_DICTIONARY);
+
+    idDecoder = new IntRleDecoder();
+  }
+
+  public ChunkDictionaryDecoder(Binary[] dictionary) {
+    this();
+    this.dictionary = dictionary;
+  }
+
+  public void setDictionary(Binary[] dictionary) {
+    this.dictionary = dictionary;
+  }
+
+  public Binary[] getDictionary() {
+    checkDictionary();
+    return dictionary;
+  }
+
+  @Override
+  public boolean hasNext(ByteBuffer buffer) throws IOException {
+    return idDecoder.hasNext(buffer);
+  }
+
+  @Override
+  public Binary readBinary(ByteBuffer buffer) {
+    checkDictionary();
+    return dictionary[idDecoder.readInt(buffer)];
+  }
+
+  /**
+   * Decodes at most {@code maxCount} ids of the values into {@code dst} starting at {@code offset},
+   * the values are the entries of {@link #getDictionary()} at the ids.
+   *
+   * @return the number of decoded ids
+   */
+  public int readIds(ByteBuffer buffer, int[] dst, int offset, int maxCount) throws IOException {
+    return idDecoder.readInts(buffer, dst, offset, maxCount);
+  }
+
+  @Override
+  public int readBinaries(ByteBuffer buffer, Binary[] dst, int offset, int maxCount)
+      throws IOException {
+    checkDictionary();
+    if (ids == null || ids.length < maxCount) {
+      ids = new int[maxCount];
+    }
+    int count = idDecoder.readInts(buffer, ids, 0, maxCount);
+    for (int i = 0; i < count; i++) {
+      dst[offset + i] = dictionary[ids[i]];
+    }
+    return count;
+  }
+
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int count) throws IOException {
+    return idDecoder.skip(buffer, TSDataType.INT32, count);
+  }
+
+  @Override
+  public void reset() {
+    // the dictionary belongs to the chunk, so it is kept
+    idDecoder.reset();
+  }
+
+  private void checkDictionary() {
+    if (dictionary == null) {
+      throw new TsFileDecodingException("The dictionary of the chunk is not loaded");
+    }
+  }
+
+  /**
+   * Reads the dictionary block at the position of {@code chunkData} and moves the position to the
+   * first page of the chunk.
+   *
+   * @param decryptor null if the chunk is not encrypted
+   */
+  public static Binary[] readDictionary(
+      ByteBuffer chunkData, IUnCompressor unCompressor, IDecryptor decryptor) throws IOException {
+    int uncompressedSize = ReadWriteForEncodingUtils.readUnsignedVarInt(chunkData);
+    int storedSize = ReadWriteForEncodingUtils.readUnsignedVarInt(chunkData);
+    if (storedSize > chunkData.remaining()) {
+      throw new IOException(
+          "do not has a complete dictionary. Expected:"
+              + storedSize
+              + ". Actual:"
+              + chunkData.remaining());
+    }
+    byte[] stored = new byte[storedSize];
+    chunkData.get(stored);
+    if (decryptor != null && decryptor.getEncryptionType() != EncryptionType.UNENCRYPTED) {
+      stored = decryptor.decrypt(stored, 0, storedSize);
+    }
+    ByteBuffer map;
+    if (unCompressor.getCodecName() == CompressionType.UNCOMPRESSED) {
+      map = ByteBuffer.wrap(stored);
+    } else {
+      byte[] uncompressed = new byte[uncompressedSize];
+      unCompressor.uncompress(stored, 0, stored.length, uncompressed, 0);
+      map = ByteBuffer.wrap(uncompressed);
+    }
+    Binary[] dictionary = new Binary[ReadWriteForEncodingUtils.readVarInt(map)];
+    for (int i = 0; i < dictionary.length; i++) {
+      byte[] entry = new byte[ReadWriteForEncodingUtils.readVarInt(map)];
+      map.get(entry);
+      dictionary[i] = new Binary(entry);
+    }
+    return dictionary;
+  }
+}
@@ -177,6 +177,35 @@ public abstract class Decoder {
           default:
             throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
         }
+      case ALP:
+        switch (dataType) {
+          case FLOAT:
+            return new FloatAlpDecoder();
+          case DOUBLE:
+            return new DoubleAlpDecoder();
+          default:
+            throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
+        }
+      case PFOR:
+        switch (dataType) {
+          case INT32:
+          case DATE:
+            return new PforDecoder.IntPforDecoder();
+          case INT64:
+          case VECTOR:
+          case TIMESTAMP:
+            return new PforDecoder.LongPforDecoder();
+          default:
+            throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
+        }
+      case CHUNK_DICTIONARY:
+        switch (dataType) {
+          case TEXT:
+          case STRING:
+            return new ChunkDictionaryDecoder();
+          default:
+            throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
+        }
       default:
         throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
     }
@@ -214,6 +243,146 @@ public abstract class Decoder {
     throw new TsFileDecodingException("Method readBigDecimal is not supported by Decoder");
   }
 
+  /**
+   * Decodes at most {@code maxCount} values into {@code dst} starting at {@code offset}.
+   *
+   * <p>The bulk read methods are the fast path of the page readers: they stop at the end of the
+   * encoded data and return how many values are decoded, which is less than {@code maxCount} only
+   * if there is no value left. The default implementations fall back to the per-value methods, the
+   * decoders override them to decode whole blocks at a time.
+   *
+   * @return the number of decoded values
+   */
+  public int readBooleans(ByteBuffer buffer, boolean[] dst, int offset, int maxCount)
+      throws IOException {
+    int count = 0;
+    while (count < maxCount && hasNext(buffer)) {
+      dst[offset + count++] = readBoolean(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * Decodes at most {@code maxCount} values into {@code dst} starting at {@code offset}.
+   *
+   * @return the number of decoded values
+   * @see #readBooleans(ByteBuffer, boolean[], int, int)
+   */
+  public int readInts(ByteBuffer buffer, int[] dst, int offset, int maxCount) throws IOException {
+    int count = 0;
+    while (count < maxCount && hasNext(buffer)) {
+      dst[offset + count++] = readInt(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * Decodes at most {@code maxCount} values into {@code dst} starting at {@code offset}.
+   *
+   * @return the number of decoded values
+   * @see #readBooleans(ByteBuffer, boolean[], int, int)
+   */
+  public int readLongs(ByteBuffer buffer, long[] dst, int offset, int maxCount) throws IOException {
+    int count = 0;
+    while (count < maxCount && hasNext(buffer)) {
+      dst[offset + count++] = readLong(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * Decodes at most {@code maxCount} values into {@code dst} starting at {@code offset}.
+   *
+   * @return the number of decoded values
+   * @see #readBooleans(ByteBuffer, boolean[], int, int)
+   */
+  public int readFloats(ByteBuffer buffer, float[] dst, int offset, int maxCount)
+      throws IOException {
+    int count = 0;
+    while (count < maxCount && hasNext(buffer)) {
+      dst[offset + count++] = readFloat(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * Decodes at most {@code maxCount} values into {@code dst} starting at {@code offset}.
+   *
+   * @return the number of decoded values
+   * @see #readBooleans(ByteBuffer, boolean[], int, int)
+   */
+  public int readDoubles(ByteBuffer buffer, double[] dst, int offset, int maxCount)
+      throws IOException {
+    int count = 0;
+    while (count < maxCount && hasNext(buffer)) {
+      dst[offset + count++] = readDouble(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * Decodes at most {@code maxCount} values into {@code dst} starting at {@code offset}.
+   *
+   * @return the number of decoded values
+   * @see #readBooleans(ByteBuffer, boolean[], int, int)
+   */
+  public int readBinaries(ByteBuffer buffer, Binary[] dst, int offset, int maxCount)
+      throws IOException {
+    int count = 0;
+    while (count < maxCount && hasNext(buffer)) {
+      dst[offset + count++] = readBinary(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * Skips at most {@code count} values without materializing them.
+   *
+   * <p>The page readers decode the timestamps first and skip the value slots that are already known
+   * to be filtered out. The data type is required because some decoders, e.g. {@link PlainDecoder},
+   * serve all the data types and cannot tell how wide a value is on their own. The default
+   * implementation reads and drops the values one by one, the decoders override it to skip whole
+   * blocks at a time.
+   *
+   * @return the number of skipped values, which is less than {@code count} only if there is no
+   *     value left
+   */
+  public int skip(ByteBuffer buffer, TSDataType dataType, int count) throws IOException {
+    int skipped = 0;
+    while (skipped < count && hasNext(buffer)) {
+      switch (dataType) {
+        case BOOLEAN:
+          readBoolean(buffer);
+          break;
+        case INT32:
+        case DATE:
+          readInt(buffer);
+          break;
+        case INT64:
+        case TIMESTAMP:
+        case VECTOR:
+          readLong(buffer);
+          break;
+        case FLOAT:
+          readFloat(buffer);
+          break;
+        case DOUBLE:
+          readDouble(buffer);
+          break;
+        case TEXT:
+        case BLOB:
+        case STRING:
+          readBinary(buffer);
+          break;
+        default:
+          throw new TsFileDecodingException(
+              String.format("Data type %s is not supported by skip", dataType));
+      }
+      skipped++;
+    }
+    return skipped;
+  }
+
   public abstract boolean hasNext(ByteBuffer buffer) throws IOException;
 
   public abstract void reset();
@@ -19,9 +19,12 @@
 
 package org.apache.tsfile.encoding.decoder;
 
+import org.apache.tsfile.encoding.bitpacking.BitUnpacker;
 import org.apache.tsfile.encoding.encoder.DeltaBinaryEncoder;
+import org.apache.tsfile.encoding.kernel.DecodeKernel;
+import org.apache.tsfile.encoding.kernel.DecodeKernels;
+import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
-import org.apache.tsfile.utils.BytesUtils;
 import org.apache.tsfile.utils.ReadWriteIOUtils;
 
 import java.io.IOException;
@@ -37,7 +40,13 @@ import java.nio.ByteBuffer;
 public abstract class DeltaBinaryDecoder extends Decoder {
 
   protected long count = 0;
-  protected byte[] deltaBuf;
+  protected byte[] deltaBuf = new byte[0];
+
+  /** packed deltas loaded as 64-bit words, reused by all the packs. */
+  protected long[] deltaWords = new long[0];
+
+  /** unpacks the deltas and sums them up. */
+  protected final DecodeKernel kernel = DecodeKernels.getKernel();
 
   /** the first value in one pack. */
   protected int readIntTotalCount = 0;
@@ -63,6 +72,20 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
   protected abstract void readValue(int i);
 
+  /** read the next pack and decode it, the first value of the pack is consumed. */
+  protected abstract void loadPack(ByteBuffer buffer);
+
+  /** read the packed deltas of current pack into {@code deltaWords}. */
+  protected void readDeltaWords(ByteBuffer buffer) {
+    encodingLength = ceil(packNum * packWidth);
+    if (deltaBuf.length < encodingLength) {
+      deltaBuf = new byte[encodingLength];
+      deltaWords = new long[BitUnpacker.getWordNum(encodingLength)];
+    }
+    buffer.get(deltaBuf, 0, encodingLength);
+    BitUnpacker.loadWords(deltaBuf, encodingLength, deltaWords);
+  }
+
   /**
    * calculate the bytes length containing v bits.
    *
@@ -78,6 +101,43 @@ public abstract class DeltaBinaryDecoder extends Decoder {
     return (nextReadIndex < readIntTotalCount) || buffer.remaining() > 0;
   }
 
+  /**
+   * Skips the decoded values of current pack first. A following pack whose values are all skipped
+   * is passed over by its encoding length without unpacking its deltas.
+   */
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int count) throws IOException {
+    int skipped = 0;
+    while (skipped < count) {
+      if (nextReadIndex < readIntTotalCount) {
+        int length = Math.min(readIntTotalCount - nextReadIndex, count - skipped);
+        nextReadIndex += length;
+        skipped += length;
+      } else if (!buffer.hasRemaining()) {
+        break;
+      } else if (buffer.getInt(buffer.position()) < count - skipped) {
+        // a pack holds its first value and packNum deltas
+        skipped += skipPack(buffer) + 1;
+      } else {
+        loadPack(buffer);
+        skipped++;
+      }
+    }
+    return skipped;
+  }
+
+  private int skipPack(ByteBuffer buffer) throws IOException {
+    packNum = ReadWriteIOUtils.readInt(buffer);
+    packWidth = ReadWriteIOUtils.readInt(buffer);
+    count++;
+    readHeader(buffer);
+    encodingLength = ceil(packNum * packWidth);
+    buffer.position(buffer.position() + encodingLength);
+    readIntTotalCount = 0;
+    nextReadIndex = 0;
+    return packNum;
+  }
+
   public static class IntDeltaDecoder extends DeltaBinaryDecoder {
 
     private int firstValue;
@@ -121,9 +181,7 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       count++;
       readHeader(buffer);
 
-      encodingLength = ceil(packNum * packWidth);
-      deltaBuf = new byte[encodingLength];
-      buffer.get(deltaBuf);
+      readDeltaWords(buffer);
       allocateDataArray();
 
       previous = firstValue;
@@ -133,13 +191,38 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return firstValue;
     }
 
+    @Override
+    protected void loadPack(ByteBuffer buffer) {
+      loadIntBatch(buffer);
+    }
+
     private void readPack() {
-      for (int i = 0; i < packNum; i++) {
-        readValue(i);
-        previous = data[i];
+      kernel.unpackInts(deltaWords, packWidth, data, packNum);
+      kernel.prefixSum(data, packNum, previous, minDeltaBase);
+      if (packNum > 0) {
+        previous = data[packNum - 1];
       }
     }
 
+    @Override
+    public int readInts(ByteBuffer buffer, int[] dst, int offset, int maxCount) {
+      int count = 0;
+      while (count < maxCount) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          dst[offset + count++] = loadIntBatch(buffer);
+        } else {
+          int length = Math.min(readIntTotalCount - nextReadIndex, maxCount - count);
+          System.arraycopy(data, nextReadIndex, dst, offset + count, length);
+          nextReadIndex += length;
+          count += length;
+        }
+      }
+      return count;
+    }
+
     @Override
     protected void readHeader(ByteBuffer buffer) {
       minDeltaBase = ReadWriteIOUtils.readInt(buffer);
@@ -148,13 +231,15 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
     @Override
     protected void allocateDataArray() {
-      data = new int[packNum];
+      if (data == null || data.length < packNum) {
+        data = new int[packNum];
+      }
     }
 
+    /** turn the i-th unpacked delta in {@code data} into the original value. */
     @Override
     protected void readValue(int i) {
-      int v = BytesUtils.bytesToInt(deltaBuf, packWidth * i, packWidth);
-      data[i] = previous + minDeltaBase + v;
+      data[i] = previous + minDeltaBase + data[i];
     }
 
     @Override
@@ -201,9 +286,7 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       count++;
       readHeader(buffer);
 
-      encodingLength = ceil(packNum * packWidth);
-      deltaBuf = new byte[encodingLength];
-      buffer.get(deltaBuf);
+      readDeltaWords(buffer);
       allocateDataArray();
 
       previous = firstValue;
@@ -213,10 +296,16 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return firstValue;
     }
 
+    @Override
+    protected void loadPack(ByteBuffer buffer) {
+      loadIntBatch(buffer);
+    }
+
     private void readPack() {
-      for (int i = 0; i < packNum; i++) {
-        readValue(i);
-        previous = data[i];
+      kernel.unpackLongs(deltaWords, packWidth, data, packNum);
+      kernel.prefixSum(data, packNum, previous, minDeltaBase);
+      if (packNum > 0) {
+        previous = data[packNum - 1];
       }
     }
 
@@ -226,6 +315,25 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readLongs(ByteBuffer buffer, long[] dst, int offset, int maxCount) {
+      int count = 0;
+      while (count < maxCount) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          dst[offset + count++] = loadIntBatch(buffer);
+        } else {
+          int length = Math.min(readIntTotalCount - nextReadIndex, maxCount - count);
+          System.arraycopy(data, nextReadIndex, dst, offset + count, length);
+          nextReadIndex += length;
+          count += length;
+        }
+      }
+      return count;
+    }
+
     @Override
     protected void readHeader(ByteBuffer buffer) {
       minDeltaBase = ReadWriteIOUtils.readLong(buffer);
@@ -234,13 +342,15 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
     @Override
     protected void allocateDataArray() {
-      data = new long[packNum];
+      if (data == null || data.length < packNum) {
+        data = new long[packNum];
+      }
     }
 
+    /** turn the i-th unpacked delta in {@code data} into the original value. */
     @Override
     protected void readValue(int i) {
-      long v = BytesUtils.bytesToLong(deltaBuf, packWidth * i, packWidth);
-      data[i] = previous + minDeltaBase + v;
+      data[i] = previous + minDeltaBase + data[i];
     }
 
     @Override
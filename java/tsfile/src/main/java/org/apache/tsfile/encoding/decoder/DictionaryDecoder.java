@@ -19,6 +19,7 @@
 
 package org.apache.tsfile.encoding.decoder;
 
+import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
@@ -37,6 +38,9 @@ public class DictionaryDecoder extends Decoder {
   private List<Binary> entryIndex;
   private IntRleDecoder valueDecoder;
 
+  /** buffer of the dictionary codes decoded in bulk. */
+  private int[] codes;
+
   public DictionaryDecoder() {
     super(TSEncoding.DICTIONARY);
 
@@ -67,6 +71,30 @@ public class DictionaryDecoder extends Decoder {
     return entryIndex.get(code);
   }
 
+  @Override
+  public int readBinaries(ByteBuffer buffer, Binary[] dst, int offset, int maxCount)
+      throws IOException {
+    if (entryIndex == null) {
+      initMap(buffer);
+    }
+    if (codes == null || codes.length < maxCount) {
+      codes = new int[maxCount];
+    }
+    int count = valueDecoder.readInts(buffer, codes, 0, maxCount);
+    for (int i = 0; i < count; i++) {
+      dst[offset + i] = entryIndex.get(codes[i]);
+    }
+    return count;
+  }
+
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int count) throws IOException {
+    if (entryIndex == null) {
+      initMap(buffer);
+    }
+    return valueDecoder.skip(buffer, TSDataType.INT32, count);
+  }
+
   private void initMap(ByteBuffer buffer) {
     int length = ReadWriteForEncodingUtils.readVarInt(buffer);
     entryIndex = new ArrayList<>(length);
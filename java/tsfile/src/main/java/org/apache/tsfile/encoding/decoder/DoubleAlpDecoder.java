@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.encoding.encoder.AlpEncoder;
+import org.apache.tsfile.encoding.encoder.DoubleAlpEncoder;
+
+import java.nio.ByteBuffer;
+
+/** ALP decoder of DOUBLE values. */
+public class DoubleAlpDecoder extends AlpDecoder {
+
+  private final double[] values = new double[AlpEncoder.BLOCK_SIZE];
+
+  @Override
+  protected void readRawValues(ByteBuffer buffer) {
+    for (int i = 0; i < count; i++) {
+      values[i] = buffer.getDouble();
+    }
+  }
+
+  @Override
+  protected void decodeValues(long base, int exponent, int factor) {
+    double multiplier = DoubleAlpEncoder.EXP10[factor];
+    double divisor = DoubleAlpEncoder.NEG_EXP10[exponent];
+    for (int i = 0; i < count; i++) {
+      values[i] = (deltas[i] + base) * multiplier * divisor;
+    }
+  }
+
+  @Override
+  protected void readException(ByteBuffer buffer, int position) {
+    values[position] = buffer.getDouble();
+  }
+
+  @Override
+  public double readDouble(ByteBuffer buffer) {
+    prepareBlock(buffer);
+    return values[readIndex++];
+  }
+
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] dst, int offset, int maxCount) {
+    int read = 0;
+    while (read < maxCount && prepareBlock(buffer)) {
+      int length = Math.min(count - readIndex, maxCount - read);
+      System.arraycopy(values, readIndex, dst, offset + read, length);
+      readIndex += length;
+      read += length;
+    }
+    return read;
+  }
+}
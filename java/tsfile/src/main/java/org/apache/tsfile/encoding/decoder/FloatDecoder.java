@@ -47,6 +47,11 @@ public class FloatDecoder extends Decoder {
   /** flag that indicates whether we have read maxPointNumber and calculated maxPointValue. */
   private boolean isMaxPointNumberRead;
 
+  /** buffers of the integers decoded in bulk before they are scaled back to float or double. */
+  private int[] intBuffer;
+
+  private long[] longBuffer;
+
   public FloatDecoder(TSEncoding encodingType, TSDataType dataType) {
     super(encodingType);
     if (encodingType == TSEncoding.RLE) {
@@ -104,6 +109,50 @@ public class FloatDecoder extends Decoder {
     return value / maxPointValue;
   }
 
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] dst, int offset, int maxCount)
+      throws IOException {
+    if (!hasNext(buffer)) {
+      return 0;
+    }
+    readMaxPointValue(buffer);
+    if (intBuffer == null || intBuffer.length < maxCount) {
+      intBuffer = new int[maxCount];
+    }
+    int count = decoder.readInts(buffer, intBuffer, 0, maxCount);
+    for (int i = 0; i < count; i++) {
+      dst[offset + i] = (float) (intBuffer[i] / maxPointValue);
+    }
+    return count;
+  }
+
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] dst, int offset, int maxCount)
+      throws IOException {
+    if (!hasNext(buffer)) {
+      return 0;
+    }
+    readMaxPointValue(buffer);
+    if (longBuffer == null || longBuffer.length < maxCount) {
+      longBuffer = new long[maxCount];
+    }
+    int count = decoder.readLongs(buffer, longBuffer, 0, maxCount);
+    for (int i = 0; i < count; i++) {
+      dst[offset + i] = longBuffer[i] / maxPointValue;
+    }
+    return count;
+  }
+
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int count) throws IOException {
+    if (!hasNext(buffer)) {
+      return 0;
+    }
+    readMaxPointValue(buffer);
+    return decoder.skip(
+        buffer, dataType == TSDataType.FLOAT ? TSDataType.INT32 : TSDataType.INT64, count);
+  }
+
   private void readMaxPointValue(ByteBuffer buffer) {
     if (!isMaxPointNumberRead) {
       int maxPointNumber = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
@@ -133,6 +133,24 @@ public class FloatRLBEDecoder extends Decoder {
     }
   }
 
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] dst, int offset, int maxCount) {
+    int count = 0;
+    while (count < maxCount) {
+      if (readindex >= writeindex) {
+        if (!buffer.hasRemaining()) {
+          break;
+        }
+        readT(buffer);
+      }
+      int length = Math.min(writeindex - readindex, maxCount - count);
+      System.arraycopy(data, readindex + 1, dst, offset + count, length);
+      readindex += length;
+      count += length;
+    }
+    return count;
+  }
+
   @Override
   public boolean hasNext(ByteBuffer buffer) {
     return (buffer.remaining() > 0 || readindex < writeindex);
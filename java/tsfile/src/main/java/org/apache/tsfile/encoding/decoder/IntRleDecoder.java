@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /** Decoder for int value using rle or bit-packing. */
 public class IntRleDecoder extends RleDecoder {
@@ -99,6 +100,48 @@ public class IntRleDecoder extends RleDecoder {
     return result;
   }
 
+  @Override
+  public int readInts(ByteBuffer buffer, int[] dst, int offset, int maxCount) throws IOException {
+    int count = 0;
+    while (count < maxCount) {
+      int length = Math.min(prepareRun(buffer), maxCount - count);
+      if (length == 0) {
+        break;
+      }
+      if (mode == Mode.RLE) {
+        Arrays.fill(dst, offset + count, offset + count + length, currentValue);
+      } else {
+        System.arraycopy(currentBuffer, bitPackingNum - currentCount, dst, offset + count, length);
+      }
+      consumeRun(length);
+      count += length;
+    }
+    return count;
+  }
+
+  @Override
+  public int readBooleans(ByteBuffer buffer, boolean[] dst, int offset, int maxCount)
+      throws IOException {
+    int count = 0;
+    while (count < maxCount) {
+      int length = Math.min(prepareRun(buffer), maxCount - count);
+      if (length == 0) {
+        break;
+      }
+      if (mode == Mode.RLE) {
+        Arrays.fill(dst, offset + count, offset + count + length, currentValue != 0);
+      } else {
+        int start = bitPackingNum - currentCount;
+        for (int i = 0; i < length; i++) {
+          dst[offset + count + i] = currentBuffer[start + i] != 0;
+        }
+      }
+      consumeRun(length);
+      count += length;
+    }
+    return count;
+  }
+
   @Override
   protected void initPacker() {
     packer = new IntPacker(bitWidth);
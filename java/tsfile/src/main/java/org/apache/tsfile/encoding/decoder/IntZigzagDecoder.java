@@ -19,6 +19,8 @@
 
 package org.apache.tsfile.encoding.decoder;
 
+import org.apache.tsfile.encoding.kernel.DecodeKernel;
+import org.apache.tsfile.encoding.kernel.DecodeKernels;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
 
@@ -30,6 +32,8 @@ import java.nio.ByteBuffer;
 public class IntZigzagDecoder extends Decoder {
   private static final Logger logger = LoggerFactory.getLogger(IntZigzagDecoder.class);
 
+  private final DecodeKernel kernel = DecodeKernels.getKernel();
+
   /** how many bytes for all encoded data in input stream. */
   private int length;
 
@@ -63,6 +67,30 @@ public class IntZigzagDecoder extends Decoder {
     return (n >>> 1) ^ -(n & 1); // back to two's-complement
   }
 
+  @Override
+  public int readInts(ByteBuffer buffer, int[] dst, int offset, int maxCount) {
+    int count = 0;
+    while (count < maxCount) {
+      if (currentCount == 0) {
+        if (!buffer.hasRemaining()) {
+          break;
+        }
+        reset();
+        getLengthAndNumber(buffer);
+        currentCount = number;
+        continue;
+      }
+      int length = Math.min(currentCount, maxCount - count);
+      for (int i = 0; i < length; i++) {
+        dst[offset + count + i] = ReadWriteForEncodingUtils.readUnsignedVarInt(byteCache);
+      }
+      kernel.zigzagDecode(dst, offset + count, length);
+      currentCount -= length;
+      count += length;
+    }
+    return count;
+  }
+
   private void getLengthAndNumber(ByteBuffer buffer) {
     this.length = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
     this.number = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /** Decoder for long value using rle or bit-packing. */
 public class LongRleDecoder extends RleDecoder {
@@ -94,6 +95,25 @@ public class LongRleDecoder extends RleDecoder {
     return result;
   }
 
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] dst, int offset, int maxCount) throws IOException {
+    int count = 0;
+    while (count < maxCount) {
+      int length = Math.min(prepareRun(buffer), maxCount - count);
+      if (length == 0) {
+        break;
+      }
+      if (mode == Mode.RLE) {
+        Arrays.fill(dst, offset + count, offset + count + length, currentValue);
+      } else {
+        System.arraycopy(currentBuffer, bitPackingNum - currentCount, dst, offset + count, length);
+      }
+      consumeRun(length);
+      count += length;
+    }
+    return count;
+  }
+
   @Override
   protected void initPacker() {
     packer = new LongPacker(bitWidth);
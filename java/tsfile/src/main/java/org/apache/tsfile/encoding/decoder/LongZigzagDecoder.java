@@ -19,6 +19,8 @@
 
 package org.apache.tsfile.encoding.decoder;
 
+import org.apache.tsfile.encoding.kernel.DecodeKernel;
+import org.apache.tsfile.encoding.kernel.DecodeKernels;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
 
@@ -30,6 +32,8 @@ import java.nio.ByteBuffer;
 public class LongZigzagDecoder extends Decoder {
   private static final Logger logger = LoggerFactory.getLogger(IntZigzagDecoder.class);
 
+  private final DecodeKernel kernel = DecodeKernels.getKernel();
+
   /** how many bytes for all encoded data in input stream. */
   private int length;
 
@@ -58,6 +62,40 @@ public class LongZigzagDecoder extends Decoder {
       getLengthAndNumber(buffer);
       currentCount = number;
     }
+    currentCount--;
+    return readZigzag();
+  }
+
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] dst, int offset, int maxCount) {
+    int count = 0;
+    while (count < maxCount) {
+      if (currentCount == 0) {
+        if (!buffer.hasRemaining()) {
+          break;
+        }
+        reset();
+        getLengthAndNumber(buffer);
+        currentCount = number;
+        continue;
+      }
+      int length = Math.min(currentCount, maxCount - count);
+      for (int i = 0; i < length; i++) {
+        dst[offset + count + i] = readUnsignedVarLong();
+      }
+      kernel.zigzagDecode(dst, offset + count, length);
+      currentCount -= length;
+      count += length;
+    }
+    return count;
+  }
+
+  private long readZigzag() {
+    long n = readUnsignedVarLong();
+    return (n >>> 1) ^ -(n & 1); // back to two's-complement
+  }
+
+  private long readUnsignedVarLong() {
     long n = 0;
     int i = 0;
     long b = 0;
@@ -66,9 +104,7 @@ public class LongZigzagDecoder extends Decoder {
       n |= (b & 0x7F) << i;
       i += 7;
     }
-    n = n | (b << i);
-    currentCount--;
-    return (n >>> 1) ^ -(n & 1); // back to two's-complement
+    return n | (b << i);
   }
 
   private void getLengthAndNumber(ByteBuffer buffer) {
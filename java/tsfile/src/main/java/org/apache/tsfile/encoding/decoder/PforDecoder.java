@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.encoding.bitpacking.BitUnpacker;
+import org.apache.tsfile.encoding.encoder.PforEncoder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decoder of PFOR, see {@link PforEncoder} for the format. A whole block is decoded at a time: the
+ * low bits are unpacked with {@link BitUnpacker}, the high bits of the exceptions are patched in
+ * and then the differences are summed up.
+ */
+public abstract class PforDecoder extends Decoder {
+
+  /** The unpacked differences minus the minimum difference of the current block. */
+  protected final long[] offsets = new long[PforEncoder.BLOCK_SIZE];
+
+  private final long[] exceptionHighBits = new long[PforEncoder.BLOCK_SIZE];
+  private final byte[] exceptionPositions = new byte[PforEncoder.BLOCK_SIZE];
+  private final byte[] packedBytes = new byte[PforEncoder.BLOCK_SIZE * Long.BYTES];
+  private final long[] words = new long[BitUnpacker.getWordNum(packedBytes.length)];
+
+  /** Number of values in the current block. */
+  protected int count;
+
+  /** Index of the next value to read in the current block. */
+  protected int readIndex;
+
+  protected PforDecoder() {
+    super(TSEncoding.PFOR);
+  }
+
+  /** Reads the first value and the minimum difference of the block. */
+  protected abstract void readHeader(ByteBuffer buffer);
+
+  /** Sums up the differences into the values of the current block. */
+  protected abstract void decodeValues();
+
+  protected void loadBlock(ByteBuffer buffer) {
+    count = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    readIndex = 0;
+    readHeader(buffer);
+    int width = buffer.get();
+    int exceptionNum = buffer.get();
+    int exceptionWidth = exceptionNum > 0 ? buffer.get() : 0;
+    int deltaNum = count - 1;
+    unpack(buffer, width, offsets, deltaNum);
+    if (exceptionNum > 0) {
+      buffer.get(exceptionPositions, 0, exceptionNum);
+      unpack(buffer, exceptionWidth, exceptionHighBits, exceptionNum);
+      for (int i = 0; i < exceptionNum; i++) {
+        offsets[exceptionPositions[i]] |= exceptionHighBits[i] << width;
+      }
+    }
+    decodeValues();
+  }
+
+  private void unpack(ByteBuffer buffer, int width, long[] values, int valueNum) {
+    int byteNum = (valueNum + 7) / 8 * width;
+    buffer.get(packedBytes, 0, byteNum);
+    BitUnpacker.loadWords(packedBytes, byteNum, words);
+    BitUnpacker.unpackLongs(words, width, values, valueNum);
+  }
+
+  @Override
+  public boolean hasNext(ByteBuffer buffer) {
+    return readIndex < count || buffer.hasRemaining();
+  }
+
+  /**
+   * Makes sure that there is a value to read in the current block.
+   *
+   * @return false if there is no value left
+   */
+  protected boolean prepareBlock(ByteBuffer buffer) {
+    if (readIndex < count) {
+      return true;
+    }
+    if (!buffer.hasRemaining()) {
+      return false;
+    }
+    loadBlock(buffer);
+    return true;
+  }
+
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int count) {
+    int skipped = 0;
+    while (skipped < count && prepareBlock(buffer)) {
+      int length = Math.min(this.count - readIndex, count - skipped);
+      readIndex += length;
+      skipped += length;
+    }
+    return skipped;
+  }
+
+  @Override
+  public void reset() {
+    count = 0;
+    readIndex = 0;
+  }
+
+  public static class IntPforDecoder extends PforDecoder {
+
+    private final int[] values = new int[PforEncoder.BLOCK_SIZE];
+    private int minDelta;
+
+    @Override
+    protected void readHeader(ByteBuffer buffer) {
+      values[0] = buffer.getInt();
+      minDelta = buffer.getInt();
+    }
+
+    @Override
+    protected void decodeValues() {
+      for (int i = 1; i < count; i++) {
+        values[i] = values[i - 1] + minDelta + (int) offsets[i - 1];
+      }
+    }
+
+    @Override
+    public int readInt(ByteBuffer buffer) {
+      prepareBlock(buffer);
+      return values[readIndex++];
+    }
+
+    @Override
+    public int readInts(ByteBuffer buffer, int[] dst, int offset, int maxCount) {
+      int read = 0;
+      while (read < maxCount && prepareBlock(buffer)) {
+        int length = Math.min(count - readIndex, maxCount - read);
+        System.arraycopy(values, readIndex, dst, offset + read, length);
+        readIndex += length;
+        read += length;
+      }
+      return read;
+    }
+  }
+
+  public static class LongPforDecoder extends PforDecoder {
+
+    private final long[] values = new long[PforEncoder.BLOCK_SIZE];
+    private long minDelta;
+
+    @Override
+    protected void readHeader(ByteBuffer buffer) {
+      values[0] = buffer.getLong();
+      minDelta = buffer.getLong();
+    }
+
+    @Override
+    protected void decodeValues() {
+      for (int i = 1; i < count; i++) {
+        values[i] = values[i - 1] + minDelta + offsets[i - 1];
+      }
+    }
+
+    @Override
+    public long readLong(ByteBuffer buffer) {
+      prepareBlock(buffer);
+      return values[readIndex++];
+    }
+
+    @Override
+    public int readLongs(ByteBuffer buffer, long[] dst, int offset, int maxCount) {
+      int read = 0;
+      while (read < maxCount && prepareBlock(buffer)) {
+        int length = Math.min(count - readIndex, maxCount - read);
+        System.arraycopy(values, readIndex, dst, offset + read, length);
+        readIndex += length;
+        read += length;
+      }
+      return read;
+    }
+  }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.tsfile.encoding.decoder;
 
+import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.encoding.TsFileDecodingException;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.utils.Binary;
@@ -71,6 +72,100 @@ public class PlainDecoder extends Decoder {
     return new Binary(buf);
   }
 
+  @Override
+  public int readBooleans(ByteBuffer buffer, boolean[] dst, int offset, int maxCount) {
+    int count = Math.min(maxCount, buffer.remaining());
+    for (int i = 0; i < count; i++) {
+      dst[offset + i] = buffer.get() != 0;
+    }
+    return count;
+  }
+
+  @Override
+  public int readInts(ByteBuffer buffer, int[] dst, int offset, int maxCount) {
+    int count = 0;
+    while (count < maxCount && buffer.hasRemaining()) {
+      dst[offset + count++] = ReadWriteForEncodingUtils.readVarInt(buffer);
+    }
+    return count;
+  }
+
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] dst, int offset, int maxCount) {
+    int count = Math.min(maxCount, buffer.remaining() / Long.BYTES);
+    buffer.asLongBuffer().get(dst, offset, count);
+    buffer.position(buffer.position() + count * Long.BYTES);
+    return count;
+  }
+
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] dst, int offset, int maxCount) {
+    int count = Math.min(maxCount, buffer.remaining() / Float.BYTES);
+    buffer.asFloatBuffer().get(dst, offset, count);
+    buffer.position(buffer.position() + count * Float.BYTES);
+    return count;
+  }
+
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] dst, int offset, int maxCount) {
+    int count = Math.min(maxCount, buffer.remaining() / Double.BYTES);
+    buffer.asDoubleBuffer().get(dst, offset, count);
+    buffer.position(buffer.position() + count * Double.BYTES);
+    return count;
+  }
+
+  @Override
+  public int readBinaries(ByteBuffer buffer, Binary[] dst, int offset, int maxCount) {
+    int count = 0;
+    while (count < maxCount && buffer.hasRemaining()) {
+      dst[offset + count++] = readBinary(buffer);
+    }
+    return count;
+  }
+
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int count) {
+    switch (dataType) {
+      case BOOLEAN:
+        return skipFixedWidth(buffer, 1, count);
+      case INT64:
+      case TIMESTAMP:
+      case VECTOR:
+        return skipFixedWidth(buffer, Long.BYTES, count);
+      case FLOAT:
+        return skipFixedWidth(buffer, Float.BYTES, count);
+      case DOUBLE:
+        return skipFixedWidth(buffer, Double.BYTES, count);
+      case INT32:
+      case DATE:
+        int skippedInts = 0;
+        while (skippedInts < count && buffer.hasRemaining()) {
+          ReadWriteForEncodingUtils.readVarInt(buffer);
+          skippedInts++;
+        }
+        return skippedInts;
+      case TEXT:
+      case BLOB:
+      case STRING:
+        int skippedBinaries = 0;
+        while (skippedBinaries < count && buffer.hasRemaining()) {
+          int length = ReadWriteForEncodingUtils.readVarInt(buffer);
+          buffer.position(buffer.position() + length);
+          skippedBinaries++;
+        }
+        return skippedBinaries;
+      default:
+        throw new TsFileDecodingException(
+            String.format("Data type %s is not supported by PlainDecoder", dataType));
+    }
+  }
+
+  private int skipFixedWidth(ByteBuffer buffer, int width, int count) {
+    int skipped = Math.min(count, buffer.remaining() / width);
+    buffer.position(buffer.position() + skipped * width);
+    return skipped;
+  }
+
   @Override
   public boolean hasNext(ByteBuffer buffer) {
     return buffer.remaining() > 0;
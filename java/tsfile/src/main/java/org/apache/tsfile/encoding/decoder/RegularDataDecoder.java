@@ -149,6 +149,24 @@ public abstract class RegularDataDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readInts(ByteBuffer buffer, int[] dst, int offset, int maxCount) throws IOException {
+      int count = 0;
+      while (count < maxCount) {
+        if (nextReadIndex < readIntTotalCount && !isMissingPoint) {
+          int length = Math.min(readIntTotalCount - nextReadIndex, maxCount - count);
+          System.arraycopy(data, nextReadIndex, dst, offset + count, length);
+          nextReadIndex += length;
+          count += length;
+        } else if (hasNext(buffer)) {
+          dst[offset + count++] = readT(buffer);
+        } else {
+          break;
+        }
+      }
+      return count;
+    }
+
     @Override
     protected void readHeader(ByteBuffer buffer) {
       minDeltaBase = ReadWriteIOUtils.readInt(buffer);
@@ -261,6 +279,25 @@ public abstract class RegularDataDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readLongs(ByteBuffer buffer, long[] dst, int offset, int maxCount)
+        throws IOException {
+      int count = 0;
+      while (count < maxCount) {
+        if (nextReadIndex < readIntTotalCount && !isMissingPoint) {
+          int length = Math.min(readIntTotalCount - nextReadIndex, maxCount - count);
+          System.arraycopy(data, nextReadIndex, dst, offset + count, length);
+          nextReadIndex += length;
+          count += length;
+        } else if (hasNext(buffer)) {
+          dst[offset + count++] = readT(buffer);
+        } else {
+          break;
+        }
+      }
+      return count;
+    }
+
     @Override
     protected void readHeader(ByteBuffer buffer) {
       minDeltaBase = ReadWriteIOUtils.readLong(buffer);
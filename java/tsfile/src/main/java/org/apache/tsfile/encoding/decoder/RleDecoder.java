@@ -21,6 +21,7 @@ package org.apache.tsfile.encoding.decoder;
 
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.encoding.TsFileDecodingException;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.utils.Binary;
@@ -171,6 +172,102 @@ public abstract class RleDecoder extends Decoder {
     return currentCount > 0 || byteCache.remaining() > 0;
   }
 
+  /**
+   * Makes sure there are values left in the current run for the bulk read methods.
+   *
+   * @param buffer ByteBuffer
+   * @return the number of values left in the current run, 0 if all the values have been read
+   * @throws IOException cannot read next run
+   */
+  protected int prepareRun(ByteBuffer buffer) throws IOException {
+    while (currentCount == 0) {
+      if (!isLengthAndBitWidthReaded) {
+        if (!buffer.hasRemaining()) {
+          return 0;
+        }
+        // start to read a new rle+bit-packing pattern
+        readLengthAndBitWidth(buffer);
+      }
+      readNext();
+      if (!hasNextPackage()) {
+        isLengthAndBitWidthReaded = false;
+      }
+    }
+    return currentCount;
+  }
+
+  /**
+   * Consumes values of the current run that have been copied out by a bulk read method.
+   *
+   * @param count number of consumed values
+   */
+  protected void consumeRun(int count) {
+    currentCount -= count;
+    if (!hasNextPackage()) {
+      isLengthAndBitWidthReaded = false;
+    }
+  }
+
+  /**
+   * Skips whole runs where possible. A bit-packed run whose values are all skipped is passed over
+   * by its encoded length without unpacking it.
+   */
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int count) throws IOException {
+    int skipped = 0;
+    while (skipped < count) {
+      if (currentCount == 0) {
+        int runSize = skipBitPackedRun(buffer, count - skipped);
+        if (runSize > 0) {
+          skipped += runSize;
+          continue;
+        }
+      }
+      int length = Math.min(prepareRun(buffer), count - skipped);
+      if (length == 0) {
+        break;
+      }
+      consumeRun(length);
+      skipped += length;
+    }
+    return skipped;
+  }
+
+  /**
+   * Skips the next run if it is bit-packed and holds no more than {@code maxCount} values.
+   *
+   * @return the number of skipped values, 0 if the run is not skipped
+   */
+  private int skipBitPackedRun(ByteBuffer buffer, int maxCount) {
+    if (!isLengthAndBitWidthReaded) {
+      if (!buffer.hasRemaining()) {
+        return 0;
+      }
+      readLengthAndBitWidth(buffer);
+    }
+    if (!byteCache.hasRemaining()) {
+      return 0;
+    }
+    int start = byteCache.position();
+    int header = ReadWriteForEncodingUtils.readUnsignedVarInt(byteCache);
+    int bitPackedGroupCount = header >> 1;
+    if ((header & 1) == 1 && bitPackedGroupCount > 0 && byteCache.hasRemaining()) {
+      int lastBitPackedNum = byteCache.get(byteCache.position()) & 0xFF;
+      int runSize =
+          (bitPackedGroupCount - 1) * TSFileConfig.RLE_MIN_REPEATED_NUM + lastBitPackedNum;
+      if (runSize <= maxCount) {
+        int end = byteCache.position() + 1 + bitPackedGroupCount * bitWidth;
+        byteCache.position(Math.min(end, byteCache.limit()));
+        if (!hasNextPackage()) {
+          isLengthAndBitWidthReaded = false;
+        }
+        return runSize;
+      }
+    }
+    byteCache.position(start);
+    return 0;
+  }
+
   protected abstract void initPacker();
 
   /**
@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.encoder;
+
+import org.apache.tsfile.encoding.bitpacking.LongPacker;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Encoder of ALP (Adaptive Lossless floating-Point compression, Afroozeh et al., SIGMOD 2024).
+ *
+ * <p>Floating-point values that originate from decimals, e.g. {@code 12.34}, are turned into
+ * integers by multiplying them by {@code 10^e} and dividing them by {@code 10^f}, where the
+ * exponent {@code e} and the factor {@code f} are chosen per block from a sample of its values. A
+ * value is encoded losslessly only if the integer multiplied back gives exactly the same bits,
+ * otherwise it is stored as an exception. The integers are then stored with frame-of-reference and
+ * bit-packing, so decoding is a tight loop of integer unpacking and one multiplication per value.
+ *
+ * <p>The encoded data is a sequence of blocks of at most {@link #BLOCK_SIZE} values:
+ *
+ * <pre>
+ * block    := count(unsigned varint) mode(1 byte) (alp-data | raw-data)
+ * alp-data := e(1 byte) f(1 byte) base(8 bytes) width(1 byte) packed-deltas
+ *             exception-count(unsigned varint) exception-position(2 bytes)* exception-value*
+ * raw-data := value*
+ * </pre>
+ *
+ * A block falls back to raw values if the ALP representation is not smaller, e.g. for values that
+ * do not originate from decimals.
+ */
+public abstract class AlpEncoder extends Encoder {
+
+  /** Number of values in a full block. */
+  public static final int BLOCK_SIZE = 1024;
+
+  public static final byte MODE_ALP = 0;
+  public static final byte MODE_RAW = 1;
+
+  /** Number of values sampled from a block to choose the exponent and the factor. */
+  private static final int SAMPLE_SIZE = 32;
+
+  /**
+   * Number of (exponent, factor) combinations kept from the full search of the first block of a
+   * page, the following blocks only try these ones.
+   */
+  private static final int MAX_COMBINATION_NUM = 5;
+
+  /** Bytes of an exception position. */
+  private static final int POSITION_BYTES = Short.BYTES;
+
+  /** Bytes of the block header besides the value count. */
+  private static final int ALP_HEADER_BYTES = 1 + 1 + 1 + Long.BYTES + 1;
+
+  /** The integers of the current block, then their differences to the smallest one. */
+  protected final long[] encoded = new long[BLOCK_SIZE];
+
+  /** Number of values buffered in the current block. */
+  protected int count;
+
+  private final int[] exceptionPositions = new int[BLOCK_SIZE];
+  private final byte[] packBuffer = new byte[Long.SIZE];
+  private final LongPacker packer = new LongPacker(0);
+
+  private final int[] combinationExponents = new int[MAX_COMBINATION_NUM];
+  private final int[] combinationFactors = new int[MAX_COMBINATION_NUM];
+  private final long[] combinationCosts = new long[MAX_COMBINATION_NUM];
+  private int combinationNum;
+
+  protected AlpEncoder() {
+    super(TSEncoding.ALP);
+  }
+
+  /** The largest exponent allowed by the precision of the data type. */
+  protected abstract int getMaxExponent();
+
+  /** Number of bytes of a raw value. */
+  protected abstract int getValueBytes();
+
+  /**
+   * Encodes the buffered value at {@code index} into {@code encoded[index]}.
+   *
+   * @return true if decoding the integer gives back exactly the same value
+   */
+  protected abstract boolean encodeValue(int index, int exponent, int factor);
+
+  /** Writes the buffered value at {@code index} as is. */
+  protected abstract void writeRawValue(int index, ByteArrayOutputStream out);
+
+  /** Called by the subclasses after buffering {@code num} values behind the buffered ones. */
+  protected void onValuesBuffered(int num, ByteArrayOutputStream out) {
+    count += num;
+    if (count == BLOCK_SIZE) {
+      flushBlock(out);
+    }
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) {
+    flushBlock(out);
+    // the next page samples its own combinations
+    combinationNum = 0;
+  }
+
+  @Override
+  public int getOneItemMaxSize() {
+    // buffering a value may flush a full block
+    return ReadWriteForEncodingUtils.uVarIntSize(BLOCK_SIZE) + 1 + BLOCK_SIZE * getValueBytes();
+  }
+
+  @Override
+  public long getMaxByteSize() {
+    // a block is written as raw values if its ALP representation is not smaller
+    return ReadWriteForEncodingUtils.uVarIntSize(BLOCK_SIZE) + 1 + (long) count * getValueBytes();
+  }
+
+  private void flushBlock(ByteArrayOutputStream out) {
+    if (count == 0) {
+      return;
+    }
+    chooseCombination();
+    int exponent = combinationExponents[0];
+    int factor = combinationFactors[0];
+
+    int exceptionNum = 0;
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (int i = 0; i < count; i++) {
+      if (encodeValue(i, exponent, factor)) {
+        min = Math.min(min, encoded[i]);
+        max = Math.max(max, encoded[i]);
+      } else {
+        exceptionPositions[exceptionNum++] = i;
+      }
+    }
+    if (exceptionNum == count) {
+      min = 0;
+      max = 0;
+    }
+    int width = getBitWidth(max - min);
+    long alpSize =
+        ALP_HEADER_BYTES
+            + (long) (count + 7) / 8 * width
+            + ReadWriteForEncodingUtils.uVarIntSize(exceptionNum)
+            + (long) exceptionNum * (POSITION_BYTES + getValueBytes());
+
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(count, out);
+    if (alpSize >= 1 + (long) count * getValueBytes()) {
+      out.write(MODE_RAW);
+      for (int i = 0; i < count; i++) {
+        writeRawValue(i, out);
+      }
+    } else {
+      out.write(MODE_ALP);
+      out.write(exponent);
+      out.write(factor);
+      writeLong(min, out);
+      out.write(width);
+      // exceptions take the smallest integer so that they do not widen the bit-width
+      for (int i = 0; i < exceptionNum; i++) {
+        encoded[exceptionPositions[i]] = min;
+      }
+      int paddedCount = (count + 7) & ~7;
+      for (int i = 0; i < count; i++) {
+        encoded[i] -= min;
+      }
+      for (int i = count; i < paddedCount; i++) {
+        encoded[i] = 0;
+      }
+      if (width > 0) {
+        packer.setWidth(width);
+        for (int i = 0; i < paddedCount; i += 8) {
+          packer.pack8Values(encoded, i, packBuffer);
+          out.write(packBuffer, 0, width);
+        }
+      }
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(exceptionNum, out);
+      for (int i = 0; i < exceptionNum; i++) {
+        out.write(exceptionPositions[i] >>> 8);
+        out.write(exceptionPositions[i]);
+      }
+      for (int i = 0; i < exceptionNum; i++) {
+        writeRawValue(exceptionPositions[i], out);
+      }
+    }
+    count = 0;
+  }
+
+  /**
+   * Moves the best (exponent, factor) combination for the current block to the front. The first
+   * block of a page searches all the combinations and keeps the best ones, the following blocks
+   * only try the kept ones, which is cheap and good enough since the values of a series rarely
+   * change their precision.
+   */
+  private void chooseCombination() {
+    int step = Math.max(1, count / SAMPLE_SIZE);
+    if (combinationNum == 0) {
+      for (int exponent = getMaxExponent(); exponent >= 0; exponent--) {
+        for (int factor = exponent; factor >= 0; factor--) {
+          addCombination(exponent, factor, estimateCost(exponent, factor, step));
+        }
+      }
+      return;
+    }
+    int best = 0;
+    long bestCost = Long.MAX_VALUE;
+    for (int i = 0; i < combinationNum; i++) {
+      long cost = estimateCost(combinationExponents[i], combinationFactors[i], step);
+      if (cost < bestCost) {
+        best = i;
+        bestCost = cost;
+      }
+    }
+    swapCombinations(0, best);
+  }
+
+  /** Keeps the combination if it is among the best ones so far, the ties keep the earlier one. */
+  private void addCombination(int exponent, int factor, long cost) {
+    int i = combinationNum;
+    if (i == MAX_COMBINATION_NUM) {
+      if (cost >= combinationCosts[i - 1]) {
+        return;
+      }
+      i--;
+    } else {
+      combinationNum++;
+    }
+    while (i > 0 && combinationCosts[i - 1] > cost) {
+      combinationExponents[i] = combinationExponents[i - 1];
+      combinationFactors[i] = combinationFactors[i - 1];
+      combinationCosts[i] = combinationCosts[i - 1];
+      i--;
+    }
+    combinationExponents[i] = exponent;
+    combinationFactors[i] = factor;
+    combinationCosts[i] = cost;
+  }
+
+  private void swapCombinations(int i, int j) {
+    int exponent = combinationExponents[i];
+    int factor = combinationFactors[i];
+    long cost = combinationCosts[i];
+    combinationExponents[i] = combinationExponents[j];
+    combinationFactors[i] = combinationFactors[j];
+    combinationCosts[i] = combinationCosts[j];
+    combinationExponents[j] = exponent;
+    combinationFactors[j] = factor;
+    combinationCosts[j] = cost;
+  }
+
+  /** Estimates the encoded size in bits of the sampled values. */
+  private long estimateCost(int exponent, int factor, int step) {
+    int sampleNum = 0;
+    int exceptionNum = 0;
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (int i = 0; i < count; i += step) {
+      sampleNum++;
+      if (encodeValue(i, exponent, factor)) {
+        min = Math.min(min, encoded[i]);
+        max = Math.max(max, encoded[i]);
+      } else {
+        exceptionNum++;
+      }
+    }
+    int width = exceptionNum == sampleNum ? 0 : getBitWidth(max - min);
+    return (long) sampleNum * width
+        + (long) exceptionNum * (POSITION_BYTES + getValueBytes()) * Byte.SIZE;
+  }
+
+  private static int getBitWidth(long range) {
+    return Long.SIZE - Long.numberOfLeadingZeros(range);
+  }
+
+  private static void writeLong(long value, ByteArrayOutputStream out) {
+    for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+      out.write((int) (value >>> shift));
+    }
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.encoder;
+
+import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.encrypt.IEncryptor;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.EncryptionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.PublicBAOS;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An encoder implementing dictionary encoding with one dictionary for a whole chunk. Unlike {@link
+ * DictionaryEncoder}, which repeats the dictionary in every page, the pages only hold the ids of
+ * the values, and the chunk writer writes the dictionary once in front of the pages by {@link
+ * #writeDictionary(ICompressor, IEncryptor, ByteArrayOutputStream)}. The dictionary grows with the
+ * chunk, so the encoding is meant for columns of a low cardinality.
+ *
+ * <pre>Encoding format: {@code
+ * page := <indexes>
+ * <indexes> := RLE encoded [<index>]...
+ * dictionary block := <uncompressed size> <compressed size> <compressed map>
+ * <map> := <map length> [<entry size><entry data>]...
+ * }</pre>
+ */
+public class ChunkDictionaryEncoder extends Encoder {
+
+  private final Map<Binary, Integer> entryIndex;
+  private final List<Binary> indexEntry;
+  private final IntRleEncoder valuesEncoder;
+  private long mapSize;
+
+  /** the serialized dictionary block, null if the dictionary is changed since it is serialized */
+  private PublicBAOS dictionaryBlock;
+
+  public ChunkDictionaryEncoder() {
+    super(TSEncoding.CHUNK_DICTIONARY);
+
+    entryIndex = new HashMap<>();
+    indexEntry = new ArrayList<>();
+    valuesEncoder = new IntRleEncoder();
+    mapSize = 0;
+  }
+
+  @Override
+  public void encode(Binary value, ByteArrayOutputStream out) {
+    int i =
+        entryIndex.computeIfAbsent(
+            value,
+            v -> {
+              indexEntry.add(v);
+              mapSize += v.getLength();
+              dictionaryBlock = null;
+              return entryIndex.size();
+            });
+    valuesEncoder.encode(i, out);
+  }
+
+  /** Writes the ids of the current page, the dictionary is kept for the next pages. */
+  @Override
+  public void flush(ByteArrayOutputStream out) throws IOException {
+    valuesEncoder.flush(out);
+  }
+
+  @Override
+  public int getOneItemMaxSize() {
+    // the dictionary is written by the chunk writer, so only one encoded id counts
+    return 4;
+  }
+
+  @Override
+  public long getMaxByteSize() {
+    return valuesEncoder.getMaxByteSize();
+  }
+
+  /**
+   * @return the number of distinct values of the current chunk
+   */
+  public int getDictionarySize() {
+    return indexEntry.size();
+  }
+
+  /**
+   * @return the distinct values of the current chunk, indexed by their ids
+   */
+  public Binary[] getDictionary() {
+    return indexEntry.toArray(new Binary[0]);
+  }
+
+  /**
+   * @return the max size of the dictionary block of the current chunk
+   */
+  public long getMaxDictionaryByteSize() {
+    if (indexEntry.isEmpty()) {
+      return 0;
+    }
+    // uncompressed size + compressed size + map length + an entry size for each entry + entries
+    return 3L * Integer.BYTES + (long) Integer.BYTES * indexEntry.size() + mapSize;
+  }
+
+  /**
+   * The dictionary block is serialized once and kept until the dictionary changes, so the chunk
+   * writer can report the exact size of the chunk before flushing it.
+   *
+   * @return the size of the dictionary block, which is compressed and encrypted the same way as the
+   *     pages
+   */
+  public int getDictionaryByteSize(ICompressor compressor, IEncryptor encryptor)
+      throws IOException {
+    if (indexEntry.isEmpty()) {
+      return 0;
+    }
+    if (dictionaryBlock == null) {
+      dictionaryBlock = serializeDictionary(compressor, encryptor);
+    }
+    return dictionaryBlock.size();
+  }
+
+  /**
+   * Writes the dictionary of the current chunk as a dictionary block, which is compressed and
+   * encrypted the same way as the pages.
+   *
+   * @return the size of the dictionary block
+   */
+  public int writeDictionary(
+      ICompressor compressor, IEncryptor encryptor, ByteArrayOutputStream out) throws IOException {
+    int size = getDictionaryByteSize(compressor, encryptor);
+    if (size > 0) {
+      out.write(dictionaryBlock.getBuf(), 0, size);
+    }
+    return size;
+  }
+
+  private PublicBAOS serializeDictionary(ICompressor compressor, IEncryptor encryptor)
+      throws IOException {
+    PublicBAOS map = new PublicBAOS();
+    ReadWriteForEncodingUtils.writeVarInt(indexEntry.size(), map);
+    for (Binary value : indexEntry) {
+      ReadWriteForEncodingUtils.writeVarInt(value.getLength(), map);
+      map.write(value.getValues());
+    }
+    int uncompressedSize = map.size();
+    byte[] stored;
+    int storedSize;
+    if (compressor.getType() == CompressionType.UNCOMPRESSED) {
+      stored = map.getBuf();
+      storedSize = uncompressedSize;
+    } else {
+      stored = compressor.compress(map.getBuf(), 0, uncompressedSize);
+      storedSize = stored.length;
+    }
+    if (encryptor.getEncryptionType() != EncryptionType.UNENCRYPTED) {
+      stored = encryptor.encrypt(stored, 0, storedSize);
+      storedSize = stored.length;
+    }
+    PublicBAOS block = new PublicBAOS();
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, block);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(storedSize, block);
+    block.write(stored, 0, storedSize);
+    return block;
+  }
+
+  /** Clears the dictionary for the next chunk. */
+  public void resetDictionary() {
+    entryIndex.clear();
+    indexEntry.clear();
+    mapSize = 0;
+    dictionaryBlock = null;
+  }
+}
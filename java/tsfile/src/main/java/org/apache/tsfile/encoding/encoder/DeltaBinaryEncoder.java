@@ -214,6 +214,37 @@ public abstract class DeltaBinaryEncoder extends Encoder {
       encodeValue(value, out);
     }
 
+    @Override
+    public void encode(int[] values, int offset, int length, ByteArrayOutputStream out) {
+      int i = offset;
+      int end = offset + length;
+      while (i < end) {
+        if (writeIndex == -1) {
+          writeIndex++;
+          firstValue = values[i++];
+          previousValue = firstValue;
+          continue;
+        }
+        // fill the rest of the block in one go, the block is flushed as soon as it is full
+        int batchEnd = Math.min(end, i + blockSize - writeIndex);
+        int previous = previousValue;
+        int minDelta = minDeltaBase;
+        for (; i < batchEnd; i++) {
+          int delta = values[i] - previous;
+          if (delta < minDelta) {
+            minDelta = delta;
+          }
+          deltaBlockBuffer[writeIndex++] = delta;
+          previous = values[i];
+        }
+        previousValue = previous;
+        minDeltaBase = minDelta;
+        if (writeIndex == blockSize) {
+          flush(out);
+        }
+      }
+    }
+
     @Override
     public int getOneItemMaxSize() {
       return 4;
@@ -293,6 +324,37 @@ public abstract class DeltaBinaryEncoder extends Encoder {
       encodeValue(value, out);
     }
 
+    @Override
+    public void encode(long[] values, int offset, int length, ByteArrayOutputStream out) {
+      int i = offset;
+      int end = offset + length;
+      while (i < end) {
+        if (writeIndex == -1) {
+          writeIndex++;
+          firstValue = values[i++];
+          previousValue = firstValue;
+          continue;
+        }
+        // fill the rest of the block in one go, the block is flushed as soon as it is full
+        int batchEnd = Math.min(end, i + blockSize - writeIndex);
+        long previous = previousValue;
+        long minDelta = minDeltaBase;
+        for (; i < batchEnd; i++) {
+          long delta = values[i] - previous;
+          if (delta < minDelta) {
+            minDelta = delta;
+          }
+          deltaBlockBuffer[writeIndex++] = delta;
+          previous = values[i];
+        }
+        previousValue = previous;
+        minDeltaBase = minDelta;
+        if (writeIndex == blockSize) {
+          flush(out);
+        }
+      }
+    }
+
     @Override
     public int getOneItemMaxSize() {
       return 8;
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.encoder;
+
+import java.io.ByteArrayOutputStream;
+
+/** ALP encoder of DOUBLE values. */
+public class DoubleAlpEncoder extends AlpEncoder {
+
+  /** 10^18 is the largest power of ten below the 53-bit precision of a double. */
+  public static final int MAX_EXPONENT = 18;
+
+  /** The integers are limited to 52 bits so that the magic number rounds them exactly. */
+  private static final double ENCODING_UPPER_LIMIT = 0x1p51;
+
+  /** Adding and subtracting 2^52 + 2^51 rounds a double to the nearest integer. */
+  private static final double MAGIC_NUMBER = 0x1p52 + 0x1p51;
+
+  public static final double[] EXP10 = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+    1e17, 1e18
+  };
+
+  public static final double[] NEG_EXP10 = {
+    1e-0, 1e-1, 1e-2, 1e-3, 1e-4, 1e-5, 1e-6, 1e-7, 1e-8, 1e-9, 1e-10, 1e-11, 1e-12, 1e-13, 1e-14,
+    1e-15, 1e-16, 1e-17, 1e-18
+  };
+
+  private final double[] values = new double[BLOCK_SIZE];
+
+  @Override
+  public void encode(double value, ByteArrayOutputStream out) {
+    values[count] = value;
+    onValuesBuffered(1, out);
+  }
+
+  @Override
+  public void encode(double[] values, int offset, int length, ByteArrayOutputStream out) {
+    while (length > 0) {
+      int batch = Math.min(length, BLOCK_SIZE - count);
+      System.arraycopy(values, offset, this.values, count, batch);
+      onValuesBuffered(batch, out);
+      offset += batch;
+      length -= batch;
+    }
+  }
+
+  @Override
+  protected int getMaxExponent() {
+    return MAX_EXPONENT;
+  }
+
+  @Override
+  protected int getValueBytes() {
+    return Double.BYTES;
+  }
+
+  @Override
+  protected boolean encodeValue(int index, int exponent, int factor) {
+    double value = values[index];
+    double scaled = value * EXP10[exponent] * NEG_EXP10[factor];
+    if (!(Math.abs(scaled) <= ENCODING_UPPER_LIMIT)) {
+      // NaN, infinity or out of range
+      return false;
+    }
+    long integer = (long) (scaled + MAGIC_NUMBER - MAGIC_NUMBER);
+    encoded[index] = integer;
+    return Double.doubleToRawLongBits(decode(integer, exponent, factor))
+        == Double.doubleToRawLongBits(value);
+  }
+
+  public static double decode(long integer, int exponent, int factor) {
+    return integer * EXP10[factor] * NEG_EXP10[exponent];
+  }
+
+  @Override
+  protected void writeRawValue(int index, ByteArrayOutputStream out) {
+    long bits = Double.doubleToRawLongBits(values[index]);
+    for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+      out.write((int) (bits >>> shift));
+    }
+  }
+}
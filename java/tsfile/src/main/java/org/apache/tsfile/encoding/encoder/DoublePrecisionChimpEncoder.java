@@ -39,6 +39,21 @@ public class DoublePrecisionChimpEncoder extends LongChimpEncoder {
     encode(Double.doubleToRawLongBits(value), out);
   }
 
+  @Override
+  public final void encode(double[] values, int offset, int length, ByteArrayOutputStream out) {
+    int i = offset;
+    int end = offset + length;
+    beginBulk();
+    if (!firstValueWasWritten && i < end) {
+      writeFirst(Double.doubleToRawLongBits(values[i++]), out);
+      firstValueWasWritten = true;
+    }
+    for (; i < end; i++) {
+      compressValue(Double.doubleToRawLongBits(values[i]), out);
+    }
+    endBulk(out);
+  }
+
   @Override
   public void flush(ByteArrayOutputStream out) {
     // ending stream
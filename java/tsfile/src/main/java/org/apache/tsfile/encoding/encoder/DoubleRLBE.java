@@ -59,11 +59,7 @@ public class DoubleRLBE extends RLBE {
     if (val == 0) {
       return 1;
     }
-    int i = 64;
-    while ((((long) 1 << (i - 1)) & val) == 0 && i > 0) {
-      i--;
-    }
-    return i;
+    return Long.SIZE - Long.numberOfLeadingZeros(val);
   }
 
   /**
@@ -77,11 +73,7 @@ public class DoubleRLBE extends RLBE {
     if (val == 0) {
       return 1;
     }
-    int i = 64;
-    while ((((long) 1 << (i - 1)) & val) == 0 && i > 0) {
-      i--;
-    }
-    return i;
+    return Long.SIZE - Long.numberOfLeadingZeros(val);
   }
 
   /**
@@ -114,6 +106,35 @@ public class DoubleRLBE extends RLBE {
     encodeValue(value, out);
   }
 
+  @Override
+  public void encode(double[] values, int offset, int length, ByteArrayOutputStream out) {
+    int i = offset;
+    int end = offset + length;
+    while (i < end) {
+      if (writeIndex == -1) {
+        // the first value of a block is stored as it is
+        encodeValue(values[i++], out);
+        continue;
+      }
+      // the deltas up to the end of the block or of the slice, without checking for a full block
+      // after each of them
+      int stop = Math.min(end, i + blockSize - 1 - writeIndex);
+      double previous = previousValue;
+      int index = writeIndex;
+      for (; i < stop; i++) {
+        double delta = values[i] - previous;
+        diffValue[++index] = delta;
+        LengthCode[index] = calBinarylength(delta);
+        previous = values[i];
+      }
+      previousValue = previous;
+      writeIndex = index;
+      if (writeIndex == blockSize - 1) {
+        flush(out);
+      }
+    }
+  }
+
   @Override
   public void flush(ByteArrayOutputStream out) {
     flushBlock(out);
@@ -66,7 +66,7 @@ public class DoubleSprintzEncoder extends SprintzEncoder {
     return 1 + (long) (values.size() + 1) * Double.BYTES;
   }
 
-  protected long predict(Double value, Double preVlaue) throws TsFileEncodingException {
+  protected long predict(double value, double preVlaue) throws TsFileEncodingException {
     long pred;
     if (predictMethod.equals("delta")) {
       pred = delta(value, preVlaue);
@@ -88,11 +88,12 @@ public class DoubleSprintzEncoder extends SprintzEncoder {
   protected void bitPack() throws IOException {
     final double preValue = values.get(0);
     values.remove(0);
-    Vector<Long> convertBufferList = new Vector<>();
-    for (long itemBuffer : convertBuffer) {
-      convertBufferList.add(itemBuffer);
-    }
-    this.bitWidth = ReadWriteForEncodingUtils.getLongMaxBitWidth(convertBufferList);
+    packBlock(preValue);
+  }
+
+  /** Writes the first value of a block followed by the bit-packed predictions in convertBuffer. */
+  private void packBlock(double preValue) throws IOException {
+    this.bitWidth = ReadWriteForEncodingUtils.getLongMaxBitWidth(convertBuffer);
     packer = new LongPacker(this.bitWidth);
     byte[] bytes = new byte[bitWidth];
     packer.pack8Values(convertBuffer, 0, bytes);
@@ -101,11 +102,11 @@ public class DoubleSprintzEncoder extends SprintzEncoder {
     byteCache.write(bytes, 0, bytes.length);
   }
 
-  protected long delta(Double value, Double preValue) {
+  protected long delta(double value, double preValue) {
     return Double.doubleToLongBits(value) - Double.doubleToLongBits(preValue);
   }
 
-  protected long fire(Double value, Double preValue) {
+  protected long fire(double value, double preValue) {
     long prev = Double.doubleToLongBits(preValue);
     long val = Double.doubleToLongBits(value);
     long pred = firePred.predict(prev);
@@ -159,4 +160,33 @@ public class DoubleSprintzEncoder extends SprintzEncoder {
       }
     }
   }
+
+  @Override
+  public void encode(double[] values, int offset, int length, ByteArrayOutputStream out) {
+    int i = offset;
+    int end = offset + length;
+    // complete the block begun by the earlier values one value at a time
+    while (i < end && !this.values.isEmpty()) {
+      encode(values[i++], out);
+    }
+    // whole blocks are predicted and packed straight from the array
+    try {
+      for (; end - i > Block_size; i += Block_size + 1) {
+        firePred.reset();
+        for (int j = 0; j < Block_size; j++) {
+          convertBuffer[j] = predict(values[i + j + 1], values[i + j]);
+        }
+        packBlock(values[i]);
+        groupNum++;
+        if (groupNum == groupMax) {
+          flush(out);
+        }
+      }
+    } catch (IOException e) {
+      logger.error("Error occured when encoding Double Type value with with Sprintz", e);
+    }
+    for (; i < end; i++) {
+      encode(values[i], out);
+    }
+  }
 }
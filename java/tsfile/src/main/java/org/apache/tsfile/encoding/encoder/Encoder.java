@@ -81,6 +81,75 @@ public abstract class Encoder {
     throw new TsFileEncodingException("Method encode BigDecimal is not supported by Encoder");
   }
 
+  /**
+   * Encodes {@code length} values of {@code values} starting at {@code offset}.
+   *
+   * <p>The bulk encode methods are the fast path of the page writers, which receive whole columns
+   * of a tablet at a time. They produce exactly the same bytes as calling the per-value method for
+   * each value in turn. The default implementations fall back to the per-value methods, the
+   * encoders override them with loops that are free of virtual calls.
+   */
+  public void encode(boolean[] values, int offset, int length, ByteArrayOutputStream out) {
+    for (int i = offset, end = offset + length; i < end; i++) {
+      encode(values[i], out);
+    }
+  }
+
+  /**
+   * Encodes {@code length} values of {@code values} starting at {@code offset}.
+   *
+   * @see #encode(boolean[], int, int, ByteArrayOutputStream)
+   */
+  public void encode(int[] values, int offset, int length, ByteArrayOutputStream out) {
+    for (int i = offset, end = offset + length; i < end; i++) {
+      encode(values[i], out);
+    }
+  }
+
+  /**
+   * Encodes {@code length} values of {@code values} starting at {@code offset}.
+   *
+   * @see #encode(boolean[], int, int, ByteArrayOutputStream)
+   */
+  public void encode(long[] values, int offset, int length, ByteArrayOutputStream out) {
+    for (int i = offset, end = offset + length; i < end; i++) {
+      encode(values[i], out);
+    }
+  }
+
+  /**
+   * Encodes {@code length} values of {@code values} starting at {@code offset}.
+   *
+   * @see #encode(boolean[], int, int, ByteArrayOutputStream)
+   */
+  public void encode(float[] values, int offset, int length, ByteArrayOutputStream out) {
+    for (int i = offset, end = offset + length; i < end; i++) {
+      encode(values[i], out);
+    }
+  }
+
+  /**
+   * Encodes {@code length} values of {@code values} starting at {@code offset}.
+   *
+   * @see #encode(boolean[], int, int, ByteArrayOutputStream)
+   */
+  public void encode(double[] values, int offset, int length, ByteArrayOutputStream out) {
+    for (int i = offset, end = offset + length; i < end; i++) {
+      encode(values[i], out);
+    }
+  }
+
+  /**
+   * Encodes {@code length} values of {@code values} starting at {@code offset}.
+   *
+   * @see #encode(boolean[], int, int, ByteArrayOutputStream)
+   */
+  public void encode(Binary[] values, int offset, int length, ByteArrayOutputStream out) {
+    for (int i = offset, end = offset + length; i < end; i++) {
+      encode(values[i], out);
+    }
+  }
+
   /**
    * Write all values buffered in memory cache to OutputStream.
    *
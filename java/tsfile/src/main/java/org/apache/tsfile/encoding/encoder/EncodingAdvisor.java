@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.encoder;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.encoding.decoder.Decoder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.write.UnSupportedDataTypeException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * EncodingAdvisor chooses the value encoding of a chunk from a sample of its data, i.e. the values
+ * of its first page.
+ *
+ * <p>The sample is trial-encoded with every candidate encoding that supports the data type. A
+ * candidate is only eligible if decoding its output gives back exactly the sampled values, so the
+ * lossy encodings, e.g. TS_2DIFF on FLOAT with a limited float precision, are never chosen. Among
+ * the eligible candidates, the advisor picks the one with the smallest encoded size or the one
+ * decoding the sample in the shortest time, according to the {@link Objective}.
+ */
+public class EncodingAdvisor {
+
+  private static final Logger logger = LoggerFactory.getLogger(EncodingAdvisor.class);
+
+  /** The candidates, in the order of preference if two of them score the same. */
+  private static final TSEncoding[] CANDIDATES = {
+    TSEncoding.TS_2DIFF,
+    TSEncoding.PFOR,
+    TSEncoding.GORILLA,
+    TSEncoding.CHIMP,
+    TSEncoding.SPRINTZ,
+    TSEncoding.RLBE,
+    TSEncoding.ALP,
+    TSEncoding.RLE,
+    TSEncoding.DICTIONARY,
+    TSEncoding.PLAIN
+  };
+
+  /** the sample is decoded several times and the shortest time counts, to reduce the noise */
+  private static final int DECODE_ROUNDS = 3;
+
+  /** What the advisor optimizes for. */
+  public enum Objective {
+    /** the smallest encoded size. */
+    SIZE,
+    /** the shortest time to decode the sample. */
+    DECODE_TIME
+  }
+
+  private final Objective objective;
+
+  public EncodingAdvisor(Objective objective) {
+    this.objective = objective;
+  }
+
+  /**
+   * @return the advisor configured by {@link TSFileConfig#getEncodingAdvisorObjective()}, or null
+   *     if the advisor is disabled
+   */
+  public static EncodingAdvisor getAdvisor(TSFileConfig config) {
+    if (!config.isEncodingAdvisorEnabled()) {
+      return null;
+    }
+    return new EncodingAdvisor(Objective.valueOf(config.getEncodingAdvisorObjective()));
+  }
+
+  public Objective getObjective() {
+    return objective;
+  }
+
+  /**
+   * Chooses the encoding of {@code values}, which is one of the candidates, or PLAIN if none of
+   * them supports the data type.
+   *
+   * @param values the sample, a {@code boolean[]}, {@code int[]}, {@code long[]}, {@code float[]},
+   *     {@code double[]} or {@code Binary[]} array according to the data type
+   * @param count the number of values in the sample
+   */
+  public TSEncoding advise(TSDataType dataType, Object values, int count) {
+    Object expected = count == Array.getLength(values) ? values : copyOf(values, count);
+    TSEncoding best = TSEncoding.PLAIN;
+    long bestScore = Long.MAX_VALUE;
+    long bestSize = Long.MAX_VALUE;
+    // the decode time is only measured if it counts
+    int decodeRounds = objective == Objective.DECODE_TIME ? DECODE_ROUNDS : 1;
+    for (TSEncoding candidate : CANDIDATES) {
+      try {
+        Encoder encoder = TSEncodingBuilder.getEncodingBuilder(candidate).getEncoder(dataType);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encodeValues(encoder, dataType, expected, count, out);
+        encoder.flush(out);
+
+        byte[] encoded = out.toByteArray();
+        Object decoded = null;
+        long decodeTime = Long.MAX_VALUE;
+        for (int i = 0; i < decodeRounds; i++) {
+          Decoder decoder = Decoder.getDecoderByType(candidate, dataType);
+          long startTime = System.nanoTime();
+          decoded = decodeValues(decoder, dataType, ByteBuffer.wrap(encoded), count);
+          decodeTime = Math.min(decodeTime, System.nanoTime() - startTime);
+        }
+        if (!valuesEqual(expected, decoded)) {
+          continue;
+        }
+
+        long size = out.size();
+        long score = objective == Objective.SIZE ? size : decodeTime;
+        if (score < bestScore || (score == bestScore && size < bestSize)) {
+          best = candidate;
+          bestScore = score;
+          bestSize = size;
+        }
+      } catch (IOException | RuntimeException e) {
+        // the candidate does not support the data type or fails on the sample
+        logger.debug("skip encoding {} of data type {}: {}", candidate, dataType, e.getMessage());
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Decodes the {@code count} values in {@code encodedValues}, chooses the encoding of them and
+   * encodes them again into {@code out} with the chosen encoding.
+   *
+   * @return the encoder holding the re-encoded values, which is not flushed yet so that it accepts
+   *     more values
+   */
+  public Encoder reencode(
+      TSDataType dataType,
+      TSEncoding encoding,
+      ByteBuffer encodedValues,
+      int count,
+      ByteArrayOutputStream out)
+      throws IOException {
+    Object values =
+        decodeValues(Decoder.getDecoderByType(encoding, dataType), dataType, encodedValues, count);
+    TSEncoding chosen = advise(dataType, values, count);
+    Encoder encoder = TSEncodingBuilder.getEncodingBuilder(chosen).getEncoder(dataType);
+    encodeValues(encoder, dataType, values, count, out);
+    return encoder;
+  }
+
+  /**
+   * Decodes the {@code count} values in {@code encodedValues} by {@code decoder}, and encodes them
+   * again into {@code out} with {@code to}.
+   */
+  public static void transcode(
+      TSDataType dataType,
+      Decoder decoder,
+      TSEncoding to,
+      ByteBuffer encodedValues,
+      int count,
+      ByteArrayOutputStream out)
+      throws IOException {
+    Object values = decodeValues(decoder, dataType, encodedValues, count);
+    Encoder encoder = TSEncodingBuilder.getEncodingBuilder(to).getEncoder(dataType);
+    encodeValues(encoder, dataType, values, count, out);
+    encoder.flush(out);
+  }
+
+  private static void encodeValues(
+      Encoder encoder, TSDataType dataType, Object values, int count, ByteArrayOutputStream out) {
+    switch (dataType) {
+      case BOOLEAN:
+        encoder.encode((boolean[]) values, 0, count, out);
+        break;
+      case INT32:
+      case DATE:
+        encoder.encode((int[]) values, 0, count, out);
+        break;
+      case INT64:
+      case TIMESTAMP:
+        encoder.encode((long[]) values, 0, count, out);
+        break;
+      case FLOAT:
+        encoder.encode((float[]) values, 0, count, out);
+        break;
+      case DOUBLE:
+        encoder.encode((double[]) values, 0, count, out);
+        break;
+      case TEXT:
+      case BLOB:
+      case STRING:
+        encoder.encode((Binary[]) values, 0, count, out);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("Data type %s is not supported by EncodingAdvisor", dataType));
+    }
+  }
+
+  private static Object decodeValues(
+      Decoder decoder, TSDataType dataType, ByteBuffer buffer, int count) throws IOException {
+    Object values;
+    int decoded;
+    switch (dataType) {
+      case BOOLEAN:
+        values = new boolean[count];
+        decoded = decoder.readBooleans(buffer, (boolean[]) values, 0, count);
+        break;
+      case INT32:
+      case DATE:
+        values = new int[count];
+        decoded = decoder.readInts(buffer, (int[]) values, 0, count);
+        break;
+      case INT64:
+      case TIMESTAMP:
+        values = new long[count];
+        decoded = decoder.readLongs(buffer, (long[]) values, 0, count);
+        break;
+      case FLOAT:
+        values = new float[count];
+        decoded = decoder.readFloats(buffer, (float[]) values, 0, count);
+        break;
+      case DOUBLE:
+        values = new double[count];
+        decoded = decoder.readDoubles(buffer, (double[]) values, 0, count);
+        break;
+      case TEXT:
+      case BLOB:
+      case STRING:
+        values = new Binary[count];
+        decoded = decoder.readBinaries(buffer, (Binary[]) values, 0, count);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("Data type %s is not supported by EncodingAdvisor", dataType));
+    }
+    if (decoded != count) {
+      throw new IOException(
+          String.format("Expect %d values, but only %d values are decoded", count, decoded));
+    }
+    return values;
+  }
+
+  private static boolean valuesEqual(Object expected, Object actual) {
+    if (expected instanceof boolean[]) {
+      return Arrays.equals((boolean[]) expected, (boolean[]) actual);
+    } else if (expected instanceof int[]) {
+      return Arrays.equals((int[]) expected, (int[]) actual);
+    } else if (expected instanceof long[]) {
+      return Arrays.equals((long[]) expected, (long[]) actual);
+    } else if (expected instanceof float[]) {
+      return Arrays.equals((float[]) expected, (float[]) actual);
+    } else if (expected instanceof double[]) {
+      return Arrays.equals((double[]) expected, (double[]) actual);
+    } else {
+      return Arrays.equals((Object[]) expected, (Object[]) actual);
+    }
+  }
+
+  private static Object copyOf(Object values, int count) {
+    Object copy = Array.newInstance(values.getClass().getComponentType(), count);
+    System.arraycopy(values, 0, copy, 0, count);
+    return copy;
+  }
+}
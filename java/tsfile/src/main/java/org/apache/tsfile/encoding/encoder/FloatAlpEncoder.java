@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.encoder;
+
+import java.io.ByteArrayOutputStream;
+
+/** ALP encoder of FLOAT values. */
+public class FloatAlpEncoder extends AlpEncoder {
+
+  /** 10^10 is the largest power of ten that the float arithmetic of ALP is defined for. */
+  public static final int MAX_EXPONENT = 10;
+
+  /** The integers are limited to 23 bits so that the magic number rounds them exactly. */
+  private static final float ENCODING_UPPER_LIMIT = 0x1p22f;
+
+  /** Adding and subtracting 2^23 + 2^22 rounds a float to the nearest integer. */
+  private static final float MAGIC_NUMBER = 0x1p23f + 0x1p22f;
+
+  public static final float[] EXP10 = {
+    1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+  };
+
+  public static final float[] NEG_EXP10 = {
+    1e-0f, 1e-1f, 1e-2f, 1e-3f, 1e-4f, 1e-5f, 1e-6f, 1e-7f, 1e-8f, 1e-9f, 1e-10f
+  };
+
+  private final float[] values = new float[BLOCK_SIZE];
+
+  @Override
+  public void encode(float value, ByteArrayOutputStream out) {
+    values[count] = value;
+    onValuesBuffered(1, out);
+  }
+
+  @Override
+  public void encode(float[] values, int offset, int length, ByteArrayOutputStream out) {
+    while (length > 0) {
+      int batch = Math.min(length, BLOCK_SIZE - count);
+      System.arraycopy(values, offset, this.values, count, batch);
+      onValuesBuffered(batch, out);
+      offset += batch;
+      length -= batch;
+    }
+  }
+
+  @Override
+  protected int getMaxExponent() {
+    return MAX_EXPONENT;
+  }
+
+  @Override
+  protected int getValueBytes() {
+    return Float.BYTES;
+  }
+
+  @Override
+  protected boolean encodeValue(int index, int exponent, int factor) {
+    float value = values[index];
+    float scaled = value * EXP10[exponent] * NEG_EXP10[factor];
+    if (!(Math.abs(scaled) <= ENCODING_UPPER_LIMIT)) {
+      // NaN, infinity or out of range
+      return false;
+    }
+    int integer = (int) (scaled + MAGIC_NUMBER - MAGIC_NUMBER);
+    encoded[index] = integer;
+    return Float.floatToRawIntBits(decode(integer, exponent, factor))
+        == Float.floatToRawIntBits(value);
+  }
+
+  public static float decode(long integer, int exponent, int factor) {
+    return (int) integer * EXP10[factor] * NEG_EXP10[exponent];
+  }
+
+  @Override
+  protected void writeRawValue(int index, ByteArrayOutputStream out) {
+    int bits = Float.floatToRawIntBits(values[index]);
+    for (int shift = Integer.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+      out.write(bits >>> shift);
+    }
+  }
+}
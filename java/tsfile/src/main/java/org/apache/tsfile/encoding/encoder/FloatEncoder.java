@@ -49,6 +49,11 @@ public class FloatEncoder extends Encoder {
   /** flag to check whether maxPointNumber is saved in the stream. */
   private boolean isMaxPointNumberSaved;
 
+  /** scratch buffers of the bulk encode methods, holding the values converted to int or long. */
+  private int[] convertedInts = new int[0];
+
+  private long[] convertedLongs = new long[0];
+
   public FloatEncoder(TSEncoding encodingType, TSDataType dataType, int maxPointNumber) {
     super(encodingType);
     this.maxPointNumber = maxPointNumber;
@@ -101,6 +106,36 @@ public class FloatEncoder extends Encoder {
     encoder.encode(valueLong, out);
   }
 
+  @Override
+  public void encode(float[] values, int offset, int length, ByteArrayOutputStream out) {
+    if (length == 0) {
+      return;
+    }
+    saveMaxPointNumber(out);
+    if (convertedInts.length < length) {
+      convertedInts = new int[length];
+    }
+    for (int i = 0; i < length; i++) {
+      convertedInts[i] = convertFloatToInt(values[offset + i]);
+    }
+    encoder.encode(convertedInts, 0, length, out);
+  }
+
+  @Override
+  public void encode(double[] values, int offset, int length, ByteArrayOutputStream out) {
+    if (length == 0) {
+      return;
+    }
+    saveMaxPointNumber(out);
+    if (convertedLongs.length < length) {
+      convertedLongs = new long[length];
+    }
+    for (int i = 0; i < length; i++) {
+      convertedLongs[i] = convertDoubleToLong(values[offset + i]);
+    }
+    encoder.encode(convertedLongs, 0, length, out);
+  }
+
   private void calculateMaxPonitNum() {
     if (maxPointNumber <= 0) {
       maxPointNumber = 0;
@@ -60,9 +60,7 @@ public class FloatRLBE extends RLBE {
   private int calBinarylength(float v) {
     int val = Float.floatToRawIntBits(v);
     if (val == 0) return 1;
-    int i = 32;
-    while (((1 << (i - 1)) & val) == 0 && i > 0) i--;
-    return i;
+    return Integer.SIZE - Integer.numberOfLeadingZeros(val);
   }
 
   /**
@@ -73,9 +71,7 @@ public class FloatRLBE extends RLBE {
    */
   private int calBinarylength(int val) {
     if (val == 0) return 1;
-    int i = 32;
-    while (((1 << (i - 1)) & val) == 0 && i > 0) i--;
-    return i;
+    return Integer.SIZE - Integer.numberOfLeadingZeros(val);
   }
 
   /**
@@ -108,6 +104,35 @@ public class FloatRLBE extends RLBE {
     encodeValue(value, out);
   }
 
+  @Override
+  public void encode(float[] values, int offset, int length, ByteArrayOutputStream out) {
+    int i = offset;
+    int end = offset + length;
+    while (i < end) {
+      if (writeIndex == -1) {
+        // the first value of a block is stored as it is
+        encodeValue(values[i++], out);
+        continue;
+      }
+      // the deltas up to the end of the block or of the slice, without checking for a full block
+      // after each of them
+      int stop = Math.min(end, i + blockSize - 1 - writeIndex);
+      float previous = previousvalue;
+      int index = writeIndex;
+      for (; i < stop; i++) {
+        float delta = values[i] - previous;
+        DiffValue[++index] = delta;
+        LengthCode[index] = calBinarylength(delta);
+        previous = values[i];
+      }
+      previousvalue = previous;
+      writeIndex = index;
+      if (writeIndex == blockSize - 1) {
+        flush(out);
+      }
+    }
+  }
+
   @Override
   public void flush(ByteArrayOutputStream out) {
     flushBlock(out);
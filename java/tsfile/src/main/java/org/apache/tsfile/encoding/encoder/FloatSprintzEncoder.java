@@ -65,7 +65,7 @@ public class FloatSprintzEncoder extends SprintzEncoder {
     return 1 + (long) (values.size() + 1) * Integer.BYTES;
   }
 
-  protected int predict(Float value, Float preVlaue) throws TsFileEncodingException {
+  protected int predict(float value, float preVlaue) throws TsFileEncodingException {
     int pred;
     if (predictMethod.equals("delta")) {
       pred = delta(value, preVlaue);
@@ -84,9 +84,12 @@ public class FloatSprintzEncoder extends SprintzEncoder {
   protected void bitPack() throws IOException {
     float preValue = values.get(0);
     values.remove(0);
-    Vector<Integer> convertBufferList = new Vector<>();
-    for (int itemBuffer : convertBuffer) convertBufferList.add(itemBuffer);
-    this.bitWidth = ReadWriteForEncodingUtils.getIntMaxBitWidth(convertBufferList);
+    packBlock(preValue);
+  }
+
+  /** Writes the first value of a block followed by the bit-packed predictions in convertBuffer. */
+  private void packBlock(float preValue) throws IOException {
+    this.bitWidth = ReadWriteForEncodingUtils.getIntMaxBitWidth(convertBuffer);
     packer = new IntPacker(this.bitWidth);
     byte[] bytes = new byte[bitWidth];
     packer.pack8Values(convertBuffer, 0, bytes);
@@ -95,11 +98,11 @@ public class FloatSprintzEncoder extends SprintzEncoder {
     byteCache.write(bytes, 0, bytes.length);
   }
 
-  protected int delta(Float value, Float preValue) {
+  protected int delta(float value, float preValue) {
     return Float.floatToIntBits(value) - Float.floatToIntBits(preValue);
   }
 
-  protected int fire(Float value, Float preValue) {
+  protected int fire(float value, float preValue) {
     int prev = Float.floatToIntBits(preValue);
     int val = Float.floatToIntBits(value);
     int pred = firePred.predict(prev);
@@ -153,4 +156,33 @@ public class FloatSprintzEncoder extends SprintzEncoder {
       }
     }
   }
+
+  @Override
+  public void encode(float[] values, int offset, int length, ByteArrayOutputStream out) {
+    int i = offset;
+    int end = offset + length;
+    // complete the block begun by the earlier values one value at a time
+    while (i < end && !this.values.isEmpty()) {
+      encode(values[i++], out);
+    }
+    // whole blocks are predicted and packed straight from the array
+    try {
+      for (; end - i > Block_size; i += Block_size + 1) {
+        firePred.reset();
+        for (int j = 0; j < Block_size; j++) {
+          convertBuffer[j] = predict(values[i + j + 1], values[i + j]);
+        }
+        packBlock(values[i]);
+        groupNum++;
+        if (groupNum == groupMax) {
+          flush(out);
+        }
+      }
+    } catch (IOException e) {
+      logger.error("Error occured when encoding Float Type value with with Sprintz", e);
+    }
+    for (; i < end; i++) {
+      encode(values[i], out);
+    }
+  }
 }
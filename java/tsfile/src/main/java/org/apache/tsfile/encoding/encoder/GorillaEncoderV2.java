@@ -41,6 +41,13 @@ public abstract class GorillaEncoderV2 extends Encoder {
   private byte buffer = 0;
   protected int bitsLeft = Byte.SIZE;
 
+  private static final int BULK_BUFFER_SIZE = 1024;
+
+  // the bytes finished during a bulk encode, written to the stream in one go
+  private byte[] bulkBytes;
+  private int bulkByteCount;
+  private boolean inBulk = false;
+
   protected GorillaEncoderV2() {
     super(TSEncoding.GORILLA);
   }
@@ -59,6 +66,25 @@ public abstract class GorillaEncoderV2 extends Encoder {
     bitsLeft = Byte.SIZE;
   }
 
+  /**
+   * Starts a bulk encode. Until {@link #endBulk} the finished bytes are collected in a buffer
+   * instead of being written to the stream one at a time.
+   */
+  protected final void beginBulk() {
+    if (bulkBytes == null) {
+      bulkBytes = new byte[BULK_BUFFER_SIZE];
+    }
+    bulkByteCount = 0;
+    inBulk = true;
+  }
+
+  /** Writes the bytes collected since {@link #beginBulk} to the stream. */
+  protected final void endBulk(ByteArrayOutputStream out) {
+    out.write(bulkBytes, 0, bulkByteCount);
+    bulkByteCount = 0;
+    inBulk = false;
+  }
+
   /** Stores a 0 and increases the count of bits by 1. */
   protected void skipBit(ByteArrayOutputStream out) {
     bitsLeft--;
@@ -97,7 +123,15 @@ public abstract class GorillaEncoderV2 extends Encoder {
 
   protected void flipByte(ByteArrayOutputStream out) {
     if (bitsLeft == 0) {
-      out.write(buffer);
+      if (inBulk) {
+        if (bulkByteCount == bulkBytes.length) {
+          out.write(bulkBytes, 0, bulkByteCount);
+          bulkByteCount = 0;
+        }
+        bulkBytes[bulkByteCount++] = buffer;
+      } else {
+        out.write(buffer);
+      }
       buffer = 0;
       bitsLeft = Byte.SIZE;
     }
@@ -112,14 +112,29 @@ public class IntChimpEncoder extends GorillaEncoderV2 {
     }
   }
 
+  @Override
+  public final void encode(int[] values, int offset, int length, ByteArrayOutputStream out) {
+    int i = offset;
+    int end = offset + length;
+    beginBulk();
+    if (!firstValueWasWritten && i < end) {
+      writeFirst(values[i++], out);
+      firstValueWasWritten = true;
+    }
+    for (; i < end; i++) {
+      compressValue(values[i], out);
+    }
+    endBulk(out);
+  }
+
   // the first value is stored with no compression
-  private void writeFirst(int value, ByteArrayOutputStream out) {
+  protected final void writeFirst(int value, ByteArrayOutputStream out) {
     storedValues[current] = value;
     writeBits(value, VALUE_BITS_LENGTH_32BIT, out);
     indices[value & SET_LSB] = index;
   }
 
-  private void compressValue(int value, ByteArrayOutputStream out) {
+  protected final void compressValue(int value, ByteArrayOutputStream out) {
     // find the best previous value
     int key = value & SET_LSB;
     int xor;
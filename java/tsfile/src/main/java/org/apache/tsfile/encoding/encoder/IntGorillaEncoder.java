@@ -62,6 +62,21 @@ public class IntGorillaEncoder extends GorillaEncoderV2 {
     }
   }
 
+  @Override
+  public final void encode(int[] values, int offset, int length, ByteArrayOutputStream out) {
+    int i = offset;
+    int end = offset + length;
+    beginBulk();
+    if (!firstValueWasWritten && i < end) {
+      writeFirst(values[i++], out);
+      firstValueWasWritten = true;
+    }
+    for (; i < end; i++) {
+      compressValue(values[i], out);
+    }
+    endBulk(out);
+  }
+
   @Override
   public void flush(ByteArrayOutputStream out) {
     // ending stream
@@ -82,12 +97,12 @@ public class IntGorillaEncoder extends GorillaEncoderV2 {
     storedValue = 0;
   }
 
-  private void writeFirst(int value, ByteArrayOutputStream out) {
+  protected final void writeFirst(int value, ByteArrayOutputStream out) {
     storedValue = value;
     writeBits(value, VALUE_BITS_LENGTH_32BIT, out);
   }
 
-  private void compressValue(int value, ByteArrayOutputStream out) {
+  protected final void compressValue(int value, ByteArrayOutputStream out) {
     int xor = storedValue ^ value;
     storedValue = value;
 
@@ -54,6 +54,20 @@ public class IntRleEncoder extends RleEncoder<Integer> {
     }
   }
 
+  @Override
+  public void encode(int[] values, int offset, int length, ByteArrayOutputStream out) {
+    for (int i = offset, end = offset + length; i < end; i++) {
+      this.values.add(values[i]);
+    }
+  }
+
+  @Override
+  public void encode(boolean[] values, int offset, int length, ByteArrayOutputStream out) {
+    for (int i = offset, end = offset + length; i < end; i++) {
+      this.values.add(values[i] ? 1 : 0);
+    }
+  }
+
   /**
    * write all values buffered in the cache to an OutputStream.
    *
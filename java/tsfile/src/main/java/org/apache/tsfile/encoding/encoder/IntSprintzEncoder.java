@@ -39,10 +39,14 @@ public class IntSprintzEncoder extends SprintzEncoder {
   // we save all value in a list and calculate its bitwidth.
   protected Vector<Integer> values;
 
+  // predicted values of a block encoded in bulk
+  private final int[] blockBuffer;
+
   public IntSprintzEncoder() {
     super();
     values = new Vector<>();
     firePred = new IntFire(2);
+    blockBuffer = new int[Block_size];
   }
 
   @Override
@@ -61,8 +65,8 @@ public class IntSprintzEncoder extends SprintzEncoder {
     return 1 + (long) (values.size() + 1) * Integer.BYTES;
   }
 
-  protected Integer predict(Integer value, Integer preVlaue) throws TsFileEncodingException {
-    Integer pred;
+  protected int predict(int value, int preVlaue) throws TsFileEncodingException {
+    int pred;
     if (predictMethod.equals("delta")) {
       pred = delta(value, preVlaue);
     } else if (predictMethod.equals("fire")) {
@@ -83,24 +87,29 @@ public class IntSprintzEncoder extends SprintzEncoder {
   protected void bitPack() throws IOException {
     final int preValue = values.get(0);
     values.remove(0);
-    this.bitWidth = ReadWriteForEncodingUtils.getIntMaxBitWidth(values);
-    packer = new IntPacker(this.bitWidth);
-    byte[] bytes = new byte[bitWidth];
     int[] tmpBuffer = new int[Block_size];
     for (int i = 0; i < Block_size; i++) {
       tmpBuffer[i] = values.get(i);
     }
-    packer.pack8Values(tmpBuffer, 0, bytes);
+    packBlock(preValue, tmpBuffer);
+  }
+
+  /** Writes the first value of a block followed by the bit-packed predictions of the others. */
+  private void packBlock(int preValue, int[] predicted) throws IOException {
+    this.bitWidth = ReadWriteForEncodingUtils.getIntMaxBitWidth(predicted);
+    packer = new IntPacker(this.bitWidth);
+    byte[] bytes = new byte[bitWidth];
+    packer.pack8Values(predicted, 0, bytes);
     ReadWriteForEncodingUtils.writeIntLittleEndianPaddedOnBitWidth(bitWidth, byteCache, 1);
     ReadWriteForEncodingUtils.writeUnsignedVarInt(preValue, byteCache);
     byteCache.write(bytes, 0, bytes.length);
   }
 
-  protected Integer delta(Integer value, Integer preValue) {
+  protected int delta(int value, int preValue) {
     return value - preValue;
   }
 
-  protected Integer fire(Integer value, Integer preValue) {
+  protected int fire(int value, int preValue) {
     int pred = firePred.predict(preValue);
     int err = value - pred;
     firePred.train(preValue, value, err);
@@ -155,4 +164,33 @@ public class IntSprintzEncoder extends SprintzEncoder {
       }
     }
   }
+
+  @Override
+  public void encode(int[] values, int offset, int length, ByteArrayOutputStream out) {
+    int i = offset;
+    int end = offset + length;
+    // complete the block begun by the earlier values one value at a time
+    while (i < end && !this.values.isEmpty()) {
+      encode(values[i++], out);
+    }
+    // whole blocks are predicted and packed straight from the array
+    try {
+      for (; end - i > Block_size; i += Block_size + 1) {
+        firePred.reset();
+        for (int j = 0; j < Block_size; j++) {
+          blockBuffer[j] = predict(values[i + j + 1], values[i + j]);
+        }
+        packBlock(values[i], blockBuffer);
+        groupNum++;
+        if (groupNum == groupMax) {
+          flush(out);
+        }
+      }
+    } catch (IOException e) {
+      logger.error("Error occured when encoding INT32 Type value with with Sprintz", e);
+    }
+    for (; i < end; i++) {
+      encode(values[i], out);
+    }
+  }
 }
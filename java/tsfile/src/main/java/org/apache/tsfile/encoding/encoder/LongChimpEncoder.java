@@ -123,14 +123,29 @@ public class LongChimpEncoder extends GorillaEncoderV2 {
     }
   }
 
+  @Override
+  public final void encode(long[] values, int offset, int length, ByteArrayOutputStream out) {
+    int i = offset;
+    int end = offset + length;
+    beginBulk();
+    if (!firstValueWasWritten && i < end) {
+      writeFirst(values[i++], out);
+      firstValueWasWritten = true;
+    }
+    for (; i < end; i++) {
+      compressValue(values[i], out);
+    }
+    endBulk(out);
+  }
+
   // the first value is stored with no compression
-  private void writeFirst(long value, ByteArrayOutputStream out) {
+  protected final void writeFirst(long value, ByteArrayOutputStream out) {
     storedValues[current] = value;
     writeBits(value, VALUE_BITS_LENGTH_64BIT, out);
     indices[(int) value & SET_LSB] = index;
   }
 
-  private void compressValue(long value, ByteArrayOutputStream out) {
+  protected final void compressValue(long value, ByteArrayOutputStream out) {
     // find the best previous value
     int key = (int) value & SET_LSB;
     long xor;
@@ -62,6 +62,21 @@ public class LongGorillaEncoder extends GorillaEncoderV2 {
     }
   }
 
+  @Override
+  public final void encode(long[] values, int offset, int length, ByteArrayOutputStream out) {
+    int i = offset;
+    int end = offset + length;
+    beginBulk();
+    if (!firstValueWasWritten && i < end) {
+      writeFirst(values[i++], out);
+      firstValueWasWritten = true;
+    }
+    for (; i < end; i++) {
+      compressValue(values[i], out);
+    }
+    endBulk(out);
+  }
+
   @Override
   public void flush(ByteArrayOutputStream out) {
     // ending stream
@@ -82,12 +97,12 @@ public class LongGorillaEncoder extends GorillaEncoderV2 {
     storedValue = 0;
   }
 
-  private void writeFirst(long value, ByteArrayOutputStream out) {
+  protected final void writeFirst(long value, ByteArrayOutputStream out) {
     storedValue = value;
     writeBits(value, VALUE_BITS_LENGTH_64BIT, out);
   }
 
-  private void compressValue(long value, ByteArrayOutputStream out) {
+  protected final void compressValue(long value, ByteArrayOutputStream out) {
     long xor = storedValue ^ value;
     storedValue = value;
 
@@ -46,6 +46,13 @@ public class LongRleEncoder extends RleEncoder<Long> {
     values.add(value);
   }
 
+  @Override
+  public void encode(long[] values, int offset, int length, ByteArrayOutputStream out) {
+    for (int i = offset, end = offset + length; i < end; i++) {
+      this.values.add(values[i]);
+    }
+  }
+
   /**
    * write all values buffered in cache to OutputStream.
    *
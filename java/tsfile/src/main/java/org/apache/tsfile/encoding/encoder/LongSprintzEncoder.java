@@ -40,10 +40,14 @@ public class LongSprintzEncoder extends SprintzEncoder {
   // we save all value in a list and calculate its bitwidth.
   protected Vector<Long> values;
 
+  // predicted values of a block encoded in bulk
+  private final long[] blockBuffer;
+
   public LongSprintzEncoder() {
     super();
     values = new Vector<>();
     firePred = new LongFire(3);
+    blockBuffer = new long[Block_size];
   }
 
   @Override
@@ -62,8 +66,8 @@ public class LongSprintzEncoder extends SprintzEncoder {
     return 1 + (1L + values.size()) * Long.BYTES;
   }
 
-  protected Long predict(Long value, Long preVlaue) throws TsFileEncodingException {
-    Long pred;
+  protected long predict(long value, long preVlaue) throws TsFileEncodingException {
+    long pred;
     if (predictMethod.equals("delta")) {
       pred = delta(value, preVlaue);
     } else if (predictMethod.equals("fire")) {
@@ -84,24 +88,29 @@ public class LongSprintzEncoder extends SprintzEncoder {
   protected void bitPack() throws IOException {
     final long preValue = values.get(0);
     values.remove(0);
-    this.bitWidth = ReadWriteForEncodingUtils.getLongMaxBitWidth(values);
-    packer = new LongPacker(this.bitWidth);
-    byte[] bytes = new byte[bitWidth];
     long[] tmpBuffer = new long[Block_size];
     for (int i = 0; i < Block_size; i++) {
       tmpBuffer[i] = values.get(i);
     }
-    packer.pack8Values(tmpBuffer, 0, bytes);
+    packBlock(preValue, tmpBuffer);
+  }
+
+  /** Writes the first value of a block followed by the bit-packed predictions of the others. */
+  private void packBlock(long preValue, long[] predicted) throws IOException {
+    this.bitWidth = ReadWriteForEncodingUtils.getLongMaxBitWidth(predicted);
+    packer = new LongPacker(this.bitWidth);
+    byte[] bytes = new byte[bitWidth];
+    packer.pack8Values(predicted, 0, bytes);
     ReadWriteForEncodingUtils.writeIntLittleEndianPaddedOnBitWidth(bitWidth, byteCache, 1);
     byteCache.write(ByteBuffer.allocate(8).putLong(preValue).array());
     byteCache.write(bytes, 0, bytes.length);
   }
 
-  protected Long delta(Long value, Long preValue) {
+  protected long delta(long value, long preValue) {
     return value - preValue;
   }
 
-  protected Long fire(Long value, Long preValue) {
+  protected long fire(long value, long preValue) {
     long pred = firePred.predict(preValue);
     long err = value - pred;
     firePred.train(preValue, value, err);
@@ -156,4 +165,33 @@ public class LongSprintzEncoder extends SprintzEncoder {
       }
     }
   }
+
+  @Override
+  public void encode(long[] values, int offset, int length, ByteArrayOutputStream out) {
+    int i = offset;
+    int end = offset + length;
+    // complete the block begun by the earlier values one value at a time
+    while (i < end && !this.values.isEmpty()) {
+      encode(values[i++], out);
+    }
+    // whole blocks are predicted and packed straight from the array
+    try {
+      for (; end - i > Block_size; i += Block_size + 1) {
+        firePred.reset();
+        for (int j = 0; j < Block_size; j++) {
+          blockBuffer[j] = predict(values[i + j + 1], values[i + j]);
+        }
+        packBlock(values[i], blockBuffer);
+        groupNum++;
+        if (groupNum == groupMax) {
+          flush(out);
+        }
+      }
+    } catch (IOException e) {
+      logger.error("Error occured when encoding INT64 Type value with with Sprintz", e);
+    }
+    for (; i < end; i++) {
+      encode(values[i], out);
+    }
+  }
 }
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.encoder;
+
+import org.apache.tsfile.encoding.bitpacking.LongPacker;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * PforEncoder is a encoder for compressing data in type of integer and long with patched
+ * frame-of-reference (PFOR, Zukowski et al., ICDE 2006).
+ *
+ * <p>Like {@link DeltaBinaryEncoder}, it calculates the differences between adjacent points,
+ * subtracts the minimum difference of a block and bit-packs the results. But instead of packing
+ * every value with the bit-width of the largest one, it picks the bit-width that minimizes the size
+ * of the block: only the low bits of a value are packed and the few values that do not fit, e.g. a
+ * clock jump or a counter reset, are stored as exceptions whose high bits are packed separately and
+ * patched in after unpacking. A single outlier thus no longer widens the whole block.
+ *
+ * <p>The encoded data is a sequence of blocks of at most {@link #BLOCK_SIZE} values:
+ *
+ * <pre>
+ * block := count(unsigned varint) first-value min-delta width(1 byte) exception-count(1 byte)
+ *          [exception-width(1 byte)] packed-low-bits exception-position(1 byte)*
+ *          packed-exception-high-bits
+ * </pre>
+ */
+public abstract class PforEncoder extends Encoder {
+
+  /** Number of values in a full block, the positions of the exceptions fit in a byte. */
+  public static final int BLOCK_SIZE = 128;
+
+  /** The differences minus the minimum difference of the current block, as unsigned values. */
+  protected final long[] offsets = new long[BLOCK_SIZE];
+
+  /** Number of values buffered in the current block. */
+  protected int count;
+
+  private final int[] widthCounts = new int[Long.SIZE + 1];
+  private final int[] exceptionPositions = new int[BLOCK_SIZE];
+  private final long[] exceptionHighBits = new long[BLOCK_SIZE];
+  private final byte[] packBuffer = new byte[Long.SIZE];
+  private final LongPacker packer = new LongPacker(0);
+
+  protected PforEncoder() {
+    super(TSEncoding.PFOR);
+  }
+
+  /** Number of bytes of a value. */
+  protected abstract int getValueBytes();
+
+  /**
+   * Fills {@link #offsets} with the {@code count - 1} differences of the buffered values minus
+   * their minimum, then writes the first value and the minimum difference.
+   */
+  protected abstract void writeHeaderAndCalcOffsets(ByteArrayOutputStream out);
+
+  /** Called by the subclasses after buffering {@code num} values behind the buffered ones. */
+  protected void onValuesBuffered(int num, ByteArrayOutputStream out) {
+    count += num;
+    if (count == BLOCK_SIZE) {
+      flushBlock(out);
+    }
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) {
+    flushBlock(out);
+  }
+
+  @Override
+  public int getOneItemMaxSize() {
+    // buffering a value may flush a full block
+    return (int) getMaxBlockSize(BLOCK_SIZE);
+  }
+
+  @Override
+  public long getMaxByteSize() {
+    return getMaxBlockSize(count + 1);
+  }
+
+  /**
+   * The chosen bit-width never costs more bits than packing all the values with the largest
+   * bit-width, the padding of the two packed parts adds at most 8 values. The header holds the
+   * first value, the minimum difference and 3 bytes of widths and counts.
+   */
+  private long getMaxBlockSize(int valueNum) {
+    return ReadWriteForEncodingUtils.uVarIntSize(BLOCK_SIZE)
+        + 3
+        + (long) (valueNum + 8 + 2) * getValueBytes();
+  }
+
+  private void flushBlock(ByteArrayOutputStream out) {
+    if (count == 0) {
+      return;
+    }
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(count, out);
+    writeHeaderAndCalcOffsets(out);
+    int deltaNum = count - 1;
+
+    Arrays.fill(widthCounts, 0);
+    int maxWidth = 0;
+    for (int i = 0; i < deltaNum; i++) {
+      int width = getBitWidth(offsets[i]);
+      widthCounts[width]++;
+      maxWidth = Math.max(maxWidth, width);
+    }
+    // each exception costs its position and its high bits
+    int width = maxWidth;
+    int exceptionNum = 0;
+    long minCost = (long) deltaNum * maxWidth;
+    int valuesAboveWidth = 0;
+    for (int candidate = maxWidth - 1; candidate >= 0; candidate--) {
+      valuesAboveWidth += widthCounts[candidate + 1];
+      long cost =
+          (long) deltaNum * candidate
+              + (long) valuesAboveWidth * (Byte.SIZE + maxWidth - candidate);
+      if (cost < minCost) {
+        minCost = cost;
+        width = candidate;
+        exceptionNum = valuesAboveWidth;
+      }
+    }
+
+    out.write(width);
+    out.write(exceptionNum);
+    if (exceptionNum > 0) {
+      out.write(maxWidth - width);
+      long mask = (1L << width) - 1;
+      int exceptionIndex = 0;
+      for (int i = 0; i < deltaNum; i++) {
+        if ((offsets[i] >>> width) != 0) {
+          exceptionPositions[exceptionIndex] = i;
+          exceptionHighBits[exceptionIndex++] = offsets[i] >>> width;
+          offsets[i] &= mask;
+        }
+      }
+    }
+    pack(offsets, deltaNum, width, out);
+    for (int i = 0; i < exceptionNum; i++) {
+      out.write(exceptionPositions[i]);
+    }
+    pack(exceptionHighBits, exceptionNum, maxWidth - width, out);
+    count = 0;
+  }
+
+  /** Packs the values in groups of 8, the last group is padded with zeros. */
+  private void pack(long[] values, int valueNum, int width, ByteArrayOutputStream out) {
+    if (width == 0 || valueNum == 0) {
+      return;
+    }
+    int paddedNum = (valueNum + 7) & ~7;
+    Arrays.fill(values, valueNum, paddedNum, 0L);
+    packer.setWidth(width);
+    for (int i = 0; i < paddedNum; i += 8) {
+      packer.pack8Values(values, i, packBuffer);
+      out.write(packBuffer, 0, width);
+    }
+  }
+
+  private static int getBitWidth(long value) {
+    return Long.SIZE - Long.numberOfLeadingZeros(value);
+  }
+
+  protected static void writeBigEndian(long value, int bytes, ByteArrayOutputStream out) {
+    for (int shift = (bytes - 1) * Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+      out.write((int) (value >>> shift));
+    }
+  }
+
+  public static class IntPforEncoder extends PforEncoder {
+
+    private final int[] values = new int[BLOCK_SIZE];
+
+    @Override
+    public void encode(int value, ByteArrayOutputStream out) {
+      values[count] = value;
+      onValuesBuffered(1, out);
+    }
+
+    @Override
+    public void encode(int[] values, int offset, int length, ByteArrayOutputStream out) {
+      while (length > 0) {
+        int batch = Math.min(length, BLOCK_SIZE - count);
+        System.arraycopy(values, offset, this.values, count, batch);
+        onValuesBuffered(batch, out);
+        offset += batch;
+        length -= batch;
+      }
+    }
+
+    @Override
+    protected int getValueBytes() {
+      return Integer.BYTES;
+    }
+
+    @Override
+    protected void writeHeaderAndCalcOffsets(ByteArrayOutputStream out) {
+      // the differences may overflow, they wrap around and so does the decoding
+      int minDelta = Integer.MAX_VALUE;
+      for (int i = 1; i < count; i++) {
+        minDelta = Math.min(minDelta, values[i] - values[i - 1]);
+      }
+      for (int i = 1; i < count; i++) {
+        offsets[i - 1] = (values[i] - values[i - 1] - minDelta) & 0xFFFFFFFFL;
+      }
+      writeBigEndian(values[0], Integer.BYTES, out);
+      writeBigEndian(count > 1 ? minDelta : 0, Integer.BYTES, out);
+    }
+  }
+
+  public static class LongPforEncoder extends PforEncoder {
+
+    private final long[] values = new long[BLOCK_SIZE];
+
+    @Override
+    public void encode(long value, ByteArrayOutputStream out) {
+      values[count] = value;
+      onValuesBuffered(1, out);
+    }
+
+    @Override
+    public void encode(long[] values, int offset, int length, ByteArrayOutputStream out) {
+      while (length > 0) {
+        int batch = Math.min(length, BLOCK_SIZE - count);
+        System.arraycopy(values, offset, this.values, count, batch);
+        onValuesBuffered(batch, out);
+        offset += batch;
+        length -= batch;
+      }
+    }
+
+    @Override
+    protected int getValueBytes() {
+      return Long.BYTES;
+    }
+
+    @Override
+    protected void writeHeaderAndCalcOffsets(ByteArrayOutputStream out) {
+      // the differences may overflow, they wrap around and so does the decoding
+      long minDelta = Long.MAX_VALUE;
+      for (int i = 1; i < count; i++) {
+        minDelta = Math.min(minDelta, values[i] - values[i - 1]);
+      }
+      for (int i = 1; i < count; i++) {
+        offsets[i - 1] = values[i] - values[i - 1] - minDelta;
+      }
+      writeBigEndian(values[0], Long.BYTES, out);
+      writeBigEndian(count > 1 ? minDelta : 0, Long.BYTES, out);
+    }
+  }
+}
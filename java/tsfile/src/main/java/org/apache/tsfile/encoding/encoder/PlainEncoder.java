@@ -39,6 +39,9 @@ public class PlainEncoder extends Encoder {
   private TSDataType dataType;
   private int maxStringLength;
 
+  /** scratch buffer of the bulk encode methods, the fixed width values are written at once. */
+  private byte[] encodingBuffer = new byte[0];
+
   public PlainEncoder(TSDataType dataType, int maxStringLength) {
     super(TSEncoding.PLAIN);
     this.dataType = dataType;
@@ -99,6 +102,67 @@ public class PlainEncoder extends Encoder {
     }
   }
 
+  @Override
+  public void encode(boolean[] values, int offset, int length, ByteArrayOutputStream out) {
+    byte[] buffer = getEncodingBuffer(length);
+    for (int i = 0; i < length; i++) {
+      buffer[i] = values[offset + i] ? (byte) 1 : (byte) 0;
+    }
+    out.write(buffer, 0, length);
+  }
+
+  @Override
+  public void encode(int[] values, int offset, int length, ByteArrayOutputStream out) {
+    for (int i = offset, end = offset + length; i < end; i++) {
+      ReadWriteForEncodingUtils.writeVarInt(values[i], out);
+    }
+  }
+
+  @Override
+  public void encode(long[] values, int offset, int length, ByteArrayOutputStream out) {
+    byte[] buffer = getEncodingBuffer(length * Long.BYTES);
+    for (int i = 0; i < length; i++) {
+      putLong(buffer, i * Long.BYTES, values[offset + i]);
+    }
+    out.write(buffer, 0, length * Long.BYTES);
+  }
+
+  @Override
+  public void encode(float[] values, int offset, int length, ByteArrayOutputStream out) {
+    byte[] buffer = getEncodingBuffer(length * Float.BYTES);
+    for (int i = 0; i < length; i++) {
+      int floatInt = Float.floatToIntBits(values[offset + i]);
+      int pos = i * Float.BYTES;
+      buffer[pos] = (byte) (floatInt >> 24);
+      buffer[pos + 1] = (byte) (floatInt >> 16);
+      buffer[pos + 2] = (byte) (floatInt >> 8);
+      buffer[pos + 3] = (byte) floatInt;
+    }
+    out.write(buffer, 0, length * Float.BYTES);
+  }
+
+  @Override
+  public void encode(double[] values, int offset, int length, ByteArrayOutputStream out) {
+    byte[] buffer = getEncodingBuffer(length * Double.BYTES);
+    for (int i = 0; i < length; i++) {
+      putLong(buffer, i * Double.BYTES, Double.doubleToLongBits(values[offset + i]));
+    }
+    out.write(buffer, 0, length * Double.BYTES);
+  }
+
+  private byte[] getEncodingBuffer(int size) {
+    if (encodingBuffer.length < size) {
+      encodingBuffer = new byte[size];
+    }
+    return encodingBuffer;
+  }
+
+  private static void putLong(byte[] buffer, int pos, long value) {
+    for (int i = 0; i < 8; i++) {
+      buffer[pos + i] = (byte) (value >> ((7 - i) * 8));
+    }
+  }
+
   @Override
   public void encode(BigDecimal value, ByteArrayOutputStream out) {
     throw new TsFileEncodingException(
@@ -39,6 +39,21 @@ public class SinglePrecisionEncoderV2 extends IntGorillaEncoder {
     encode(Float.floatToRawIntBits(value), out);
   }
 
+  @Override
+  public final void encode(float[] values, int offset, int length, ByteArrayOutputStream out) {
+    int i = offset;
+    int end = offset + length;
+    beginBulk();
+    if (!firstValueWasWritten && i < end) {
+      writeFirst(Float.floatToRawIntBits(values[i++]), out);
+      firstValueWasWritten = true;
+    }
+    for (; i < end; i++) {
+      compressValue(Float.floatToRawIntBits(values[i]), out);
+    }
+    endBulk(out);
+  }
+
   @Override
   public void flush(ByteArrayOutputStream out) {
     // ending stream
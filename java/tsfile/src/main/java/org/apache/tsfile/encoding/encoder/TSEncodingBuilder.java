@@ -78,6 +78,12 @@ public abstract class TSEncodingBuilder {
         return new Sprintz();
       case RLBE:
         return new RLBE();
+      case ALP:
+        return new Alp();
+      case PFOR:
+        return new Pfor();
+      case CHUNK_DICTIONARY:
+        return new ChunkDictionary();
       default:
         throw new UnsupportedOperationException(type.toString());
     }
@@ -366,6 +372,50 @@ public abstract class TSEncodingBuilder {
     }
   }
 
+  /** for FLOAT, DOUBLE. */
+  public static class Alp extends TSEncodingBuilder {
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      switch (type) {
+        case FLOAT:
+          return new FloatAlpEncoder();
+        case DOUBLE:
+          return new DoubleAlpEncoder();
+        default:
+          throw new UnSupportedDataTypeException("ALP doesn't support data type: " + type);
+      }
+    }
+
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      // do nothing
+    }
+  }
+
+  /** for INT32, INT64, DATE, TIMESTAMP. */
+  public static class Pfor extends TSEncodingBuilder {
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      switch (type) {
+        case INT32:
+        case DATE:
+          return new PforEncoder.IntPforEncoder();
+        case INT64:
+        case TIMESTAMP:
+          return new PforEncoder.LongPforEncoder();
+        default:
+          throw new UnSupportedDataTypeException("PFOR doesn't support data type: " + type);
+      }
+    }
+
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      // do nothing
+    }
+  }
+
   public static class Dictionary extends TSEncodingBuilder {
 
     @Override
@@ -382,6 +432,27 @@ public abstract class TSEncodingBuilder {
     }
   }
 
+  /** for TEXT, STRING. */
+  public static class ChunkDictionary extends TSEncodingBuilder {
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      switch (type) {
+        case TEXT:
+        case STRING:
+          return new ChunkDictionaryEncoder();
+        default:
+          throw new UnSupportedDataTypeException(
+              "CHUNK_DICTIONARY doesn't support data type: " + type);
+      }
+    }
+
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      // do nothing
+    }
+  }
+
   public static class Zigzag extends TSEncodingBuilder {
 
     @Override
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tsfile.encoding.kernel;
+
+/**
+ * The array kernels of the hot decoding loops, i.e. the prefix sum of TS_2DIFF, the zigzag
+ * decoding, the bit unpacking of TS_2DIFF and RLE, and the null bitmap of the value pages. The
+ * kernels are got by {@link DecodeKernels#getKernel()}, which are either the scalar ones or the
+ * ones of the optional vector module.
+ */
+public interface DecodeKernel {
+
+  /**
+   * Turns the deltas into the original values in place, i.e. {@code values[i] = values[i - 1] +
+   * minDelta + values[i]} where {@code values[-1]} is {@code base}.
+   *
+   * @param values the deltas minus minDelta, then the original values
+   * @param count number of values
+   * @param base the value before the first one
+   * @param minDelta the min delta added to each delta
+   */
+  void prefixSum(int[] values, int count, int base, int minDelta);
+
+  /** See {@link #prefixSum(int[], int, int, int)}. */
+  void prefixSum(long[] values, int count, long base, long minDelta);
+
+  /** Turns the zigzag encoded values between offset and offset + count back in place. */
+  void zigzagDecode(int[] values, int offset, int count);
+
+  /** See {@link #zigzagDecode(int[], int, int)}. */
+  void zigzagDecode(long[] values, int offset, int count);
+
+  /**
+   * Unpacks {@code count} values of {@code width} bits, stored back to back the most significant
+   * bit first.
+   *
+   * @param words packed words loaded by {@code BitUnpacker#loadWords}
+   * @param width bit-width of the values, between 0 and 32
+   * @param values destination of the unpacked values
+   * @param count number of values to unpack
+   */
+  void unpackInts(long[] words, int width, int[] values, int count);
+
+  /**
+   * See {@link #unpackInts(long[], int, int[], int)}.
+   *
+   * @param width bit-width of the values, between 0 and 64
+   */
+  void unpackLongs(long[] words, int width, long[] values, int count);
+
+  /**
+   * Returns the number of set bits of the bitmap between startIndex and endIndex, the bits of a
+   * byte are indexed from the most significant one.
+   */
+  int countSetBits(byte[] bitmap, int startIndex, int endIndex);
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tsfile.encoding.kernel;
+
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Gets the decode kernels. The kernels of the optional vector module are loaded by reflection if
+ * {@code vector_decode_enabled} is set, so that this library still runs on Java 8, and the scalar
+ * kernels are used if the module is not on the classpath or {@code jdk.incubator.vector} is not
+ * added.
+ */
+public final class DecodeKernels {
+
+  private static final Logger logger = LoggerFactory.getLogger(DecodeKernels.class);
+
+  /** The kernels of the vector module, see java/vector. */
+  public static final String VECTOR_DECODE_KERNEL_CLASS =
+      "org.apache.tsfile.vector.VectorDecodeKernel";
+
+  private static final DecodeKernel SCALAR_KERNEL = new ScalarDecodeKernel();
+
+  private DecodeKernels() {
+    // util class
+  }
+
+  /**
+   * Returns the vector kernels if they are enabled and can be loaded, the scalar ones otherwise.
+   */
+  public static DecodeKernel getKernel() {
+    return TSFileDescriptor.getInstance().getConfig().isVectorDecodeEnabled()
+        ? VectorKernelHolder.KERNEL
+        : SCALAR_KERNEL;
+  }
+
+  public static DecodeKernel getScalarKernel() {
+    return SCALAR_KERNEL;
+  }
+
+  private static DecodeKernel loadVectorKernel() {
+    try {
+      DecodeKernel kernel =
+          (DecodeKernel)
+              Class.forName(VECTOR_DECODE_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+      logger.info("Decode by the kernels of {}", kernel);
+      return kernel;
+    } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+      // LinkageError if jdk.incubator.vector is not added
+      logger.warn(
+          "Failed to load {}, decode by the scalar kernels instead: {}",
+          VECTOR_DECODE_KERNEL_CLASS,
+          e.toString());
+      return SCALAR_KERNEL;
+    }
+  }
+
+  /** Loads the vector kernels only once, when they are used for the first time. */
+  private static class VectorKernelHolder {
+
+    private static final DecodeKernel KERNEL = loadVectorKernel();
+  }
+}
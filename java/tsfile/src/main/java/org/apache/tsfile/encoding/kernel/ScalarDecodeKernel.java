@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tsfile.encoding.kernel;
+
+import org.apache.tsfile.encoding.bitpacking.BitUnpacker;
+
+/** The kernels in plain Java, used unless the vector module is enabled. */
+public class ScalarDecodeKernel implements DecodeKernel {
+
+  private static final int MASK = 0x80;
+
+  @Override
+  public void prefixSum(int[] values, int count, int base, int minDelta) {
+    int previous = base;
+    for (int i = 0; i < count; i++) {
+      values[i] = previous + minDelta + values[i];
+      previous = values[i];
+    }
+  }
+
+  @Override
+  public void prefixSum(long[] values, int count, long base, long minDelta) {
+    long previous = base;
+    for (int i = 0; i < count; i++) {
+      values[i] = previous + minDelta + values[i];
+      previous = values[i];
+    }
+  }
+
+  @Override
+  public void zigzagDecode(int[] values, int offset, int count) {
+    for (int i = offset; i < offset + count; i++) {
+      int n = values[i];
+      values[i] = (n >>> 1) ^ -(n & 1);
+    }
+  }
+
+  @Override
+  public void zigzagDecode(long[] values, int offset, int count) {
+    for (int i = offset; i < offset + count; i++) {
+      long n = values[i];
+      values[i] = (n >>> 1) ^ -(n & 1);
+    }
+  }
+
+  @Override
+  public void unpackInts(long[] words, int width, int[] values, int count) {
+    BitUnpacker.unpackInts(words, width, values, count);
+  }
+
+  @Override
+  public void unpackLongs(long[] words, int width, long[] values, int count) {
+    BitUnpacker.unpackLongs(words, width, values, count);
+  }
+
+  @Override
+  public int countSetBits(byte[] bitmap, int startIndex, int endIndex) {
+    int count = 0;
+    int i = startIndex;
+    // count bit by bit up to a byte boundary, then a whole byte of the bitmap at a time
+    for (; i < endIndex && (i & 7) != 0; i++) {
+      if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) != 0) {
+        count++;
+      }
+    }
+    for (; i + 8 <= endIndex; i += 8) {
+      count += Integer.bitCount(bitmap[i / 8] & 0xFF);
+    }
+    for (; i < endIndex; i++) {
+      if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) != 0) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -19,13 +19,22 @@
 package org.apache.tsfile.encrypt;
 
 import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.encrypt.EncryptException;
+import org.apache.tsfile.file.header.PageHeader;
 import org.apache.tsfile.file.metadata.enums.EncryptionType;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+
+import javax.crypto.spec.IvParameterSpec;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
+import java.util.function.ObjIntConsumer;
 
 public class EncryptUtils {
 
@@ -35,6 +44,9 @@ public class EncryptUtils {
 
   public static IDecryptor decryptor = getDefaultDecryptor();
 
+  /** the index of the dictionary block of a chunk among its pages, when deriving the IV. */
+  public static final int DICTIONARY_PAGE_INDEX = -1;
+
   public static String getEncryptKeyFromPath(String path) {
     try (BufferedReader br = new BufferedReader(new FileReader(path))) {
       StringBuilder sb = new StringBuilder();
@@ -147,4 +159,105 @@ public class EncryptUtils {
     }
     return key;
   }
+
+  /**
+   * Derives the IV of the page at {@code pageIndex} of the chunk whose header is at {@code
+   * chunkOffset}. The first 8 bytes hold the offset and the next 4 bytes the index, the last 4
+   * bytes start from 0 and count the blocks of the page in CTR mode, so the keystreams of two pages
+   * never overlap unless a page is larger than 64 GB.
+   *
+   * <p>No per-file nonce is mixed in: the file metadata holding it would be lost with the tail of
+   * an unsealed file, while recovering the file has to decrypt its pages. So the pages at the same
+   * position of two files encrypted by the same key share a keystream.
+   */
+  static IvParameterSpec getPageIv(long chunkOffset, int pageIndex) {
+    return new IvParameterSpec(
+        ByteBuffer.allocate(16).putLong(chunkOffset).putInt(pageIndex).putInt(0).array());
+  }
+
+  /**
+   * Encrypts in place the dictionary block and the pages in the remaining bytes of {@code
+   * chunkData}, each by the encryptor of its position in the chunk whose header is at {@code
+   * chunkOffset}, see {@link IEncryptor#getPageEncryptor(long, int)}.
+   *
+   * @param hasDictionary whether {@code chunkData} starts with a dictionary block
+   * @param onlyOnePage whether the page headers are written without statistics
+   */
+  public static void encryptChunkData(
+      IEncryptor encryptor,
+      long chunkOffset,
+      ByteBuffer chunkData,
+      boolean hasDictionary,
+      boolean onlyOnePage,
+      TSDataType dataType) {
+    forEachStoredBlock(
+        chunkData,
+        hasDictionary,
+        onlyOnePage,
+        dataType,
+        (block, pageIndex) ->
+            encryptor.getPageEncryptor(chunkOffset, pageIndex).encrypt(block, block));
+  }
+
+  /**
+   * Encrypts in place the dictionary block and the pages in the remaining bytes of {@code
+   * chunkData} again, for the chunk to be moved from {@code oldChunkOffset} to {@code
+   * newChunkOffset}, see {@link #encryptChunkData(IEncryptor, long, ByteBuffer, boolean, boolean,
+   * TSDataType)}.
+   */
+  public static void reencryptChunkData(
+      IDecryptor decryptor,
+      long oldChunkOffset,
+      long newChunkOffset,
+      ByteBuffer chunkData,
+      boolean hasDictionary,
+      boolean onlyOnePage,
+      TSDataType dataType) {
+    IEncryptor encryptor = decryptor.getEncryptor();
+    forEachStoredBlock(
+        chunkData,
+        hasDictionary,
+        onlyOnePage,
+        dataType,
+        (block, pageIndex) -> {
+          decryptor.getPageDecryptor(oldChunkOffset, pageIndex).decrypt(block, block);
+          encryptor.getPageEncryptor(newChunkOffset, pageIndex).encrypt(block, block);
+        });
+  }
+
+  /**
+   * Calls {@code action} with the compressed and encrypted bytes of the dictionary block and of
+   * each non-empty page in the remaining bytes of {@code chunkData}, and the index of the page. The
+   * position of {@code chunkData} is not changed.
+   */
+  private static void forEachStoredBlock(
+      ByteBuffer chunkData,
+      boolean hasDictionary,
+      boolean onlyOnePage,
+      TSDataType dataType,
+      ObjIntConsumer<ByteBuffer> action) {
+    ByteBuffer buffer = chunkData.duplicate();
+    if (hasDictionary && buffer.hasRemaining()) {
+      ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+      int storedSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+      action.accept(slice(buffer, storedSize), DICTIONARY_PAGE_INDEX);
+    }
+    for (int pageIndex = 0; buffer.hasRemaining(); pageIndex++) {
+      PageHeader pageHeader =
+          onlyOnePage
+              ? PageHeader.deserializeFrom(buffer, (Statistics<? extends Serializable>) null)
+              : PageHeader.deserializeFrom(buffer, dataType);
+      if (pageHeader.getCompressedSize() > 0) {
+        action.accept(slice(buffer, pageHeader.getCompressedSize()), pageIndex);
+      }
+    }
+  }
+
+  /** Returns the next {@code size} bytes of the buffer, and moves the position after them. */
+  private static ByteBuffer slice(ByteBuffer buffer, int size) {
+    ByteBuffer slice = buffer.slice();
+    slice.limit(size);
+    buffer.position(buffer.position() + size);
+    return slice;
+  }
 }
@@ -30,9 +30,11 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
+import java.nio.ByteBuffer;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -58,6 +60,8 @@ public interface IDecryptor {
         return new SM4128Decryptor(key);
       case AES128:
         return new AES128Decryptor(key);
+      case AES128_OFFSET_IV:
+        return new AES128OffsetIvDecryptor(key);
       default:
         logger.warn("Unknown encryption type: {}", name);
         return new NoDecryptor();
@@ -68,8 +72,51 @@ public interface IDecryptor {
 
   byte[] decrypt(byte[] data, int offset, int size);
 
+  /**
+   * Decrypt the remaining bytes of {@code data} into {@code decrypted} from its position, the
+   * positions of both buffers are not changed. The buffers can be heap or direct buffers, and may
+   * share the same memory to decrypt in place.
+   *
+   * @return the decrypted size
+   */
+  default int decrypt(ByteBuffer data, ByteBuffer decrypted) {
+    byte[] result;
+    if (data.hasArray()) {
+      result = decrypt(data.array(), data.arrayOffset() + data.position(), data.remaining());
+    } else {
+      byte[] input = new byte[data.remaining()];
+      data.duplicate().get(input);
+      result = decrypt(input);
+    }
+    decrypted.duplicate().put(result);
+    return result.length;
+  }
+
   EncryptionType getEncryptionType();
 
+  /**
+   * @return the encryptor whose data is decrypted by this decryptor
+   */
+  IEncryptor getEncryptor();
+
+  /**
+   * @return true if the IV of a page is derived from its position in the file, so that the page
+   *     should be decrypted by {@link #getPageDecryptor(long, int)}
+   */
+  default boolean hasPageIv() {
+    return false;
+  }
+
+  /**
+   * Returns the decryptor of the page at {@code pageIndex} of the chunk whose header is at {@code
+   * chunkOffset} of the file, see {@link IEncryptor#getPageEncryptor(long, int)}.
+   *
+   * @return this decryptor if the IV does not depend on the position of the page
+   */
+  default IDecryptor getPageDecryptor(long chunkOffset, int pageIndex) {
+    return this;
+  }
+
   class NoDecryptor implements IDecryptor {
 
     @Override
@@ -82,21 +129,36 @@ public interface IDecryptor {
       return Arrays.copyOfRange(data, offset, offset + size);
     }
 
+    @Override
+    public int decrypt(ByteBuffer data, ByteBuffer decrypted) {
+      int size = data.remaining();
+      decrypted.duplicate().put(data.duplicate());
+      return size;
+    }
+
     @Override
     public EncryptionType getEncryptionType() {
       return EncryptionType.UNENCRYPTED;
     }
+
+    @Override
+    public IEncryptor getEncryptor() {
+      return new IEncryptor.NoEncryptor();
+    }
   }
 
   class SM4128Decryptor implements IDecryptor {
 
     private final SM4Utils sm4;
 
+    private final byte[] key;
+
     SM4128Decryptor(byte[] key) {
       if (key.length != 16) {
         throw new EncryptKeyLengthNotMatchException(16, key.length);
       }
       this.sm4 = new SM4Utils(key, key);
+      this.key = key;
     }
 
     @Override
@@ -113,22 +175,43 @@ public interface IDecryptor {
     public EncryptionType getEncryptionType() {
       return EncryptionType.SM4128;
     }
+
+    @Override
+    public IEncryptor getEncryptor() {
+      return new IEncryptor.SM4128Encryptor(key);
+    }
   }
 
   class AES128Decryptor implements IDecryptor {
-    private final Cipher AES;
+
+    private final SecretKeySpec secretKeySpec;
+
+    private final IvParameterSpec ivParameterSpec;
+
+    /**
+     * A Cipher keeps its state between calls, so each thread decrypts with its own one. The pages
+     * of a file can then be decrypted in parallel without locking.
+     */
+    private final ThreadLocal<Cipher> AES;
 
     AES128Decryptor(byte[] key) {
       if (key.length != 16) {
         throw new EncryptKeyLengthNotMatchException(16, key.length);
       }
-      SecretKeySpec secretKeySpec = new SecretKeySpec(key, "AES");
+      this.secretKeySpec = new SecretKeySpec(key, "AES");
       // Create IV parameter
-      IvParameterSpec ivParameterSpec = new IvParameterSpec(key);
+      this.ivParameterSpec = new IvParameterSpec(key);
+      this.AES = ThreadLocal.withInitial(this::createCipher);
+      // fail fast if the cipher is not available
+      AES.get();
+    }
+
+    private Cipher createCipher() {
       try {
-        // Create Cipher instance and initialize it for encryption in CTR mode without padding
-        this.AES = Cipher.getInstance("AES/CTR/NoPadding");
-        AES.init(Cipher.DECRYPT_MODE, secretKeySpec, ivParameterSpec);
+        // Create Cipher instance and initialize it for decryption in CTR mode without padding
+        Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, secretKeySpec, ivParameterSpec);
+        return cipher;
       } catch (InvalidAlgorithmParameterException
           | NoSuchPaddingException
           | NoSuchAlgorithmException
@@ -140,7 +223,7 @@ public interface IDecryptor {
     @Override
     public byte[] decrypt(byte[] data) {
       try {
-        return AES.doFinal(data);
+        return AES.get().doFinal(data);
       } catch (IllegalBlockSizeException | BadPaddingException e) {
         throw new EncryptException("AES128Decryptor decrypt failed ", e);
       }
@@ -149,15 +232,131 @@ public interface IDecryptor {
     @Override
     public byte[] decrypt(byte[] data, int offset, int size) {
       try {
-        return AES.doFinal(data, offset, size);
+        return AES.get().doFinal(data, offset, size);
       } catch (IllegalBlockSizeException | BadPaddingException e) {
         throw new EncryptException("AES128Decryptor decrypt failed ", e);
       }
     }
 
+    @Override
+    public int decrypt(ByteBuffer data, ByteBuffer decrypted) {
+      try {
+        // CTR mode keeps the size, and the cipher is copy-safe if the buffers share the memory
+        return AES.get().doFinal(data.duplicate(), decrypted.duplicate());
+      } catch (IllegalBlockSizeException | BadPaddingException | ShortBufferException e) {
+        throw new EncryptException("AES128Decryptor decrypt failed ", e);
+      }
+    }
+
     @Override
     public EncryptionType getEncryptionType() {
       return EncryptionType.AES128;
     }
+
+    @Override
+    public IEncryptor getEncryptor() {
+      return new IEncryptor.AES128Encryptor(secretKeySpec.getEncoded());
+    }
+  }
+
+  /** Decrypts the data encrypted by {@link IEncryptor.AES128OffsetIvEncryptor}. */
+  class AES128OffsetIvDecryptor implements IDecryptor {
+
+    private final SecretKeySpec secretKeySpec;
+
+    private final IvParameterSpec ivParameterSpec;
+
+    /**
+     * The ciphers of the threads are shared by the decryptors of all the pages of a file, each call
+     * initializes the cipher with the IV of its page.
+     */
+    private final ThreadLocal<Cipher> AES;
+
+    AES128OffsetIvDecryptor(byte[] key) {
+      this(key, new IvParameterSpec(key));
+    }
+
+    AES128OffsetIvDecryptor(byte[] key, IvParameterSpec ivParameterSpec) {
+      if (key.length != 16) {
+        throw new EncryptKeyLengthNotMatchException(16, key.length);
+      }
+      this.secretKeySpec = new SecretKeySpec(key, "AES");
+      this.ivParameterSpec = ivParameterSpec;
+      this.AES = ThreadLocal.withInitial(AES128OffsetIvDecryptor::createCipher);
+      // fail fast if the cipher is not available
+      getCipher();
+    }
+
+    private AES128OffsetIvDecryptor(
+        AES128OffsetIvDecryptor fileDecryptor, IvParameterSpec ivParameterSpec) {
+      this.secretKeySpec = fileDecryptor.secretKeySpec;
+      this.ivParameterSpec = ivParameterSpec;
+      this.AES = fileDecryptor.AES;
+    }
+
+    private static Cipher createCipher() {
+      try {
+        return Cipher.getInstance("AES/CTR/NoPadding");
+      } catch (NoSuchPaddingException | NoSuchAlgorithmException e) {
+        throw new EncryptException("AES128OffsetIvDecryptor init failed ", e);
+      }
+    }
+
+    private Cipher getCipher() {
+      Cipher cipher = AES.get();
+      try {
+        cipher.init(Cipher.DECRYPT_MODE, secretKeySpec, ivParameterSpec);
+      } catch (InvalidAlgorithmParameterException | InvalidKeyException e) {
+        throw new EncryptException("AES128OffsetIvDecryptor init failed ", e);
+      }
+      return cipher;
+    }
+
+    @Override
+    public byte[] decrypt(byte[] data) {
+      try {
+        return getCipher().doFinal(data);
+      } catch (IllegalBlockSizeException | BadPaddingException e) {
+        throw new EncryptException("AES128OffsetIvDecryptor decrypt failed ", e);
+      }
+    }
+
+    @Override
+    public byte[] decrypt(byte[] data, int offset, int size) {
+      try {
+        return getCipher().doFinal(data, offset, size);
+      } catch (IllegalBlockSizeException | BadPaddingException e) {
+        throw new EncryptException("AES128OffsetIvDecryptor decrypt failed ", e);
+      }
+    }
+
+    @Override
+    public int decrypt(ByteBuffer data, ByteBuffer decrypted) {
+      try {
+        return getCipher().doFinal(data.duplicate(), decrypted.duplicate());
+      } catch (IllegalBlockSizeException | BadPaddingException | ShortBufferException e) {
+        throw new EncryptException("AES128OffsetIvDecryptor decrypt failed ", e);
+      }
+    }
+
+    @Override
+    public EncryptionType getEncryptionType() {
+      return EncryptionType.AES128_OFFSET_IV;
+    }
+
+    @Override
+    public IEncryptor getEncryptor() {
+      return new IEncryptor.AES128OffsetIvEncryptor(secretKeySpec.getEncoded(), ivParameterSpec);
+    }
+
+    @Override
+    public boolean hasPageIv() {
+      return true;
+    }
+
+    @Override
+    public IDecryptor getPageDecryptor(long chunkOffset, int pageIndex) {
+      return new AES128OffsetIvDecryptor(this, EncryptUtils.getPageIv(chunkOffset, pageIndex));
+    }
   }
 }
@@ -30,9 +30,11 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
+import java.nio.ByteBuffer;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -56,6 +58,8 @@ public interface IEncryptor {
         return new SM4128Encryptor(key);
       case AES128:
         return new AES128Encryptor(key);
+      case AES128_OFFSET_IV:
+        return new AES128OffsetIvEncryptor(key);
       default:
         // log a warning
         logger.warn("Unknown encryption type: {}", name);
@@ -67,8 +71,52 @@ public interface IEncryptor {
 
   byte[] encrypt(byte[] data, int offset, int size);
 
+  /**
+   * Encrypt the remaining bytes of {@code data} into {@code encrypted} from its position, the
+   * positions of both buffers are not changed. The buffers can be heap or direct buffers, and may
+   * share the same memory to encrypt in place.
+   *
+   * @return the encrypted size
+   */
+  default int encrypt(ByteBuffer data, ByteBuffer encrypted) {
+    byte[] result;
+    if (data.hasArray()) {
+      result = encrypt(data.array(), data.arrayOffset() + data.position(), data.remaining());
+    } else {
+      byte[] input = new byte[data.remaining()];
+      data.duplicate().get(input);
+      result = encrypt(input);
+    }
+    encrypted.duplicate().put(result);
+    return result.length;
+  }
+
   EncryptionType getEncryptionType();
 
+  /**
+   * @return the decryptor of the data encrypted by this encryptor
+   */
+  IDecryptor getDecryptor();
+
+  /**
+   * @return true if the IV of a page is derived from its position in the file, so that the page
+   *     should be encrypted by {@link #getPageEncryptor(long, int)}
+   */
+  default boolean hasPageIv() {
+    return false;
+  }
+
+  /**
+   * Returns the encryptor of the page at {@code pageIndex} of the chunk whose header is at {@code
+   * chunkOffset} of the file. The dictionary block of a chunk is encrypted as the page at {@link
+   * EncryptUtils#DICTIONARY_PAGE_INDEX}.
+   *
+   * @return this encryptor if the IV does not depend on the position of the page
+   */
+  default IEncryptor getPageEncryptor(long chunkOffset, int pageIndex) {
+    return this;
+  }
+
   class NoEncryptor implements IEncryptor {
 
     @Override
@@ -81,21 +129,36 @@ public interface IEncryptor {
       return Arrays.copyOfRange(data, offset, offset + size);
     }
 
+    @Override
+    public int encrypt(ByteBuffer data, ByteBuffer encrypted) {
+      int size = data.remaining();
+      encrypted.duplicate().put(data.duplicate());
+      return size;
+    }
+
     @Override
     public EncryptionType getEncryptionType() {
       return EncryptionType.UNENCRYPTED;
     }
+
+    @Override
+    public IDecryptor getDecryptor() {
+      return new IDecryptor.NoDecryptor();
+    }
   }
 
   class SM4128Encryptor implements IEncryptor {
 
     private final SM4Utils sm4;
 
+    private final byte[] key;
+
     SM4128Encryptor(byte[] key) {
       if (key.length != 16) {
         throw new EncryptKeyLengthNotMatchException(16, key.length);
       }
       this.sm4 = new SM4Utils(key, key);
+      this.key = key;
     }
 
     @Override
@@ -112,22 +175,43 @@ public interface IEncryptor {
     public EncryptionType getEncryptionType() {
       return EncryptionType.SM4128;
     }
+
+    @Override
+    public IDecryptor getDecryptor() {
+      return new IDecryptor.SM4128Decryptor(key);
+    }
   }
 
   class AES128Encryptor implements IEncryptor {
-    private final Cipher AES;
+
+    private final SecretKeySpec secretKeySpec;
+
+    private final IvParameterSpec ivParameterSpec;
+
+    /**
+     * A Cipher keeps its state between calls, so each thread encrypts with its own one. The pages
+     * compressed in different threads can then be encrypted in parallel without locking.
+     */
+    private final ThreadLocal<Cipher> AES;
 
     AES128Encryptor(byte[] key) {
       if (key.length != 16) {
         throw new EncryptKeyLengthNotMatchException(16, key.length);
       }
-      SecretKeySpec secretKeySpec = new SecretKeySpec(key, "AES");
+      this.secretKeySpec = new SecretKeySpec(key, "AES");
       // Create IV parameter
-      IvParameterSpec ivParameterSpec = new IvParameterSpec(key);
+      this.ivParameterSpec = new IvParameterSpec(key);
+      this.AES = ThreadLocal.withInitial(this::createCipher);
+      // fail fast if the cipher is not available
+      AES.get();
+    }
+
+    private Cipher createCipher() {
       try {
         // Create Cipher instance and initialize it for encryption in CTR mode without padding
-        this.AES = Cipher.getInstance("AES/CTR/NoPadding");
-        AES.init(Cipher.ENCRYPT_MODE, secretKeySpec, ivParameterSpec);
+        Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec, ivParameterSpec);
+        return cipher;
       } catch (InvalidAlgorithmParameterException
           | NoSuchPaddingException
           | NoSuchAlgorithmException
@@ -139,7 +223,7 @@ public interface IEncryptor {
     @Override
     public byte[] encrypt(byte[] data) {
       try {
-        return AES.doFinal(data);
+        return AES.get().doFinal(data);
       } catch (IllegalBlockSizeException | BadPaddingException e) {
         throw new EncryptException("AES128Encryptor encrypt failed ", e);
       }
@@ -148,15 +232,137 @@ public interface IEncryptor {
     @Override
     public byte[] encrypt(byte[] data, int offset, int size) {
       try {
-        return AES.doFinal(data, offset, size);
+        return AES.get().doFinal(data, offset, size);
       } catch (IllegalBlockSizeException | BadPaddingException e) {
         throw new EncryptException("AES128Encryptor encrypt failed ", e);
       }
     }
 
+    @Override
+    public int encrypt(ByteBuffer data, ByteBuffer encrypted) {
+      try {
+        // CTR mode keeps the size, and the cipher is copy-safe if the buffers share the memory
+        return AES.get().doFinal(data.duplicate(), encrypted.duplicate());
+      } catch (IllegalBlockSizeException | BadPaddingException | ShortBufferException e) {
+        throw new EncryptException("AES128Encryptor encrypt failed ", e);
+      }
+    }
+
     @Override
     public EncryptionType getEncryptionType() {
       return EncryptionType.AES128;
     }
+
+    @Override
+    public IDecryptor getDecryptor() {
+      return new IDecryptor.AES128Decryptor(secretKeySpec.getEncoded());
+    }
+  }
+
+  /**
+   * AES128 in CTR mode whose IV is derived from the position of the page, see {@link
+   * EncryptUtils#getPageIv(long, int)}, so that the pages of a file never share the keystream, but
+   * the pages at the same position of another file encrypted by the same key do. The data out of
+   * the pages, e.g. the data key in the file metadata, is encrypted with the IV of {@link
+   * AES128Encryptor}.
+   */
+  class AES128OffsetIvEncryptor implements IEncryptor {
+
+    private final SecretKeySpec secretKeySpec;
+
+    private final IvParameterSpec ivParameterSpec;
+
+    /**
+     * The ciphers of the threads are shared by the encryptors of all the pages of a file, each call
+     * initializes the cipher with the IV of its page.
+     */
+    private final ThreadLocal<Cipher> AES;
+
+    AES128OffsetIvEncryptor(byte[] key) {
+      this(key, new IvParameterSpec(key));
+    }
+
+    AES128OffsetIvEncryptor(byte[] key, IvParameterSpec ivParameterSpec) {
+      if (key.length != 16) {
+        throw new EncryptKeyLengthNotMatchException(16, key.length);
+      }
+      this.secretKeySpec = new SecretKeySpec(key, "AES");
+      this.ivParameterSpec = ivParameterSpec;
+      this.AES = ThreadLocal.withInitial(AES128OffsetIvEncryptor::createCipher);
+      // fail fast if the cipher is not available
+      getCipher();
+    }
+
+    private AES128OffsetIvEncryptor(
+        AES128OffsetIvEncryptor fileEncryptor, IvParameterSpec ivParameterSpec) {
+      this.secretKeySpec = fileEncryptor.secretKeySpec;
+      this.ivParameterSpec = ivParameterSpec;
+      this.AES = fileEncryptor.AES;
+    }
+
+    private static Cipher createCipher() {
+      try {
+        return Cipher.getInstance("AES/CTR/NoPadding");
+      } catch (NoSuchPaddingException | NoSuchAlgorithmException e) {
+        throw new EncryptException("AES128OffsetIvEncryptor init failed ", e);
+      }
+    }
+
+    private Cipher getCipher() {
+      Cipher cipher = AES.get();
+      try {
+        cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec, ivParameterSpec);
+      } catch (InvalidAlgorithmParameterException | InvalidKeyException e) {
+        throw new EncryptException("AES128OffsetIvEncryptor init failed ", e);
+      }
+      return cipher;
+    }
+
+    @Override
+    public byte[] encrypt(byte[] data) {
+      try {
+        return getCipher().doFinal(data);
+      } catch (IllegalBlockSizeException | BadPaddingException e) {
+        throw new EncryptException("AES128OffsetIvEncryptor encrypt failed ", e);
+      }
+    }
+
+    @Override
+    public byte[] encrypt(byte[] data, int offset, int size) {
+      try {
+        return getCipher().doFinal(data, offset, size);
+      } catch (IllegalBlockSizeException | BadPaddingException e) {
+        throw new EncryptException("AES128OffsetIvEncryptor encrypt failed ", e);
+      }
+    }
+
+    @Override
+    public int encrypt(ByteBuffer data, ByteBuffer encrypted) {
+      try {
+        return getCipher().doFinal(data.duplicate(), encrypted.duplicate());
+      } catch (IllegalBlockSizeException | BadPaddingException | ShortBufferException e) {
+        throw new EncryptException("AES128OffsetIvEncryptor encrypt failed ", e);
+      }
+    }
+
+    @Override
+    public EncryptionType getEncryptionType() {
+      return EncryptionType.AES128_OFFSET_IV;
+    }
+
+    @Override
+    public IDecryptor getDecryptor() {
+      return new IDecryptor.AES128OffsetIvDecryptor(secretKeySpec.getEncoded(), ivParameterSpec);
+    }
+
+    @Override
+    public boolean hasPageIv() {
+      return true;
+    }
+
+    @Override
+    public IEncryptor getPageEncryptor(long chunkOffset, int pageIndex) {
+      return new AES128OffsetIvEncryptor(this, EncryptUtils.getPageIv(chunkOffset, pageIndex));
+    }
   }
 }
@@ -180,6 +180,25 @@ public class ChunkHeader {
     return new ChunkHeader(chunkType, measurementID, dataSize, dataType, type, encoding);
   }
 
+  /**
+   * deserialize from ByteBuffer, the marker has not been read.
+   *
+   * @param buffer the buffer whose position is at the marker of the chunk header
+   * @return CHUNK_HEADER object
+   */
+  public static ChunkHeader deserializeFrom(ByteBuffer buffer) {
+    int startPosition = buffer.position();
+    byte chunkType = buffer.get();
+    String measurementID = ReadWriteIOUtils.readVarIntString(buffer);
+    int dataSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    TSDataType dataType = ReadWriteIOUtils.readDataType(buffer);
+    CompressionType type = ReadWriteIOUtils.readCompressionType(buffer);
+    TSEncoding encoding = ReadWriteIOUtils.readEncoding(buffer);
+    int chunkHeaderSize = buffer.position() - startPosition;
+    return new ChunkHeader(
+        chunkType, measurementID, dataSize, chunkHeaderSize, dataType, type, encoding);
+  }
+
   /**
    * deserialize from TsFileInput, the marker has not been read.
    *
@@ -303,6 +322,17 @@ public class ChunkHeader {
     return encodingType;
   }
 
+  /**
+   * @return whether the data of the chunk starts with a dictionary block, which is the dictionary
+   *     of the values if they are encoded by {@link TSEncoding#CHUNK_DICTIONARY}, or the dictionary
+   *     of the pages if they are compressed by {@link CompressionType#ZSTD_DICTIONARY}. A chunk has
+   *     at most one of them.
+   */
+  public boolean hasDictionaryBlock() {
+    return encodingType == TSEncoding.CHUNK_DICTIONARY
+        || compressionType == CompressionType.ZSTD_DICTIONARY;
+  }
+
   @Override
   public String toString() {
     return "CHUNK_HEADER{"
@@ -37,7 +37,14 @@ public enum CompressionType {
   ZSTD(".zstd", (byte) 8),
 
   /** LZMA2. */
-  LZMA2(".lzma2", (byte) 9);
+  LZMA2(".lzma2", (byte) 9),
+
+  /**
+   * ZSTD with a dictionary trained from the pages of each chunk and stored in front of them, which
+   * compresses small pages much better. A chunk whose pages are too few to train a dictionary, or
+   * gain nothing from it, is compressed by {@link #ZSTD} instead.
+   */
+  ZSTD_DICTIONARY(".zstd", (byte) 10);
 
   private final String extensionName;
   private final byte index;
@@ -68,6 +75,8 @@ public enum CompressionType {
         return CompressionType.ZSTD;
       case 9:
         return CompressionType.LZMA2;
+      case 10:
+        return CompressionType.ZSTD_DICTIONARY;
       default:
         throw new IllegalArgumentException("Invalid input: " + compressor);
     }
@@ -27,7 +27,14 @@ public enum EncryptionType {
   SM4128("SM4128", (byte) 1),
 
   /** AES128. */
-  AES128("AES128", (byte) 2);
+  AES128("AES128", (byte) 2),
+
+  /**
+   * AES128 whose IV is derived from the offset of the chunk and the index of the page only, so the
+   * pages of a file never share a keystream. The IV holds no per-file nonce, so the pages at the
+   * same position of two files encrypted by the same key still share it.
+   */
+  AES128_OFFSET_IV("AES128_OFFSET_IV", (byte) 3);
 
   private final String extensionName;
   private final byte index;
@@ -52,6 +59,8 @@ public enum EncryptionType {
         return EncryptionType.SM4128;
       case 2:
         return EncryptionType.AES128;
+      case 3:
+        return EncryptionType.AES128_OFFSET_IV;
       default:
         throw new IllegalArgumentException("Invalid input: " + encryptor);
     }
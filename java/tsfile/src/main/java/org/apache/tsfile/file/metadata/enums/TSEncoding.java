@@ -34,7 +34,10 @@ public enum TSEncoding {
   FREQ((byte) 10),
   CHIMP((byte) 11),
   SPRINTZ((byte) 12),
-  RLBE((byte) 13);
+  RLBE((byte) 13),
+  ALP((byte) 14),
+  PFOR((byte) 15),
+  CHUNK_DICTIONARY((byte) 16);
   private final byte type;
 
   TSEncoding(byte type) {
@@ -79,6 +82,12 @@ public enum TSEncoding {
         return TSEncoding.SPRINTZ;
       case 13:
         return TSEncoding.RLBE;
+      case 14:
+        return TSEncoding.ALP;
+      case 15:
+        return TSEncoding.PFOR;
+      case 16:
+        return TSEncoding.CHUNK_DICTIONARY;
       default:
         throw new IllegalArgumentException("Invalid input: " + encoding);
     }
@@ -151,8 +151,8 @@ public class BinaryStatistics extends Statistics<Binary> {
   }
 
   @Override
-  void updateStats(Binary[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
+  void updateStats(Binary[] values, int batchSize, int arrayOffset) {
+    for (int i = arrayOffset; i < arrayOffset + batchSize; i++) {
       updateStats(values[i]);
     }
   }
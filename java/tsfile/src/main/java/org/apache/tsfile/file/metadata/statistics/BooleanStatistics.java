@@ -97,10 +97,23 @@ public class BooleanStatistics extends Statistics<Boolean> {
   }
 
   @Override
-  void updateStats(boolean[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
-      updateStats(values[i]);
+  void updateStats(boolean[] values, int batchSize, int arrayOffset) {
+    if (batchSize <= 0) {
+      return;
     }
+    int i = arrayOffset;
+    int end = arrayOffset + batchSize;
+    if (isEmpty) {
+      updateStats(values[i++]);
+    }
+    long sum = sumValue;
+    for (; i < end; i++) {
+      if (values[i]) {
+        sum++;
+      }
+    }
+    sumValue = sum;
+    lastValue = values[end - 1];
   }
 
   @Override
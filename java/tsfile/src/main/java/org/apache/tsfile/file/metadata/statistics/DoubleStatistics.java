@@ -122,10 +122,34 @@ public class DoubleStatistics extends Statistics<Double> {
   }
 
   @Override
-  void updateStats(double[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
-      updateStats(values[i]);
+  void updateStats(double[] values, int batchSize, int arrayOffset) {
+    if (batchSize <= 0) {
+      return;
     }
+    int i = arrayOffset;
+    int end = arrayOffset + batchSize;
+    if (isEmpty) {
+      updateStats(values[i++]);
+    }
+    // the sum is added up in the same order as updateStats(double), so it is not changed by
+    // rounding
+    double min = minValue;
+    double max = maxValue;
+    double sum = sumValue;
+    for (; i < end; i++) {
+      double value = values[i];
+      if (value < min) {
+        min = value;
+      }
+      if (value > max) {
+        max = value;
+      }
+      sum += value;
+    }
+    minValue = min;
+    maxValue = max;
+    sumValue = sum;
+    lastValue = values[end - 1];
   }
 
   @Override
@@ -113,10 +113,33 @@ public class FloatStatistics extends Statistics<Float> {
   }
 
   @Override
-  void updateStats(float[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
-      updateStats(values[i]);
+  void updateStats(float[] values, int batchSize, int arrayOffset) {
+    if (batchSize <= 0) {
+      return;
     }
+    int i = arrayOffset;
+    int end = arrayOffset + batchSize;
+    if (isEmpty) {
+      updateStats(values[i++]);
+    }
+    // the sum is added up in the same order as updateStats(float), so it is not changed by rounding
+    float min = minValue;
+    float max = maxValue;
+    double sum = sumValue;
+    for (; i < end; i++) {
+      float value = values[i];
+      if (value < min) {
+        min = value;
+      }
+      if (value > max) {
+        max = value;
+      }
+      sum += value;
+    }
+    minValue = min;
+    maxValue = max;
+    sumValue = sum;
+    lastValue = values[end - 1];
   }
 
   @Override
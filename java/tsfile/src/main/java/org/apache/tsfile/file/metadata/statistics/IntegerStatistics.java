@@ -114,10 +114,32 @@ public class IntegerStatistics extends Statistics<Integer> {
   }
 
   @Override
-  void updateStats(int[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
-      updateStats(values[i]);
+  void updateStats(int[] values, int batchSize, int arrayOffset) {
+    if (batchSize <= 0) {
+      return;
     }
+    int i = arrayOffset;
+    int end = arrayOffset + batchSize;
+    if (isEmpty) {
+      updateStats(values[i++]);
+    }
+    int min = minValue;
+    int max = maxValue;
+    long sum = sumValue;
+    for (; i < end; i++) {
+      int value = values[i];
+      if (value < min) {
+        min = value;
+      }
+      if (value > max) {
+        max = value;
+      }
+      sum += value;
+    }
+    minValue = min;
+    maxValue = max;
+    sumValue = sum;
+    lastValue = values[end - 1];
   }
 
   @Override
@@ -107,10 +107,32 @@ public class LongStatistics extends Statistics<Long> {
   }
 
   @Override
-  void updateStats(long[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
-      updateStats(values[i]);
+  void updateStats(long[] values, int batchSize, int arrayOffset) {
+    if (batchSize <= 0) {
+      return;
     }
+    int i = arrayOffset;
+    int end = arrayOffset + batchSize;
+    if (isEmpty) {
+      updateStats(values[i++]);
+    }
+    long min = minValue;
+    long max = maxValue;
+    double sum = sumValue;
+    for (; i < end; i++) {
+      long value = values[i];
+      if (value < min) {
+        min = value;
+      }
+      if (value > max) {
+        max = value;
+      }
+      sum += value;
+    }
+    minValue = min;
+    maxValue = max;
+    sumValue = sum;
+    lastValue = values[end - 1];
   }
 
   @Override
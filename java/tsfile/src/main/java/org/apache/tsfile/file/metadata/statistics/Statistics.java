@@ -266,33 +266,57 @@ public abstract class Statistics<T extends Serializable> {
   }
 
   public void update(long[] time, boolean[] values, int batchSize) {
-    update(time, batchSize);
-    updateStats(values, batchSize);
+    update(time, values, batchSize, 0);
   }
 
   public void update(long[] time, int[] values, int batchSize) {
-    update(time, batchSize);
-    updateStats(values, batchSize);
+    update(time, values, batchSize, 0);
   }
 
   public void update(long[] time, long[] values, int batchSize) {
-    update(time, batchSize);
-    updateStats(values, batchSize);
+    update(time, values, batchSize, 0);
   }
 
   public void update(long[] time, float[] values, int batchSize) {
-    update(time, batchSize);
-    updateStats(values, batchSize);
+    update(time, values, batchSize, 0);
   }
 
   public void update(long[] time, double[] values, int batchSize) {
-    update(time, batchSize);
-    updateStats(values, batchSize);
+    update(time, values, batchSize, 0);
   }
 
   public void update(long[] time, Binary[] values, int batchSize) {
-    update(time, batchSize);
-    updateStats(values, batchSize);
+    update(time, values, batchSize, 0);
+  }
+
+  public void update(long[] time, boolean[] values, int batchSize, int arrayOffset) {
+    update(time, batchSize, arrayOffset);
+    updateStats(values, batchSize, arrayOffset);
+  }
+
+  public void update(long[] time, int[] values, int batchSize, int arrayOffset) {
+    update(time, batchSize, arrayOffset);
+    updateStats(values, batchSize, arrayOffset);
+  }
+
+  public void update(long[] time, long[] values, int batchSize, int arrayOffset) {
+    update(time, batchSize, arrayOffset);
+    updateStats(values, batchSize, arrayOffset);
+  }
+
+  public void update(long[] time, float[] values, int batchSize, int arrayOffset) {
+    update(time, batchSize, arrayOffset);
+    updateStats(values, batchSize, arrayOffset);
+  }
+
+  public void update(long[] time, double[] values, int batchSize, int arrayOffset) {
+    update(time, batchSize, arrayOffset);
+    updateStats(values, batchSize, arrayOffset);
+  }
+
+  public void update(long[] time, Binary[] values, int batchSize, int arrayOffset) {
+    update(time, batchSize, arrayOffset);
+    updateStats(values, batchSize, arrayOffset);
   }
 
   public void update(long[] time, int batchSize) {
@@ -349,27 +373,27 @@ public abstract class Statistics<T extends Serializable> {
     throw new UnsupportedOperationException();
   }
 
-  void updateStats(boolean[] values, int batchSize) {
+  void updateStats(boolean[] values, int batchSize, int arrayOffset) {
     throw new UnsupportedOperationException();
   }
 
-  void updateStats(int[] values, int batchSize) {
+  void updateStats(int[] values, int batchSize, int arrayOffset) {
     throw new UnsupportedOperationException();
   }
 
-  void updateStats(long[] values, int batchSize) {
+  void updateStats(long[] values, int batchSize, int arrayOffset) {
     throw new UnsupportedOperationException();
   }
 
-  void updateStats(float[] values, int batchSize) {
+  void updateStats(float[] values, int batchSize, int arrayOffset) {
     throw new UnsupportedOperationException();
   }
 
-  void updateStats(double[] values, int batchSize) {
+  void updateStats(double[] values, int batchSize, int arrayOffset) {
     throw new UnsupportedOperationException();
   }
 
-  void updateStats(Binary[] values, int batchSize) {
+  void updateStats(Binary[] values, int batchSize, int arrayOffset) {
     throw new UnsupportedOperationException();
   }
 
@@ -175,8 +175,8 @@ public class StringStatistics extends Statistics<Binary> {
   }
 
   @Override
-  void updateStats(Binary[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
+  void updateStats(Binary[] values, int batchSize, int arrayOffset) {
+    for (int i = arrayOffset; i < arrayOffset + batchSize; i++) {
       updateStats(values[i]);
     }
   }
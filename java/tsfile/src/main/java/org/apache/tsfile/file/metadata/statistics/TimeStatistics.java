@@ -110,7 +110,7 @@ public class TimeStatistics extends Statistics<Long> {
   }
 
   @Override
-  void updateStats(long[] values, int batchSize) {
+  void updateStats(long[] values, int batchSize, int arrayOffset) {
     throw new StatisticsClassException(String.format(STATS_UNSUPPORTED_MSG, TIME, UPDATE_STATS));
   }
 
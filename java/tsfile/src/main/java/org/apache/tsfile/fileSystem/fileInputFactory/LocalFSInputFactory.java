@@ -19,7 +19,9 @@
 
 package org.apache.tsfile.fileSystem.fileInputFactory;
 
+import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.read.reader.LocalTsFileInput;
+import org.apache.tsfile.read.reader.MappedTsFileInput;
 import org.apache.tsfile.read.reader.TsFileInput;
 
 import java.io.IOException;
@@ -29,6 +31,9 @@ public class LocalFSInputFactory implements FileInputFactory {
 
   @Override
   public TsFileInput getTsFileInput(String filePath) throws IOException {
+    if (TSFileDescriptor.getInstance().getConfig().isMemoryMappedReadEnabled()) {
+      return new MappedTsFileInput(Paths.get(filePath));
+    }
     return new LocalTsFileInput(Paths.get(filePath));
   }
 }
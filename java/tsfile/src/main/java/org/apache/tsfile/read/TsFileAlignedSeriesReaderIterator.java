@@ -27,6 +27,7 @@ import org.apache.tsfile.read.reader.chunk.AlignedChunkReader;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -60,12 +61,20 @@ public class TsFileAlignedSeriesReaderIterator {
     IChunkMetadata timeChunkMetadata = alignedChunkMetadata.getTimeChunkMetadata();
     List<IChunkMetadata> valueChunkMetadataList = alignedChunkMetadata.getValueChunkMetadataList();
     int schemaIdx = 0;
-    Chunk timeChunk = reader.readMemChunk((ChunkMetadata) timeChunkMetadata);
+    // read the time chunk and the value chunks together, they are usually adjacent in the file
+    List<ChunkMetadata> chunkMetadataList = new ArrayList<>(valueChunkMetadataList.size() + 1);
+    chunkMetadataList.add((ChunkMetadata) timeChunkMetadata);
+    for (IChunkMetadata valueChunkMetadata : valueChunkMetadataList) {
+      chunkMetadataList.add((ChunkMetadata) valueChunkMetadata);
+    }
+    List<Chunk> chunkList = reader.readMemChunks(chunkMetadataList);
+    Chunk timeChunk = chunkList.get(0);
     Chunk[] valueChunks = new Chunk[schemaList.size()];
     long totalSize = 0;
     long totalPointNum = 0;
     int notNullChunkNum = 0;
-    for (IChunkMetadata valueChunkMetadata : valueChunkMetadataList) {
+    for (int i = 0; i < valueChunkMetadataList.size(); i++) {
+      IChunkMetadata valueChunkMetadata = valueChunkMetadataList.get(i);
       if (valueChunkMetadata == null) {
         continue;
       }
@@ -74,7 +83,7 @@ public class TsFileAlignedSeriesReaderIterator {
           .equals(schemaList.get(schemaIdx).getMeasurementId())) {
         schemaIdx++;
       }
-      Chunk chunk = reader.readMemChunk((ChunkMetadata) valueChunkMetadata);
+      Chunk chunk = chunkList.get(i + 1);
       valueChunks[schemaIdx++] = chunk;
       notNullChunkNum++;
       totalPointNum += ((ChunkMetadata) valueChunkMetadata).getNumOfPoints();
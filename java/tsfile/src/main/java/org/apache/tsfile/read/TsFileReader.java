@@ -19,6 +19,8 @@
 
 package org.apache.tsfile.read;
 
+import org.apache.tsfile.common.cache.WeightedLRUCache;
+import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.read.controller.CachedChunkLoaderImpl;
 import org.apache.tsfile.read.controller.IChunkLoader;
 import org.apache.tsfile.read.controller.IMetadataQuerier;
@@ -44,6 +46,20 @@ public class TsFileReader implements AutoCloseable {
     tsFileExecutor = new TsFileExecutor(metadataQuerier, chunkLoader);
   }
 
+  /**
+   * Constructor, create ReadOnlyTsFile with {@link TsFileSequenceReader} and a chunk cache shared
+   * with other readers.
+   */
+  public TsFileReader(
+      TsFileSequenceReader fileReader,
+      WeightedLRUCache<CachedChunkLoaderImpl.ChunkCacheKey, Chunk> sharedChunkCache)
+      throws IOException {
+    this.fileReader = fileReader;
+    this.metadataQuerier = new MetadataQuerierByFileImpl(fileReader);
+    this.chunkLoader = new CachedChunkLoaderImpl(fileReader, sharedChunkCache);
+    tsFileExecutor = new TsFileExecutor(metadataQuerier, chunkLoader);
+  }
+
   public QueryDataSet query(QueryExpression queryExpression) throws IOException {
     return tsFileExecutor.execute(queryExpression);
   }
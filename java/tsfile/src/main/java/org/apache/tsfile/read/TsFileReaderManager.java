@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read;
+
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.utils.Pair;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of the readers of sealed TsFiles, so that the queries on the same file share one opened
+ * reader together with its parsed {@link org.apache.tsfile.file.metadata.TsFileMetadata} instead of
+ * opening the file and parsing its tail again each time.
+ *
+ * <p>A reader got by {@link #get(String)} is referenced until it is given back by {@link
+ * #release(TsFileSequenceReader)}, and it must not be closed by the caller. The readers are shared
+ * by many threads, so only the positional methods of {@link TsFileSequenceReader} should be used on
+ * them. The number of opened readers is kept under the max open file number by closing the least
+ * recently used ones that are not referenced. If all the opened readers are referenced, the limit
+ * is exceeded temporarily and the readers are closed once they are released.
+ */
+public class TsFileReaderManager implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(TsFileReaderManager.class);
+
+  private final int maxOpenFileNum;
+
+  /** absolute path -> reader, in the order of access, guarded by this */
+  private final LinkedHashMap<String, ReaderEntry> readers = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** the readers removed by {@link #closeFile(String)} but still referenced, guarded by this */
+  private final Map<TsFileSequenceReader, ReaderEntry> retiredReaders = new IdentityHashMap<>();
+
+  private boolean closed = false;
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+  private final AtomicLong openTimeInNanos = new AtomicLong();
+
+  public TsFileReaderManager(int maxOpenFileNum) {
+    if (maxOpenFileNum <= 0) {
+      throw new IllegalArgumentException("maxOpenFileNum should be positive: " + maxOpenFileNum);
+    }
+    this.maxOpenFileNum = maxOpenFileNum;
+  }
+
+  public static TsFileReaderManager getInstance() {
+    return TsFileReaderManagerHolder.INSTANCE;
+  }
+
+  /**
+   * Get the reader of the file, opening it if it is not opened yet. The reader is referenced until
+   * it is given back by {@link #release(TsFileSequenceReader)}.
+   *
+   * @param filePath path of a sealed TsFile
+   */
+  public TsFileSequenceReader get(String filePath) throws IOException {
+    String absolutePath = toAbsolutePath(filePath);
+    ReaderEntry entry;
+    boolean opener = false;
+    synchronized (this) {
+      if (closed) {
+        throw new IOException("TsFileReaderManager is closed");
+      }
+      entry = readers.get(absolutePath);
+      if (entry == null) {
+        entry = new ReaderEntry();
+        readers.put(absolutePath, entry);
+        opener = true;
+      }
+      entry.refCount++;
+    }
+    if (opener) {
+      missCount.incrementAndGet();
+      open(absolutePath, entry);
+      evictIfNecessary();
+    } else {
+      hitCount.incrementAndGet();
+    }
+    return waitForReader(absolutePath, entry);
+  }
+
+  private void open(String absolutePath, ReaderEntry entry) {
+    long startTime = System.nanoTime();
+    TsFileSequenceReader reader = null;
+    try {
+      reader = new TsFileSequenceReader(absolutePath);
+      reader.readFileMetadata();
+      entry.reader.complete(reader);
+    } catch (Throwable t) {
+      if (reader != null) {
+        closeQuietly(absolutePath, reader);
+      }
+      synchronized (this) {
+        readers.remove(absolutePath, entry);
+      }
+      entry.reader.completeExceptionally(t);
+    } finally {
+      openTimeInNanos.addAndGet(System.nanoTime() - startTime);
+    }
+  }
+
+  private TsFileSequenceReader waitForReader(String absolutePath, ReaderEntry entry)
+      throws IOException {
+    try {
+      return entry.reader.get();
+    } catch (InterruptedException e) {
+      synchronized (this) {
+        entry.refCount--;
+      }
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while opening " + absolutePath, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Failed to open " + absolutePath, e.getCause());
+    }
+  }
+
+  /** Give back a reader got by {@link #get(String)}. */
+  public void release(TsFileSequenceReader reader) {
+    String absolutePath = reader.getFileName();
+    boolean toClose = false;
+    synchronized (this) {
+      ReaderEntry entry = readers.get(absolutePath);
+      boolean retired = false;
+      if (entry == null || entry.reader.getNow(null) != reader) {
+        entry = retiredReaders.get(reader);
+        retired = true;
+      }
+      if (entry == null || entry.refCount == 0) {
+        logger.warn("The reader of {} is released more times than it is got", absolutePath);
+        return;
+      }
+      entry.refCount--;
+      if (entry.refCount == 0) {
+        if (retired) {
+          retiredReaders.remove(reader);
+          toClose = true;
+        } else if (readers.size() > maxOpenFileNum) {
+          readers.remove(absolutePath);
+          evictionCount.incrementAndGet();
+          toClose = true;
+        }
+      }
+    }
+    if (toClose) {
+      closeQuietly(absolutePath, reader);
+    }
+  }
+
+  /**
+   * Close the reader of the file, e.g. before the file is removed. If the reader is referenced, it
+   * is closed once all the references are released. A reader being opened is left as it is.
+   */
+  public void closeFile(String filePath) {
+    String absolutePath = toAbsolutePath(filePath);
+    TsFileSequenceReader toClose = null;
+    synchronized (this) {
+      ReaderEntry entry = readers.get(absolutePath);
+      if (entry == null) {
+        return;
+      }
+      if (!entry.reader.isDone()) {
+        // the reader is being opened
+        return;
+      }
+      readers.remove(absolutePath);
+      toClose = entry.reader.getNow(null);
+      if (toClose != null && entry.refCount > 0) {
+        // the reader is not served anymore, and it is closed on the last release
+        retiredReaders.put(toClose, entry);
+        toClose = null;
+      }
+    }
+    if (toClose != null) {
+      closeQuietly(absolutePath, toClose);
+    }
+  }
+
+  /** Close the least recently used readers which are not referenced, if there are too many. */
+  private void evictIfNecessary() {
+    List<Pair<String, TsFileSequenceReader>> toClose = new ArrayList<>();
+    synchronized (this) {
+      Iterator<Map.Entry<String, ReaderEntry>> iterator = readers.entrySet().iterator();
+      while (readers.size() > maxOpenFileNum && iterator.hasNext()) {
+        Map.Entry<String, ReaderEntry> next = iterator.next();
+        ReaderEntry entry = next.getValue();
+        if (entry.refCount == 0 && entry.reader.isDone()) {
+          iterator.remove();
+          TsFileSequenceReader reader = entry.reader.getNow(null);
+          if (reader != null) {
+            toClose.add(new Pair<>(next.getKey(), reader));
+          }
+        }
+      }
+    }
+    for (Pair<String, TsFileSequenceReader> pair : toClose) {
+      evictionCount.incrementAndGet();
+      closeQuietly(pair.left, pair.right);
+    }
+  }
+
+  private static void closeQuietly(String absolutePath, TsFileSequenceReader reader) {
+    try {
+      reader.close();
+    } catch (IOException e) {
+      logger.warn("Failed to close the reader of {}", absolutePath, e);
+    }
+  }
+
+  private static String toAbsolutePath(String filePath) {
+    return new File(filePath).getAbsolutePath();
+  }
+
+  /** The number of the opened readers. */
+  public synchronized int getOpenFileNum() {
+    return readers.size() + retiredReaders.size();
+  }
+
+  public int getMaxOpenFileNum() {
+    return maxOpenFileNum;
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public double getHitRate() {
+    long hit = hitCount.get();
+    long total = hit + missCount.get();
+    return total == 0 ? 1.0 : (double) hit / total;
+  }
+
+  /** The number of the readers closed to keep the number of the opened readers in limit. */
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  /** The total time spent on opening readers, including reading their file metadata. */
+  public long getOpenTimeInNanos() {
+    return openTimeInNanos.get();
+  }
+
+  public long getAverageOpenTimeInNanos() {
+    long miss = missCount.get();
+    return miss == 0 ? 0 : openTimeInNanos.get() / miss;
+  }
+
+  /** Close all the readers, the referenced ones are closed as well. */
+  @Override
+  public void close() {
+    List<TsFileSequenceReader> toClose = new ArrayList<>();
+    synchronized (this) {
+      closed = true;
+      for (ReaderEntry entry : readers.values()) {
+        TsFileSequenceReader reader = entry.reader.getNow(null);
+        if (reader != null) {
+          toClose.add(reader);
+        }
+      }
+      toClose.addAll(retiredReaders.keySet());
+      readers.clear();
+      retiredReaders.clear();
+    }
+    for (TsFileSequenceReader reader : toClose) {
+      closeQuietly(reader.getFileName(), reader);
+    }
+  }
+
+  private static class ReaderEntry {
+
+    private final CompletableFuture<TsFileSequenceReader> reader = new CompletableFuture<>();
+
+    /** number of the users of the reader, guarded by the manager */
+    private int refCount;
+  }
+
+  private static class TsFileReaderManagerHolder {
+
+    private static final TsFileReaderManager INSTANCE =
+        new TsFileReaderManager(
+            TSFileDescriptor.getInstance().getConfig().getReaderManagerMaxOpenFileNum());
+
+    private TsFileReaderManagerHolder() {}
+  }
+}
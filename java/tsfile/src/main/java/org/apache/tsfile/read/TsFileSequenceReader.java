@@ -19,12 +19,14 @@
 
 package org.apache.tsfile.read;
 
+import org.apache.tsfile.common.cache.BlockCache;
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.common.constant.TsFileConstant;
 import org.apache.tsfile.compatibility.CompatibilityUtils;
 import org.apache.tsfile.compatibility.DeserializeConfig;
 import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.encoding.decoder.ChunkDictionaryDecoder;
 import org.apache.tsfile.encoding.decoder.Decoder;
 import org.apache.tsfile.encrypt.EncryptUtils;
 import org.apache.tsfile.encrypt.IDecryptor;
@@ -61,10 +63,12 @@ import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.read.common.Path;
 import org.apache.tsfile.read.controller.CachedChunkLoaderImpl;
 import org.apache.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.tsfile.read.reader.PositionedTsFileInput;
 import org.apache.tsfile.read.reader.TsFileInput;
 import org.apache.tsfile.read.reader.page.PageReader;
 import org.apache.tsfile.read.reader.page.TimePageReader;
 import org.apache.tsfile.read.reader.page.ValuePageReader;
+import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.BloomFilter;
 import org.apache.tsfile.utils.Pair;
 import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
@@ -79,9 +83,11 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -97,10 +103,16 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
+/**
+ * Reader of a TsFile. The methods reading at given positions, e.g. reading the metadata, the chunks
+ * and {@link #readMarker(long)}, {@link #readPageHeader(TSDataType, boolean, long)} and {@link
+ * #readPage(PageHeader, CompressionType, long)}, do not depend on the position of the reader, so a
+ * single reader can serve many threads at the same time. The methods reading from the current
+ * position, e.g. {@link #readMarker()} and {@link #readChunkHeader(byte)}, are for scanning the
+ * file sequentially and are not thread safe.
+ */
 public class TsFileSequenceReader implements AutoCloseable {
 
   private static final Logger logger = LoggerFactory.getLogger(TsFileSequenceReader.class);
@@ -113,7 +125,6 @@ public class TsFileSequenceReader implements AutoCloseable {
   protected TsFileInput tsFileInput;
   protected long fileMetadataPos;
   protected int fileMetadataSize;
-  private ByteBuffer markerBuffer = ByteBuffer.allocate(Byte.BYTES);
 
   @SuppressWarnings("squid:S3077")
   protected volatile TsFileMetadata tsFileMetaData;
@@ -121,7 +132,6 @@ public class TsFileSequenceReader implements AutoCloseable {
   // device -> measurement -> TimeseriesMetadata
   private Map<IDeviceID, Map<String, TimeseriesMetadata>> cachedDeviceMetadata =
       new ConcurrentHashMap<>();
-  private static final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
   private boolean cacheDeviceMetadata;
   private long minPlanIndex = Long.MAX_VALUE;
   private long maxPlanIndex = Long.MIN_VALUE;
@@ -130,6 +140,12 @@ public class TsFileSequenceReader implements AutoCloseable {
 
   private DeserializeConfig deserializeConfig = new DeserializeConfig();
 
+  /** whether the blocks read at given positions are shared through the {@link BlockCache} */
+  private boolean blockCacheEnabled = config.isBlockCacheEnabled();
+
+  /** size of the file when the block cache is first used, which identifies the file content */
+  private long fileSizeForBlockCache = -1;
+
   /**
    * Create a file reader of the given file. The reader will read the tail of the file to get the
    * file metadata size.Then the reader will skip the first
@@ -377,7 +393,9 @@ public class TsFileSequenceReader implements AutoCloseable {
   }
 
   /**
-   * this function reads measurements and TimeseriesMetaDatas in given device Thread Safe
+   * this function reads measurements and TimeseriesMetaDatas in given device Thread Safe. The
+   * cached device metadata is shared without locking, if several threads miss the same device at
+   * the same time, each of them reads it and the first one is cached.
    *
    * @param device name
    * @return the map measurementId -> TimeseriesMetaData in one device
@@ -388,27 +406,14 @@ public class TsFileSequenceReader implements AutoCloseable {
       return readDeviceMetadataFromDisk(device);
     }
 
-    cacheLock.readLock().lock();
-    try {
-      if (cachedDeviceMetadata.containsKey(device)) {
-        return cachedDeviceMetadata.get(device);
-      }
-    } finally {
-      cacheLock.readLock().unlock();
-    }
-
-    cacheLock.writeLock().lock();
-    try {
-      if (cachedDeviceMetadata.containsKey(device)) {
-        return cachedDeviceMetadata.get(device);
-      }
-      readFileMetadata();
-      Map<String, TimeseriesMetadata> deviceMetadata = readDeviceMetadataFromDisk(device);
-      cachedDeviceMetadata.put(device, deviceMetadata);
+    Map<String, TimeseriesMetadata> deviceMetadata = cachedDeviceMetadata.get(device);
+    if (deviceMetadata != null) {
       return deviceMetadata;
-    } finally {
-      cacheLock.writeLock().unlock();
     }
+    deviceMetadata = readDeviceMetadataFromDisk(device);
+    Map<String, TimeseriesMetadata> cached =
+        cachedDeviceMetadata.putIfAbsent(device, deviceMetadata);
+    return cached != null ? cached : deviceMetadata;
   }
 
   public void clearCachedDeviceMetadata() {
@@ -472,10 +477,11 @@ public class TsFileSequenceReader implements AutoCloseable {
     } else {
       // when the buffer length is over than Integer.MAX_VALUE,
       // using tsFileInput to get timeseriesMetadataList
-      tsFileInput.position(metadataIndexPair.left.getOffset());
-      while (tsFileInput.position() < metadataIndexPair.right) {
+      TsFileInput input =
+          new PositionedTsFileInput(tsFileInput, metadataIndexPair.left.getOffset());
+      while (input.position() < metadataIndexPair.right) {
         try {
-          timeseriesMetadataList.add(TimeseriesMetadata.deserializeFrom(tsFileInput, true));
+          timeseriesMetadataList.add(TimeseriesMetadata.deserializeFrom(input, true));
         } catch (Exception e1) {
           logger.error(
               "Something error happened while deserializing TimeseriesMetadata of file {}", file);
@@ -577,22 +583,21 @@ public class TsFileSequenceReader implements AutoCloseable {
     } else {
       // when the buffer length is over than Integer.MAX_VALUE,
       // using tsFileInput to get timeseriesMetadataList
-      synchronized (this) {
-        tsFileInput.position(metadataIndexPair.left.getOffset());
-        while (tsFileInput.position() < metadataIndexPair.right) {
-          TimeseriesMetadata timeseriesMetadata;
-          try {
-            timeseriesMetadata = TimeseriesMetadata.deserializeFrom(tsFileInput, true);
-          } catch (StopReadTsFileByInterruptException e) {
-            throw e;
-          } catch (Exception e1) {
-            logger.error(
-                "Something error happened while deserializing TimeseriesMetadata of file {}", file);
-            throw e1;
-          }
-          if (allSensors.contains(timeseriesMetadata.getMeasurementId())) {
-            timeseriesMetadataList.add(timeseriesMetadata);
-          }
+      TsFileInput input =
+          new PositionedTsFileInput(tsFileInput, metadataIndexPair.left.getOffset());
+      while (input.position() < metadataIndexPair.right) {
+        TimeseriesMetadata timeseriesMetadata;
+        try {
+          timeseriesMetadata = TimeseriesMetadata.deserializeFrom(input, true);
+        } catch (StopReadTsFileByInterruptException e) {
+          throw e;
+        } catch (Exception e1) {
+          logger.error(
+              "Something error happened while deserializing TimeseriesMetadata of file {}", file);
+          throw e1;
+        }
+        if (allSensors.contains(timeseriesMetadata.getMeasurementId())) {
+          timeseriesMetadataList.add(timeseriesMetadata);
         }
       }
     }
@@ -1260,12 +1265,11 @@ public class TsFileSequenceReader implements AutoCloseable {
       boolean needChunkMetadata)
       throws IOException {
     try {
-      tsFileInput.position(start);
+      TsFileInput input = new PositionedTsFileInput(tsFileInput, start);
       if (type.equals(MetadataIndexNodeType.LEAF_MEASUREMENT)) {
         List<TimeseriesMetadata> timeseriesMetadataList = new ArrayList<>();
-        while (tsFileInput.position() < end) {
-          timeseriesMetadataList.add(
-              TimeseriesMetadata.deserializeFrom(tsFileInput, needChunkMetadata));
+        while (input.position() < end) {
+          timeseriesMetadataList.add(TimeseriesMetadata.deserializeFrom(input, needChunkMetadata));
         }
         timeseriesMetadataMap
             .computeIfAbsent(deviceId, k -> new ArrayList<>())
@@ -1278,7 +1282,7 @@ public class TsFileSequenceReader implements AutoCloseable {
         boolean currentChildLevelIsDevice = MetadataIndexNodeType.INTERNAL_DEVICE.equals(type);
         MetadataIndexNode metadataIndexNode =
             deserializeConfig.deserializeMetadataIndexNode(
-                tsFileInput.wrapAsInputStream(), currentChildLevelIsDevice);
+                input.wrapAsInputStream(), currentChildLevelIsDevice);
         int metadataIndexListSize = metadataIndexNode.getChildren().size();
         for (int i = 0; i < metadataIndexListSize; i++) {
           long endOffset = metadataIndexNode.getEndOffset();
@@ -1545,7 +1549,8 @@ public class TsFileSequenceReader implements AutoCloseable {
   }
 
   /**
-   * notice, this function will modify channel's position.
+   * read the chunk's data. If the input is able to expose its storage directly (e.g. it is memory
+   * mapped), the returned buffer is a read-only view of it rather than a heap copy.
    *
    * @param dataSize the size of chunkdata
    * @param position the offset of the chunk data
@@ -1553,6 +1558,10 @@ public class TsFileSequenceReader implements AutoCloseable {
    */
   public ByteBuffer readChunk(long position, int dataSize) throws IOException {
     try {
+      ByteBuffer slice = tsFileInput.readSlice(position, dataSize);
+      if (slice != null) {
+        return slice;
+      }
       return readData(position, dataSize);
     } catch (StopReadTsFileByInterruptException e) {
       throw e;
@@ -1571,7 +1580,9 @@ public class TsFileSequenceReader implements AutoCloseable {
     try {
       ChunkHeader header = readChunkHeader(offset);
       ByteBuffer buffer = readChunk(offset + header.getSerializedSize(), header.getDataSize());
-      return new Chunk(header, buffer, getDecryptor());
+      Chunk chunk = new Chunk(header, buffer, getDecryptor());
+      chunk.setLocation(file, offset);
+      return chunk;
     } catch (StopReadTsFileByInterruptException e) {
       throw e;
     } catch (Throwable t) {
@@ -1592,12 +1603,15 @@ public class TsFileSequenceReader implements AutoCloseable {
       ByteBuffer buffer =
           readChunk(
               metaData.getOffsetOfChunkHeader() + header.getSerializedSize(), header.getDataSize());
-      return new Chunk(
-          header,
-          buffer,
-          metaData.getDeleteIntervalList(),
-          metaData.getStatistics(),
-          getDecryptor());
+      Chunk chunk =
+          new Chunk(
+              header,
+              buffer,
+              metaData.getDeleteIntervalList(),
+              metaData.getStatistics(),
+              getDecryptor());
+      chunk.setLocation(file, metaData.getOffsetOfChunkHeader());
+      return chunk;
     } catch (StopReadTsFileByInterruptException e) {
       throw e;
     } catch (Throwable t) {
@@ -1618,12 +1632,140 @@ public class TsFileSequenceReader implements AutoCloseable {
         readChunk(
             chunkCacheKey.getOffsetOfChunkHeader() + header.getSerializedSize(),
             header.getDataSize());
-    return new Chunk(
-        header,
-        buffer,
-        chunkCacheKey.getDeleteIntervalList(),
-        chunkCacheKey.getStatistics(),
-        getDecryptor());
+    Chunk chunk =
+        new Chunk(
+            header,
+            buffer,
+            chunkCacheKey.getDeleteIntervalList(),
+            chunkCacheKey.getStatistics(),
+            getDecryptor());
+    chunk.setLocation(file, chunkCacheKey.getOffsetOfChunkHeader());
+    return chunk;
+  }
+
+  /**
+   * read a batch of memory chunks, e.g. all the chunks of one device. Instead of reading the header
+   * and the data of each chunk separately, the ranges are sorted and neighbouring ones are read at
+   * once according to {@link TSFileConfig#getCoalescedReadMaxGapInByte()}, which usually takes only
+   * a couple of reads for chunks in the same chunk group.
+   *
+   * @param chunkMetadataList given chunk metadata, null elements are allowed
+   * @return the chunks in the same order as the given metadata, null for null metadata
+   */
+  public List<Chunk> readMemChunks(List<ChunkMetadata> chunkMetadataList) throws IOException {
+    try {
+      Chunk[] chunks = new Chunk[chunkMetadataList.size()];
+      List<ChunkMetadata> metadataToRead = new ArrayList<>();
+      List<Integer> indexesToRead = new ArrayList<>();
+      for (int i = 0; i < chunkMetadataList.size(); i++) {
+        if (chunkMetadataList.get(i) != null) {
+          metadataToRead.add(chunkMetadataList.get(i));
+          indexesToRead.add(i);
+        }
+      }
+      if (metadataToRead.isEmpty()) {
+        return Arrays.asList(chunks);
+      }
+
+      // the header size is estimated, and if the next chunk is not far away, we read up to it as
+      // the current chunk is probably followed by it, so that its data is read at the same time
+      long[] sortedOffsets =
+          metadataToRead.stream()
+              .mapToLong(ChunkMetadata::getOffsetOfChunkHeader)
+              .sorted()
+              .distinct()
+              .toArray();
+      long fileSize = tsFileInput.size();
+      int maxGap = config.getCoalescedReadMaxGapInByte();
+      List<Pair<Long, Integer>> headerRanges = new ArrayList<>(metadataToRead.size());
+      for (ChunkMetadata chunkMetadata : metadataToRead) {
+        long offset = chunkMetadata.getOffsetOfChunkHeader();
+        long length = ChunkHeader.getSerializedSize(chunkMetadata.getMeasurementUid());
+        int next = Arrays.binarySearch(sortedOffsets, offset) + 1;
+        if (next < sortedOffsets.length && sortedOffsets[next] - offset <= maxGap) {
+          length = Math.max(length, sortedOffsets[next] - offset);
+        }
+        headerRanges.add(new Pair<>(offset, (int) Math.min(length, fileSize - offset)));
+      }
+      List<ByteBuffer> headerBuffers = readRanges(headerRanges);
+
+      ChunkHeader[] headers = new ChunkHeader[metadataToRead.size()];
+      ByteBuffer[] dataBuffers = new ByteBuffer[metadataToRead.size()];
+      List<Integer> dataToRead = new ArrayList<>();
+      List<Pair<Long, Integer>> dataRanges = new ArrayList<>();
+      for (int i = 0; i < metadataToRead.size(); i++) {
+        ByteBuffer buffer = headerBuffers.get(i);
+        headers[i] = ChunkHeader.deserializeFrom(buffer);
+        if (buffer.remaining() >= headers[i].getDataSize()) {
+          buffer.limit(buffer.position() + headers[i].getDataSize());
+          dataBuffers[i] = compact(buffer);
+        } else {
+          dataToRead.add(i);
+          dataRanges.add(
+              new Pair<>(
+                  metadataToRead.get(i).getOffsetOfChunkHeader() + headers[i].getSerializedSize(),
+                  headers[i].getDataSize()));
+        }
+      }
+      if (!dataRanges.isEmpty()) {
+        List<ByteBuffer> buffers = readRanges(dataRanges);
+        for (int i = 0; i < dataToRead.size(); i++) {
+          dataBuffers[dataToRead.get(i)] = compact(buffers.get(i));
+        }
+      }
+
+      IDecryptor decryptor = getDecryptor();
+      for (int i = 0; i < metadataToRead.size(); i++) {
+        ChunkMetadata chunkMetadata = metadataToRead.get(i);
+        Chunk chunk =
+            new Chunk(
+                headers[i],
+                dataBuffers[i],
+                chunkMetadata.getDeleteIntervalList(),
+                chunkMetadata.getStatistics(),
+                decryptor);
+        chunk.setLocation(file, chunkMetadata.getOffsetOfChunkHeader());
+        chunks[indexesToRead.get(i)] = chunk;
+      }
+      return Arrays.asList(chunks);
+    } catch (StopReadTsFileByInterruptException e) {
+      throw e;
+    } catch (Throwable t) {
+      logger.warn("Exception {} happened while reading chunks of {}", t.getMessage(), file);
+      throw t;
+    }
+  }
+
+  /**
+   * read a batch of ranges, neighbouring ranges are merged into one read according to {@link
+   * TSFileConfig#getCoalescedReadMaxGapInByte()} and {@link
+   * TSFileConfig#getCoalescedReadMaxSizeInByte()}. This method does not modify the position of the
+   * file reader.
+   *
+   * @param ranges the (offset, length) of each range
+   * @return the data of each range, in the same order as the given ranges
+   */
+  public List<ByteBuffer> readRanges(List<Pair<Long, Integer>> ranges) throws IOException {
+    return tsFileInput.readRanges(
+        ranges, config.getCoalescedReadMaxGapInByte(), config.getCoalescedReadMaxSizeInByte());
+  }
+
+  /**
+   * The chunks of a coalesced read are slices of a merged buffer, which may be much larger than
+   * them. The remaining bytes of a heap buffer are copied into a buffer of their own, so that a
+   * cached chunk does not keep the whole merged buffer alive. A slice of a memory-mapped file takes
+   * no heap and is returned as it is.
+   */
+  private static ByteBuffer compact(ByteBuffer buffer) {
+    if (!buffer.hasArray()
+        || (buffer.arrayOffset() + buffer.position() == 0
+            && buffer.remaining() == buffer.array().length)) {
+      return buffer.slice();
+    }
+    ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+    copy.put(buffer.duplicate());
+    copy.flip();
+    return copy;
   }
 
   /**
@@ -1638,12 +1780,14 @@ public class TsFileSequenceReader implements AutoCloseable {
 
     String measurementId = timeseriesMetadata.getMeasurementId();
     int measurementIdLength = measurementId.getBytes(TSFileConfig.STRING_CHARSET).length;
-    position(
-        timeseriesMetadata.getChunkMetadataList().get(0).getOffsetOfChunkHeader()
-            + Byte.BYTES // chunkType
-            + ReadWriteForEncodingUtils.varIntSize(measurementIdLength) // measurementID length
-            + measurementIdLength); // measurementID
-    return ChunkHeader.deserializeCompressionTypeAndEncoding(tsFileInput.wrapAsInputStream());
+    TsFileInput input =
+        new PositionedTsFileInput(
+            tsFileInput,
+            timeseriesMetadata.getChunkMetadataList().get(0).getOffsetOfChunkHeader()
+                + Byte.BYTES // chunkType
+                + ReadWriteForEncodingUtils.varIntSize(measurementIdLength) // measurementID length
+                + measurementIdLength); // measurementID
+    return ChunkHeader.deserializeCompressionTypeAndEncoding(input.wrapAsInputStream());
   }
 
   /** Get measurement schema by chunkMetadatas. */
@@ -1677,6 +1821,26 @@ public class TsFileSequenceReader implements AutoCloseable {
     }
   }
 
+  /**
+   * read the page header at the given position, this method does not modify the position of the
+   * file reader and is thread safe.
+   *
+   * @param type given tsfile data type
+   * @param position the offset of the page header in the file
+   */
+  public PageHeader readPageHeader(TSDataType type, boolean hasStatistic, long position)
+      throws IOException {
+    try {
+      return PageHeader.deserializeFrom(
+          new PositionedTsFileInput(tsFileInput, position).wrapAsInputStream(), type, hasStatistic);
+    } catch (StopReadTsFileByInterruptException e) {
+      throw e;
+    } catch (Throwable t) {
+      logger.warn("Exception {} happened while reading page header of {}", t.getMessage(), file);
+      throw t;
+    }
+  }
+
   public long position() throws IOException {
     return tsFileInput.position();
   }
@@ -1693,14 +1857,171 @@ public class TsFileSequenceReader implements AutoCloseable {
     return readData(-1, header.getCompressedSize());
   }
 
+  /**
+   * read the compressed page data at the given position, this method does not modify the position
+   * of the file reader and is thread safe.
+   *
+   * @param position the offset of the page data in the file
+   */
+  public ByteBuffer readCompressedPage(PageHeader header, long position) throws IOException {
+    return readData(position, header.getCompressedSize());
+  }
+
+  /**
+   * read and uncompress the page data at the current position.
+   *
+   * @throws UnsupportedOperationException if the IVs of the pages are derived from their position,
+   *     use {@link #readPage(PageHeader, CompressionType, long, int)} instead
+   */
   public ByteBuffer readPage(PageHeader header, CompressionType type) throws IOException {
-    ByteBuffer buffer = readData(-1, header.getCompressedSize());
+    return readPage(header, type, -1);
+  }
+
+  /**
+   * read the dictionary in front of the pages of a chunk encoded by {@link
+   * TSEncoding#CHUNK_DICTIONARY} and move the position to the first page of the chunk. not thread
+   * safe.
+   *
+   * @param type the compression type of the chunk
+   * @throws UnsupportedOperationException if the IVs of the pages are derived from their position,
+   *     use {@link #readChunkDictionary(CompressionType, long)} instead
+   */
+  public Binary[] readChunkDictionary(CompressionType type) throws IOException {
+    return readChunkDictionary(type, getDecryptorWithoutPosition());
+  }
+
+  /**
+   * read the dictionary of the chunk whose header is at {@code chunkOffset}, see {@link
+   * #readChunkDictionary(CompressionType)}. The offset is needed if the IVs of the pages are
+   * derived from their position. not thread safe.
+   */
+  public Binary[] readChunkDictionary(CompressionType type, long chunkOffset) throws IOException {
+    return readChunkDictionary(
+        type, getDecryptor().getPageDecryptor(chunkOffset, EncryptUtils.DICTIONARY_PAGE_INDEX));
+  }
+
+  private Binary[] readChunkDictionary(CompressionType type, IDecryptor decryptor)
+      throws IOException {
+    return ChunkDictionaryDecoder.readDictionary(
+        readDictionaryBlock(), IUnCompressor.getUnCompressor(type), decryptor);
+  }
+
+  /**
+   * get the uncompressor of the pages of a chunk compressed by {@code type}. The dictionary in
+   * front of the pages of a chunk compressed by {@link CompressionType#ZSTD_DICTIONARY} is read,
+   * and the position is moved to the first page of the chunk. not thread safe.
+   *
+   * @throws UnsupportedOperationException if the IVs of the pages are derived from their position,
+   *     use {@link #readChunkUnCompressor(CompressionType, long)} instead
+   */
+  public IUnCompressor readChunkUnCompressor(CompressionType type) throws IOException {
+    if (type != CompressionType.ZSTD_DICTIONARY) {
+      return IUnCompressor.getUnCompressor(type);
+    }
+    IDecryptor decryptor = getDecryptorWithoutPosition();
+    return IUnCompressor.ZstdUnCompressor.readDictionary(readDictionaryBlock(), decryptor);
+  }
+
+  /**
+   * get the uncompressor of the pages of the chunk whose header is at {@code chunkOffset}, see
+   * {@link #readChunkUnCompressor(CompressionType)}. The offset is needed if the IVs of the pages
+   * are derived from their position. not thread safe.
+   */
+  public IUnCompressor readChunkUnCompressor(CompressionType type, long chunkOffset)
+      throws IOException {
+    if (type != CompressionType.ZSTD_DICTIONARY) {
+      return IUnCompressor.getUnCompressor(type);
+    }
+    return IUnCompressor.ZstdUnCompressor.readDictionary(
+        readDictionaryBlock(),
+        getDecryptor().getPageDecryptor(chunkOffset, EncryptUtils.DICTIONARY_PAGE_INDEX));
+  }
+
+  /** read the dictionary block at the current position and move the position after it. */
+  private ByteBuffer readDictionaryBlock() throws IOException {
+    long dictionaryOffset = tsFileInput.position();
+    InputStream inputStream = tsFileInput.wrapAsInputStream();
+    ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+    int storedSize = ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+    int blockSize = (int) (tsFileInput.position() - dictionaryOffset) + storedSize;
+    ByteBuffer dictionaryBlock = readData(dictionaryOffset, blockSize);
+    tsFileInput.position(dictionaryOffset + blockSize);
+    return dictionaryBlock;
+  }
+
+  /**
+   * read and uncompress the page data at the given position, this method does not modify the
+   * position of the file reader and is thread safe.
+   *
+   * @param position the offset of the page data in the file, or -1 to read from the current
+   *     position
+   * @throws UnsupportedOperationException if the IVs of the pages are derived from their position,
+   *     use {@link #readPage(PageHeader, CompressionType, long, int)} instead
+   */
+  public ByteBuffer readPage(PageHeader header, CompressionType type, long position)
+      throws IOException {
+    return readPage(
+        header, IUnCompressor.getUnCompressor(type), position, getDecryptorWithoutPosition());
+  }
+
+  /**
+   * read the page data at the current position and uncompress it by the uncompressor of its chunk,
+   * see {@link #readChunkUnCompressor(CompressionType)}. not thread safe.
+   *
+   * @throws UnsupportedOperationException if the IVs of the pages are derived from their position,
+   *     use {@link #readPage(PageHeader, IUnCompressor, long, int)} instead
+   */
+  public ByteBuffer readPage(PageHeader header, IUnCompressor unCompressor) throws IOException {
+    return readPage(header, unCompressor, -1, getDecryptorWithoutPosition());
+  }
+
+  /**
+   * Get the decryptor of a page read without the offset of its chunk and its index, which can not
+   * decrypt the pages whose IVs are derived from them.
+   */
+  private IDecryptor getDecryptorWithoutPosition() throws IOException {
     IDecryptor decryptor = getDecryptor();
+    if (decryptor != null && decryptor.hasPageIv()) {
+      throw new UnsupportedOperationException(
+          String.format(
+              "The pages of %s are encrypted by %s, they can only be read with the offset of their"
+                  + " chunk and their index",
+              file, decryptor.getEncryptionType()));
+    }
+    return decryptor;
+  }
+
+  /**
+   * read and uncompress the page at {@code pageIndex} of the chunk whose header is at {@code
+   * chunkOffset}, from the current position. The offset is needed if the IVs of the pages are
+   * derived from their position. not thread safe.
+   */
+  public ByteBuffer readPage(
+      PageHeader header, CompressionType type, long chunkOffset, int pageIndex) throws IOException {
+    return readPage(header, IUnCompressor.getUnCompressor(type), chunkOffset, pageIndex);
+  }
+
+  /**
+   * read the page at {@code pageIndex} of the chunk whose header is at {@code chunkOffset} and
+   * uncompress it by the uncompressor of the chunk, see {@link
+   * #readChunkUnCompressor(CompressionType, long)}. not thread safe.
+   */
+  public ByteBuffer readPage(
+      PageHeader header, IUnCompressor unCompressor, long chunkOffset, int pageIndex)
+      throws IOException {
+    return readPage(
+        header, unCompressor, -1, getDecryptor().getPageDecryptor(chunkOffset, pageIndex));
+  }
+
+  private ByteBuffer readPage(
+      PageHeader header, IUnCompressor unCompressor, long position, IDecryptor decryptor)
+      throws IOException {
+    ByteBuffer buffer = readData(position, header.getCompressedSize());
     if (header.getUncompressedSize() == 0) {
       return buffer;
     }
     ByteBuffer finalBuffer = decrypt(decryptor, buffer);
-    finalBuffer = uncompress(type, finalBuffer, header.getUncompressedSize());
+    finalBuffer = uncompress(unCompressor, finalBuffer, header.getUncompressedSize());
     return finalBuffer;
   }
 
@@ -1708,24 +2029,25 @@ public class TsFileSequenceReader implements AutoCloseable {
     if (decryptor == null || decryptor.getEncryptionType() == EncryptionType.UNENCRYPTED) {
       return buffer;
     }
-    return ByteBuffer.wrap(
-        decryptor.decrypt(
-            buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining()));
+    // the buffer may be shared by the block cache, so it is not decrypted in place
+    ByteBuffer decryptedBuffer =
+        buffer.isDirect()
+            ? ByteBuffer.allocateDirect(buffer.remaining())
+            : ByteBuffer.allocate(buffer.remaining());
+    decryptor.decrypt(buffer, decryptedBuffer);
+    return decryptedBuffer;
   }
 
   private static ByteBuffer uncompress(
-      CompressionType compressionType, ByteBuffer buffer, int uncompressedSize) throws IOException {
-    if (compressionType == CompressionType.UNCOMPRESSED) {
+      IUnCompressor unCompressor, ByteBuffer buffer, int uncompressedSize) throws IOException {
+    if (unCompressor.getCodecName() == CompressionType.UNCOMPRESSED) {
       return buffer;
     }
-    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(compressionType);
-    ByteBuffer uncompressedBuffer = ByteBuffer.allocate(uncompressedSize);
-    unCompressor.uncompress(
-        buffer.array(),
-        buffer.arrayOffset() + buffer.position(),
-        buffer.remaining(),
-        uncompressedBuffer.array(),
-        0);
+    ByteBuffer uncompressedBuffer =
+        buffer.isDirect() && unCompressor.supportDirectBuffer()
+            ? ByteBuffer.allocateDirect(uncompressedSize)
+            : ByteBuffer.allocate(uncompressedSize);
+    unCompressor.uncompressBuffer(buffer, uncompressedBuffer);
     return uncompressedBuffer;
   }
 
@@ -1734,7 +2056,7 @@ public class TsFileSequenceReader implements AutoCloseable {
    * this method is not thread safe
    */
   public byte readMarker() throws IOException {
-    markerBuffer.clear();
+    ByteBuffer markerBuffer = ByteBuffer.allocate(Byte.BYTES);
     if (ReadWriteIOUtils.readAsPossible(tsFileInput, markerBuffer) == 0) {
       throw new IOException("reach the end of the file.");
     }
@@ -1742,6 +2064,19 @@ public class TsFileSequenceReader implements AutoCloseable {
     return markerBuffer.get();
   }
 
+  /**
+   * read one byte at the given position, this method does not modify the position of the file
+   * reader and is thread safe.
+   */
+  public byte readMarker(long position) throws IOException {
+    ByteBuffer markerBuffer = ByteBuffer.allocate(Byte.BYTES);
+    if (ReadWriteIOUtils.readAsPossible(tsFileInput, markerBuffer, position, Byte.BYTES) == 0) {
+      throw new IOException("reach the end of the file.");
+    }
+    markerBuffer.flip();
+    return markerBuffer.get();
+  }
+
   @Override
   public void close() throws IOException {
     if (resourceLogger.isDebugEnabled()) {
@@ -1754,6 +2089,19 @@ public class TsFileSequenceReader implements AutoCloseable {
     return this.file;
   }
 
+  public boolean isBlockCacheEnabled() {
+    return blockCacheEnabled;
+  }
+
+  /**
+   * Whether the blocks this reader reads at given positions, e.g. the metadata index nodes, the
+   * timeseries metadata and the chunk bodies, are shared with other readers through the
+   * process-wide {@link BlockCache}. It is only suitable for files whose content is finalized.
+   */
+  public void setBlockCacheEnabled(boolean blockCacheEnabled) {
+    this.blockCacheEnabled = blockCacheEnabled;
+  }
+
   public long fileSize() throws IOException {
     return tsFileInput.size();
   }
@@ -1770,6 +2118,22 @@ public class TsFileSequenceReader implements AutoCloseable {
    * @return data that been read.
    */
   protected ByteBuffer readData(long position, int totalSize) throws IOException {
+    if (position < 0 || !blockCacheEnabled) {
+      return readDataFromInput(position, totalSize);
+    }
+    if (fileSizeForBlockCache < 0) {
+      fileSizeForBlockCache = tsFileInput.size();
+    }
+    return BlockCache.getInstance()
+        .get(
+            file,
+            fileSizeForBlockCache,
+            position,
+            totalSize,
+            key -> readDataFromInput(key.getOffset(), key.getLength()));
+  }
+
+  private ByteBuffer readDataFromInput(long position, int totalSize) throws IOException {
     int allocateSize = Math.min(MAX_READ_BUFFER_SIZE, totalSize);
     int allocateNum = (int) Math.ceil((double) totalSize / allocateSize);
     ByteBuffer buffer = ByteBuffer.allocate(totalSize);
@@ -1913,6 +2277,15 @@ public class TsFileSequenceReader implements AutoCloseable {
               if (marker == MetaMarker.TIME_CHUNK_HEADER) {
                 timeBatch.add(null);
               }
+              Binary[] dictionary = null;
+              long dictionaryOffset = this.position();
+              if (chunkHeader.getEncodingType() == TSEncoding.CHUNK_DICTIONARY) {
+                dictionary =
+                    readChunkDictionary(chunkHeader.getCompressionType(), fileOffsetOfChunk);
+              }
+              IUnCompressor unCompressor =
+                  readChunkUnCompressor(chunkHeader.getCompressionType(), fileOffsetOfChunk);
+              dataSize -= (int) (this.position() - dictionaryOffset);
               if (((byte) (chunkHeader.getChunkType() & 0x3F))
                   == MetaMarker
                       .CHUNK_HEADER) { // more than one page, we could use page statistics to
@@ -1938,9 +2311,11 @@ public class TsFileSequenceReader implements AutoCloseable {
                 // chunk statistic
                 PageHeader pageHeader = this.readPageHeader(chunkHeader.getDataType(), false);
                 Decoder valueDecoder =
-                    Decoder.getDecoderByType(
-                        chunkHeader.getEncodingType(), chunkHeader.getDataType());
-                ByteBuffer pageData = readPage(pageHeader, chunkHeader.getCompressionType());
+                    dictionary != null
+                        ? new ChunkDictionaryDecoder(dictionary)
+                        : Decoder.getDecoderByType(
+                            chunkHeader.getEncodingType(), chunkHeader.getDataType());
+                ByteBuffer pageData = readPage(pageHeader, unCompressor, fileOffsetOfChunk, 0);
                 Decoder timeDecoder =
                     Decoder.getDecoderByType(
                         TSEncoding.valueOf(
@@ -2221,6 +2596,17 @@ public class TsFileSequenceReader implements AutoCloseable {
     TSDataType dataType = chunkHeader.getDataType();
     Statistics<? extends Serializable> chunkStatistics = Statistics.getStatsByType(dataType);
     int dataSize = chunkHeader.getDataSize();
+    Binary[] dictionary = null;
+    // an empty chunk has no pages to uncompress
+    IUnCompressor unCompressor = new IUnCompressor.NoUnCompressor();
+    if (dataSize > 0) {
+      long dictionaryOffset = this.position();
+      if (chunkHeader.getEncodingType() == TSEncoding.CHUNK_DICTIONARY) {
+        dictionary = readChunkDictionary(chunkHeader.getCompressionType(), offsetOfChunkHeader);
+      }
+      unCompressor = readChunkUnCompressor(chunkHeader.getCompressionType(), offsetOfChunkHeader);
+      dataSize -= (int) (this.position() - dictionaryOffset);
+    }
     if (((byte) (chunkHeader.getChunkType() & 0x3F)) == MetaMarker.CHUNK_HEADER) {
       while (dataSize > 0) {
         // a new Page
@@ -2235,8 +2621,10 @@ public class TsFileSequenceReader implements AutoCloseable {
       // statistic
       PageHeader pageHeader = this.readPageHeader(chunkHeader.getDataType(), false);
       Decoder valueDecoder =
-          Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
-      ByteBuffer pageData = readPage(pageHeader, chunkHeader.getCompressionType());
+          dictionary != null
+              ? new ChunkDictionaryDecoder(dictionary)
+              : Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
+      ByteBuffer pageData = readPage(pageHeader, unCompressor, offsetOfChunkHeader, 0);
       Decoder timeDecoder =
           Decoder.getDecoderByType(
               TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
@@ -19,10 +19,14 @@
 
 package org.apache.tsfile.read.common;
 
+import org.apache.tsfile.common.cache.PageCache;
 import org.apache.tsfile.encrypt.EncryptUtils;
 import org.apache.tsfile.encrypt.IDecryptor;
 import org.apache.tsfile.file.MetaMarker;
 import org.apache.tsfile.file.header.ChunkHeader;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.EncryptionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
 import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.RamUsageEstimator;
@@ -51,6 +55,15 @@ public class Chunk {
   /** A list of deleted intervals. */
   private List<TimeRange> deleteIntervalList;
 
+  /**
+   * Path of the file the chunk is read from and offset of its header, which identify the pages of
+   * the chunk in the {@link PageCache}. The path is null if the chunk is not read from a file as
+   * is.
+   */
+  private String filePath;
+
+  private long offsetOfChunkHeader = -1;
+
   public Chunk(
       ChunkHeader header,
       ByteBuffer buffer,
@@ -92,6 +105,22 @@ public class Chunk {
     return decryptor;
   }
 
+  /**
+   * @return the decryptor of the page at {@code pageIndex} of this chunk, see {@link
+   *     IDecryptor#getPageDecryptor(long, int)}
+   */
+  public IDecryptor getPageDecryptor(int pageIndex) {
+    if (decryptor == null || !decryptor.hasPageIv()) {
+      return decryptor;
+    }
+    if (offsetOfChunkHeader < 0) {
+      throw new IllegalStateException(
+          "The offset of the chunk header is needed to decrypt the pages of chunk "
+              + chunkHeader.getMeasurementID());
+    }
+    return decryptor.getPageDecryptor(offsetOfChunkHeader, pageIndex);
+  }
+
   public ChunkHeader getHeader() {
     return chunkHeader;
   }
@@ -100,6 +129,36 @@ public class Chunk {
     return chunkData;
   }
 
+  /**
+   * Returns the data of this chunk to be copied as it is to the chunk header at {@code
+   * offsetOfChunkHeader} of a file encrypted by the same key. If the IV of a page is derived from
+   * its position, the pages are encrypted again for the new offset in a copy of the data.
+   */
+  public ByteBuffer getDataToCopyTo(long offsetOfChunkHeader) {
+    if (decryptor == null
+        || !decryptor.hasPageIv()
+        || offsetOfChunkHeader == this.offsetOfChunkHeader) {
+      return chunkData;
+    }
+    if (this.offsetOfChunkHeader < 0) {
+      throw new IllegalStateException(
+          "The offset of the chunk header is needed to decrypt the pages of chunk "
+              + chunkHeader.getMeasurementID());
+    }
+    ByteBuffer data = ByteBuffer.allocate(chunkData.remaining());
+    data.put(chunkData.duplicate());
+    data.flip();
+    EncryptUtils.reencryptChunkData(
+        decryptor,
+        this.offsetOfChunkHeader,
+        offsetOfChunkHeader,
+        data,
+        chunkHeader.hasDictionaryBlock(),
+        ((byte) (chunkHeader.getChunkType() & 0x3F)) == MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER,
+        chunkHeader.getDataType());
+    return data;
+  }
+
   public List<TimeRange> getDeleteIntervalList() {
     return deleteIntervalList;
   }
@@ -108,7 +167,42 @@ public class Chunk {
     this.deleteIntervalList = list;
   }
 
+  public String getFilePath() {
+    return filePath;
+  }
+
+  public long getOffsetOfChunkHeader() {
+    return offsetOfChunkHeader;
+  }
+
+  /**
+   * Set where the chunk is read from.
+   *
+   * @param filePath path of the file, null if unknown
+   * @param offsetOfChunkHeader offset of the chunk header in the file
+   */
+  public void setLocation(String filePath, long offsetOfChunkHeader) {
+    this.filePath = filePath;
+    this.offsetOfChunkHeader = offsetOfChunkHeader;
+  }
+
   public void mergeChunkByAppendPage(Chunk chunk) throws IOException {
+    if (chunkHeader.hasDictionaryBlock() || chunk.chunkHeader.hasDictionaryBlock()) {
+      // the pages refer to the dictionary of their own chunk
+      throw new IOException(
+          "Cannot append the pages of a chunk encoded by "
+              + TSEncoding.CHUNK_DICTIONARY
+              + " or compressed by "
+              + CompressionType.ZSTD_DICTIONARY);
+    }
+    if ((decryptor != null && decryptor.hasPageIv())
+        || (chunk.decryptor != null && chunk.decryptor.hasPageIv())) {
+      // the IVs of the pages are derived from their position in their own chunk
+      throw new IOException(
+          "Cannot append the pages of a chunk encrypted by "
+              + EncryptionType.AES128_OFFSET_IV
+              + ", rewrite them instead");
+    }
     int dataSize = 0;
     // from where the page data of the merged chunk starts, if -1, it means the merged chunk has
     // more than one page
@@ -125,11 +219,11 @@ public class Chunk {
       offset1 = chunk.chunkData.position();
       chunk.chunkData.flip();
       // the actual size should add another page statistics size
-      dataSize += (chunk.chunkData.array().length + chunk.chunkStatistic.getSerializedSize());
+      dataSize += (chunk.chunkData.capacity() + chunk.chunkStatistic.getSerializedSize());
     } else {
       // if the merge chunk already has more than one page, we can reuse all the part of its data
       // the dataSize is equal to the before
-      dataSize += chunk.chunkData.array().length;
+      dataSize += chunk.chunkData.capacity();
     }
     // from where the page data of the current chunk starts, if -1, it means the current chunk has
     // more than one page
@@ -147,20 +241,20 @@ public class Chunk {
       offset2 = chunkData.position();
       chunkData.flip();
       // the actual size should add another page statistics size
-      dataSize += (chunkData.array().length + chunkStatistic.getSerializedSize());
+      dataSize += (chunkData.capacity() + chunkStatistic.getSerializedSize());
     } else {
       // if the current chunk already has more than one page, we can reuse all the part of its data
       // the dataSize is equal to the before
-      dataSize += chunkData.array().length;
+      dataSize += chunkData.capacity();
     }
     chunkHeader.setDataSize(dataSize);
     ByteBuffer newChunkData = ByteBuffer.allocate(dataSize);
     // the current chunk has more than one page, we can use its data part directly without any
     // changes
     if (offset2 == -1) {
-      newChunkData.put(chunkData.array());
+      newChunkData.put(toByteArray(chunkData));
     } else { // the current chunk has only one page, we need to add one page statistics for it
-      byte[] b = chunkData.array();
+      byte[] b = toByteArray(chunkData);
       // put the uncompressedSize and compressedSize of this page
       newChunkData.put(b, 0, offset2);
       // add page statistics
@@ -173,10 +267,10 @@ public class Chunk {
     // the merged chunk has more than one page, we can use its data part directly without any
     // changes
     if (offset1 == -1) {
-      newChunkData.put(chunk.chunkData.array());
+      newChunkData.put(toByteArray(chunk.chunkData));
     } else {
       // put the uncompressedSize and compressedSize of this page
-      byte[] b = chunk.chunkData.array();
+      byte[] b = toByteArray(chunk.chunkData);
       newChunkData.put(b, 0, offset1);
       // add page statistics
       PublicBAOS a = new PublicBAOS();
@@ -186,6 +280,25 @@ public class Chunk {
       newChunkData.put(b, offset1, b.length - offset1);
     }
     chunkData = newChunkData;
+    // the pages are no longer the ones in the file
+    setLocation(null, -1);
+  }
+
+  /**
+   * Get all the bytes of the buffer regardless of its position and limit. The chunk data may be a
+   * view of a memory-mapped file, which is not backed by an array.
+   */
+  private static byte[] toByteArray(ByteBuffer buffer) {
+    if (buffer.hasArray()
+        && buffer.arrayOffset() == 0
+        && buffer.capacity() == buffer.array().length) {
+      return buffer.array();
+    }
+    ByteBuffer content = buffer.duplicate();
+    content.clear();
+    byte[] bytes = new byte[content.remaining()];
+    content.get(bytes);
+    return bytes;
   }
 
   public Statistics getChunkStatistic() {
@@ -193,11 +306,16 @@ public class Chunk {
   }
 
   /**
-   * it's only used for query cache, and assuming that we use HeapByteBuffer, if we use Pooled
-   * DirectByteBuffer in the future, we need to change the calculation logic here. chunkStatistic
-   * and deleteIntervalList are all null in cache
+   * it's only used for query cache. The data of a direct buffer (e.g. a view of a memory-mapped
+   * file) is not retained in the heap, so only the instance itself is counted for it. The data of a
+   * heap buffer is counted by its whole backing array, which the chunk keeps alive even if the
+   * chunk data is only a slice of it. chunkStatistic and deleteIntervalList are all null in cache
    */
   public long getRetainedSizeInBytes() {
-    return INSTANCE_SIZE + sizeOfByteArray(chunkData.capacity());
+    if (chunkData.isDirect()) {
+      return INSTANCE_SIZE;
+    }
+    return INSTANCE_SIZE
+        + sizeOfByteArray(chunkData.hasArray() ? chunkData.array().length : chunkData.capacity());
   }
 }
@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.common.block.column;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnEncoding;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.TsPrimitiveType;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+import static org.apache.tsfile.read.common.block.column.ColumnUtil.checkValidRegion;
+import static org.apache.tsfile.utils.RamUsageEstimator.sizeOfBooleanArray;
+import static org.apache.tsfile.utils.RamUsageEstimator.sizeOfIntArray;
+import static org.apache.tsfile.utils.RamUsageEstimator.sizeOfObjectArray;
+
+/**
+ * A {@link BinaryColumn} whose values are held as ids of a dictionary, which lets the consumers
+ * work on the ids, e.g. evaluate a predicate once for each entry of the dictionary. The values are
+ * materialized only if {@link #getBinaries()} is called, and the column is serialized the same way
+ * as a {@link BinaryColumn}.
+ */
+public class DictionaryColumn implements Column {
+
+  private static final int INSTANCE_SIZE =
+      (int) RamUsageEstimator.shallowSizeOfInstance(DictionaryColumn.class);
+
+  private final int arrayOffset;
+  private int positionCount;
+  private boolean[] valueIsNull;
+  private final int[] ids;
+  private final Binary[] dictionary;
+
+  /** the values of the ids, null until they are materialized by {@link #getBinaries()} */
+  private Binary[] values;
+
+  private final long retainedSizeInBytes;
+
+  public DictionaryColumn(
+      int positionCount, Optional<boolean[]> valueIsNull, int[] ids, Binary[] dictionary) {
+    this(0, positionCount, valueIsNull.orElse(null), ids, dictionary);
+  }
+
+  DictionaryColumn(
+      int arrayOffset, int positionCount, boolean[] valueIsNull, int[] ids, Binary[] dictionary) {
+    if (arrayOffset < 0) {
+      throw new IllegalArgumentException("arrayOffset is negative");
+    }
+    this.arrayOffset = arrayOffset;
+    if (positionCount < 0) {
+      throw new IllegalArgumentException("positionCount is negative");
+    }
+    this.positionCount = positionCount;
+
+    if (ids.length - arrayOffset < positionCount) {
+      throw new IllegalArgumentException("ids length is less than positionCount");
+    }
+    this.ids = ids;
+    this.dictionary = requireNonNull(dictionary, "dictionary is null");
+
+    if (valueIsNull != null && valueIsNull.length - arrayOffset < positionCount) {
+      throw new IllegalArgumentException("isNull length is less than positionCount");
+    }
+    this.valueIsNull = valueIsNull;
+
+    retainedSizeInBytes =
+        INSTANCE_SIZE
+            + sizeOfBooleanArray(positionCount)
+            + sizeOfIntArray(positionCount)
+            + sizeOfObjectArray(dictionary.length);
+  }
+
+  /**
+   * @return the id of the value at the position in {@link #getDictionary()}
+   */
+  public int getId(int position) {
+    return ids[position + arrayOffset];
+  }
+
+  /**
+   * @return the ids of the values, indexed in the same way as {@link #getBinaries()}
+   */
+  public int[] getIds() {
+    return ids;
+  }
+
+  public Binary[] getDictionary() {
+    return dictionary;
+  }
+
+  @Override
+  public TSDataType getDataType() {
+    return TSDataType.TEXT;
+  }
+
+  @Override
+  public ColumnEncoding getEncoding() {
+    return ColumnEncoding.BINARY_ARRAY;
+  }
+
+  @Override
+  public Binary getBinary(int position) {
+    if (values != null) {
+      return values[position + arrayOffset];
+    }
+    return dictionary[ids[position + arrayOffset]];
+  }
+
+  /**
+   * Materializes the values of the ids. The returned array is the one read by {@link
+   * #getBinary(int)} afterward, so it can be modified the same way as the values of a {@link
+   * BinaryColumn}.
+   */
+  @Override
+  public Binary[] getBinaries() {
+    if (values == null) {
+      Binary[] binaries = new Binary[ids.length];
+      for (int i = arrayOffset, end = arrayOffset + positionCount; i < end; i++) {
+        if (valueIsNull == null || !valueIsNull[i]) {
+          binaries[i] = dictionary[ids[i]];
+        }
+      }
+      values = binaries;
+    }
+    return values;
+  }
+
+  @Override
+  public Object getObject(int position) {
+    return getBinary(position);
+  }
+
+  @Override
+  public TsPrimitiveType getTsPrimitiveType(int position) {
+    return new TsPrimitiveType.TsBinary(getBinary(position));
+  }
+
+  @Override
+  public boolean mayHaveNull() {
+    return valueIsNull != null;
+  }
+
+  @Override
+  public boolean isNull(int position) {
+    return valueIsNull != null && valueIsNull[position + arrayOffset];
+  }
+
+  @Override
+  public boolean[] isNull() {
+    if (valueIsNull == null) {
+      boolean[] res = new boolean[positionCount];
+      Arrays.fill(res, false);
+      return res;
+    }
+    return valueIsNull;
+  }
+
+  @Override
+  public int getPositionCount() {
+    return positionCount;
+  }
+
+  @Override
+  public long getRetainedSizeInBytes() {
+    return retainedSizeInBytes;
+  }
+
+  @Override
+  public Column getRegion(int positionOffset, int length) {
+    checkValidRegion(getPositionCount(), positionOffset, length);
+    if (values != null) {
+      return new BinaryColumn(positionOffset + arrayOffset, length, valueIsNull, values);
+    }
+    return new DictionaryColumn(positionOffset + arrayOffset, length, valueIsNull, ids, dictionary);
+  }
+
+  @Override
+  public Column getRegionCopy(int positionOffset, int length) {
+    checkValidRegion(getPositionCount(), positionOffset, length);
+
+    int from = positionOffset + arrayOffset;
+    int to = from + length;
+    boolean[] valueIsNullCopy =
+        valueIsNull != null ? Arrays.copyOfRange(valueIsNull, from, to) : null;
+    if (values != null) {
+      return new BinaryColumn(0, length, valueIsNullCopy, Arrays.copyOfRange(values, from, to));
+    }
+    return new DictionaryColumn(
+        0, length, valueIsNullCopy, Arrays.copyOfRange(ids, from, to), dictionary);
+  }
+
+  @Override
+  public Column subColumn(int fromIndex) {
+    if (fromIndex > positionCount) {
+      throw new IllegalArgumentException("fromIndex is not valid");
+    }
+    return getRegion(fromIndex, positionCount - fromIndex);
+  }
+
+  @Override
+  public Column subColumnCopy(int fromIndex) {
+    if (fromIndex > positionCount) {
+      throw new IllegalArgumentException("fromIndex is not valid");
+    }
+    return getRegionCopy(fromIndex, positionCount - fromIndex);
+  }
+
+  @Override
+  public void reverse() {
+    for (int i = arrayOffset, j = arrayOffset + positionCount - 1; i < j; i++, j--) {
+      int idTmp = ids[i];
+      ids[i] = ids[j];
+      ids[j] = idTmp;
+    }
+    if (values != null) {
+      for (int i = arrayOffset, j = arrayOffset + positionCount - 1; i < j; i++, j--) {
+        Binary valueTmp = values[i];
+        values[i] = values[j];
+        values[j] = valueTmp;
+      }
+    }
+    if (valueIsNull != null) {
+      for (int i = arrayOffset, j = arrayOffset + positionCount - 1; i < j; i++, j--) {
+        boolean isNullTmp = valueIsNull[i];
+        valueIsNull[i] = valueIsNull[j];
+        valueIsNull[j] = isNullTmp;
+      }
+    }
+  }
+
+  @Override
+  public int getInstanceSize() {
+    return INSTANCE_SIZE;
+  }
+
+  @Override
+  public void setPositionCount(int count) {
+    positionCount = count;
+  }
+
+  @Override
+  public void setNull(int start, int end) {
+    if (valueIsNull == null) {
+      valueIsNull = new boolean[ids.length];
+    }
+    Arrays.fill(valueIsNull, start, end, true);
+  }
+}
@@ -19,7 +19,9 @@
 
 package org.apache.tsfile.read.controller;
 
-import org.apache.tsfile.common.cache.LRUCache;
+import org.apache.tsfile.common.cache.CacheStats;
+import org.apache.tsfile.common.cache.WeightedLRUCache;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
@@ -32,78 +34,157 @@ import org.apache.tsfile.read.reader.chunk.ChunkReader;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
-/** Read one Chunk and cache it into a LRUCache, only used in tsfile module. */
+/**
+ * Read one Chunk and cache it into a {@link WeightedLRUCache} bounded by the retained size of the
+ * chunks, only used in tsfile module. The cache may be shared by the loaders of several readers.
+ */
 public class CachedChunkLoaderImpl implements IChunkLoader {
 
-  private static final int DEFAULT_CHUNK_CACHE_SIZE = 1000;
-  private TsFileSequenceReader reader;
-  private LRUCache<ChunkCacheKey, Chunk> chunkCache;
+  /** used to size the frequency sketch of the TinyLFU policy */
+  private static final long EXPECTED_CHUNK_SIZE_IN_BYTE = 64 * 1024L;
+
+  private final TsFileSequenceReader reader;
+  private final WeightedLRUCache<ChunkCacheKey, Chunk> chunkCache;
+  private final boolean sharedCache;
 
   public CachedChunkLoaderImpl(TsFileSequenceReader fileSequenceReader) {
-    this(fileSequenceReader, DEFAULT_CHUNK_CACHE_SIZE);
+    this(fileSequenceReader, TSFileDescriptor.getInstance().getConfig().getChunkCacheSizeInByte());
   }
 
   /**
    * constructor of ChunkLoaderImpl.
    *
    * @param fileSequenceReader file sequence reader
-   * @param cacheSize cache size
+   * @param cacheSizeInByte max retained size of the cached chunks
    */
-  public CachedChunkLoaderImpl(TsFileSequenceReader fileSequenceReader, int cacheSize) {
-
+  public CachedChunkLoaderImpl(TsFileSequenceReader fileSequenceReader, long cacheSizeInByte) {
     this.reader = fileSequenceReader;
+    this.chunkCache =
+        new WeightedLRUCache<>(
+            cacheSizeInByte,
+            Chunk::getRetainedSizeInBytes,
+            null,
+            TSFileDescriptor.getInstance().getConfig().isTinyLfuCachePolicy()
+                ? cacheSizeInByte / EXPECTED_CHUNK_SIZE_IN_BYTE
+                : 0);
+    this.sharedCache = false;
+  }
 
-    chunkCache =
-        new LRUCache<ChunkCacheKey, Chunk>(cacheSize) {
+  /**
+   * constructor of ChunkLoaderImpl with a chunk cache shared by the loaders of other readers.
+   *
+   * @param fileSequenceReader file sequence reader
+   * @param chunkCache the shared chunk cache, its entries are not cleared when the loader is closed
+   */
+  public CachedChunkLoaderImpl(
+      TsFileSequenceReader fileSequenceReader, WeightedLRUCache<ChunkCacheKey, Chunk> chunkCache) {
+    this.reader = fileSequenceReader;
+    this.chunkCache = chunkCache;
+    this.sharedCache = true;
+  }
 
-          @Override
-          protected Chunk loadObjectByKey(ChunkCacheKey chunkCacheKey) throws IOException {
-            return reader.readMemChunk(chunkCacheKey);
-          }
-        };
+  private Chunk getCachedChunk(ChunkMetadata chunkMetaData) throws IOException {
+    return chunkCache.get(
+        new ChunkCacheKey(reader.getFileName(), chunkMetaData), reader::readMemChunk);
   }
 
   @Override
   public Chunk loadChunk(ChunkMetadata chunkMetaData) throws IOException {
-    Chunk chunk = chunkCache.get(new ChunkCacheKey(chunkMetaData));
-    return new Chunk(
-        chunk.getHeader(),
-        chunk.getData().duplicate(),
-        chunkMetaData.getDeleteIntervalList(),
-        chunkMetaData.getStatistics(),
-        reader.getDecryptor());
+    return copyOf(getCachedChunk(chunkMetaData), chunkMetaData);
+  }
+
+  /** the cached chunk is shared, so a new chunk with a separate view of the data is returned */
+  private Chunk copyOf(Chunk chunk, IChunkMetadata chunkMetaData) throws IOException {
+    Chunk copy =
+        new Chunk(
+            chunk.getHeader(),
+            chunk.getData().duplicate(),
+            chunkMetaData.getDeleteIntervalList(),
+            chunkMetaData.getStatistics(),
+            reader.getDecryptor());
+    copy.setLocation(chunk.getFilePath(), chunk.getOffsetOfChunkHeader());
+    return copy;
+  }
+
+  @Override
+  public List<Chunk> loadChunks(List<ChunkMetadata> chunkMetadataList) throws IOException {
+    List<ChunkMetadata> missedChunkMetadataList = new ArrayList<>();
+    List<Integer> missedIndexes = new ArrayList<>();
+    for (int i = 0; i < chunkMetadataList.size(); i++) {
+      ChunkMetadata chunkMetadata = chunkMetadataList.get(i);
+      if (chunkMetadata != null
+          && !chunkCache.containsKey(new ChunkCacheKey(reader.getFileName(), chunkMetadata))) {
+        missedChunkMetadataList.add(chunkMetadata);
+        missedIndexes.add(i);
+      }
+    }
+    // read the missed chunks at once so that the neighbouring ones are coalesced
+    Chunk[] readChunks = new Chunk[chunkMetadataList.size()];
+    if (!missedChunkMetadataList.isEmpty()) {
+      List<Chunk> missedChunks = reader.readMemChunks(missedChunkMetadataList);
+      for (int i = 0; i < missedIndexes.size(); i++) {
+        readChunks[missedIndexes.get(i)] = missedChunks.get(i);
+      }
+    }
+    List<Chunk> chunks = new ArrayList<>(chunkMetadataList.size());
+    for (int i = 0; i < chunkMetadataList.size(); i++) {
+      ChunkMetadata chunkMetadata = chunkMetadataList.get(i);
+      if (chunkMetadata == null) {
+        chunks.add(null);
+        continue;
+      }
+      // the chunk read above is cached if admitted, and used directly even if it is not, so that
+      // it is never read again
+      Chunk readChunk = readChunks[i];
+      Chunk chunk =
+          readChunk == null
+              ? getCachedChunk(chunkMetadata)
+              : chunkCache.get(
+                  new ChunkCacheKey(reader.getFileName(), chunkMetadata), key -> readChunk);
+      chunks.add(copyOf(chunk, chunkMetadata));
+    }
+    return chunks;
+  }
+
+  public CacheStats getChunkCacheStats() {
+    return chunkCache.getStats();
   }
 
   @Override
   public void close() throws IOException {
+    if (!sharedCache) {
+      chunkCache.clear();
+    }
     reader.close();
   }
 
   @Override
   public IChunkReader getChunkReader(IChunkMetadata chunkMetaData, Filter globalTimeFilter)
       throws IOException {
-    Chunk chunk = chunkCache.get(new ChunkCacheKey((ChunkMetadata) chunkMetaData));
-    return new ChunkReader(
-        new Chunk(
-            chunk.getHeader(),
-            chunk.getData().duplicate(),
-            chunkMetaData.getDeleteIntervalList(),
-            chunkMetaData.getStatistics(),
-            reader.getDecryptor()),
-        globalTimeFilter);
+    Chunk chunk = getCachedChunk((ChunkMetadata) chunkMetaData);
+    return new ChunkReader(copyOf(chunk, chunkMetaData), globalTimeFilter);
   }
 
   public static class ChunkCacheKey {
 
+    /** path of the file the chunk belongs to, null if the cache is not shared among files */
+    private final String filePath;
+
     private final Long offsetOfChunkHeader;
     private final String measurementUid;
     private final List<TimeRange> deleteIntervalList;
     private final Statistics<? extends Serializable> statistics;
 
     public ChunkCacheKey(ChunkMetadata chunkMetadata) {
+      this(null, chunkMetadata);
+    }
+
+    public ChunkCacheKey(String filePath, ChunkMetadata chunkMetadata) {
+      this.filePath = filePath;
       offsetOfChunkHeader = chunkMetadata.getOffsetOfChunkHeader();
       measurementUid = chunkMetadata.getMeasurementUid();
       deleteIntervalList = chunkMetadata.getDeleteIntervalList();
@@ -119,12 +200,17 @@ public class CachedChunkLoaderImpl implements IChunkLoader {
         return false;
       }
       ChunkCacheKey that = (ChunkCacheKey) o;
-      return Objects.equals(offsetOfChunkHeader, that.offsetOfChunkHeader);
+      return Objects.equals(offsetOfChunkHeader, that.offsetOfChunkHeader)
+          && Objects.equals(filePath, that.filePath);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(offsetOfChunkHeader);
+      return Objects.hash(filePath, offsetOfChunkHeader);
+    }
+
+    public String getFilePath() {
+      return filePath;
     }
 
     public Long getOffsetOfChunkHeader() {
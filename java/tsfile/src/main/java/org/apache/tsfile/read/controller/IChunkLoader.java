@@ -26,12 +26,28 @@ import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.read.reader.IChunkReader;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public interface IChunkLoader {
 
   /** read all content of any chunk. */
   Chunk loadChunk(ChunkMetadata chunkMetaData) throws IOException;
 
+  /**
+   * read all content of a batch of chunks, e.g. the time chunk and the value chunks of an aligned
+   * series. Implementations may read the neighbouring chunks at once.
+   *
+   * @return the chunks in the same order as the given metadata, null for null metadata
+   */
+  default List<Chunk> loadChunks(List<ChunkMetadata> chunkMetadataList) throws IOException {
+    List<Chunk> chunks = new ArrayList<>(chunkMetadataList.size());
+    for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+      chunks.add(chunkMetadata == null ? null : loadChunk(chunkMetadata));
+    }
+    return chunks;
+  }
+
   /** close the file reader. */
   void close() throws IOException;
 
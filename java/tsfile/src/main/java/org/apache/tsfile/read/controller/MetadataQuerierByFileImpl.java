@@ -19,8 +19,13 @@
 
 package org.apache.tsfile.read.controller;
 
+import org.apache.tsfile.common.cache.Cache;
+import org.apache.tsfile.common.cache.CacheStats;
 import org.apache.tsfile.common.cache.LRUCache;
+import org.apache.tsfile.common.cache.WTinyLFUCache;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.cache.CacheException;
 import org.apache.tsfile.file.metadata.AlignedTimeSeriesMetadata;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
@@ -57,7 +62,7 @@ public class MetadataQuerierByFileImpl implements IMetadataQuerier {
   private TsFileMetadata fileMetaData;
 
   // (deviceId, measurementId) -> List<IChunkMetadata>
-  private LRUCache<Pair<IDeviceID, String>, List<IChunkMetadata>> deviceIdChunkMetadataCache;
+  private Cache<Pair<IDeviceID, String>, List<IChunkMetadata>> deviceIdChunkMetadataCache;
 
   private TsFileSequenceReader tsFileReader;
 
@@ -65,20 +70,44 @@ public class MetadataQuerierByFileImpl implements IMetadataQuerier {
   public MetadataQuerierByFileImpl(TsFileSequenceReader tsFileReader) throws IOException {
     this.tsFileReader = tsFileReader;
     this.fileMetaData = tsFileReader.readFileMetadata();
-    deviceIdChunkMetadataCache =
-        new LRUCache<Pair<IDeviceID, String>, List<IChunkMetadata>>(CACHED_ENTRY_NUMBER) {
-          @Override
-          protected List<IChunkMetadata> loadObjectByKey(Pair<IDeviceID, String> key)
-              throws IOException {
-            return loadChunkMetadata(key);
-          }
-        };
+    if (TSFileDescriptor.getInstance().getConfig().isTinyLfuCachePolicy()) {
+      deviceIdChunkMetadataCache =
+          new WTinyLFUCache<Pair<IDeviceID, String>, List<IChunkMetadata>>(CACHED_ENTRY_NUMBER) {
+            @Override
+            protected List<IChunkMetadata> loadObjectByKey(Pair<IDeviceID, String> key)
+                throws IOException {
+              return loadChunkMetadata(key);
+            }
+          };
+    } else {
+      deviceIdChunkMetadataCache =
+          new LRUCache<Pair<IDeviceID, String>, List<IChunkMetadata>>(CACHED_ENTRY_NUMBER) {
+            @Override
+            protected List<IChunkMetadata> loadObjectByKey(Pair<IDeviceID, String> key)
+                throws IOException {
+              return loadChunkMetadata(key);
+            }
+          };
+    }
+  }
+
+  private List<IChunkMetadata> getCachedChunkMetadata(Pair<IDeviceID, String> key)
+      throws IOException {
+    try {
+      return deviceIdChunkMetadataCache.get(key);
+    } catch (CacheException e) {
+      throw new IOException(e);
+    }
+  }
+
+  public CacheStats getChunkMetadataCacheStats() {
+    return deviceIdChunkMetadataCache.getStats();
   }
 
   @Override
   public List<IChunkMetadata> getChunkMetaDataList(Path timeseriesPath) throws IOException {
     return new ArrayList<>(
-        deviceIdChunkMetadataCache.get(
+        getCachedChunkMetadata(
             new Pair<>(timeseriesPath.getIDeviceID(), timeseriesPath.getMeasurement())));
   }
 
@@ -93,7 +122,7 @@ public class MetadataQuerierByFileImpl implements IMetadataQuerier {
       // check first to avoid loading
       final Pair<IDeviceID, String> key = new Pair<>(deviceID, measurementName);
       if (deviceIdChunkMetadataCache.containsKey(key)) {
-        final List<IChunkMetadata> metadataList = deviceIdChunkMetadataCache.get(key);
+        final List<IChunkMetadata> metadataList = getCachedChunkMetadata(key);
         results.add(metadataList);
         iterator.remove();
       }
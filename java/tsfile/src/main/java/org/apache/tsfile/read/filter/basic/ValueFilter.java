@@ -50,6 +50,10 @@ public abstract class ValueFilter extends Filter {
     this.measurementIndex = ReadWriteIOUtils.readInt(buffer);
   }
 
+  public int getMeasurementIndex() {
+    return measurementIndex;
+  }
+
   @Override
   public boolean satisfy(long time, Object value) {
     if (value == null) {
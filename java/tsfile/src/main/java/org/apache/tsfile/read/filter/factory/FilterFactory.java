@@ -19,7 +19,10 @@
 
 package org.apache.tsfile.read.filter.factory;
 
+import org.apache.tsfile.read.filter.basic.BinaryLogicalFilter;
 import org.apache.tsfile.read.filter.basic.Filter;
+import org.apache.tsfile.read.filter.basic.TimeFilter;
+import org.apache.tsfile.read.filter.basic.ValueFilter;
 import org.apache.tsfile.read.filter.operator.And;
 import org.apache.tsfile.read.filter.operator.Not;
 import org.apache.tsfile.read.filter.operator.Or;
@@ -76,4 +79,70 @@ public class FilterFactory {
     checkArgument(filter != null, "filter cannot be null");
     return new Not(filter);
   }
+
+  /**
+   * Extracts the part of the filter that only depends on time, i.e. the time filters combined by
+   * the top level {@link And}s. A point that does not satisfy the returned filter never satisfies
+   * the given one, so readers can filter points out by their timestamps before decoding values.
+   *
+   * @return the time part of the filter, the filter itself if it only depends on time, or null if
+   *     there is no time part
+   */
+  public static Filter extractTimeFilter(Filter filter) {
+    if (filter instanceof TimeFilter) {
+      return filter;
+    }
+    if (filter instanceof And) {
+      And and = (And) filter;
+      Filter left = extractTimeFilter(and.getLeft());
+      Filter right = extractTimeFilter(and.getRight());
+      if (left == and.getLeft() && right == and.getRight()) {
+        return filter;
+      }
+      return and(left, right);
+    }
+    return null;
+  }
+
+  /**
+   * Extracts the part of the filter that only depends on values, i.e. the value filters combined by
+   * the top level {@link And}s. A point that satisfies the time part of {@link
+   * #extractTimeFilter(Filter)} satisfies the given filter if and only if it satisfies the returned
+   * one, so the returned filter can be evaluated once for each distinct value, e.g. for each entry
+   * of a dictionary.
+   *
+   * @return the value part of the filter, or null if there is no value part or some part of the
+   *     filter depends on both time and values
+   */
+  public static Filter extractValueFilter(Filter filter) {
+    if (isValueFilter(filter)) {
+      return filter;
+    }
+    if (filter instanceof And) {
+      And and = (And) filter;
+      boolean leftIsTimeFilter = extractTimeFilter(and.getLeft()) == and.getLeft();
+      boolean rightIsTimeFilter = extractTimeFilter(and.getRight()) == and.getRight();
+      Filter left = leftIsTimeFilter ? null : extractValueFilter(and.getLeft());
+      Filter right = rightIsTimeFilter ? null : extractValueFilter(and.getRight());
+      if ((!leftIsTimeFilter && left == null) || (!rightIsTimeFilter && right == null)) {
+        return null;
+      }
+      return and(left, right);
+    }
+    return null;
+  }
+
+  private static boolean isValueFilter(Filter filter) {
+    if (filter instanceof ValueFilter) {
+      return true;
+    }
+    if (filter instanceof BinaryLogicalFilter) {
+      BinaryLogicalFilter logicalFilter = (BinaryLogicalFilter) filter;
+      return isValueFilter(logicalFilter.getLeft()) && isValueFilter(logicalFilter.getRight());
+    }
+    if (filter instanceof Not) {
+      return isValueFilter(((Not) filter).getFilter());
+    }
+    return false;
+  }
 }
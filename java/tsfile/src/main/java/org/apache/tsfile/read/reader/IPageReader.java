@@ -46,4 +46,12 @@ public interface IPageReader extends IMetadata {
   void initTsBlockBuilder(List<TSDataType> dataTypes);
 
   void setLimitOffset(PaginationController paginationController);
+
+  /**
+   * Give back the resources held by the page reader, e.g. the pooled page data, even if the page is
+   * not fully read. The page reader must not be used after.
+   */
+  default void close() {
+    // nothing to give back by default
+  }
 }
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.reader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link TsFileInput} that memory-maps a local TsFile and serves reads from the mapping.
+ *
+ * <p>The file is mapped read-only in segments of at most {@link #MAX_SEGMENT_SIZE} bytes when the
+ * input is opened. Positional reads are served by copying out of the mapping without a system call,
+ * and {@link #readSlice(long, int)} returns read-only views of the mapping so that chunk data never
+ * has to be copied into the Java heap.
+ *
+ * <p>This input is meant for sealed TsFiles. If the file grows after it has been opened, the bytes
+ * beyond the mapped length are read through the underlying {@link FileChannel}. The mapping is
+ * released by the garbage collector once all the views handed out by this input are unreachable.
+ */
+public class MappedTsFileInput implements TsFileInput {
+
+  private static final Logger logger = LoggerFactory.getLogger(MappedTsFileInput.class);
+
+  /** The largest region a single {@link MappedByteBuffer} is able to map. */
+  public static final int MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+  private final FileChannel channel;
+  private final String filePath;
+  private final int segmentSize;
+  private final MappedByteBuffer[] segments;
+  private final long mappedSize;
+
+  private long position;
+  private volatile boolean closed;
+
+  public MappedTsFileInput(Path file) throws IOException {
+    this(file, MAX_SEGMENT_SIZE);
+  }
+
+  /** The constructor with a customized segment size is only visible for test. */
+  MappedTsFileInput(Path file, int segmentSize) throws IOException {
+    if (segmentSize <= 0) {
+      throw new IllegalArgumentException("segmentSize should be positive: " + segmentSize);
+    }
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.filePath = file.toString();
+    this.segmentSize = segmentSize;
+    try {
+      this.mappedSize = channel.size();
+      int segmentNum = (int) ((mappedSize + segmentSize - 1) / segmentSize);
+      this.segments = new MappedByteBuffer[segmentNum];
+      for (int i = 0; i < segmentNum; i++) {
+        long start = (long) i * segmentSize;
+        segments[i] =
+            channel.map(
+                FileChannel.MapMode.READ_ONLY, start, Math.min(segmentSize, mappedSize - start));
+      }
+    } catch (IOException e) {
+      logger.error("Error happened while mapping {}", filePath);
+      channel.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public long size() throws IOException {
+    try {
+      return channel.size();
+    } catch (IOException e) {
+      logger.warn("Error happened while getting {} size", filePath);
+      throw e;
+    }
+  }
+
+  @Override
+  public synchronized long position() throws IOException {
+    ensureOpen();
+    return position;
+  }
+
+  @Override
+  public synchronized TsFileInput position(long newPosition) throws IOException {
+    ensureOpen();
+    if (newPosition < 0) {
+      throw new IllegalArgumentException("newPosition should not be negative: " + newPosition);
+    }
+    position = newPosition;
+    return this;
+  }
+
+  @Override
+  public synchronized int read(ByteBuffer dst) throws IOException {
+    int read = read(dst, position);
+    if (read > 0) {
+      position += read;
+    }
+    return read;
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    ensureOpen();
+    if (position < 0) {
+      throw new IllegalArgumentException("position should not be negative: " + position);
+    }
+    if (position >= mappedSize) {
+      return readFromChannel(dst, position);
+    }
+    int total = 0;
+    while (dst.hasRemaining() && position < mappedSize) {
+      ByteBuffer segment = segments[(int) (position / segmentSize)].duplicate();
+      int offsetInSegment = (int) (position % segmentSize);
+      int length = Math.min(dst.remaining(), segment.limit() - offsetInSegment);
+      segment.position(offsetInSegment);
+      segment.limit(offsetInSegment + length);
+      dst.put(segment);
+      total += length;
+      position += length;
+    }
+    return total;
+  }
+
+  private int readFromChannel(ByteBuffer dst, long position) throws IOException {
+    try {
+      return channel.read(dst, position);
+    } catch (ClosedByInterruptException e) {
+      logger.warn(
+          "Current thread is interrupted by another thread when it is blocked in an I/O operation upon a channel.");
+      return -1;
+    } catch (IOException e) {
+      logger.error("Error happened while reading {} from position {}", filePath, position);
+      throw e;
+    }
+  }
+
+  /**
+   * Returns a read-only view of the mapping if the requested range lies within one mapped segment,
+   * otherwise returns null.
+   */
+  @Override
+  public ByteBuffer readSlice(long position, int length) throws IOException {
+    ensureOpen();
+    long segmentIndex = position / segmentSize;
+    int offsetInSegment = (int) (position % segmentSize);
+    if (position >= 0
+        && position + length <= mappedSize
+        && (position + length - 1) / segmentSize == segmentIndex) {
+      ByteBuffer slice = segments[(int) segmentIndex].duplicate();
+      slice.position(offsetInSegment);
+      slice.limit(offsetInSegment + length);
+      return slice.slice().asReadOnlyBuffer();
+    }
+    return null;
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() {
+    return new InputStream() {
+      private final ByteBuffer single = ByteBuffer.allocate(1);
+
+      @Override
+      public int read() throws IOException {
+        single.clear();
+        return MappedTsFileInput.this.read(single) <= 0 ? -1 : single.get(0) & 0xFF;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+          return 0;
+        }
+        int read = MappedTsFileInput.this.read(ByteBuffer.wrap(b, off, len));
+        return read <= 0 ? -1 : read;
+      }
+    };
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    try {
+      channel.close();
+    } catch (IOException e) {
+      logger.error("Error happened while closing {}", filePath);
+      throw e;
+    }
+  }
+
+  private void ensureOpen() throws ClosedChannelException {
+    if (closed) {
+      throw new ClosedChannelException();
+    }
+  }
+
+  @Override
+  public String getFilePath() {
+    return filePath;
+  }
+}
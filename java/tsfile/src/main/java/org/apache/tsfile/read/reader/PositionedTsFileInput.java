@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A view of a {@link TsFileInput} with its own position. The sequential reads through the view are
+ * served by the positional reads of the underlying input, so they neither depend on nor change the
+ * position of the underlying input, and any number of views of the same input can be read by
+ * different threads at the same time.
+ *
+ * <p>A view is not thread-safe itself and is expected to be used by one thread. Closing the view
+ * does not close the underlying input.
+ */
+public class PositionedTsFileInput implements TsFileInput {
+
+  private final TsFileInput input;
+  private long position;
+
+  public PositionedTsFileInput(TsFileInput input, long position) {
+    if (position < 0) {
+      throw new IllegalArgumentException("position should not be negative: " + position);
+    }
+    this.input = input;
+    this.position = position;
+  }
+
+  @Override
+  public long size() throws IOException {
+    return input.size();
+  }
+
+  @Override
+  public long position() {
+    return position;
+  }
+
+  @Override
+  public TsFileInput position(long newPosition) {
+    if (newPosition < 0) {
+      throw new IllegalArgumentException("newPosition should not be negative: " + newPosition);
+    }
+    position = newPosition;
+    return this;
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    int read = input.read(dst, position);
+    if (read > 0) {
+      position += read;
+    }
+    return read;
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    return input.read(dst, position);
+  }
+
+  @Override
+  public ByteBuffer readSlice(long position, int length) throws IOException {
+    return input.readSlice(position, length);
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() {
+    return new InputStream() {
+      private final ByteBuffer single = ByteBuffer.allocate(1);
+
+      @Override
+      public int read() throws IOException {
+        single.clear();
+        return PositionedTsFileInput.this.read(single) <= 0 ? -1 : single.get(0) & 0xFF;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+          return 0;
+        }
+        int read = PositionedTsFileInput.this.read(ByteBuffer.wrap(b, off, len));
+        return read <= 0 ? -1 : read;
+      }
+    };
+  }
+
+  @Override
+  public void close() {
+    // the underlying input is owned by others
+  }
+
+  @Override
+  public String getFilePath() {
+    return input.getFilePath();
+  }
+}
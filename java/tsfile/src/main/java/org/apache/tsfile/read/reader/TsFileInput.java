@@ -19,6 +19,7 @@
 
 package org.apache.tsfile.read.reader;
 
+import org.apache.tsfile.utils.Pair;
 import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
 
 import java.io.IOException;
@@ -28,6 +29,10 @@ import java.nio.channels.AsynchronousCloseException;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 
 public interface TsFileInput {
 
@@ -99,6 +104,95 @@ public interface TsFileInput {
    */
   int read(ByteBuffer dst, long position) throws IOException;
 
+  /**
+   * Returns a read-only view of {@code length} bytes starting at the given position, without
+   * copying them into the Java heap.
+   *
+   * <p>This method does not modify this TsFileInput's position. Inputs that are not able to expose
+   * their underlying storage directly (which is the default) return null, and the caller should
+   * fall back to {@link #read(ByteBuffer, long)}.
+   *
+   * @param position The position at which the view begins; must be non-negative
+   * @param length The number of bytes the view covers
+   * @return A read-only buffer whose position is 0 and whose limit is {@code length}, or null
+   * @throws IOException If some I/O error occurs
+   */
+  default ByteBuffer readSlice(long position, int length) throws IOException {
+    return null;
+  }
+
+  /**
+   * Reads a batch of ranges with as few reads as possible.
+   *
+   * <p>The ranges are sorted by their positions, and neighbouring ranges are merged into one read
+   * when the gap between them is no larger than {@code maxGap} and the merged range is no larger
+   * than {@code maxMergedSize}. Overlapping ranges are always merged. Each merged range is read
+   * once, through {@link #readSlice(long, int)} if the input supports it, and every requested range
+   * is handed back as a slice of the merged buffer. This method does not modify this TsFileInput's
+   * position.
+   *
+   * @param ranges the (position, length) of each range
+   * @param maxGap the max number of unrequested bytes that may be read to merge two ranges
+   * @param maxMergedSize the max size of a merged range, a single range larger than it is still
+   *     read as a whole
+   * @return the data of each range, in the same order as {@code ranges}
+   * @throws IOException If some I/O error occurs or the input ends before a range
+   */
+  default List<ByteBuffer> readRanges(
+      List<Pair<Long, Integer>> ranges, int maxGap, int maxMergedSize) throws IOException {
+    Integer[] order = new Integer[ranges.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingLong(i -> ranges.get(i).left));
+
+    ByteBuffer[] result = new ByteBuffer[ranges.size()];
+    int first = 0;
+    while (first < order.length) {
+      long start = ranges.get(order[first]).left;
+      long end = start + ranges.get(order[first]).right;
+      int last = first + 1;
+      while (last < order.length) {
+        Pair<Long, Integer> next = ranges.get(order[last]);
+        long mergedEnd = Math.max(end, next.left + next.right);
+        if (next.left > end && (next.left - end > maxGap || mergedEnd - start > maxMergedSize)) {
+          break;
+        }
+        end = mergedEnd;
+        last++;
+      }
+
+      int length = (int) (end - start);
+      ByteBuffer merged = readSlice(start, length);
+      if (merged == null) {
+        merged = ByteBuffer.allocate(length);
+        // read at most 4MB at a time, or the channel will allocate a direct buffer as large as the
+        // whole heap buffer
+        while (merged.position() < length) {
+          merged.limit(Math.min(length, merged.position() + 4 * 1024 * 1024));
+          if (read(merged, start + merged.position()) < 0) {
+            throw new IOException(
+                String.format(
+                    "reach the end of the data. Size of data that want to read: %s,"
+                        + "actual read size: %s, position: %s",
+                    length, merged.position(), start));
+          }
+        }
+        merged.flip();
+      }
+
+      for (int i = first; i < last; i++) {
+        Pair<Long, Integer> range = ranges.get(order[i]);
+        ByteBuffer slice = merged.duplicate();
+        slice.position((int) (range.left - start));
+        slice.limit((int) (range.left - start) + range.right);
+        result[order[i]] = slice.slice();
+      }
+      first = last;
+    }
+    return new ArrayList<>(Arrays.asList(result));
+  }
+
   InputStream wrapAsInputStream() throws IOException;
 
   /**
@@ -19,16 +19,26 @@
 
 package org.apache.tsfile.read.reader.chunk;
 
+import org.apache.tsfile.common.cache.PageCache;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.encoding.decoder.ChunkDictionaryDecoder;
 import org.apache.tsfile.encoding.decoder.Decoder;
+import org.apache.tsfile.encrypt.IDecryptor;
 import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.encoding.TsFileDecodingException;
+import org.apache.tsfile.file.header.ChunkHeader;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.read.common.BatchData;
+import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.read.reader.IChunkReader;
 import org.apache.tsfile.read.reader.IPageReader;
+import org.apache.tsfile.utils.Binary;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -51,6 +61,81 @@ public abstract class AbstractChunkReader implements IChunkReader {
     this.queryFilter = filter;
   }
 
+  /**
+   * Get the key of a page of the chunk in the {@link PageCache}.
+   *
+   * @param pageIndex index of the page in the chunk, including the skipped ones
+   * @return null if the page cache is disabled or the chunk is not read from a file as is
+   */
+  protected static PageCache.PageKey getPageCacheKey(Chunk chunk, int pageIndex) {
+    if (chunk == null
+        || chunk.getFilePath() == null
+        || !TSFileDescriptor.getInstance().getConfig().isPageCacheEnabled()) {
+      return null;
+    }
+    return new PageCache.PageKey(chunk.getFilePath(), chunk.getOffsetOfChunkHeader(), pageIndex);
+  }
+
+  /**
+   * Read the dictionary in front of the pages of a chunk encoded by {@link
+   * TSEncoding#CHUNK_DICTIONARY} and move the position of the chunk data to the first page.
+   *
+   * @return null if the chunk has no dictionary
+   */
+  protected static Binary[] readChunkDictionary(
+      ChunkHeader chunkHeader, ByteBuffer chunkData, IDecryptor decryptor) {
+    if (chunkHeader.getEncodingType() != TSEncoding.CHUNK_DICTIONARY || !chunkData.hasRemaining()) {
+      return null;
+    }
+    try {
+      return ChunkDictionaryDecoder.readDictionary(
+          chunkData, IUnCompressor.getUnCompressor(chunkHeader.getCompressionType()), decryptor);
+    } catch (IOException e) {
+      throw new TsFileDecodingException(
+          String.format(
+              "Failed to read the dictionary of chunk %s: %s",
+              chunkHeader.getMeasurementID(), e.getMessage()));
+    }
+  }
+
+  /**
+   * Get the uncompressor of the pages of a chunk. The dictionary of a chunk compressed by {@link
+   * CompressionType#ZSTD_DICTIONARY} is read in front of the pages, and the position of the chunk
+   * data is moved to the first page.
+   */
+  protected static IUnCompressor readChunkUnCompressor(
+      ChunkHeader chunkHeader, ByteBuffer chunkData, IDecryptor decryptor) {
+    if (chunkHeader.getCompressionType() != CompressionType.ZSTD_DICTIONARY) {
+      return IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
+    }
+    if (!chunkData.hasRemaining()) {
+      // an empty chunk has no pages to uncompress
+      return new IUnCompressor.ZstdUnCompressor();
+    }
+    try {
+      return IUnCompressor.ZstdUnCompressor.readDictionary(chunkData, decryptor);
+    } catch (IOException e) {
+      throw new TsFileDecodingException(
+          String.format(
+              "Failed to read the dictionary of chunk %s: %s",
+              chunkHeader.getMeasurementID(), e.getMessage()));
+    }
+  }
+
+  /**
+   * Get the value decoder of a page, which shares the dictionary of the chunk if there is one.
+   *
+   * @param dictionary the dictionary of the chunk, null if there is none
+   */
+  protected static Decoder getValueDecoder(ChunkHeader chunkHeader, Binary[] dictionary) {
+    Decoder decoder =
+        Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
+    if (dictionary != null) {
+      ((ChunkDictionaryDecoder) decoder).setDictionary(dictionary);
+    }
+    return decoder;
+  }
+
   /** judge if has next page whose page header satisfies the filter. */
   @Override
   public boolean hasNextSatisfiedPage() {
@@ -71,9 +156,13 @@ public abstract class AbstractChunkReader implements IChunkReader {
     return pageReaderList.remove(0).getAllSatisfiedPageData();
   }
 
+  /** Give back the resources held by the page readers that are not read yet. */
   @Override
   public void close() {
-    // do nothing
+    for (IPageReader pageReader : pageReaderList) {
+      pageReader.close();
+    }
+    pageReaderList.clear();
   }
 
   @Override
@@ -21,7 +21,7 @@ package org.apache.tsfile.read.reader.chunk;
 
 import org.apache.tsfile.compress.IUnCompressor;
 import org.apache.tsfile.encoding.decoder.Decoder;
-import org.apache.tsfile.encrypt.IDecryptor;
+import org.apache.tsfile.encrypt.EncryptUtils;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.MetaMarker;
 import org.apache.tsfile.file.header.ChunkHeader;
@@ -32,6 +32,7 @@ import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.read.reader.page.AlignedPageReader;
 import org.apache.tsfile.read.reader.page.LazyLoadPageData;
+import org.apache.tsfile.utils.Binary;
 
 import java.io.IOException;
 import java.io.Serializable;
@@ -52,14 +53,25 @@ public class AlignedChunkReader extends AbstractChunkReader {
   private final List<ByteBuffer> valueChunkDataBufferList = new ArrayList<>();
   // deleted intervals of all the sub sensors
   private final List<List<TimeRange>> valueDeleteIntervalsList = new ArrayList<>();
+  // dictionaries of all the sub sensors, null if the sensor is not encoded by CHUNK_DICTIONARY
+  private final List<Binary[]> valueDictionaryList = new ArrayList<>();
+  // uncompressors of the pages of all the sub sensors, which hold the dictionaries of the sensors
+  // compressed by ZSTD_DICTIONARY
+  private final List<IUnCompressor> valueUnCompressorList = new ArrayList<>();
 
-  private final IDecryptor decrytor;
+  private final Chunk timeChunk;
+  private final List<Chunk> valueChunkList;
+
+  // index of the next page in the chunks
+  private int pageIndex = 0;
 
   @SuppressWarnings("unchecked")
   public AlignedChunkReader(
       Chunk timeChunk, List<Chunk> valueChunkList, long readStopTime, Filter queryFilter)
       throws IOException {
     super(readStopTime, queryFilter);
+    this.timeChunk = timeChunk;
+    this.valueChunkList = valueChunkList;
     this.timeChunkHeader = timeChunk.getHeader();
     this.timeChunkDataBuffer = timeChunk.getData();
 
@@ -72,7 +84,23 @@ public class AlignedChunkReader extends AbstractChunkReader {
 
           valueChunkStatisticsList.add(chunk == null ? null : chunk.getChunkStatistic());
         });
-    this.decrytor = timeChunk.getDecryptor();
+    for (int i = 0; i < valueChunkHeaderList.size(); i++) {
+      ChunkHeader valueChunkHeader = valueChunkHeaderList.get(i);
+      valueUnCompressorList.add(
+          valueChunkHeader == null
+              ? null
+              : readChunkUnCompressor(
+                  valueChunkHeader,
+                  valueChunkDataBufferList.get(i),
+                  valueChunkList.get(i).getPageDecryptor(EncryptUtils.DICTIONARY_PAGE_INDEX)));
+      valueDictionaryList.add(
+          valueChunkHeader == null
+              ? null
+              : readChunkDictionary(
+                  valueChunkHeader,
+                  valueChunkDataBufferList.get(i),
+                  valueChunkList.get(i).getPageDecryptor(EncryptUtils.DICTIONARY_PAGE_INDEX)));
+    }
     initAllPageReaders(timeChunk.getChunkStatistic(), valueChunkStatisticsList);
   }
 
@@ -109,6 +137,7 @@ public class AlignedChunkReader extends AbstractChunkReader {
       if (alignedPageReader != null) {
         pageReaderList.add(alignedPageReader);
       }
+      pageIndex++;
     }
   }
 
@@ -196,7 +225,11 @@ public class AlignedChunkReader extends AbstractChunkReader {
       PageHeader timePageHeader, List<PageHeader> rawValuePageHeaderList) throws IOException {
     ByteBuffer timePageData =
         ChunkReader.deserializePageData(
-            timePageHeader, timeChunkDataBuffer, timeChunkHeader, decrytor);
+            timePageHeader,
+            timeChunkDataBuffer,
+            timeChunkHeader,
+            timeChunk.getPageDecryptor(pageIndex),
+            getPageCacheKey(timeChunk, pageIndex));
 
     List<PageHeader> valuePageHeaderList = new ArrayList<>();
     LazyLoadPageData[] lazyLoadPageDataArray = new LazyLoadPageData[rawValuePageHeaderList.size()];
@@ -234,14 +267,13 @@ public class AlignedChunkReader extends AbstractChunkReader {
         valuePageHeaderList.add(valuePageHeader);
         lazyLoadPageDataArray[i] =
             new LazyLoadPageData(
-                valueChunkDataBufferList.get(i).array(),
+                valueChunkDataBufferList.get(i),
                 currentPagePosition,
-                IUnCompressor.getUnCompressor(valueChunkHeader.getCompressionType()),
-                decrytor);
+                valueUnCompressorList.get(i),
+                valueChunkList.get(i).getPageDecryptor(pageIndex),
+                getPageCacheKey(valueChunkList.get(i), pageIndex));
         valueDataTypeList.add(valueChunkHeader.getDataType());
-        valueDecoderList.add(
-            Decoder.getDecoderByType(
-                valueChunkHeader.getEncodingType(), valueChunkHeader.getDataType()));
+        valueDecoderList.add(getValueDecoder(valueChunkHeader, valueDictionaryList.get(i)));
         isAllNull = false;
       }
     }
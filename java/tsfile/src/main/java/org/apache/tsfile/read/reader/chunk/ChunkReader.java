@@ -19,12 +19,14 @@
 
 package org.apache.tsfile.read.reader.chunk;
 
+import org.apache.tsfile.common.cache.PageCache;
 import org.apache.tsfile.compress.IUnCompressor;
-import org.apache.tsfile.encoding.decoder.Decoder;
+import org.apache.tsfile.encrypt.EncryptUtils;
 import org.apache.tsfile.encrypt.IDecryptor;
 import org.apache.tsfile.file.MetaMarker;
 import org.apache.tsfile.file.header.ChunkHeader;
 import org.apache.tsfile.file.header.PageHeader;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.file.metadata.enums.EncryptionType;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
 import org.apache.tsfile.read.common.Chunk;
@@ -32,6 +34,7 @@ import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.read.reader.page.LazyLoadPageData;
 import org.apache.tsfile.read.reader.page.PageReader;
+import org.apache.tsfile.utils.Binary;
 
 import java.io.IOException;
 import java.io.Serializable;
@@ -44,15 +47,24 @@ public class ChunkReader extends AbstractChunkReader {
   private final ByteBuffer chunkDataBuffer;
   private final List<TimeRange> deleteIntervalList;
 
-  private final IDecryptor decryptor;
+  private final Chunk chunk;
+
+  // dictionary of the chunk, null if the chunk is not encoded by CHUNK_DICTIONARY
+  private Binary[] dictionary;
+
+  // uncompressor of the pages, which holds the dictionary of a chunk compressed by ZSTD_DICTIONARY
+  private IUnCompressor unCompressor;
+
+  // index of the next page in the chunk
+  private int pageIndex = 0;
 
   @SuppressWarnings("unchecked")
   public ChunkReader(Chunk chunk, long readStopTime, Filter queryFilter) {
     super(readStopTime, queryFilter);
+    this.chunk = chunk;
     this.chunkHeader = chunk.getHeader();
     this.chunkDataBuffer = chunk.getData();
     this.deleteIntervalList = chunk.getDeleteIntervalList();
-    this.decryptor = chunk.getDecryptor();
     initAllPageReaders(chunk.getChunkStatistic());
   }
 
@@ -73,6 +85,16 @@ public class ChunkReader extends AbstractChunkReader {
   }
 
   private void initAllPageReaders(Statistics<? extends Serializable> chunkStatistic) {
+    unCompressor =
+        readChunkUnCompressor(
+            chunkHeader,
+            chunkDataBuffer,
+            chunk.getPageDecryptor(EncryptUtils.DICTIONARY_PAGE_INDEX));
+    dictionary =
+        readChunkDictionary(
+            chunkHeader,
+            chunkDataBuffer,
+            chunk.getPageDecryptor(EncryptUtils.DICTIONARY_PAGE_INDEX));
     // construct next satisfied page header
     while (chunkDataBuffer.remaining() > 0) {
       // deserialize a PageHeader from chunkDataBuffer
@@ -86,6 +108,7 @@ public class ChunkReader extends AbstractChunkReader {
         // if the current page satisfies
         if (pageCanSkip(pageHeader)) {
           skipCurrentPage(pageHeader);
+          pageIndex++;
           continue;
         }
       }
@@ -95,6 +118,7 @@ public class ChunkReader extends AbstractChunkReader {
       } else {
         pageReaderList.add(constructPageReader(pageHeader));
       }
+      pageIndex++;
     }
   }
 
@@ -129,18 +153,21 @@ public class ChunkReader extends AbstractChunkReader {
   }
 
   private PageReader constructPageReader(PageHeader pageHeader) {
-    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
     // record the current position of chunkDataBuffer, use this to get the page data in PageReader
-    // through directly accessing the buffer array
+    // through directly accessing the buffer
     int currentPagePosition = chunkDataBuffer.position();
     skipCurrentPage(pageHeader);
     PageReader reader =
         new PageReader(
             pageHeader,
             new LazyLoadPageData(
-                chunkDataBuffer.array(), currentPagePosition, unCompressor, decryptor),
+                chunkDataBuffer,
+                currentPagePosition,
+                unCompressor,
+                chunk.getPageDecryptor(pageIndex),
+                getPageCacheKey(chunk, pageIndex)),
             chunkHeader.getDataType(),
-            Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType()),
+            getValueDecoder(chunkHeader, dictionary),
             defaultTimeDecoder,
             queryFilter);
     reader.setDeleteIntervalList(deleteIntervalList);
@@ -153,8 +180,15 @@ public class ChunkReader extends AbstractChunkReader {
 
   public static ByteBuffer readCompressedPageData(PageHeader pageHeader, ByteBuffer chunkBuffer)
       throws IOException {
+    byte[] compressedPageBody = new byte[pageHeader.getCompressedSize()];
+    checkCompletePageBody(pageHeader, chunkBuffer);
+    chunkBuffer.get(compressedPageBody);
+    return ByteBuffer.wrap(compressedPageBody);
+  }
+
+  private static void checkCompletePageBody(PageHeader pageHeader, ByteBuffer chunkBuffer)
+      throws IOException {
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
     // doesn't have a complete page body
     if (compressedPageBodyLength > chunkBuffer.remaining()) {
       throw new IOException(
@@ -163,22 +197,25 @@ public class ChunkReader extends AbstractChunkReader {
               + ". Actual:"
               + chunkBuffer.remaining());
     }
-    chunkBuffer.get(compressedPageBody);
-    return ByteBuffer.wrap(compressedPageBody);
   }
 
+  /**
+   * Uncompress the page data at the position of the buffer and move the position to the end of the
+   * page. The page data in direct memory, e.g. a memory mapped file, is uncompressed into direct
+   * memory if the codec supports it, so that it never crosses into the heap before decoded.
+   */
   public static ByteBuffer uncompressPageData(
       PageHeader pageHeader, IUnCompressor unCompressor, ByteBuffer compressedPageData)
       throws IOException {
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
+    ByteBuffer uncompressedPageData =
+        compressedPageData.isDirect() && unCompressor.supportDirectBuffer()
+            ? ByteBuffer.allocateDirect(pageHeader.getUncompressedSize())
+            : ByteBuffer.allocate(pageHeader.getUncompressedSize());
     try {
-      unCompressor.uncompress(
-          compressedPageData.array(),
-          compressedPageData.arrayOffset() + compressedPageData.position(),
-          compressedPageBodyLength,
-          uncompressedPageData,
-          0);
+      ByteBuffer compressedPageBody = compressedPageData.duplicate();
+      compressedPageBody.limit(compressedPageBody.position() + compressedPageBodyLength);
+      unCompressor.uncompressBuffer(compressedPageBody.slice(), uncompressedPageData);
     } catch (Exception e) {
       throw new IOException(
           "Uncompress error! uncompress size: "
@@ -190,7 +227,34 @@ public class ChunkReader extends AbstractChunkReader {
               + e.getMessage());
     }
     compressedPageData.position(compressedPageData.position() + compressedPageBodyLength);
-    return ByteBuffer.wrap(uncompressedPageData);
+    return uncompressedPageData;
+  }
+
+  /**
+   * Decrypt and uncompress the page data, the result is taken from the {@link PageCache} if the
+   * page is cached.
+   *
+   * @param pageKey key of the page in the page cache, null if the page should not be cached
+   */
+  public static ByteBuffer decryptAndUncompressPageData(
+      PageHeader pageHeader,
+      IUnCompressor unCompressor,
+      ByteBuffer compressedPageData,
+      IDecryptor decryptor,
+      PageCache.PageKey pageKey)
+      throws IOException {
+    if (pageKey == null) {
+      return decryptAndUncompressPageData(pageHeader, unCompressor, compressedPageData, decryptor);
+    }
+    ByteBuffer pageData =
+        PageCache.getInstance()
+            .get(
+                pageKey,
+                key ->
+                    decryptAndUncompressPageData(
+                        pageHeader, unCompressor, compressedPageData.duplicate(), decryptor));
+    compressedPageData.position(compressedPageData.position() + pageHeader.getCompressedSize());
+    return pageData;
   }
 
   public static ByteBuffer decryptAndUncompressPageData(
@@ -200,15 +264,23 @@ public class ChunkReader extends AbstractChunkReader {
       IDecryptor decryptor)
       throws IOException {
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
+    ByteBuffer uncompressedPageData = ByteBuffer.allocate(pageHeader.getUncompressedSize());
     try {
-      byte[] decryptedPageData =
-          decryptor.decrypt(
-              compressedPageData.array(),
-              compressedPageData.arrayOffset() + compressedPageData.position(),
-              compressedPageBodyLength);
-      unCompressor.uncompress(
-          decryptedPageData, 0, compressedPageBodyLength, uncompressedPageData, 0);
+      ByteBuffer pageBody = compressedPageData.duplicate();
+      pageBody.limit(pageBody.position() + compressedPageBodyLength);
+      boolean encrypted =
+          decryptor != null && decryptor.getEncryptionType() != EncryptionType.UNENCRYPTED;
+      if (encrypted && unCompressor.getCodecName() == CompressionType.UNCOMPRESSED) {
+        // nothing to uncompress, the page is decrypted into the result directly
+        decryptor.decrypt(pageBody, uncompressedPageData);
+      } else {
+        if (encrypted) {
+          ByteBuffer decryptedPageBody = ByteBuffer.allocate(compressedPageBodyLength);
+          decryptor.decrypt(pageBody, decryptedPageBody);
+          pageBody = decryptedPageBody;
+        }
+        unCompressor.uncompressBuffer(pageBody, uncompressedPageData);
+      }
     } catch (Exception e) {
       throw new IOException(
           "Uncompress error! uncompress size: "
@@ -220,25 +292,58 @@ public class ChunkReader extends AbstractChunkReader {
               + e.getMessage());
     }
     compressedPageData.position(compressedPageData.position() + compressedPageBodyLength);
-    return ByteBuffer.wrap(uncompressedPageData);
+    return uncompressedPageData;
+  }
+
+  /**
+   * Deserialize the page data, the result is taken from the {@link PageCache} if the page is
+   * cached.
+   *
+   * @param pageKey key of the page in the page cache, null if the page should not be cached
+   */
+  public static ByteBuffer deserializePageData(
+      PageHeader pageHeader,
+      ByteBuffer chunkBuffer,
+      ChunkHeader chunkHeader,
+      IDecryptor decryptor,
+      PageCache.PageKey pageKey)
+      throws IOException {
+    if (pageKey == null || isStoredAsIs(chunkHeader, decryptor)) {
+      return deserializePageData(pageHeader, chunkBuffer, chunkHeader, decryptor);
+    }
+    ByteBuffer pageData =
+        PageCache.getInstance()
+            .get(
+                pageKey,
+                key ->
+                    deserializePageData(
+                        pageHeader, chunkBuffer.duplicate(), chunkHeader, decryptor));
+    chunkBuffer.position(chunkBuffer.position() + pageHeader.getCompressedSize());
+    return pageData;
+  }
+
+  private static boolean isStoredAsIs(ChunkHeader chunkHeader, IDecryptor decryptor) {
+    return chunkHeader.getCompressionType() == CompressionType.UNCOMPRESSED
+        && (decryptor == null || decryptor.getEncryptionType() == EncryptionType.UNENCRYPTED);
   }
 
   public static ByteBuffer deserializePageData(
       PageHeader pageHeader, ByteBuffer chunkBuffer, ChunkHeader chunkHeader, IDecryptor decryptor)
       throws IOException {
     IUnCompressor unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
-    ByteBuffer compressedPageBody = readCompressedPageData(pageHeader, chunkBuffer);
     if (decryptor == null || decryptor.getEncryptionType() == EncryptionType.UNENCRYPTED) {
-      return uncompressPageData(pageHeader, unCompressor, compressedPageBody);
-    } else {
-      return decryptAndUncompressPageData(pageHeader, unCompressor, compressedPageBody, decryptor);
+      checkCompletePageBody(pageHeader, chunkBuffer);
+      // uncompress the page from the chunk buffer directly without copying it
+      return uncompressPageData(pageHeader, unCompressor, chunkBuffer);
     }
+    ByteBuffer compressedPageBody = readCompressedPageData(pageHeader, chunkBuffer);
+    return decryptAndUncompressPageData(pageHeader, unCompressor, compressedPageBody, decryptor);
   }
 
   public static ByteBuffer deserializePageData(
       PageHeader pageHeader, ByteBuffer chunkBuffer, ChunkHeader chunkHeader) throws IOException {
     IUnCompressor unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
-    ByteBuffer compressedPageBody = readCompressedPageData(pageHeader, chunkBuffer);
-    return uncompressPageData(pageHeader, unCompressor, compressedPageBody);
+    checkCompletePageBody(pageHeader, chunkBuffer);
+    return uncompressPageData(pageHeader, unCompressor, chunkBuffer);
   }
 }
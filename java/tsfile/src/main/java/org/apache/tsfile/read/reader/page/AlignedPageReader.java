@@ -19,6 +19,7 @@
 
 package org.apache.tsfile.read.reader.page;
 
+import org.apache.tsfile.block.column.ColumnBuilder;
 import org.apache.tsfile.encoding.decoder.Decoder;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.header.PageHeader;
@@ -29,7 +30,12 @@ import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.tsfile.read.common.block.TsBlockUtil;
+import org.apache.tsfile.read.filter.basic.BinaryLogicalFilter;
 import org.apache.tsfile.read.filter.basic.Filter;
+import org.apache.tsfile.read.filter.basic.TimeFilter;
+import org.apache.tsfile.read.filter.basic.ValueFilter;
+import org.apache.tsfile.read.filter.factory.FilterFactory;
+import org.apache.tsfile.read.filter.operator.Not;
 import org.apache.tsfile.read.reader.IPageReader;
 import org.apache.tsfile.read.reader.IPointReader;
 import org.apache.tsfile.read.reader.series.PaginationController;
@@ -231,17 +237,21 @@ public class AlignedPageReader implements IPageReader {
       updateKeepCurrentRowThroughBitmask(keepCurrentRow, bitmask);
     }
 
-    boolean pushDownFilterAllSatisfy = pushDownFilterAllSatisfy();
+    // values of the columns referenced by the push down filter, decoded while applying the filter
+    Object[][] filterColumnValues = new Object[valueCount][];
+    boolean pushDownFilterApplied =
+        pushDownFilterAllSatisfy()
+            || applyPushDownFilter(timeBatch, keepCurrentRow, isDeleted, filterColumnValues);
 
     // construct time column
-    // when pushDownFilterAllSatisfy = true, we can skip rows by OFFSET & LIMIT
-    int readEndIndex = buildTimeColumn(timeBatch, keepCurrentRow, pushDownFilterAllSatisfy);
+    // when pushDownFilterApplied = true, we can skip rows by OFFSET & LIMIT
+    int readEndIndex = buildTimeColumn(timeBatch, keepCurrentRow, pushDownFilterApplied);
 
     // construct value columns
-    buildValueColumns(readEndIndex, keepCurrentRow, isDeleted);
+    buildValueColumns(readEndIndex, keepCurrentRow, isDeleted, filterColumnValues);
 
     TsBlock unFilteredBlock = builder.build();
-    if (pushDownFilterAllSatisfy) {
+    if (pushDownFilterApplied) {
       // OFFSET & LIMIT has been consumed in buildTimeColumn
       return unFilteredBlock;
     }
@@ -329,11 +339,101 @@ public class AlignedPageReader implements IPageReader {
     return readEndIndex + 1;
   }
 
-  private void buildValueColumns(int readEndIndex, boolean[] keepCurrentRow, boolean[][] isDeleted)
+  /**
+   * Applies the push down filter to keepCurrentRow before the value columns are built, so that the
+   * columns only need to decode the values of the selected rows. The time part of the filter is
+   * evaluated first, then the columns referenced by the filter are decoded for the remaining rows
+   * and the filter is evaluated row by row.
+   *
+   * @return true if the filter is applied, false if the filter can only be applied to the built
+   *     block because it is unknown which columns it references
+   */
+  private boolean applyPushDownFilter(
+      long[] timeBatch, boolean[] keepCurrentRow, boolean[][] isDeleted, Object[][] columnValues)
       throws IOException {
+    Filter timeFilter = FilterFactory.extractTimeFilter(pushDownFilter);
+    if (timeFilter != null) {
+      updateKeepCurrentRowThroughTimeFilter(keepCurrentRow, timeBatch, timeFilter);
+    }
+    if (timeFilter == pushDownFilter) {
+      return true;
+    }
+    boolean[] referenced = new boolean[valueCount];
+    if (!collectReferencedColumns(pushDownFilter, referenced)) {
+      return false;
+    }
     for (int i = 0; i < valueCount; i++) {
+      if (!referenced[i]) {
+        continue;
+      }
       ValuePageReader pageReader = valuePageReaderList.get(i);
-      if (pageReader != null) {
+      if (pageReader == null) {
+        columnValues[i] = new Object[timeBatch.length];
+      } else {
+        columnValues[i] =
+            pageReader.nextRowValues(
+                timeBatch.length,
+                keepCurrentRow,
+                pageReader.isModified() ? Objects.requireNonNull(isDeleted)[i] : null);
+      }
+    }
+    Object[] rowValues = new Object[valueCount];
+    for (int rowIndex = 0; rowIndex < timeBatch.length; rowIndex++) {
+      if (!keepCurrentRow[rowIndex]) {
+        continue;
+      }
+      for (int i = 0; i < valueCount; i++) {
+        if (referenced[i]) {
+          rowValues[i] = columnValues[i][rowIndex];
+        }
+      }
+      keepCurrentRow[rowIndex] = pushDownFilter.satisfyRow(timeBatch[rowIndex], rowValues);
+    }
+    return true;
+  }
+
+  /**
+   * Marks the columns referenced by the filter.
+   *
+   * @return false if the filter contains a filter of which the referenced columns are unknown
+   */
+  private static boolean collectReferencedColumns(Filter filter, boolean[] referenced) {
+    if (filter instanceof TimeFilter) {
+      return true;
+    } else if (filter instanceof ValueFilter) {
+      int measurementIndex = ((ValueFilter) filter).getMeasurementIndex();
+      if (measurementIndex < 0 || measurementIndex >= referenced.length) {
+        return false;
+      }
+      referenced[measurementIndex] = true;
+      return true;
+    } else if (filter instanceof BinaryLogicalFilter) {
+      return collectReferencedColumns(((BinaryLogicalFilter) filter).getLeft(), referenced)
+          && collectReferencedColumns(((BinaryLogicalFilter) filter).getRight(), referenced);
+    } else if (filter instanceof Not) {
+      return collectReferencedColumns(((Not) filter).getFilter(), referenced);
+    }
+    return false;
+  }
+
+  private void buildValueColumns(
+      int readEndIndex, boolean[] keepCurrentRow, boolean[][] isDeleted, Object[][] columnValues)
+      throws IOException {
+    for (int i = 0; i < valueCount; i++) {
+      ValuePageReader pageReader = valuePageReaderList.get(i);
+      if (columnValues[i] != null) {
+        // the column has been decoded by the push down filter
+        ColumnBuilder columnBuilder = builder.getColumnBuilder(i);
+        for (int j = 0; j < readEndIndex; j++) {
+          if (keepCurrentRow[j]) {
+            if (columnValues[i][j] == null) {
+              columnBuilder.appendNull();
+            } else {
+              columnBuilder.writeObject(columnValues[i][j]);
+            }
+          }
+        }
+      } else if (pageReader != null) {
         if (pageReader.isModified()) {
           pageReader.writeColumnBuilderWithNextBatch(
               readEndIndex,
@@ -389,6 +489,13 @@ public class AlignedPageReader implements IPageReader {
     }
   }
 
+  private void updateKeepCurrentRowThroughTimeFilter(
+      boolean[] keepCurrentRow, long[] timeBatch, Filter timeFilter) {
+    for (int i = 0, n = timeBatch.length; i < n; i++) {
+      keepCurrentRow[i] = keepCurrentRow[i] && timeFilter.satisfy(timeBatch[i], null);
+    }
+  }
+
   private void updateKeepCurrentRowThroughBitmask(boolean[] keepCurrentRow, byte[] bitmask) {
     for (int i = 0, n = bitmask.length; i < n; i++) {
       if (bitmask[i] == (byte) 0xFF) {
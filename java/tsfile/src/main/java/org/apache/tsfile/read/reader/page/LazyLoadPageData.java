@@ -19,17 +19,24 @@
 
 package org.apache.tsfile.read.reader.page;
 
+import org.apache.tsfile.common.cache.PageCache;
 import org.apache.tsfile.compress.IUnCompressor;
 import org.apache.tsfile.encrypt.EncryptUtils;
 import org.apache.tsfile.encrypt.IDecryptor;
 import org.apache.tsfile.file.header.PageHeader;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.EncryptionType;
+import org.apache.tsfile.utils.ByteBufferPool;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
 public class LazyLoadPageData {
-  /** Reference to the data of original chunkDataBuffer. * */
-  private final byte[] chunkData;
+  /**
+   * Reference to the data of original chunkDataBuffer, it may be a view of a memory-mapped file
+   * which is not backed by an array.
+   */
+  private final ByteBuffer chunkData;
 
   private final int pageDataOffset;
 
@@ -37,29 +44,126 @@ public class LazyLoadPageData {
 
   private final IDecryptor decryptor;
 
+  /** key of the page in the {@link PageCache}, null if the page should not be cached */
+  private final PageCache.PageKey pageKey;
+
+  /** the decompressed page data allocated from the pool, null if there is none to release */
+  private ByteBuffer pooledPageData;
+
+  private ByteBufferPool pool;
+
   public LazyLoadPageData(byte[] data, int offset, IUnCompressor unCompressor) {
-    this.chunkData = data;
-    this.pageDataOffset = offset;
-    this.unCompressor = unCompressor;
-    this.decryptor = EncryptUtils.decryptor;
+    this(ByteBuffer.wrap(data), offset, unCompressor, EncryptUtils.decryptor);
   }
 
   public LazyLoadPageData(
       byte[] data, int offset, IUnCompressor unCompressor, IDecryptor decryptor) {
+    this(ByteBuffer.wrap(data), offset, unCompressor, decryptor);
+  }
+
+  /**
+   * @param data the chunk data buffer, it will not be modified
+   * @param offset the index of the page data in the buffer
+   */
+  public LazyLoadPageData(
+      ByteBuffer data, int offset, IUnCompressor unCompressor, IDecryptor decryptor) {
+    this(data, offset, unCompressor, decryptor, null);
+  }
+
+  /**
+   * @param data the chunk data buffer, it will not be modified
+   * @param offset the index of the page data in the buffer
+   * @param pageKey key of the page in the {@link PageCache}, null if the page should not be cached
+   */
+  public LazyLoadPageData(
+      ByteBuffer data,
+      int offset,
+      IUnCompressor unCompressor,
+      IDecryptor decryptor,
+      PageCache.PageKey pageKey) {
     this.chunkData = data;
     this.pageDataOffset = offset;
     this.unCompressor = unCompressor;
     this.decryptor = decryptor;
+    this.pageKey = pageKey;
   }
 
   public ByteBuffer uncompressPageData(PageHeader pageHeader) throws IOException {
+    return uncompressPageData(pageHeader, null);
+  }
+
+  /**
+   * Uncompress the page data into a buffer allocated from the given pool, the buffer should be
+   * given back by {@link #releasePageData()} once the page data is not referenced anymore. The page
+   * data stored as is or cached in the {@link PageCache} is not allocated from the pool.
+   *
+   * @param pool the pool to allocate the buffer from, null to allocate a new one. The page data
+   *     uncompressed into direct memory is allocated from {@link
+   *     ByteBufferPool#getDirectInstance()} instead
+   */
+  public ByteBuffer uncompressPageData(PageHeader pageHeader, ByteBufferPool pool)
+      throws IOException {
+    int compressedPageBodyLength = pageHeader.getCompressedSize();
+    boolean encrypted =
+        decryptor != null && decryptor.getEncryptionType() != EncryptionType.UNENCRYPTED;
+    if (!encrypted && unCompressor.getCodecName() == CompressionType.UNCOMPRESSED) {
+      // the page is stored as is, a view of the chunk data is enough
+      ByteBuffer pageData = chunkData.duplicate();
+      pageData.position(pageDataOffset);
+      pageData.limit(pageDataOffset + compressedPageBodyLength);
+      return pageData.slice();
+    }
+    if (pageKey != null) {
+      return PageCache.getInstance()
+          .get(pageKey, key -> decryptAndUncompress(pageHeader, encrypted, null));
+    }
+    ByteBuffer pageData = decryptAndUncompress(pageHeader, encrypted, pool);
+    if (pool != null) {
+      releasePageData();
+      pooledPageData = pageData;
+      this.pool = pageData.isDirect() ? ByteBufferPool.getDirectInstance() : pool;
+    }
+    return pageData;
+  }
+
+  /** Give back the buffer allocated from the pool, the page data must not be accessed after. */
+  public void releasePageData() {
+    if (pooledPageData != null) {
+      pool.release(pooledPageData);
+      pooledPageData = null;
+    }
+  }
+
+  private ByteBuffer decryptAndUncompress(
+      PageHeader pageHeader, boolean encrypted, ByteBufferPool pool) throws IOException {
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
     try {
-      byte[] decryptedPageData =
-          decryptor.decrypt(chunkData, pageDataOffset, compressedPageBodyLength);
-      unCompressor.uncompress(
-          decryptedPageData, 0, compressedPageBodyLength, uncompressedPageData, 0);
+      ByteBuffer compressedData = chunkData.duplicate();
+      compressedData.position(pageDataOffset);
+      compressedData.limit(pageDataOffset + compressedPageBodyLength);
+      compressedData = compressedData.slice();
+      // the page data in direct memory, e.g. a memory mapped file, is decrypted and uncompressed
+      // into direct memory if the codec supports it, so that it never crosses into the heap before
+      // decoded
+      boolean direct = chunkData.isDirect() && unCompressor.supportDirectBuffer();
+      if (encrypted) {
+        if (unCompressor.getCodecName() == CompressionType.UNCOMPRESSED) {
+          // nothing to uncompress, the page is decrypted into the result directly
+          ByteBuffer pageData =
+              allocate(pageHeader.getUncompressedSize(), chunkData.isDirect(), pool);
+          decryptor.decrypt(compressedData, pageData);
+          return pageData;
+        }
+        ByteBuffer decryptedData = allocate(compressedPageBodyLength, direct, pool);
+        decryptor.decrypt(compressedData, decryptedData);
+        ByteBuffer uncompressedPageData = allocate(pageHeader.getUncompressedSize(), direct, pool);
+        unCompressor.uncompressBuffer(decryptedData, uncompressedPageData);
+        release(decryptedData, pool);
+        return uncompressedPageData;
+      }
+      ByteBuffer uncompressedPageData = allocate(pageHeader.getUncompressedSize(), direct, pool);
+      unCompressor.uncompressBuffer(compressedData, uncompressedPageData);
+      return uncompressedPageData;
     } catch (Exception e) {
       throw new IOException(
           "Uncompress error! uncompress size: "
@@ -70,7 +174,24 @@ public class LazyLoadPageData {
               + pageHeader
               + e.getMessage());
     }
-    return ByteBuffer.wrap(uncompressedPageData);
+  }
+
+  /**
+   * @param pool the pool of heap buffers, the direct buffers are allocated from {@link
+   *     ByteBufferPool#getDirectInstance()} instead. null to allocate a new buffer.
+   */
+  private static ByteBuffer allocate(int size, boolean direct, ByteBufferPool pool) {
+    if (pool == null) {
+      return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    }
+    return direct ? ByteBufferPool.getDirectInstance().allocate(size) : pool.allocate(size);
+  }
+
+  /** Give back a temporary buffer got by {@link #allocate(int, boolean, ByteBufferPool)}. */
+  private static void release(ByteBuffer buffer, ByteBufferPool pool) {
+    if (pool != null) {
+      (buffer.isDirect() ? ByteBufferPool.getDirectInstance() : pool).release(buffer);
+    }
   }
 
   public IUnCompressor getUnCompressor() {
@@ -20,6 +20,7 @@
 package org.apache.tsfile.read.reader.page;
 
 import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.encoding.decoder.ChunkDictionaryDecoder;
 import org.apache.tsfile.encoding.decoder.Decoder;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.header.PageHeader;
@@ -29,18 +30,22 @@ import org.apache.tsfile.read.common.BatchDataFactory;
 import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.DictionaryColumn;
+import org.apache.tsfile.read.common.block.column.TimeColumn;
 import org.apache.tsfile.read.common.block.column.TimeColumnBuilder;
 import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.read.filter.factory.FilterFactory;
 import org.apache.tsfile.read.reader.IPageReader;
 import org.apache.tsfile.read.reader.series.PaginationController;
 import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.ByteBufferPool;
 import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
 import org.apache.tsfile.write.UnSupportedDataTypeException;
 
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -50,6 +55,9 @@ import static org.apache.tsfile.utils.Preconditions.checkArgument;
 
 public class PageReader implements IPageReader {
 
+  /** max number of points decoded by one bulk read of the decoders */
+  private static final int DECODE_BATCH_SIZE = 1024;
+
   private final PageHeader pageHeader;
 
   private final TSDataType dataType;
@@ -78,6 +86,9 @@ public class PageReader implements IPageReader {
 
   private LazyLoadPageData lazyLoadPageData;
 
+  // holds the pooled page data to be given back once the page is decoded
+  private LazyLoadPageData pageDataToRelease;
+
   public PageReader(
       ByteBuffer pageData, TSDataType dataType, Decoder valueDecoder, Decoder timeDecoder) {
     this(null, pageData, dataType, valueDecoder, timeDecoder, null);
@@ -140,11 +151,137 @@ public class PageReader implements IPageReader {
   /** Call this method before accessing data. */
   private void uncompressDataIfNecessary() throws IOException {
     if (lazyLoadPageData != null && (timeBuffer == null || valueBuffer == null)) {
-      splitDataToTimeStampAndValue(lazyLoadPageData.uncompressPageData(pageHeader));
+      splitDataToTimeStampAndValue(
+          lazyLoadPageData.uncompressPageData(pageHeader, ByteBufferPool.getInstance()));
+      pageDataToRelease = lazyLoadPageData;
       lazyLoadPageData = null;
     }
   }
 
+  /**
+   * Give back the pooled page data once all the points are decoded. The decoded values do not
+   * reference the page data, e.g. the binaries are copied out of it.
+   */
+  private void releasePageDataIfDecoded() throws IOException {
+    if (pageDataToRelease != null && !timeDecoder.hasNext(timeBuffer)) {
+      pageDataToRelease.releasePageData();
+      pageDataToRelease = null;
+    }
+  }
+
+  /**
+   * Give back the pooled page data even if not all the points are decoded, e.g. a LIMIT stops the
+   * decoding early.
+   */
+  @Override
+  public void close() {
+    if (pageDataToRelease != null) {
+      pageDataToRelease.releasePageData();
+      pageDataToRelease = null;
+    }
+  }
+
+  /**
+   * Returns how many points are decoded at a time, there is no need to allocate the whole batch for
+   * a small page.
+   */
+  private int getDecodeBatchSize() {
+    if (pageHeader == null || pageHeader.getStatistics() == null) {
+      return DECODE_BATCH_SIZE;
+    }
+    return (int) Math.max(1, Math.min(pageHeader.getStatistics().getCount(), DECODE_BATCH_SIZE));
+  }
+
+  /**
+   * Marks the points of the batch that are neither deleted nor filtered out by the time filter. If
+   * {@code consumeOffset} is set, the selected points also consume the offset of the pagination and
+   * are deselected. The value slots of the points that are not selected are skipped by the value
+   * decoder instead of being decoded.
+   *
+   * @return the number of selected points
+   */
+  private int selectPoints(
+      long[] timeBatch, int count, Filter timeFilter, boolean consumeOffset, boolean[] selected) {
+    int selectedCount = 0;
+    for (int i = 0; i < count; i++) {
+      long timestamp = timeBatch[i];
+      selected[i] =
+          !isDeleted(timestamp) && (timeFilter == null || timeFilter.satisfy(timestamp, null));
+      if (selected[i] && consumeOffset && paginationController.hasCurOffset()) {
+        paginationController.consumeOffset();
+        selected[i] = false;
+      }
+      if (selected[i]) {
+        selectedCount++;
+      }
+    }
+    return selectedCount;
+  }
+
+  /**
+   * Decodes the values of the selected points into their slots of {@code values}, the values of
+   * consecutive selected points are decoded in bulk and the others are skipped.
+   */
+  private void readSelectedValues(Object values, boolean[] selected, int selectedCount, int count)
+      throws IOException {
+    if (selectedCount == count) {
+      readValues(values, 0, count);
+      return;
+    }
+    if (selectedCount == 0) {
+      valueDecoder.skip(valueBuffer, dataType, count);
+      return;
+    }
+    int i = 0;
+    while (i < count) {
+      int start = i;
+      boolean isSelected = selected[i];
+      while (i < count && selected[i] == isSelected) {
+        i++;
+      }
+      if (isSelected) {
+        readValues(values, start, i - start);
+      } else {
+        valueDecoder.skip(valueBuffer, dataType, i - start);
+      }
+    }
+  }
+
+  private void readValues(Object values, int offset, int length) throws IOException {
+    switch (dataType) {
+      case BOOLEAN:
+        valueDecoder.readBooleans(valueBuffer, (boolean[]) values, offset, length);
+        break;
+      case INT32:
+      case DATE:
+        valueDecoder.readInts(valueBuffer, (int[]) values, offset, length);
+        break;
+      case INT64:
+      case TIMESTAMP:
+        valueDecoder.readLongs(valueBuffer, (long[]) values, offset, length);
+        break;
+      case FLOAT:
+        valueDecoder.readFloats(valueBuffer, (float[]) values, offset, length);
+        break;
+      case DOUBLE:
+        valueDecoder.readDoubles(valueBuffer, (double[]) values, offset, length);
+        break;
+      case TEXT:
+      case BLOB:
+      case STRING:
+        if (values instanceof int[]) {
+          // the ids of the values encoded by a chunk dictionary
+          ((ChunkDictionaryDecoder) valueDecoder)
+              .readIds(valueBuffer, (int[]) values, offset, length);
+        } else {
+          valueDecoder.readBinaries(valueBuffer, (Binary[]) values, offset, length);
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
   /**
    * @return the returned BatchData may be empty, but never be null
    */
@@ -154,58 +291,125 @@ public class PageReader implements IPageReader {
     uncompressDataIfNecessary();
     BatchData pageData = BatchDataFactory.createBatchData(dataType, ascending, false);
     boolean allSatisfy = recordFilter == null || recordFilter.allSatisfy(this);
-    while (timeDecoder.hasNext(timeBuffer)) {
-      long timestamp = timeDecoder.readLong(timeBuffer);
-      switch (dataType) {
-        case BOOLEAN:
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-          if (!isDeleted(timestamp)
-              && (allSatisfy || recordFilter.satisfyBoolean(timestamp, aBoolean))) {
-            pageData.putBoolean(timestamp, aBoolean);
+    Filter timeFilter = allSatisfy ? null : FilterFactory.extractTimeFilter(recordFilter);
+    // whether the points selected by their timestamps satisfy the record filter for sure
+    boolean timeFilterOnly = allSatisfy || timeFilter == recordFilter;
+    long[] timeBatch = new long[getDecodeBatchSize()];
+    boolean[] selected = new boolean[timeBatch.length];
+    int count;
+    switch (dataType) {
+      case BOOLEAN:
+        boolean[] booleans = new boolean[timeBatch.length];
+        while ((count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length)) > 0) {
+          readSelectedValues(
+              booleans,
+              selected,
+              selectPoints(timeBatch, count, timeFilter, false, selected),
+              count);
+          for (int i = 0; i < count; i++) {
+            if (selected[i]
+                && (timeFilterOnly || recordFilter.satisfyBoolean(timeBatch[i], booleans[i]))) {
+              pageData.putBoolean(timeBatch[i], booleans[i]);
+            }
           }
-          break;
-        case INT32:
-        case DATE:
-          int anInt = valueDecoder.readInt(valueBuffer);
-          if (!isDeleted(timestamp)
-              && (allSatisfy || recordFilter.satisfyInteger(timestamp, anInt))) {
-            pageData.putInt(timestamp, anInt);
+        }
+        break;
+      case INT32:
+      case DATE:
+        int[] ints = new int[timeBatch.length];
+        while ((count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length)) > 0) {
+          readSelectedValues(
+              ints, selected, selectPoints(timeBatch, count, timeFilter, false, selected), count);
+          for (int i = 0; i < count; i++) {
+            if (selected[i]
+                && (timeFilterOnly || recordFilter.satisfyInteger(timeBatch[i], ints[i]))) {
+              pageData.putInt(timeBatch[i], ints[i]);
+            }
           }
-          break;
-        case INT64:
-        case TIMESTAMP:
-          long aLong = valueDecoder.readLong(valueBuffer);
-          if (!isDeleted(timestamp) && (allSatisfy || recordFilter.satisfyLong(timestamp, aLong))) {
-            pageData.putLong(timestamp, aLong);
+        }
+        break;
+      case INT64:
+      case TIMESTAMP:
+        long[] longs = new long[timeBatch.length];
+        while ((count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length)) > 0) {
+          readSelectedValues(
+              longs, selected, selectPoints(timeBatch, count, timeFilter, false, selected), count);
+          for (int i = 0; i < count; i++) {
+            if (selected[i]
+                && (timeFilterOnly || recordFilter.satisfyLong(timeBatch[i], longs[i]))) {
+              pageData.putLong(timeBatch[i], longs[i]);
+            }
           }
-          break;
-        case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
-          if (!isDeleted(timestamp)
-              && (allSatisfy || recordFilter.satisfyFloat(timestamp, aFloat))) {
-            pageData.putFloat(timestamp, aFloat);
+        }
+        break;
+      case FLOAT:
+        float[] floats = new float[timeBatch.length];
+        while ((count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length)) > 0) {
+          readSelectedValues(
+              floats, selected, selectPoints(timeBatch, count, timeFilter, false, selected), count);
+          for (int i = 0; i < count; i++) {
+            if (selected[i]
+                && (timeFilterOnly || recordFilter.satisfyFloat(timeBatch[i], floats[i]))) {
+              pageData.putFloat(timeBatch[i], floats[i]);
+            }
           }
-          break;
-        case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
-          if (!isDeleted(timestamp)
-              && (allSatisfy || recordFilter.satisfyDouble(timestamp, aDouble))) {
-            pageData.putDouble(timestamp, aDouble);
+        }
+        break;
+      case DOUBLE:
+        double[] doubles = new double[timeBatch.length];
+        while ((count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length)) > 0) {
+          readSelectedValues(
+              doubles,
+              selected,
+              selectPoints(timeBatch, count, timeFilter, false, selected),
+              count);
+          for (int i = 0; i < count; i++) {
+            if (selected[i]
+                && (timeFilterOnly || recordFilter.satisfyDouble(timeBatch[i], doubles[i]))) {
+              pageData.putDouble(timeBatch[i], doubles[i]);
+            }
           }
-          break;
-        case TEXT:
-        case BLOB:
-        case STRING:
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
-          if (!isDeleted(timestamp)
-              && (allSatisfy || recordFilter.satisfyBinary(timestamp, aBinary))) {
-            pageData.putBinary(timestamp, aBinary);
+        }
+        break;
+      case TEXT:
+      case BLOB:
+      case STRING:
+        if (valueDecoder instanceof ChunkDictionaryDecoder) {
+          Binary[] dictionary = ((ChunkDictionaryDecoder) valueDecoder).getDictionary();
+          DictionaryFilter dictionaryFilter =
+              timeFilterOnly ? null : new DictionaryFilter(recordFilter, dictionary);
+          int[] ids = new int[timeBatch.length];
+          while ((count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length)) > 0) {
+            readSelectedValues(
+                ids, selected, selectPoints(timeBatch, count, timeFilter, false, selected), count);
+            for (int i = 0; i < count; i++) {
+              if (selected[i]
+                  && (timeFilterOnly || dictionaryFilter.satisfy(timeBatch[i], ids[i]))) {
+                pageData.putBinary(timeBatch[i], dictionary[ids[i]]);
+              }
+            }
           }
           break;
-        default:
-          throw new UnSupportedDataTypeException(String.valueOf(dataType));
-      }
+        }
+        Binary[] binaries = new Binary[timeBatch.length];
+        while ((count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length)) > 0) {
+          readSelectedValues(
+              binaries,
+              selected,
+              selectPoints(timeBatch, count, timeFilter, false, selected),
+              count);
+          for (int i = 0; i < count; i++) {
+            if (selected[i]
+                && (timeFilterOnly || recordFilter.satisfyBinary(timeBatch[i], binaries[i]))) {
+              pageData.putBinary(timeBatch[i], binaries[i]);
+            }
+          }
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
     }
+    releasePageDataIfDecoded();
     return pageData.flip();
   }
 
@@ -218,154 +422,273 @@ public class PageReader implements IPageReader {
       initialExpectedEntries =
           (int) Math.min(initialExpectedEntries, paginationController.getCurLimit());
     }
+    boolean allSatisfy = recordFilter == null || recordFilter.allSatisfy(this);
+    Filter timeFilter = allSatisfy ? null : FilterFactory.extractTimeFilter(recordFilter);
+    // whether the points selected by their timestamps satisfy the record filter for sure
+    boolean timeFilterOnly = allSatisfy || timeFilter == recordFilter;
+    long[] timeBatch = new long[getDecodeBatchSize()];
+    boolean[] selected = new boolean[timeBatch.length];
+    if (valueDecoder instanceof ChunkDictionaryDecoder) {
+      TsBlock tsBlock =
+          getAllSatisfiedDictionaryData(
+              initialExpectedEntries, timeBatch, selected, timeFilter, timeFilterOnly);
+      releasePageDataIfDecoded();
+      return tsBlock;
+    }
     builder = new TsBlockBuilder(initialExpectedEntries, Collections.singletonList(dataType));
 
     TimeColumnBuilder timeBuilder = builder.getTimeColumnBuilder();
     ColumnBuilder valueBuilder = builder.getColumnBuilder(0);
-    boolean allSatisfy = recordFilter == null || recordFilter.allSatisfy(this);
+    boolean hasMoreData = true;
+    int count;
     switch (dataType) {
       case BOOLEAN:
-        while (timeDecoder.hasNext(timeBuffer)) {
-          long timestamp = timeDecoder.readLong(timeBuffer);
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-          if (isDeleted(timestamp)
-              || (!allSatisfy && !recordFilter.satisfyBoolean(timestamp, aBoolean))) {
-            continue;
-          }
-          if (paginationController.hasCurOffset()) {
-            paginationController.consumeOffset();
-            continue;
-          }
-          if (paginationController.hasCurLimit()) {
-            timeBuilder.writeLong(timestamp);
-            valueBuilder.writeBoolean(aBoolean);
-            builder.declarePosition();
-            paginationController.consumeLimit();
-          } else {
-            break;
+        boolean[] booleans = new boolean[timeBatch.length];
+        while (hasMoreData
+            && (count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length)) > 0) {
+          readSelectedValues(
+              booleans,
+              selected,
+              selectPoints(timeBatch, count, timeFilter, timeFilterOnly, selected),
+              count);
+          for (int i = 0; i < count && hasMoreData; i++) {
+            long timestamp = timeBatch[i];
+            if (!selected[i]
+                || (!timeFilterOnly && !recordFilter.satisfyBoolean(timestamp, booleans[i]))) {
+              continue;
+            }
+            if (paginationController.hasCurOffset()) {
+              paginationController.consumeOffset();
+              continue;
+            }
+            if (paginationController.hasCurLimit()) {
+              timeBuilder.writeLong(timestamp);
+              valueBuilder.writeBoolean(booleans[i]);
+              builder.declarePosition();
+              paginationController.consumeLimit();
+            } else {
+              hasMoreData = false;
+            }
           }
         }
         break;
       case INT32:
       case DATE:
-        while (timeDecoder.hasNext(timeBuffer)) {
-          long timestamp = timeDecoder.readLong(timeBuffer);
-          int anInt = valueDecoder.readInt(valueBuffer);
-          if (isDeleted(timestamp)
-              || (!allSatisfy && !recordFilter.satisfyInteger(timestamp, anInt))) {
-            continue;
-          }
-          if (paginationController.hasCurOffset()) {
-            paginationController.consumeOffset();
-            continue;
-          }
-          if (paginationController.hasCurLimit()) {
-            timeBuilder.writeLong(timestamp);
-            valueBuilder.writeInt(anInt);
-            builder.declarePosition();
-            paginationController.consumeLimit();
-          } else {
-            break;
+        int[] ints = new int[timeBatch.length];
+        while (hasMoreData
+            && (count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length)) > 0) {
+          readSelectedValues(
+              ints,
+              selected,
+              selectPoints(timeBatch, count, timeFilter, timeFilterOnly, selected),
+              count);
+          for (int i = 0; i < count && hasMoreData; i++) {
+            long timestamp = timeBatch[i];
+            if (!selected[i]
+                || (!timeFilterOnly && !recordFilter.satisfyInteger(timestamp, ints[i]))) {
+              continue;
+            }
+            if (paginationController.hasCurOffset()) {
+              paginationController.consumeOffset();
+              continue;
+            }
+            if (paginationController.hasCurLimit()) {
+              timeBuilder.writeLong(timestamp);
+              valueBuilder.writeInt(ints[i]);
+              builder.declarePosition();
+              paginationController.consumeLimit();
+            } else {
+              hasMoreData = false;
+            }
           }
         }
         break;
       case INT64:
       case TIMESTAMP:
-        while (timeDecoder.hasNext(timeBuffer)) {
-          long timestamp = timeDecoder.readLong(timeBuffer);
-          long aLong = valueDecoder.readLong(valueBuffer);
-          if (isDeleted(timestamp)
-              || (!allSatisfy && !recordFilter.satisfyLong(timestamp, aLong))) {
-            continue;
-          }
-          if (paginationController.hasCurOffset()) {
-            paginationController.consumeOffset();
-            continue;
-          }
-          if (paginationController.hasCurLimit()) {
-            timeBuilder.writeLong(timestamp);
-            valueBuilder.writeLong(aLong);
-            builder.declarePosition();
-            paginationController.consumeLimit();
-          } else {
-            break;
+        long[] longs = new long[timeBatch.length];
+        while (hasMoreData
+            && (count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length)) > 0) {
+          readSelectedValues(
+              longs,
+              selected,
+              selectPoints(timeBatch, count, timeFilter, timeFilterOnly, selected),
+              count);
+          for (int i = 0; i < count && hasMoreData; i++) {
+            long timestamp = timeBatch[i];
+            if (!selected[i]
+                || (!timeFilterOnly && !recordFilter.satisfyLong(timestamp, longs[i]))) {
+              continue;
+            }
+            if (paginationController.hasCurOffset()) {
+              paginationController.consumeOffset();
+              continue;
+            }
+            if (paginationController.hasCurLimit()) {
+              timeBuilder.writeLong(timestamp);
+              valueBuilder.writeLong(longs[i]);
+              builder.declarePosition();
+              paginationController.consumeLimit();
+            } else {
+              hasMoreData = false;
+            }
           }
         }
         break;
       case FLOAT:
-        while (timeDecoder.hasNext(timeBuffer)) {
-          long timestamp = timeDecoder.readLong(timeBuffer);
-          float aFloat = valueDecoder.readFloat(valueBuffer);
-          if (isDeleted(timestamp)
-              || (!allSatisfy && !recordFilter.satisfyFloat(timestamp, aFloat))) {
-            continue;
-          }
-          if (paginationController.hasCurOffset()) {
-            paginationController.consumeOffset();
-            continue;
-          }
-          if (paginationController.hasCurLimit()) {
-            timeBuilder.writeLong(timestamp);
-            valueBuilder.writeFloat(aFloat);
-            builder.declarePosition();
-            paginationController.consumeLimit();
-          } else {
-            break;
+        float[] floats = new float[timeBatch.length];
+        while (hasMoreData
+            && (count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length)) > 0) {
+          readSelectedValues(
+              floats,
+              selected,
+              selectPoints(timeBatch, count, timeFilter, timeFilterOnly, selected),
+              count);
+          for (int i = 0; i < count && hasMoreData; i++) {
+            long timestamp = timeBatch[i];
+            if (!selected[i]
+                || (!timeFilterOnly && !recordFilter.satisfyFloat(timestamp, floats[i]))) {
+              continue;
+            }
+            if (paginationController.hasCurOffset()) {
+              paginationController.consumeOffset();
+              continue;
+            }
+            if (paginationController.hasCurLimit()) {
+              timeBuilder.writeLong(timestamp);
+              valueBuilder.writeFloat(floats[i]);
+              builder.declarePosition();
+              paginationController.consumeLimit();
+            } else {
+              hasMoreData = false;
+            }
           }
         }
         break;
       case DOUBLE:
-        while (timeDecoder.hasNext(timeBuffer)) {
-          long timestamp = timeDecoder.readLong(timeBuffer);
-          double aDouble = valueDecoder.readDouble(valueBuffer);
-          if (isDeleted(timestamp)
-              || (!allSatisfy && !recordFilter.satisfyDouble(timestamp, aDouble))) {
-            continue;
-          }
-          if (paginationController.hasCurOffset()) {
-            paginationController.consumeOffset();
-            continue;
-          }
-          if (paginationController.hasCurLimit()) {
-            timeBuilder.writeLong(timestamp);
-            valueBuilder.writeDouble(aDouble);
-            builder.declarePosition();
-            paginationController.consumeLimit();
-          } else {
-            break;
+        double[] doubles = new double[timeBatch.length];
+        while (hasMoreData
+            && (count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length)) > 0) {
+          readSelectedValues(
+              doubles,
+              selected,
+              selectPoints(timeBatch, count, timeFilter, timeFilterOnly, selected),
+              count);
+          for (int i = 0; i < count && hasMoreData; i++) {
+            long timestamp = timeBatch[i];
+            if (!selected[i]
+                || (!timeFilterOnly && !recordFilter.satisfyDouble(timestamp, doubles[i]))) {
+              continue;
+            }
+            if (paginationController.hasCurOffset()) {
+              paginationController.consumeOffset();
+              continue;
+            }
+            if (paginationController.hasCurLimit()) {
+              timeBuilder.writeLong(timestamp);
+              valueBuilder.writeDouble(doubles[i]);
+              builder.declarePosition();
+              paginationController.consumeLimit();
+            } else {
+              hasMoreData = false;
+            }
           }
         }
         break;
       case TEXT:
       case BLOB:
       case STRING:
-        while (timeDecoder.hasNext(timeBuffer)) {
-          long timestamp = timeDecoder.readLong(timeBuffer);
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
-          if (isDeleted(timestamp)
-              || (!allSatisfy && !recordFilter.satisfyBinary(timestamp, aBinary))) {
-            continue;
-          }
-          if (paginationController.hasCurOffset()) {
-            paginationController.consumeOffset();
-            continue;
-          }
-          if (paginationController.hasCurLimit()) {
-            timeBuilder.writeLong(timestamp);
-            valueBuilder.writeBinary(aBinary);
-            builder.declarePosition();
-            paginationController.consumeLimit();
-          } else {
-            break;
+        Binary[] binaries = new Binary[timeBatch.length];
+        while (hasMoreData
+            && (count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length)) > 0) {
+          readSelectedValues(
+              binaries,
+              selected,
+              selectPoints(timeBatch, count, timeFilter, timeFilterOnly, selected),
+              count);
+          for (int i = 0; i < count && hasMoreData; i++) {
+            long timestamp = timeBatch[i];
+            if (!selected[i]
+                || (!timeFilterOnly && !recordFilter.satisfyBinary(timestamp, binaries[i]))) {
+              continue;
+            }
+            if (paginationController.hasCurOffset()) {
+              paginationController.consumeOffset();
+              continue;
+            }
+            if (paginationController.hasCurLimit()) {
+              timeBuilder.writeLong(timestamp);
+              valueBuilder.writeBinary(binaries[i]);
+              builder.declarePosition();
+              paginationController.consumeLimit();
+            } else {
+              hasMoreData = false;
+            }
           }
         }
         break;
       default:
         throw new UnSupportedDataTypeException(String.valueOf(dataType));
     }
+    releasePageDataIfDecoded();
     return builder.build();
   }
 
+  /**
+   * Reads the values of a page encoded by a chunk dictionary as ids into a {@link
+   * DictionaryColumn}, the value filters are evaluated once for each entry of the dictionary.
+   */
+  private TsBlock getAllSatisfiedDictionaryData(
+      int expectedEntries,
+      long[] timeBatch,
+      boolean[] selected,
+      Filter timeFilter,
+      boolean timeFilterOnly)
+      throws IOException {
+    Binary[] dictionary = ((ChunkDictionaryDecoder) valueDecoder).getDictionary();
+    DictionaryFilter dictionaryFilter =
+        timeFilterOnly ? null : new DictionaryFilter(recordFilter, dictionary);
+    long[] times = new long[Math.max(1, expectedEntries)];
+    int[] resultIds = new int[times.length];
+    int positionCount = 0;
+    int[] ids = new int[timeBatch.length];
+    boolean hasMoreData = true;
+    int count;
+    while (hasMoreData
+        && (count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length)) > 0) {
+      readSelectedValues(
+          ids,
+          selected,
+          selectPoints(timeBatch, count, timeFilter, timeFilterOnly, selected),
+          count);
+      for (int i = 0; i < count && hasMoreData; i++) {
+        long timestamp = timeBatch[i];
+        if (!selected[i] || (!timeFilterOnly && !dictionaryFilter.satisfy(timestamp, ids[i]))) {
+          continue;
+        }
+        if (paginationController.hasCurOffset()) {
+          paginationController.consumeOffset();
+          continue;
+        }
+        if (paginationController.hasCurLimit()) {
+          if (positionCount == times.length) {
+            times = Arrays.copyOf(times, positionCount * 2);
+            resultIds = Arrays.copyOf(resultIds, positionCount * 2);
+          }
+          times[positionCount] = timestamp;
+          resultIds[positionCount] = ids[i];
+          positionCount++;
+          paginationController.consumeLimit();
+        } else {
+          hasMoreData = false;
+        }
+      }
+    }
+    return new TsBlock(
+        positionCount,
+        new TimeColumn(positionCount, times),
+        new DictionaryColumn(positionCount, Optional.empty(), resultIds, dictionary));
+  }
+
   @Override
   public Statistics<? extends Serializable> getStatistics() {
     return pageHeader.getStatistics();
@@ -430,4 +753,44 @@ public class PageReader implements IPageReader {
     }
     return false;
   }
+
+  /**
+   * Evaluates a record filter against the ids of a dictionary. If the filter only depends on values
+   * apart from its time part, which is checked before, it is evaluated once for each entry of the
+   * dictionary that is used, otherwise for each point.
+   */
+  private static class DictionaryFilter {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte SATISFIED = 1;
+    private static final byte NOT_SATISFIED = 2;
+
+    private final Filter recordFilter;
+
+    /** the value part of the record filter, null if the record filter cannot be split */
+    private final Filter valueFilter;
+
+    private final Binary[] dictionary;
+
+    /** the results of the value filter for the entries of the dictionary */
+    private final byte[] entryResults;
+
+    DictionaryFilter(Filter recordFilter, Binary[] dictionary) {
+      this.recordFilter = recordFilter;
+      this.valueFilter = FilterFactory.extractValueFilter(recordFilter);
+      this.dictionary = dictionary;
+      this.entryResults = valueFilter == null ? null : new byte[dictionary.length];
+    }
+
+    boolean satisfy(long time, int id) {
+      if (valueFilter == null) {
+        return recordFilter.satisfyBinary(time, dictionary[id]);
+      }
+      if (entryResults[id] == UNKNOWN) {
+        entryResults[id] =
+            valueFilter.satisfyBinary(time, dictionary[id]) ? SATISFIED : NOT_SATISFIED;
+      }
+      return entryResults[id] == SATISFIED;
+    }
+  }
 }
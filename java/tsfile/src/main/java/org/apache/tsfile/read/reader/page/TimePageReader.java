@@ -26,11 +26,13 @@ import org.apache.tsfile.read.common.TimeRange;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class TimePageReader {
 
+  private static final int INITIAL_TIME_BATCH_SIZE = 1024;
+
   private final PageHeader pageHeader;
 
   /** decoder for time column */
@@ -64,10 +66,7 @@ public class TimePageReader {
 
   public long[] nextTimeBatch() throws IOException {
     long[] timeBatch = new long[(int) pageHeader.getStatistics().getCount()];
-    int index = 0;
-    while (timeDecoder.hasNext(timeBuffer)) {
-      timeBatch[index++] = timeDecoder.readLong(timeBuffer);
-    }
+    timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length);
     return timeBatch;
   }
 
@@ -79,11 +78,13 @@ public class TimePageReader {
     if (pageHeader.getStatistics() != null) {
       return nextTimeBatch();
     } else {
-      List<Long> timeList = new ArrayList<>();
-      while (timeDecoder.hasNext(timeBuffer)) {
-        timeList.add(timeDecoder.readLong(timeBuffer));
+      long[] timeBatch = new long[INITIAL_TIME_BATCH_SIZE];
+      int size = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length);
+      while (size == timeBatch.length) {
+        timeBatch = Arrays.copyOf(timeBatch, size * 2);
+        size += timeDecoder.readLongs(timeBuffer, timeBatch, size, timeBatch.length - size);
       }
-      return timeList.stream().mapToLong(t -> t).toArray();
+      return size == timeBatch.length ? timeBatch : Arrays.copyOf(timeBatch, size);
     }
   }
 
@@ -21,6 +21,7 @@ package org.apache.tsfile.read.reader.page;
 
 import org.apache.tsfile.block.column.ColumnBuilder;
 import org.apache.tsfile.encoding.decoder.Decoder;
+import org.apache.tsfile.encoding.kernel.DecodeKernels;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.header.PageHeader;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
@@ -64,6 +65,14 @@ public class ValuePageReader {
 
   private LazyLoadPageData lazyLoadPageData;
 
+  // values of the non-null rows decoded in bulk, only the array of dataType is used
+  private boolean[] booleanValues;
+  private int[] intValues;
+  private long[] longValues;
+  private float[] floatValues;
+  private double[] doubleValues;
+  private Binary[] binaryValues;
+
   public ValuePageReader(
       PageHeader pageHeader, ByteBuffer pageData, TSDataType dataType, Decoder valueDecoder) {
     this.dataType = dataType;
@@ -114,6 +123,8 @@ public class ValuePageReader {
       throws IOException {
     uncompressDataIfNecessary();
     BatchData pageData = BatchDataFactory.createBatchData(dataType, ascending, false);
+    decodeValues(countNonNullValues(0, timeBatch.length));
+    int valueIndex = 0;
     for (int i = 0; i < timeBatch.length; i++) {
       if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
         continue;
@@ -121,7 +132,7 @@ public class ValuePageReader {
       long timestamp = timeBatch[i];
       switch (dataType) {
         case BOOLEAN:
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+          boolean aBoolean = booleanValues[valueIndex++];
           if (!isDeleted(timestamp)
               && (filter == null || filter.satisfyBoolean(timestamp, aBoolean))) {
             pageData.putBoolean(timestamp, aBoolean);
@@ -129,7 +140,7 @@ public class ValuePageReader {
           break;
         case INT32:
         case DATE:
-          int anInt = valueDecoder.readInt(valueBuffer);
+          int anInt = intValues[valueIndex++];
           if (!isDeleted(timestamp)
               && (filter == null || filter.satisfyInteger(timestamp, anInt))) {
             pageData.putInt(timestamp, anInt);
@@ -137,19 +148,19 @@ public class ValuePageReader {
           break;
         case INT64:
         case TIMESTAMP:
-          long aLong = valueDecoder.readLong(valueBuffer);
+          long aLong = longValues[valueIndex++];
           if (!isDeleted(timestamp) && (filter == null || filter.satisfyLong(timestamp, aLong))) {
             pageData.putLong(timestamp, aLong);
           }
           break;
         case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
+          float aFloat = floatValues[valueIndex++];
           if (!isDeleted(timestamp) && (filter == null || filter.satisfyFloat(timestamp, aFloat))) {
             pageData.putFloat(timestamp, aFloat);
           }
           break;
         case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
+          double aDouble = doubleValues[valueIndex++];
           if (!isDeleted(timestamp)
               && (filter == null || filter.satisfyDouble(timestamp, aDouble))) {
             pageData.putDouble(timestamp, aDouble);
@@ -158,7 +169,7 @@ public class ValuePageReader {
         case TEXT:
         case BLOB:
         case STRING:
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          Binary aBinary = binaryValues[valueIndex++];
           if (!isDeleted(timestamp)
               && (filter == null || filter.satisfyBinary(timestamp, aBinary))) {
             pageData.putBinary(timestamp, aBinary);
@@ -235,39 +246,41 @@ public class ValuePageReader {
     if (valueBuffer == null) {
       return valueBatch;
     }
+    decodeValues(countNonNullValues(0, size));
+    int valueIndex = 0;
     for (int i = 0; i < size; i++) {
       if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
         continue;
       }
       switch (dataType) {
         case BOOLEAN:
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+          boolean aBoolean = booleanValues[valueIndex++];
           if (!isDeleted(timeBatch[i])) {
             valueBatch[i] = new TsPrimitiveType.TsBoolean(aBoolean);
           }
           break;
         case INT32:
         case DATE:
-          int anInt = valueDecoder.readInt(valueBuffer);
+          int anInt = intValues[valueIndex++];
           if (!isDeleted(timeBatch[i])) {
             valueBatch[i] = new TsPrimitiveType.TsInt(anInt);
           }
           break;
         case INT64:
         case TIMESTAMP:
-          long aLong = valueDecoder.readLong(valueBuffer);
+          long aLong = longValues[valueIndex++];
           if (!isDeleted(timeBatch[i])) {
             valueBatch[i] = new TsPrimitiveType.TsLong(aLong);
           }
           break;
         case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
+          float aFloat = floatValues[valueIndex++];
           if (!isDeleted(timeBatch[i])) {
             valueBatch[i] = new TsPrimitiveType.TsFloat(aFloat);
           }
           break;
         case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
+          double aDouble = doubleValues[valueIndex++];
           if (!isDeleted(timeBatch[i])) {
             valueBatch[i] = new TsPrimitiveType.TsDouble(aDouble);
           }
@@ -275,7 +288,7 @@ public class ValuePageReader {
         case TEXT:
         case BLOB:
         case STRING:
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          Binary aBinary = binaryValues[valueIndex++];
           if (!isDeleted(timeBatch[i])) {
             valueBatch[i] = new TsPrimitiveType.TsBinary(aBinary);
           }
@@ -299,6 +312,8 @@ public class ValuePageReader {
       }
       return;
     }
+    decodeValues(readEndIndex, keepCurrentRow);
+    int valueIndex = 0;
     for (int i = 0; i < readEndIndex; i++) {
       if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
         if (keepCurrentRow[i]) {
@@ -308,7 +323,7 @@ public class ValuePageReader {
       }
       switch (dataType) {
         case BOOLEAN:
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+          boolean aBoolean = booleanValues[valueIndex++];
           if (keepCurrentRow[i]) {
             if (isDeleted[i]) {
               columnBuilder.appendNull();
@@ -319,7 +334,7 @@ public class ValuePageReader {
           break;
         case INT32:
         case DATE:
-          int anInt = valueDecoder.readInt(valueBuffer);
+          int anInt = intValues[valueIndex++];
           if (keepCurrentRow[i]) {
             if (isDeleted[i]) {
               columnBuilder.appendNull();
@@ -330,7 +345,7 @@ public class ValuePageReader {
           break;
         case INT64:
         case TIMESTAMP:
-          long aLong = valueDecoder.readLong(valueBuffer);
+          long aLong = longValues[valueIndex++];
           if (keepCurrentRow[i]) {
             if (isDeleted[i]) {
               columnBuilder.appendNull();
@@ -340,7 +355,7 @@ public class ValuePageReader {
           }
           break;
         case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
+          float aFloat = floatValues[valueIndex++];
           if (keepCurrentRow[i]) {
             if (isDeleted[i]) {
               columnBuilder.appendNull();
@@ -350,7 +365,7 @@ public class ValuePageReader {
           }
           break;
         case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
+          double aDouble = doubleValues[valueIndex++];
           if (keepCurrentRow[i]) {
             if (isDeleted[i]) {
               columnBuilder.appendNull();
@@ -362,7 +377,7 @@ public class ValuePageReader {
         case TEXT:
         case BLOB:
         case STRING:
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          Binary aBinary = binaryValues[valueIndex++];
           if (keepCurrentRow[i]) {
             if (isDeleted[i]) {
               columnBuilder.appendNull();
@@ -388,6 +403,8 @@ public class ValuePageReader {
       }
       return;
     }
+    decodeValues(readEndIndex, keepCurrentRow);
+    int valueIndex = 0;
     for (int i = 0; i < readEndIndex; i++) {
       if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
         if (keepCurrentRow[i]) {
@@ -397,33 +414,33 @@ public class ValuePageReader {
       }
       switch (dataType) {
         case BOOLEAN:
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+          boolean aBoolean = booleanValues[valueIndex++];
           if (keepCurrentRow[i]) {
             columnBuilder.writeBoolean(aBoolean);
           }
           break;
         case INT32:
         case DATE:
-          int anInt = valueDecoder.readInt(valueBuffer);
+          int anInt = intValues[valueIndex++];
           if (keepCurrentRow[i]) {
             columnBuilder.writeInt(anInt);
           }
           break;
         case INT64:
         case TIMESTAMP:
-          long aLong = valueDecoder.readLong(valueBuffer);
+          long aLong = longValues[valueIndex++];
           if (keepCurrentRow[i]) {
             columnBuilder.writeLong(aLong);
           }
           break;
         case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
+          float aFloat = floatValues[valueIndex++];
           if (keepCurrentRow[i]) {
             columnBuilder.writeFloat(aFloat);
           }
           break;
         case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
+          double aDouble = doubleValues[valueIndex++];
           if (keepCurrentRow[i]) {
             columnBuilder.writeDouble(aDouble);
           }
@@ -431,7 +448,7 @@ public class ValuePageReader {
         case TEXT:
         case BLOB:
         case STRING:
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          Binary aBinary = binaryValues[valueIndex++];
           if (keepCurrentRow[i]) {
             columnBuilder.writeBinary(aBinary);
           }
@@ -449,117 +466,72 @@ public class ValuePageReader {
       columnBuilder.appendNull(readEndIndex - readStartIndex);
       return;
     }
+    decodeValues(countNonNullValues(0, readEndIndex));
+    // skip useless data
+    int valueIndex = countNonNullValues(0, readStartIndex);
 
     switch (dataType) {
       case BOOLEAN:
-        // skip useless data
-        for (int i = 0; i < readStartIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            continue;
-          }
-          valueDecoder.readBoolean(valueBuffer);
-        }
-
         for (int i = readStartIndex; i < readEndIndex; i++) {
           if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
             columnBuilder.appendNull();
             continue;
           }
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+          boolean aBoolean = booleanValues[valueIndex++];
           columnBuilder.writeBoolean(aBoolean);
         }
         break;
       case INT32:
       case DATE:
-        // skip useless data
-        for (int i = 0; i < readStartIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            continue;
-          }
-          valueDecoder.readInt(valueBuffer);
-        }
-
         for (int i = readStartIndex; i < readEndIndex; i++) {
           if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
             columnBuilder.appendNull();
             continue;
           }
-          int aInt = valueDecoder.readInt(valueBuffer);
+          int aInt = intValues[valueIndex++];
           columnBuilder.writeInt(aInt);
         }
         break;
       case INT64:
       case TIMESTAMP:
-        // skip useless data
-        for (int i = 0; i < readStartIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            continue;
-          }
-          valueDecoder.readLong(valueBuffer);
-        }
-
         for (int i = readStartIndex; i < readEndIndex; i++) {
           if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
             columnBuilder.appendNull();
             continue;
           }
-          long aLong = valueDecoder.readLong(valueBuffer);
+          long aLong = longValues[valueIndex++];
           columnBuilder.writeLong(aLong);
         }
         break;
       case FLOAT:
-        // skip useless data
-        for (int i = 0; i < readStartIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            continue;
-          }
-          valueDecoder.readFloat(valueBuffer);
-        }
-
         for (int i = readStartIndex; i < readEndIndex; i++) {
           if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
             columnBuilder.appendNull();
             continue;
           }
-          float aFloat = valueDecoder.readFloat(valueBuffer);
+          float aFloat = floatValues[valueIndex++];
           columnBuilder.writeFloat(aFloat);
         }
         break;
       case DOUBLE:
-        // skip useless data
-        for (int i = 0; i < readStartIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            continue;
-          }
-          valueDecoder.readDouble(valueBuffer);
-        }
-
         for (int i = readStartIndex; i < readEndIndex; i++) {
           if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
             columnBuilder.appendNull();
             continue;
           }
-          double aDouble = valueDecoder.readDouble(valueBuffer);
+          double aDouble = doubleValues[valueIndex++];
           columnBuilder.writeDouble(aDouble);
         }
         break;
       case TEXT:
       case BLOB:
       case STRING:
-        // skip useless data
-        for (int i = 0; i < readStartIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            continue;
-          }
-          valueDecoder.readBinary(valueBuffer);
-        }
-
         for (int i = readStartIndex; i < readEndIndex; i++) {
           if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
             columnBuilder.appendNull();
             continue;
           }
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          Binary aBinary = binaryValues[valueIndex++];
           columnBuilder.writeBinary(aBinary);
         }
         break;
@@ -568,6 +540,161 @@ public class ValuePageReader {
     }
   }
 
+  /** Returns the number of non-null values in the rows between startIndex and endIndex. */
+  private int countNonNullValues(int startIndex, int endIndex) {
+    return DecodeKernels.getKernel().countSetBits(bitmap, startIndex, endIndex);
+  }
+
+  /**
+   * Decodes the values of the rows before readEndIndex that are kept and returns them indexed by
+   * row, so that a filter can be evaluated before the other columns are decoded. The values of the
+   * null, deleted and not kept rows are null. This reader is then done with these rows, like after
+   * a writeColumnBuilderWithNextBatch call.
+   *
+   * @param isDeleted whether the value of each row is deleted, null if the page is not modified
+   */
+  public Object[] nextRowValues(int readEndIndex, boolean[] keepCurrentRow, boolean[] isDeleted)
+      throws IOException {
+    uncompressDataIfNecessary();
+    Object[] rowValues = new Object[readEndIndex];
+    if (valueBuffer == null) {
+      return rowValues;
+    }
+    decodeValues(readEndIndex, keepCurrentRow);
+    int valueIndex = 0;
+    for (int i = 0; i < readEndIndex; i++) {
+      if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
+        continue;
+      }
+      if (keepCurrentRow[i] && (isDeleted == null || !isDeleted[i])) {
+        rowValues[i] = getDecodedValue(valueIndex);
+      }
+      valueIndex++;
+    }
+    return rowValues;
+  }
+
+  private Object getDecodedValue(int valueIndex) {
+    switch (dataType) {
+      case BOOLEAN:
+        return booleanValues[valueIndex];
+      case INT32:
+      case DATE:
+        return intValues[valueIndex];
+      case INT64:
+      case TIMESTAMP:
+        return longValues[valueIndex];
+      case FLOAT:
+        return floatValues[valueIndex];
+      case DOUBLE:
+        return doubleValues[valueIndex];
+      case TEXT:
+      case BLOB:
+      case STRING:
+        return binaryValues[valueIndex];
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  /** Decodes the next valueCount values in bulk into the value array of the data type. */
+  private void decodeValues(int valueCount) throws IOException {
+    allocateValues(valueCount);
+    readValues(0, valueCount);
+  }
+
+  /**
+   * Decodes the values of the kept rows before readEndIndex into their slots of the value array,
+   * the values of the rows that are not kept are skipped without being decoded.
+   */
+  private void decodeValues(int readEndIndex, boolean[] keepCurrentRow) throws IOException {
+    allocateValues(countNonNullValues(0, readEndIndex));
+    int valueIndex = 0;
+    int runStart = 0;
+    boolean runKept = true;
+    for (int i = 0; i < readEndIndex; i++) {
+      if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
+        continue;
+      }
+      if (keepCurrentRow[i] != runKept) {
+        decodeOrSkipValues(runStart, valueIndex - runStart, runKept);
+        runStart = valueIndex;
+        runKept = keepCurrentRow[i];
+      }
+      valueIndex++;
+    }
+    decodeOrSkipValues(runStart, valueIndex - runStart, runKept);
+  }
+
+  private void decodeOrSkipValues(int offset, int length, boolean decode) throws IOException {
+    if (length == 0) {
+      return;
+    }
+    if (decode) {
+      readValues(offset, length);
+    } else {
+      valueDecoder.skip(valueBuffer, dataType, length);
+    }
+  }
+
+  private void allocateValues(int valueCount) {
+    switch (dataType) {
+      case BOOLEAN:
+        booleanValues = new boolean[valueCount];
+        break;
+      case INT32:
+      case DATE:
+        intValues = new int[valueCount];
+        break;
+      case INT64:
+      case TIMESTAMP:
+        longValues = new long[valueCount];
+        break;
+      case FLOAT:
+        floatValues = new float[valueCount];
+        break;
+      case DOUBLE:
+        doubleValues = new double[valueCount];
+        break;
+      case TEXT:
+      case BLOB:
+      case STRING:
+        binaryValues = new Binary[valueCount];
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  private void readValues(int offset, int length) throws IOException {
+    switch (dataType) {
+      case BOOLEAN:
+        valueDecoder.readBooleans(valueBuffer, booleanValues, offset, length);
+        break;
+      case INT32:
+      case DATE:
+        valueDecoder.readInts(valueBuffer, intValues, offset, length);
+        break;
+      case INT64:
+      case TIMESTAMP:
+        valueDecoder.readLongs(valueBuffer, longValues, offset, length);
+        break;
+      case FLOAT:
+        valueDecoder.readFloats(valueBuffer, floatValues, offset, length);
+        break;
+      case DOUBLE:
+        valueDecoder.readDoubles(valueBuffer, doubleValues, offset, length);
+        break;
+      case TEXT:
+      case BLOB:
+      case STRING:
+        valueDecoder.readBinaries(valueBuffer, binaryValues, offset, length);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
   public Statistics<? extends Serializable> getStatistics() {
     return pageHeader.getStatistics();
   }
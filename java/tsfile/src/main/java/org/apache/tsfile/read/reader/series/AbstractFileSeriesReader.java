@@ -19,8 +19,13 @@
 
 package org.apache.tsfile.read.reader.series;
 
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.file.metadata.AlignedChunkMetadata;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
 import org.apache.tsfile.read.common.BatchData;
+import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.read.controller.IChunkLoader;
 import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.read.reader.IBatchReader;
@@ -28,6 +33,7 @@ import org.apache.tsfile.read.reader.IChunkReader;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /** Series reader is used to query one series of one tsfile. */
@@ -41,6 +47,12 @@ public abstract class AbstractFileSeriesReader implements IBatchReader {
 
   protected Filter filter;
 
+  /** loads the upcoming chunks in the background, null if chunk prefetch is disabled */
+  private ChunkPrefetcher chunkPrefetcher;
+
+  /** index of the next chunk to be considered for prefetch */
+  private int chunkToPrefetch;
+
   /** constructor of FileSeriesReader. */
   protected AbstractFileSeriesReader(
       IChunkLoader chunkLoader, List<IChunkMetadata> chunkMetadataList, Filter filter) {
@@ -48,6 +60,14 @@ public abstract class AbstractFileSeriesReader implements IBatchReader {
     this.chunkMetadataList = chunkMetadataList;
     this.filter = filter;
     this.chunkToRead = 0;
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    if (chunkLoader != null && config.getChunkPrefetchDepth() > 0) {
+      this.chunkPrefetcher =
+          new ChunkPrefetcher(
+              chunkLoader,
+              config.getChunkPrefetchDepth(),
+              config.getChunkPrefetchMemoryBudgetInByte());
+    }
   }
 
   @Override
@@ -83,10 +103,57 @@ public abstract class AbstractFileSeriesReader implements IBatchReader {
 
   protected abstract void initChunkReader(IChunkMetadata chunkMetaData) throws IOException;
 
+  /**
+   * Load the chunks of the given metadata, i.e. the chunk of a non-aligned series, or the time
+   * chunk followed by the value chunks of an aligned series. The chunks are taken from the
+   * prefetcher if chunk prefetch is enabled, and the following chunks are prefetched meanwhile.
+   */
+  protected List<Chunk> loadChunks(IChunkMetadata chunkMetaData) throws IOException {
+    if (chunkPrefetcher == null) {
+      return loadChunks(chunkLoader, chunkMetaData);
+    }
+    // issue the loads of the following chunks before waiting for the current one
+    prefetchChunks();
+    List<Chunk> chunks = chunkPrefetcher.take(chunkMetaData);
+    prefetchChunks();
+    return chunks;
+  }
+
+  private void prefetchChunks() {
+    chunkToPrefetch = Math.max(chunkToPrefetch, chunkToRead - 1);
+    while (chunkToPrefetch < chunkMetadataList.size() && chunkPrefetcher.canPrefetch()) {
+      IChunkMetadata chunkMetaData = chunkMetadataList.get(chunkToPrefetch++);
+      if (!chunkCanSkip(chunkMetaData)) {
+        chunkPrefetcher.prefetch(chunkMetaData);
+      }
+    }
+  }
+
+  static List<Chunk> loadChunks(IChunkLoader chunkLoader, IChunkMetadata chunkMetaData)
+      throws IOException {
+    if (chunkMetaData instanceof ChunkMetadata) {
+      return Collections.singletonList(chunkLoader.loadChunk((ChunkMetadata) chunkMetaData));
+    }
+    AlignedChunkMetadata alignedChunkMetadata = (AlignedChunkMetadata) chunkMetaData;
+    // load the time chunk and the value chunks together, they are usually adjacent in the file
+    List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+    chunkMetadataList.add((ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata());
+    for (IChunkMetadata metadata : alignedChunkMetadata.getValueChunkMetadataList()) {
+      chunkMetadataList.add((ChunkMetadata) metadata);
+    }
+    return chunkLoader.loadChunks(chunkMetadataList);
+  }
+
   protected abstract boolean chunkCanSkip(IChunkMetadata chunkMetaData);
 
   @Override
   public void close() throws IOException {
+    if (chunkReader != null) {
+      chunkReader.close();
+    }
+    if (chunkPrefetcher != null) {
+      chunkPrefetcher.close();
+    }
     chunkLoader.close();
   }
 
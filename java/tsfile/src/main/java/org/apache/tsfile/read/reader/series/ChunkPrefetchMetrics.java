@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.reader.series;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Process-wide counters of the chunk prefetch of all series readers. */
+public class ChunkPrefetchMetrics {
+
+  /** number of chunks loaded in the background */
+  private final AtomicLong prefetchedChunkNum = new AtomicLong();
+
+  /** number of times a reader found the chunk it needed already loaded */
+  private final AtomicLong readyNum = new AtomicLong();
+
+  /** number of times a reader had to wait for a chunk that was still being loaded */
+  private final AtomicLong stallNum = new AtomicLong();
+
+  /** total time readers spent waiting for chunks being loaded */
+  private final AtomicLong stallTimeInNanos = new AtomicLong();
+
+  private ChunkPrefetchMetrics() {}
+
+  public static ChunkPrefetchMetrics getInstance() {
+    return ChunkPrefetchMetricsHolder.INSTANCE;
+  }
+
+  void recordPrefetch(int chunkNum) {
+    prefetchedChunkNum.addAndGet(chunkNum);
+  }
+
+  void recordReady() {
+    readyNum.incrementAndGet();
+  }
+
+  void recordStall(long timeInNanos) {
+    stallNum.incrementAndGet();
+    stallTimeInNanos.addAndGet(timeInNanos);
+  }
+
+  public long getPrefetchedChunkNum() {
+    return prefetchedChunkNum.get();
+  }
+
+  public long getReadyNum() {
+    return readyNum.get();
+  }
+
+  public long getStallNum() {
+    return stallNum.get();
+  }
+
+  public long getStallTimeInNanos() {
+    return stallTimeInNanos.get();
+  }
+
+  public void reset() {
+    prefetchedChunkNum.set(0);
+    readyNum.set(0);
+    stallNum.set(0);
+    stallTimeInNanos.set(0);
+  }
+
+  @Override
+  public String toString() {
+    return "ChunkPrefetchMetrics{"
+        + "prefetchedChunkNum="
+        + prefetchedChunkNum
+        + ", readyNum="
+        + readyNum
+        + ", stallNum="
+        + stallNum
+        + ", stallTimeInNanos="
+        + stallTimeInNanos
+        + '}';
+  }
+
+  private static class ChunkPrefetchMetricsHolder {
+
+    private static final ChunkPrefetchMetrics INSTANCE = new ChunkPrefetchMetrics();
+
+    private ChunkPrefetchMetricsHolder() {}
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.reader.series;
+
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.controller.IChunkLoader;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the upcoming chunks of a series reader in the background, so that the disk I/O of the next
+ * chunks overlaps with the decoding of the current one.
+ *
+ * <p>The loads run on an I/O executor shared by all the prefetchers. A prefetcher keeps at most
+ * {@code depth} chunks in its look-ahead queue, and stops issuing new loads once the chunks it has
+ * issued but not handed out exceed {@code memoryBudgetInByte}. The size of a chunk is unknown until
+ * it is loaded, so the size of the last loaded chunks is reserved for a load when it is issued, and
+ * corrected when it completes. This class is not thread safe, it is only used by the thread of its
+ * series reader.
+ */
+class ChunkPrefetcher {
+
+  private static final long KEEP_ALIVE_TIME_IN_SECONDS = 60;
+
+  private static volatile ThreadPoolExecutor ioExecutor;
+
+  private final IChunkLoader chunkLoader;
+  private final int depth;
+  private final long memoryBudgetInByte;
+
+  private final Queue<PrefetchTask> prefetchQueue = new ArrayDeque<>();
+
+  /** size reserved by the chunks that are being loaded or have been loaded but not taken */
+  private final AtomicLong reservedSizeInByte = new AtomicLong();
+
+  /** size reserved for a new load, which is the size of the last loaded chunks */
+  private volatile long estimatedSizeInByte;
+
+  ChunkPrefetcher(IChunkLoader chunkLoader, int depth, long memoryBudgetInByte) {
+    this.chunkLoader = chunkLoader;
+    this.depth = depth;
+    this.memoryBudgetInByte = memoryBudgetInByte;
+    this.estimatedSizeInByte = memoryBudgetInByte / Math.max(depth, 1);
+  }
+
+  /** Whether another chunk can be prefetched without exceeding the depth or the memory budget. */
+  boolean canPrefetch() {
+    return prefetchQueue.size() < depth && reservedSizeInByte.get() < memoryBudgetInByte;
+  }
+
+  /** Starts to load the chunks of the given metadata in the background. */
+  void prefetch(IChunkMetadata chunkMetadata) {
+    PrefetchTask task = new PrefetchTask(chunkMetadata);
+    reserve(task, estimatedSizeInByte);
+    task.future = getIoExecutor().submit(() -> load(task));
+    prefetchQueue.add(task);
+  }
+
+  private List<Chunk> load(PrefetchTask task) throws IOException {
+    synchronized (task) {
+      if (task.released) {
+        // dropped before the load starts
+        return Collections.emptyList();
+      }
+      task.loading = true;
+    }
+    try {
+      List<Chunk> chunks = AbstractFileSeriesReader.loadChunks(chunkLoader, task.chunkMetadata);
+      long sizeInByte = 0;
+      for (Chunk chunk : chunks) {
+        if (chunk != null) {
+          sizeInByte += chunk.getRetainedSizeInBytes();
+        }
+      }
+      estimatedSizeInByte = sizeInByte;
+      reserve(task, sizeInByte);
+      ChunkPrefetchMetrics.getInstance().recordPrefetch(chunks.size());
+      return chunks;
+    } finally {
+      synchronized (task) {
+        task.loading = false;
+        task.notifyAll();
+      }
+    }
+  }
+
+  /** Sets the size reserved by the task, unless the task has been released. */
+  private void reserve(PrefetchTask task, long sizeInByte) {
+    synchronized (task) {
+      if (!task.released) {
+        reservedSizeInByte.addAndGet(sizeInByte - task.sizeInByte);
+        task.sizeInByte = sizeInByte;
+      }
+    }
+  }
+
+  /** Gives back the size reserved by the task, a load completing after it reserves nothing. */
+  private void release(PrefetchTask task) {
+    synchronized (task) {
+      if (!task.released) {
+        task.released = true;
+        reservedSizeInByte.addAndGet(-task.sizeInByte);
+      }
+    }
+  }
+
+  /**
+   * Gets the chunks of the given metadata, waiting for them if they are still being loaded. The
+   * chunks are loaded in the current thread if they have not been prefetched.
+   *
+   * <p>The reader may not take the chunks in the order they were prefetched, e.g. it skips the
+   * chunks whose pages turn out to be filtered out. The prefetched chunks before the requested one
+   * are then dropped, or all of them if the requested one was never prefetched, so that the queue
+   * follows the reader again and the budget they took is given back.
+   */
+  List<Chunk> take(IChunkMetadata chunkMetadata) throws IOException {
+    boolean prefetched = false;
+    for (PrefetchTask task : prefetchQueue) {
+      if (task.chunkMetadata == chunkMetadata) {
+        prefetched = true;
+        break;
+      }
+    }
+    while (!prefetchQueue.isEmpty()
+        && (!prefetched || prefetchQueue.peek().chunkMetadata != chunkMetadata)) {
+      drop(prefetchQueue.poll());
+    }
+    if (!prefetched) {
+      return AbstractFileSeriesReader.loadChunks(chunkLoader, chunkMetadata);
+    }
+    PrefetchTask task = prefetchQueue.poll();
+
+    ChunkPrefetchMetrics metrics = ChunkPrefetchMetrics.getInstance();
+    try {
+      if (task.future.isDone()) {
+        metrics.recordReady();
+        return task.future.get();
+      }
+      long startTime = System.nanoTime();
+      try {
+        return task.future.get();
+      } finally {
+        metrics.recordStall(System.nanoTime() - startTime);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the prefetched chunk", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Failed to prefetch chunk", e.getCause());
+    } finally {
+      release(task);
+    }
+  }
+
+  /** Gives back the budget of the task, and cancels its load if it has not started. */
+  private void drop(PrefetchTask task) {
+    release(task);
+    // do not interrupt the running loads, which would close the channel of the file reader
+    task.future.cancel(false);
+  }
+
+  /**
+   * Cancels the loads that have not started and drops the prefetched chunks. The running loads are
+   * waited for, so that they do not read from the chunk loader after it is closed.
+   */
+  void close() {
+    PrefetchTask task;
+    while ((task = prefetchQueue.poll()) != null) {
+      drop(task);
+      synchronized (task) {
+        while (task.loading) {
+          try {
+            task.wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+        }
+      }
+    }
+  }
+
+  private static ThreadPoolExecutor getIoExecutor() {
+    if (ioExecutor == null) {
+      synchronized (ChunkPrefetcher.class) {
+        if (ioExecutor == null) {
+          int threadNum = TSFileDescriptor.getInstance().getConfig().getChunkPrefetchThreadNum();
+          AtomicInteger threadIndex = new AtomicInteger();
+          ThreadPoolExecutor executor =
+              new ThreadPoolExecutor(
+                  threadNum,
+                  threadNum,
+                  KEEP_ALIVE_TIME_IN_SECONDS,
+                  TimeUnit.SECONDS,
+                  new LinkedBlockingQueue<>(),
+                  r -> {
+                    Thread thread =
+                        new Thread(r, "TsFile-ChunkPrefetch-" + threadIndex.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                  });
+          executor.allowCoreThreadTimeOut(true);
+          ioExecutor = executor;
+        }
+      }
+    }
+    return ioExecutor;
+  }
+
+  private static class PrefetchTask {
+
+    private final IChunkMetadata chunkMetadata;
+    private Future<List<Chunk>> future;
+
+    /** size reserved by the task, guarded by the task */
+    private long sizeInByte;
+
+    /** whether the reserved size has been given back, guarded by the task */
+    private boolean released;
+
+    /** whether the chunks are being loaded, guarded by the task */
+    private boolean loading;
+
+    private PrefetchTask(IChunkMetadata chunkMetadata) {
+      this.chunkMetadata = chunkMetadata;
+    }
+  }
+}
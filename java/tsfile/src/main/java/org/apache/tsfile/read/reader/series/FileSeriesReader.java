@@ -29,7 +29,6 @@ import org.apache.tsfile.read.reader.chunk.AlignedChunkReader;
 import org.apache.tsfile.read.reader.chunk.ChunkReader;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -46,20 +45,17 @@ public class FileSeriesReader extends AbstractFileSeriesReader {
   @Override
   protected void initChunkReader(IChunkMetadata chunkMetaData) throws IOException {
     currentChunkMeasurementNames.clear();
+    List<Chunk> chunkList = loadChunks(chunkMetaData);
     if (chunkMetaData instanceof ChunkMetadata) {
-      Chunk chunk = chunkLoader.loadChunk((ChunkMetadata) chunkMetaData);
-      this.chunkReader = new ChunkReader(chunk, filter);
+      this.chunkReader = new ChunkReader(chunkList.get(0), filter);
       currentChunkMeasurementNames.add(chunkMetaData.getMeasurementUid());
     } else {
       AlignedChunkMetadata alignedChunkMetadata = (AlignedChunkMetadata) chunkMetaData;
-      Chunk timeChunk =
-          chunkLoader.loadChunk((ChunkMetadata) (alignedChunkMetadata.getTimeChunkMetadata()));
-      List<Chunk> valueChunkList = new ArrayList<>();
       for (IChunkMetadata metadata : alignedChunkMetadata.getValueChunkMetadataList()) {
-        valueChunkList.add(chunkLoader.loadChunk((ChunkMetadata) metadata));
         currentChunkMeasurementNames.add(metadata.getMeasurementUid());
       }
-      this.chunkReader = new AlignedChunkReader(timeChunk, valueChunkList, filter);
+      this.chunkReader =
+          new AlignedChunkReader(chunkList.get(0), chunkList.subList(1, chunkList.size()), filter);
     }
   }
 
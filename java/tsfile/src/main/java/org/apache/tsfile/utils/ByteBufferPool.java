@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.utils;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A pool of heap or direct ByteBuffers grouped by size classes, which are the powers of two between
+ * {@link #MIN_BUFFER_SIZE} and the max pooled buffer size. It is used to hold the decompressed page
+ * data, so that the buffers are reused by the following pages instead of being allocated for each
+ * page.
+ *
+ * <p>A buffer got by {@link #allocate(int)} has the capacity of its size class and its limit set to
+ * the requested size. It should be given back by {@link #release(ByteBuffer)} once it is not
+ * referenced anymore, after that it must not be accessed. The buffers larger than the max pooled
+ * buffer size are not pooled, and the released buffers are dropped if the pool is full.
+ *
+ * <p>The pool only takes back the buffers it has lent, other buffers, e.g. slices or mapped views,
+ * and the buffers released twice are ignored. The lent buffers are weakly referenced, so a buffer
+ * that is never released is simply collected with its reader.
+ */
+public class ByteBufferPool {
+
+  /** the smallest size class, smaller buffers are not worth pooling */
+  public static final int MIN_BUFFER_SIZE = 1024;
+
+  /** the largest size class */
+  public static final int MAX_BUFFER_SIZE = 1 << 30;
+
+  private static final int MIN_SIZE_CLASS = Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+
+  private final LongSupplier capacityInByte;
+  private final int maxBufferSize;
+
+  /** whether the pool holds direct buffers, a pool only takes back the buffers of its own kind */
+  private final boolean direct;
+
+  private final Queue<ByteBuffer>[] sizeClasses;
+
+  /** memory taken by the buffers in the pool */
+  private final AtomicLong retainedSizeInByte = new AtomicLong();
+
+  /** the buffers allocated from the size classes and not released yet */
+  private final Map<LentBuffer, Boolean> lentBuffers = new ConcurrentHashMap<>();
+
+  /** the lent buffers collected without being released */
+  private final ReferenceQueue<ByteBuffer> collectedBuffers = new ReferenceQueue<>();
+
+  /**
+   * @param capacityInByte the max memory taken by the buffers in the pool, 0 means nothing is
+   *     pooled
+   * @param maxBufferSize the largest buffer to be pooled, rounded up to a power of two
+   */
+  public ByteBufferPool(long capacityInByte, int maxBufferSize) {
+    this(capacityInByte, maxBufferSize, false);
+  }
+
+  /**
+   * @param capacityInByte the max memory taken by the buffers in the pool, 0 means nothing is
+   *     pooled
+   * @param maxBufferSize the largest buffer to be pooled, rounded up to a power of two
+   * @param direct whether the pool allocates direct buffers
+   */
+  public ByteBufferPool(long capacityInByte, int maxBufferSize, boolean direct) {
+    this(() -> capacityInByte, maxBufferSize, direct);
+  }
+
+  /**
+   * @param capacityInByte supplies the max memory taken by the buffers in the pool, which is
+   *     checked on each allocation and release
+   */
+  @SuppressWarnings("unchecked")
+  private ByteBufferPool(LongSupplier capacityInByte, int maxBufferSize, boolean direct) {
+    this.capacityInByte = capacityInByte;
+    this.direct = direct;
+    this.maxBufferSize =
+        sizeClassOf(Math.min(Math.max(maxBufferSize, MIN_BUFFER_SIZE), MAX_BUFFER_SIZE));
+    int sizeClassNum = Integer.numberOfTrailingZeros(this.maxBufferSize) - MIN_SIZE_CLASS + 1;
+    this.sizeClasses = new Queue[sizeClassNum];
+    for (int i = 0; i < sizeClassNum; i++) {
+      sizeClasses[i] = new ConcurrentLinkedQueue<>();
+    }
+  }
+
+  /**
+   * The pool of heap buffers, whose capacity follows {@link
+   * TSFileConfig#getBufferPoolSizeInByte()}, so it is disabled unless the size is set.
+   */
+  public static ByteBufferPool getInstance() {
+    return ByteBufferPoolHolder.INSTANCE;
+  }
+
+  /**
+   * The pool of direct buffers, which hold the page data uncompressed from direct memory, e.g. a
+   * memory mapped file, so that the page data never crosses into the heap before it is decoded. It
+   * has the same capacity as the pool of heap buffers.
+   */
+  public static ByteBufferPool getDirectInstance() {
+    return DirectByteBufferPoolHolder.INSTANCE;
+  }
+
+  public boolean isDirect() {
+    return direct;
+  }
+
+  /**
+   * Get a buffer whose limit is the given size, its content is undefined.
+   *
+   * @param size the size needed
+   */
+  public ByteBuffer allocate(int size) {
+    if (capacityInByte.getAsLong() <= 0 || size > maxBufferSize) {
+      return newBuffer(size);
+    }
+    int bufferSize = sizeClassOf(size);
+    ByteBuffer buffer = sizeClasses[indexOf(bufferSize)].poll();
+    if (buffer == null) {
+      buffer = newBuffer(bufferSize);
+    } else {
+      retainedSizeInByte.addAndGet(-bufferSize);
+    }
+    buffer.clear();
+    buffer.limit(size);
+    removeCollectedBuffers();
+    lentBuffers.put(new LentBuffer(buffer, collectedBuffers), Boolean.TRUE);
+    return buffer;
+  }
+
+  /**
+   * Give back a buffer got by {@link #allocate(int)}.
+   *
+   * @return whether the buffer is put into the pool
+   */
+  public boolean release(ByteBuffer buffer) {
+    if (lentBuffers.remove(new LentBuffer(buffer, null)) == null) {
+      // not lent by this pool, or released already
+      return false;
+    }
+    int bufferSize = buffer.capacity();
+    long capacity = capacityInByte.getAsLong();
+    if (capacity <= 0) {
+      return false;
+    }
+    if (retainedSizeInByte.addAndGet(bufferSize) > capacity) {
+      retainedSizeInByte.addAndGet(-bufferSize);
+      return false;
+    }
+    sizeClasses[indexOf(bufferSize)].offer(buffer);
+    return true;
+  }
+
+  /** Drop all the pooled buffers. */
+  public void clear() {
+    for (Queue<ByteBuffer> sizeClass : sizeClasses) {
+      ByteBuffer buffer;
+      while ((buffer = sizeClass.poll()) != null) {
+        retainedSizeInByte.addAndGet(-buffer.capacity());
+      }
+    }
+  }
+
+  public long getRetainedSizeInByte() {
+    return retainedSizeInByte.get();
+  }
+
+  private void removeCollectedBuffers() {
+    Reference<? extends ByteBuffer> reference;
+    while ((reference = collectedBuffers.poll()) != null) {
+      lentBuffers.remove(reference);
+    }
+  }
+
+  private ByteBuffer newBuffer(int size) {
+    return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+  }
+
+  private static int sizeClassOf(int size) {
+    if (size <= MIN_BUFFER_SIZE) {
+      return MIN_BUFFER_SIZE;
+    }
+    return Integer.highestOneBit(size - 1) << 1;
+  }
+
+  private static int indexOf(int bufferSize) {
+    return Integer.numberOfTrailingZeros(bufferSize) - MIN_SIZE_CLASS;
+  }
+
+  /** A lent buffer compared by identity, the content of a ByteBuffer decides its equals. */
+  private static class LentBuffer extends WeakReference<ByteBuffer> {
+
+    private final int hashCode;
+
+    private LentBuffer(ByteBuffer buffer, ReferenceQueue<ByteBuffer> queue) {
+      super(buffer, queue);
+      this.hashCode = System.identityHashCode(buffer);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof LentBuffer)) {
+        return false;
+      }
+      ByteBuffer buffer = get();
+      return buffer != null && buffer == ((LentBuffer) o).get();
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private static class ByteBufferPoolHolder {
+
+    private static final ByteBufferPool INSTANCE;
+
+    static {
+      TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+      INSTANCE =
+          new ByteBufferPool(
+              config::getBufferPoolSizeInByte, config.getBufferPoolMaxBufferSizeInByte(), false);
+    }
+
+    private ByteBufferPoolHolder() {}
+  }
+
+  private static class DirectByteBufferPoolHolder {
+
+    private static final ByteBufferPool INSTANCE;
+
+    static {
+      TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+      INSTANCE =
+          new ByteBufferPool(
+              config::getBufferPoolSizeInByte, config.getBufferPoolMaxBufferSizeInByte(), true);
+    }
+
+    private DirectByteBufferPoolHolder() {}
+  }
+}
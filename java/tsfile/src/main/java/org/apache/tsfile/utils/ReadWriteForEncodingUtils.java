@@ -49,6 +49,21 @@ public class ReadWriteForEncodingUtils {
     return max;
   }
 
+  /**
+   * check all number in an int array and find max bit width.
+   *
+   * @param array input array
+   * @return max bit width
+   */
+  public static int getIntMaxBitWidth(int[] array) {
+    int max = 1;
+    for (int num : array) {
+      int bitWidth = 32 - Integer.numberOfLeadingZeros(num);
+      max = Math.max(bitWidth, max);
+    }
+    return max;
+  }
+
   /**
    * check all number in a long list and find max bit width.
    *
@@ -64,6 +79,21 @@ public class ReadWriteForEncodingUtils {
     return max;
   }
 
+  /**
+   * check all number in a long array and find max bit width.
+   *
+   * @param array input array
+   * @return max bit width
+   */
+  public static int getLongMaxBitWidth(long[] array) {
+    int max = 1;
+    for (long num : array) {
+      int bitWidth = 64 - Long.numberOfLeadingZeros(num);
+      max = Math.max(bitWidth, max);
+    }
+    return max;
+  }
+
   /** transform an int var to byte[] format. */
   public static byte[] getUnsignedVarInt(int value) {
     int preValue = value;
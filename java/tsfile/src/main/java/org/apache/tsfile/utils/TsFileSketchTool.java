@@ -369,6 +369,23 @@ public class TsFileSketchTool {
                   + ", size="
                   + chunk.getHeader().getSerializedSize());
           offset += chunk.getHeader().getSerializedSize();
+          if (chunk.getHeader().hasDictionaryBlock() && chunk.getData().hasRemaining()) {
+            // the dictionary of the chunk is in front of the pages
+            ByteBuffer chunkData = chunk.getData();
+            int dictionaryOffset = chunkData.position();
+            int uncompressedSize = ReadWriteForEncodingUtils.readUnsignedVarInt(chunkData);
+            int storedSize = ReadWriteForEncodingUtils.readUnsignedVarInt(chunkData);
+            chunkData.position(chunkData.position() + storedSize);
+            printlnBoth(
+                pw,
+                String.format("%20s", offset)
+                    + "|\t\t\t[Dictionary] "
+                    + " Size:"
+                    + (chunkData.position() - dictionaryOffset)
+                    + ", UncompressedSize:"
+                    + uncompressedSize);
+            offset += chunkData.position() - dictionaryOffset;
+          }
           PageHeader pageHeader;
           if (((byte) (chunk.getHeader().getChunkType() & 0x3F))
               == MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER) {
@@ -18,31 +18,49 @@
  */
 package org.apache.tsfile.write.chunk;
 
+import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.compress.CompressionAdvisor;
 import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.encoding.decoder.ChunkDictionaryDecoder;
+import org.apache.tsfile.encoding.decoder.Decoder;
+import org.apache.tsfile.encoding.encoder.ChunkDictionaryEncoder;
+import org.apache.tsfile.encoding.encoder.Encoder;
+import org.apache.tsfile.encoding.encoder.EncodingAdvisor;
 import org.apache.tsfile.encoding.encoder.SDTEncoder;
+import org.apache.tsfile.encoding.encoder.TSEncodingBuilder;
 import org.apache.tsfile.encrypt.EncryptUtils;
 import org.apache.tsfile.encrypt.IEncryptor;
 import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.encoding.TsFileEncodingException;
 import org.apache.tsfile.exception.write.PageException;
 import org.apache.tsfile.file.header.ChunkHeader;
 import org.apache.tsfile.file.header.PageHeader;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
 import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
 import org.apache.tsfile.write.page.PageWriter;
+import org.apache.tsfile.write.page.SealedPage;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
 import org.apache.tsfile.write.writer.TsFileIOWriter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
 
 public class ChunkWriterImpl implements IChunkWriter {
 
@@ -50,15 +68,32 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   private final IMeasurementSchema measurementSchema;
 
-  private final ICompressor compressor;
+  /**
+   * The compressor of the current chunk. It is the compressor of the schema unless the compression
+   * advisor chooses another one from the first page of the chunk.
+   */
+  private ICompressor compressor;
+
+  /** null if the compression advisor is disabled. */
+  private final CompressionAdvisor compressionAdvisor;
 
   private final IEncryptor encryptor;
 
+  /**
+   * the encryptor whose IV is derived from the position of a page, otherwise null. The position is
+   * only known when the chunk is flushed, so the pages are kept unencrypted in pageBuffer until
+   * then, and {@link #encryptor} does not encrypt.
+   */
+  private final IEncryptor pageIvEncryptor;
+
   /** all pages of this chunk. */
   private final PublicBAOS pageBuffer;
 
   private int numOfPages;
 
+  /** the number of pages a dictionary was tried for, so that it is not trained twice for them. */
+  private int numOfPagesOfTrainedDictionary;
+
   /** write data into current page */
   private PageWriter pageWriter;
 
@@ -92,18 +127,38 @@ public class ChunkWriterImpl implements IChunkWriter {
   private static final String SDT_COMP_MIN_TIME = "compmintime";
   private static final String SDT_COMP_MAX_TIME = "compmaxtime";
 
+  /**
+   * The value encoding of the current chunk. It is the encoding of the schema unless the encoding
+   * advisor chooses another one from the first page of the chunk.
+   */
+  private TSEncoding encodingType;
+
+  /** null if the encoding advisor is disabled. */
+  private final EncodingAdvisor encodingAdvisor;
+
+  /**
+   * the value encoder if the values are encoded by {@link TSEncoding#CHUNK_DICTIONARY}, whose
+   * dictionary is written in front of the pages when the chunk is flushed, otherwise null.
+   */
+  private ChunkDictionaryEncoder chunkDictionaryEncoder;
+
   /** first page info */
   private int sizeWithoutStatistic;
 
   private Statistics<?> firstPageStatistics;
 
+  /** null if the pages are compressed in the thread of this writer. */
+  private final PageCompressionPipeline pageCompressionPipeline;
+
   /**
    * @param schema schema of this measurement
    */
   public ChunkWriterImpl(IMeasurementSchema schema) {
     this.measurementSchema = schema;
-    this.compressor = ICompressor.getCompressor(schema.getCompressor());
-    this.encryptor = EncryptUtils.encryptor;
+    this.compressor = ICompressor.getCompressor(schema.getCompressor(), schema.getProps());
+    this.pageIvEncryptor = EncryptUtils.encryptor.hasPageIv() ? EncryptUtils.encryptor : null;
+    this.encryptor =
+        pageIvEncryptor != null ? new IEncryptor.NoEncryptor() : EncryptUtils.encryptor;
     this.pageBuffer = new PublicBAOS();
 
     this.pageSizeThreshold = TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
@@ -115,10 +170,17 @@ public class ChunkWriterImpl implements IChunkWriter {
     // init statistics for this chunk and page
     this.statistics = Statistics.getStatsByType(measurementSchema.getType());
 
-    this.pageWriter = new PageWriter(measurementSchema, encryptor);
+    this.pageWriter = new PageWriter(measurementSchema, this.encryptor);
 
     this.pageWriter.setTimeEncoder(measurementSchema.getTimeEncoder());
-    this.pageWriter.setValueEncoder(measurementSchema.getValueEncoder());
+    setValueEncoder(measurementSchema.getValueEncoder());
+    this.encodingType = measurementSchema.getEncodingType();
+    this.encodingAdvisor = EncodingAdvisor.getAdvisor(TSFileDescriptor.getInstance().getConfig());
+    this.compressionAdvisor =
+        CompressionAdvisor.getAdvisor(TSFileDescriptor.getInstance().getConfig());
+    this.pageCompressionPipeline =
+        PageCompressionPipeline.getPipeline(
+            compressor, this.encryptor, this::appendPageToPageBuffer);
 
     // check if the measurement schema uses SDT
     checkSdtEncoding();
@@ -126,8 +188,9 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   public ChunkWriterImpl(IMeasurementSchema schema, IEncryptor encryptor) {
     this.measurementSchema = schema;
-    this.compressor = ICompressor.getCompressor(schema.getCompressor());
-    this.encryptor = encryptor;
+    this.compressor = ICompressor.getCompressor(schema.getCompressor(), schema.getProps());
+    this.pageIvEncryptor = encryptor.hasPageIv() ? encryptor : null;
+    this.encryptor = pageIvEncryptor != null ? new IEncryptor.NoEncryptor() : encryptor;
     this.pageBuffer = new PublicBAOS();
 
     this.pageSizeThreshold = TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
@@ -139,10 +202,17 @@ public class ChunkWriterImpl implements IChunkWriter {
     // init statistics for this chunk and page
     this.statistics = Statistics.getStatsByType(measurementSchema.getType());
 
-    this.pageWriter = new PageWriter(measurementSchema, encryptor);
+    this.pageWriter = new PageWriter(measurementSchema, this.encryptor);
 
     this.pageWriter.setTimeEncoder(measurementSchema.getTimeEncoder());
-    this.pageWriter.setValueEncoder(measurementSchema.getValueEncoder());
+    setValueEncoder(measurementSchema.getValueEncoder());
+    this.encodingType = measurementSchema.getEncodingType();
+    this.encodingAdvisor = EncodingAdvisor.getAdvisor(TSFileDescriptor.getInstance().getConfig());
+    this.compressionAdvisor =
+        CompressionAdvisor.getAdvisor(TSFileDescriptor.getInstance().getConfig());
+    this.pageCompressionPipeline =
+        PageCompressionPipeline.getPipeline(
+            compressor, this.encryptor, this::appendPageToPageBuffer);
 
     // check if the measurement schema uses SDT
     checkSdtEncoding();
@@ -285,6 +355,85 @@ public class ChunkWriterImpl implements IChunkWriter {
     checkPageSizeAndMayOpenANewPage();
   }
 
+  /**
+   * Writes {@code batchSize} points starting at {@code arrayOffset} in page-sized slices, so that
+   * the pages are cut at exactly the same points as when the points are written one by one.
+   */
+  public void write(long[] timestamps, int[] values, int batchSize, int arrayOffset) {
+    writeBatch(
+        batchSize,
+        arrayOffset,
+        (pointNumber, offset) -> pageWriter.write(timestamps, values, pointNumber, offset),
+        i -> write(timestamps[i], values[i]));
+  }
+
+  public void write(long[] timestamps, long[] values, int batchSize, int arrayOffset) {
+    writeBatch(
+        batchSize,
+        arrayOffset,
+        (pointNumber, offset) -> pageWriter.write(timestamps, values, pointNumber, offset),
+        i -> write(timestamps[i], values[i]));
+  }
+
+  public void write(long[] timestamps, boolean[] values, int batchSize, int arrayOffset) {
+    writeBatch(
+        batchSize,
+        arrayOffset,
+        (pointNumber, offset) -> pageWriter.write(timestamps, values, pointNumber, offset),
+        i -> write(timestamps[i], values[i]));
+  }
+
+  public void write(long[] timestamps, float[] values, int batchSize, int arrayOffset) {
+    writeBatch(
+        batchSize,
+        arrayOffset,
+        (pointNumber, offset) -> pageWriter.write(timestamps, values, pointNumber, offset),
+        i -> write(timestamps[i], values[i]));
+  }
+
+  public void write(long[] timestamps, double[] values, int batchSize, int arrayOffset) {
+    writeBatch(
+        batchSize,
+        arrayOffset,
+        (pointNumber, offset) -> pageWriter.write(timestamps, values, pointNumber, offset),
+        i -> write(timestamps[i], values[i]));
+  }
+
+  public void write(long[] timestamps, Binary[] values, int batchSize, int arrayOffset) {
+    writeBatch(
+        batchSize,
+        arrayOffset,
+        (pointNumber, offset) -> pageWriter.write(timestamps, values, pointNumber, offset),
+        i -> write(timestamps[i], values[i]));
+  }
+
+  private void writeBatch(
+      int batchSize, int arrayOffset, PageSliceWriter sliceWriter, IntConsumer pointWriter) {
+    int end = arrayOffset + batchSize;
+    if (isSdtEncoding) {
+      // SDT drops points one by one, so it cannot be written a slice at a time
+      for (int i = arrayOffset; i < end; i++) {
+        pointWriter.accept(i);
+      }
+      return;
+    }
+    while (arrayOffset < end) {
+      int pointNumber = Math.min(end - arrayOffset, getPointNumberBeforeNextCheck());
+      sliceWriter.write(pointNumber, arrayOffset);
+      arrayOffset += pointNumber;
+      checkPageSizeAndMayOpenANewPage();
+    }
+  }
+
+  /**
+   * The number of points that can be written before {@link #checkPageSizeAndMayOpenANewPage()} may
+   * cut the current page.
+   */
+  private int getPointNumberBeforeNextCheck() {
+    int nextCheck = Math.min(maxNumberOfPointsInPage, valueCountInOnePageForNextCheck);
+    return (int) Math.max(1, nextCheck - pageWriter.getPointNumber());
+  }
+
   /**
    * check occupied memory size, if it exceeds the PageSize threshold, construct a page and put it
    * to pageBuffer
@@ -317,7 +466,32 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   private void writePageToPageBuffer() {
     try {
-      if (numOfPages == 0) { // record the firstPageStatistics
+      if (numOfPages == 0
+          && encodingAdvisor != null
+          && !isSdtEncoding
+          && !isMerging
+          && chunkDictionaryEncoder == null
+          && pageWriter.getPointNumber() != 0) {
+        // choose the value encoding of this chunk from its first page
+        encodingType =
+            pageWriter.adviseValueEncoding(
+                encodingAdvisor, measurementSchema.getType(), encodingType);
+      }
+      SealedPage sealedPage = null;
+      if (numOfPages == 0 && compressionAdvisor != null && !isMerging) {
+        // choose the compression of this chunk from its first page
+        sealedPage = pageWriter.sealPage();
+        setCompressor(compressionAdvisor.advise(sealedPage.getUncompressedData()));
+      }
+      if (pageCompressionPipeline != null) {
+        // the page is compressed in the background and appended after the previous pages
+        pageCompressionPipeline.appendCompressedPages();
+        pageCompressionPipeline.submit(
+            sealedPage != null ? sealedPage : pageWriter.sealPage(), numOfPages);
+      } else if (sealedPage != null) {
+        sealedPage.compress(compressor, encryptor);
+        appendPageToPageBuffer(sealedPage, numOfPages);
+      } else if (numOfPages == 0) { // record the firstPageStatistics
         this.firstPageStatistics = pageWriter.getStatistics();
         this.sizeWithoutStatistic = pageWriter.writePageHeaderAndDataIntoBuff(pageBuffer, true);
       } else if (numOfPages == 1) { // put the firstPageStatistics into pageBuffer
@@ -335,6 +509,11 @@ public class ChunkWriterImpl implements IChunkWriter {
       // update statistics of this chunk
       numOfPages++;
       this.statistics.mergeStatistics(pageWriter.getStatistics());
+      if (chunkDictionaryEncoder != null
+          && chunkDictionaryEncoder.getMaxDictionaryByteSize()
+              > TSFileDescriptor.getInstance().getConfig().getChunkDictionaryMaxSizeInByte()) {
+        fallBackToPlainEncoding();
+      }
     } catch (IOException e) {
       logger.error("meet error in pageWriter.writePageHeaderAndDataIntoBuff,ignore this page:", e);
     } finally {
@@ -343,22 +522,103 @@ public class ChunkWriterImpl implements IChunkWriter {
     }
   }
 
+  /** Appends a page compressed in the background, see {@link #writePageToPageBuffer()}. */
+  private void appendPageToPageBuffer(SealedPage page, int pageIndex) throws IOException {
+    if (pageIndex == 0) { // record the firstPageStatistics
+      this.firstPageStatistics = page.getStatistics();
+      this.sizeWithoutStatistic = page.writeTo(pageBuffer, true);
+    } else if (pageIndex == 1) { // put the firstPageStatistics into pageBuffer
+      byte[] b = pageBuffer.toByteArray();
+      pageBuffer.reset();
+      pageBuffer.write(b, 0, this.sizeWithoutStatistic);
+      firstPageStatistics.serialize(pageBuffer);
+      pageBuffer.write(b, this.sizeWithoutStatistic, b.length - this.sizeWithoutStatistic);
+      page.writeTo(pageBuffer, false);
+      firstPageStatistics = null;
+    } else {
+      page.writeTo(pageBuffer, false);
+    }
+  }
+
+  /** Waits for the pages compressed in the background, so that pageBuffer holds all the pages. */
+  private void appendPendingPages() {
+    if (pageCompressionPipeline == null || !pageCompressionPipeline.hasPendingPages()) {
+      return;
+    }
+    try {
+      pageCompressionPipeline.appendAllPages();
+    } catch (IOException e) {
+      throw new TsFileEncodingException(
+          "Failed to compress the pages of chunk "
+              + measurementSchema.getMeasurementId()
+              + ": "
+              + e.getMessage());
+    }
+  }
+
   @Override
   public void writeToFileWriter(TsFileIOWriter tsfileWriter) throws IOException {
     sealCurrentPage();
+    if (pageCompressionPipeline != null) {
+      pageCompressionPipeline.appendAllPages();
+    }
+    if (measurementSchema.getCompressor() == CompressionType.ZSTD_DICTIONARY) {
+      compressByTrainedDictionary();
+    }
     writeAllPagesOfChunkToTsFile(tsfileWriter, statistics);
 
     // reinit this chunk writer
     pageBuffer.reset();
     numOfPages = 0;
+    numOfPagesOfTrainedDictionary = 0;
     sizeWithoutStatistic = 0;
     firstPageStatistics = null;
     this.statistics = Statistics.getStatsByType(measurementSchema.getType());
+    if (chunkDictionaryEncoder != null) {
+      chunkDictionaryEncoder.resetDictionary();
+    }
+    if (compressionAdvisor != null || compressor.getType() == CompressionType.ZSTD_DICTIONARY) {
+      // the next chunk starts over with the compression of the schema
+      setCompressor(
+          ICompressor.getCompressor(
+              measurementSchema.getCompressor(), measurementSchema.getProps()));
+    }
+    if (encodingType != measurementSchema.getEncodingType()) {
+      // the next chunk starts over with the encoding of the schema
+      encodingType = measurementSchema.getEncodingType();
+      if (pageWriter != null) {
+        setValueEncoder(measurementSchema.getValueEncoder());
+      }
+    }
+  }
+
+  private void setCompressor(ICompressor compressor) {
+    this.compressor = compressor;
+    if (pageWriter != null) {
+      pageWriter.setCompressor(compressor);
+    }
+    if (pageCompressionPipeline != null) {
+      pageCompressionPipeline.setCompressor(compressor);
+    }
+  }
+
+  private void setValueEncoder(Encoder valueEncoder) {
+    pageWriter.setValueEncoder(valueEncoder);
+    chunkDictionaryEncoder =
+        valueEncoder instanceof ChunkDictionaryEncoder
+            ? (ChunkDictionaryEncoder) valueEncoder
+            : null;
+  }
+
+  private long getMaxDictionaryByteSize() {
+    return chunkDictionaryEncoder == null ? 0 : chunkDictionaryEncoder.getMaxDictionaryByteSize();
   }
 
   @Override
   public long estimateMaxSeriesMemSize() {
     return pageBuffer.size()
+        + (pageCompressionPipeline == null ? 0 : pageCompressionPipeline.getPendingSizeInByte())
+        + getMaxDictionaryByteSize()
         + pageWriter.estimateMaxMemSize()
         + PageHeader.estimateMaxPageHeaderSizeWithoutStatistics()
         + pageWriter.getStatistics().getSerializedSize();
@@ -366,12 +626,34 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   @Override
   public long getSerializedChunkSize() {
+    appendPendingPages();
     if (pageBuffer.size() == 0) {
       return 0;
     }
-    // return the serialized size of the chunk header + all pages
-    return ChunkHeader.getSerializedSize(measurementSchema.getMeasurementId(), pageBuffer.size())
-        + (long) pageBuffer.size();
+    compressByTrainedDictionaryIfNeeded();
+    // return the serialized size of the chunk header + the dictionary + all pages
+    long dataSize = pageBuffer.size() + getDictionaryByteSize();
+    return ChunkHeader.getSerializedSize(measurementSchema.getMeasurementId(), (int) dataSize)
+        + dataSize;
+  }
+
+  private int getDictionaryByteSize() {
+    if (chunkDictionaryEncoder == null && compressor.getType() != CompressionType.ZSTD_DICTIONARY) {
+      return 0;
+    }
+    try {
+      if (chunkDictionaryEncoder == null) {
+        return ((ICompressor.ZstdCompressor) compressor)
+            .writeDictionary(encryptor, new ByteArrayOutputStream());
+      }
+      return chunkDictionaryEncoder.getDictionaryByteSize(compressor, encryptor);
+    } catch (IOException e) {
+      throw new TsFileEncodingException(
+          "Failed to serialize the dictionary of chunk "
+              + measurementSchema.getMeasurementId()
+              + ": "
+              + e.getMessage());
+    }
   }
 
   @Override
@@ -419,9 +701,44 @@ public class ChunkWriterImpl implements IChunkWriter {
   /**
    * write the page header and data into the PageWriter's output stream. @NOTE: for upgrading
    * 0.11/v2 to 0.12/v3 TsFile
+   *
+   * <p>The data is encrypted like the pages of this chunk, unless the IV of a page is derived from
+   * its position, see {@link IEncryptor#hasPageIv()}. The data should then be decrypted already.
    */
   public void writePageHeaderAndDataIntoBuff(ByteBuffer data, PageHeader header)
       throws PageException {
+    if (measurementSchema.getEncodingType() == TSEncoding.CHUNK_DICTIONARY) {
+      throw new PageException(
+          "Cannot append a page to a chunk encoded by " + TSEncoding.CHUNK_DICTIONARY);
+    }
+    if (measurementSchema.getCompressor() == CompressionType.ZSTD_DICTIONARY) {
+      // the page may be compressed by the dictionary of its own chunk
+      throw new PageException(
+          "Cannot append a page to a chunk compressed by " + CompressionType.ZSTD_DICTIONARY);
+    }
+    appendPendingPages();
+    if (encodingType != measurementSchema.getEncodingType()
+        || compressor.getType() != measurementSchema.getCompressor()) {
+      // the advisors have changed the encoding or the compression of this chunk, so the page is
+      // written again in the format of the chunk
+      try {
+        appendPageToPageBuffer(
+            rewritePage(
+                data,
+                header,
+                measurementSchema.getCompressor(),
+                encodingType == measurementSchema.getEncodingType()
+                    ? null
+                    : Decoder.getDecoderByType(
+                        measurementSchema.getEncodingType(), measurementSchema.getType())),
+            numOfPages);
+      } catch (IOException | RuntimeException e) {
+        throw new PageException("Failed to rewrite the page " + header, e);
+      }
+      statistics.mergeStatistics(header.getStatistics());
+      numOfPages++;
+      return;
+    }
     // write the page header to pageBuffer
     try {
       logger.debug(
@@ -468,6 +785,175 @@ public class ChunkWriterImpl implements IChunkWriter {
     }
   }
 
+  /**
+   * Uncompresses a page compressed by {@code compressionType}, and writes it again with the
+   * encoding and the compression of this chunk. The time column is kept as it is.
+   *
+   * @param valueDecoder the decoder of the values, null if they are kept as they are
+   */
+  private SealedPage rewritePage(
+      ByteBuffer data, PageHeader header, CompressionType compressionType, Decoder valueDecoder)
+      throws IOException {
+    ByteBuffer pageData =
+        ChunkReader.decryptAndUncompressPageData(
+            header, IUnCompressor.getUnCompressor(compressionType), data, encryptor.getDecryptor());
+    int timeBufferLength = ReadWriteForEncodingUtils.readUnsignedVarInt(pageData);
+    ByteBuffer valueBuffer = pageData.slice();
+    valueBuffer.position(timeBufferLength);
+
+    PublicBAOS out = new PublicBAOS(pageData.remaining());
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(timeBufferLength, out);
+    out.write(pageData.array(), pageData.arrayOffset() + pageData.position(), timeBufferLength);
+    if (valueDecoder == null) {
+      out.write(
+          valueBuffer.array(),
+          valueBuffer.arrayOffset() + valueBuffer.position(),
+          valueBuffer.remaining());
+    } else {
+      EncodingAdvisor.transcode(
+          measurementSchema.getType(),
+          valueDecoder,
+          encodingType,
+          valueBuffer,
+          (int) header.getStatistics().getCount(),
+          out);
+    }
+
+    SealedPage page =
+        new SealedPage(ByteBuffer.wrap(out.getBuf(), 0, out.size()), header.getStatistics());
+    page.compress(compressor, encryptor);
+    return page;
+  }
+
+  /**
+   * Encodes the pages of this chunk by PLAIN instead, because the dictionary of {@link
+   * TSEncoding#CHUNK_DICTIONARY} has grown larger than {@link
+   * TSFileConfig#getChunkDictionaryMaxSizeInByte()}.
+   */
+  private void fallBackToPlainEncoding() throws IOException {
+    appendPendingPages();
+    ChunkDictionaryEncoder dictionaryEncoder = chunkDictionaryEncoder;
+    encodingType = TSEncoding.PLAIN;
+    setValueEncoder(
+        TSEncodingBuilder.getEncodingBuilder(encodingType).getEncoder(measurementSchema.getType()));
+
+    ByteBuffer pages = ByteBuffer.wrap(pageBuffer.toByteArray());
+    int pageNum = numOfPages;
+    Statistics<? extends Serializable> onlyPageStatistics = firstPageStatistics;
+    pageBuffer.reset();
+    numOfPages = 0;
+    sizeWithoutStatistic = 0;
+    firstPageStatistics = null;
+    for (int i = 0; i < pageNum; i++) {
+      PageHeader header =
+          pageNum == 1
+              ? PageHeader.deserializeFrom(pages, onlyPageStatistics)
+              : PageHeader.deserializeFrom(pages, measurementSchema.getType());
+      appendPageToPageBuffer(
+          rewritePage(
+              pages,
+              header,
+              compressor.getType(),
+              new ChunkDictionaryDecoder(dictionaryEncoder.getDictionary())),
+          numOfPages);
+      numOfPages++;
+    }
+    dictionaryEncoder.resetDictionary();
+  }
+
+  /**
+   * Compresses the pages by a trained dictionary before the size of the chunk is computed, so that
+   * the computed size is the one flushed.
+   */
+  private void compressByTrainedDictionaryIfNeeded() {
+    if (measurementSchema.getCompressor() != CompressionType.ZSTD_DICTIONARY) {
+      return;
+    }
+    try {
+      compressByTrainedDictionary();
+    } catch (IOException e) {
+      throw new TsFileEncodingException(
+          "Failed to compress the pages of chunk "
+              + measurementSchema.getMeasurementId()
+              + " by a dictionary: "
+              + e.getMessage());
+    }
+  }
+
+  /**
+   * Compresses the pages of this chunk by ZSTD with a dictionary trained from its first pages, see
+   * {@link CompressionType#ZSTD_DICTIONARY}. The pages are kept as they are if they are too few to
+   * train a dictionary, or the dictionary and the pages compressed by it are not smaller than the
+   * pages compressed without it. A chunk encoded by {@link TSEncoding#CHUNK_DICTIONARY} has a
+   * dictionary block already, so it is compressed without a dictionary.
+   */
+  private void compressByTrainedDictionary() throws IOException {
+    if (numOfPages < 2
+        || numOfPages == numOfPagesOfTrainedDictionary
+        || chunkDictionaryEncoder != null
+        || compressor.getType() != CompressionType.ZSTD) {
+      return;
+    }
+    int dictionarySize =
+        TSFileDescriptor.getInstance().getConfig().getZstdDictionaryMaxSizeInByte();
+    long maxSampleSize = (long) dictionarySize * ICompressor.ZstdCompressor.DICTIONARY_SAMPLE_RATIO;
+    byte[] pages = pageBuffer.toByteArray();
+    ByteBuffer pageData = ByteBuffer.wrap(pages);
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(CompressionType.ZSTD);
+    List<PageHeader> headers = new ArrayList<>(numOfPages);
+    List<byte[]> uncompressedPages = new ArrayList<>(numOfPages);
+    List<byte[]> samples = new ArrayList<>();
+    long sampleSize = 0;
+    for (int i = 0; i < numOfPages; i++) {
+      PageHeader header = PageHeader.deserializeFrom(pageData, measurementSchema.getType());
+      byte[] uncompressed =
+          ChunkReader.decryptAndUncompressPageData(
+                  header, unCompressor, pageData, encryptor.getDecryptor())
+              .array();
+      headers.add(header);
+      uncompressedPages.add(uncompressed);
+      if (sampleSize < maxSampleSize) {
+        samples.add(uncompressed);
+        sampleSize += uncompressed.length;
+      }
+    }
+    numOfPagesOfTrainedDictionary = numOfPages;
+    ICompressor.ZstdCompressor dictionaryCompressor;
+    try {
+      dictionaryCompressor =
+          new ICompressor.ZstdCompressor(
+              ((ICompressor.ZstdCompressor) compressor).getCompressionLevel(),
+              ICompressor.ZstdCompressor.trainDictionary(samples, dictionarySize));
+    } catch (IOException e) {
+      logger.debug(
+          "Compress chunk {} without a dictionary: {}",
+          measurementSchema.getMeasurementId(),
+          e.getMessage());
+      return;
+    }
+
+    ICompressor plainCompressor = compressor;
+    int pageNum = numOfPages;
+    pageBuffer.reset();
+    numOfPages = 0;
+    setCompressor(dictionaryCompressor);
+    for (int i = 0; i < pageNum; i++) {
+      SealedPage page =
+          new SealedPage(ByteBuffer.wrap(uncompressedPages.get(i)), headers.get(i).getStatistics());
+      page.compress(compressor, encryptor);
+      appendPageToPageBuffer(page, numOfPages);
+      numOfPages++;
+    }
+    int dictionaryBlockSize =
+        dictionaryCompressor.writeDictionary(encryptor, new ByteArrayOutputStream());
+    if (pageBuffer.size() + dictionaryBlockSize >= pages.length) {
+      // the dictionary does not pay off
+      pageBuffer.reset();
+      pageBuffer.write(pages, 0, pages.length);
+      setCompressor(plainCompressor);
+    }
+  }
+
   /**
    * write the page to specified IOWriter.
    *
@@ -481,30 +967,64 @@ public class ChunkWriterImpl implements IChunkWriter {
       return;
     }
 
+    // the dictionary of the chunk is written in front of all pages
+    PublicBAOS dictionaryBuffer = null;
+    if (chunkDictionaryEncoder != null) {
+      dictionaryBuffer = new PublicBAOS();
+      chunkDictionaryEncoder.writeDictionary(compressor, encryptor, dictionaryBuffer);
+    } else if (compressor.getType() == CompressionType.ZSTD_DICTIONARY) {
+      dictionaryBuffer = new PublicBAOS();
+      ((ICompressor.ZstdCompressor) compressor).writeDictionary(encryptor, dictionaryBuffer);
+    }
+    int expectedSize = pageBuffer.size() + (dictionaryBuffer == null ? 0 : dictionaryBuffer.size());
+    if (pageIvEncryptor != null) {
+      // the IVs are derived from the offset of the chunk header, which starts here
+      long chunkOffset = writer.getPos();
+      if (dictionaryBuffer != null) {
+        EncryptUtils.encryptChunkData(
+            pageIvEncryptor,
+            chunkOffset,
+            ByteBuffer.wrap(dictionaryBuffer.getBuf(), 0, dictionaryBuffer.size()),
+            true,
+            false,
+            measurementSchema.getType());
+      }
+      EncryptUtils.encryptChunkData(
+          pageIvEncryptor,
+          chunkOffset,
+          ByteBuffer.wrap(pageBuffer.getBuf(), 0, pageBuffer.size()),
+          false,
+          numOfPages == 1,
+          measurementSchema.getType());
+    }
+
     // start to write this column chunk
     writer.startFlushChunk(
         measurementSchema.getMeasurementId(),
         compressor.getType(),
         measurementSchema.getType(),
-        measurementSchema.getEncodingType(),
+        encodingType,
         statistics,
-        pageBuffer.size(),
+        expectedSize,
         numOfPages,
         0);
 
     long dataOffset = writer.getPos();
 
     // write all pages of this column
+    if (dictionaryBuffer != null) {
+      writer.writeBytesToStream(dictionaryBuffer);
+    }
     writer.writeBytesToStream(pageBuffer);
 
     int dataSize = (int) (writer.getPos() - dataOffset);
-    if (dataSize != pageBuffer.size()) {
+    if (dataSize != expectedSize) {
       throw new IOException(
           "Bytes written is inconsistent with the size of data: "
               + dataSize
               + " !="
               + " "
-              + pageBuffer.size());
+              + expectedSize);
     }
 
     writer.endCurrentChunk();
@@ -526,4 +1046,10 @@ public class ChunkWriterImpl implements IChunkWriter {
   public PageWriter getPageWriter() {
     return pageWriter;
   }
+
+  /** Writes {@code pointNumber} points starting at {@code arrayOffset} into the page writer. */
+  @FunctionalInterface
+  private interface PageSliceWriter {
+    void write(int pointNumber, int arrayOffset);
+  }
 }
@@ -118,57 +118,82 @@ public class NonAlignedChunkGroupWriterImpl implements IChunkGroupWriter {
     for (int column = startColIndex; column < endColIndex; column++) {
       String measurementId = timeseries.get(column).getMeasurementId();
       TSDataType tsDataType = timeseries.get(column).getType();
+      ChunkWriterImpl chunkWriter = chunkWriters.get(measurementId);
       pointCount = 0;
-      for (int row = startRowIndex; row < endRowIndex; row++) {
+      int row = startRowIndex;
+      while (row < endRowIndex) {
         // check isNull in tablet
-        if (tablet.bitMaps != null
-            && tablet.bitMaps[column] != null
-            && tablet.bitMaps[column].isMarked(row)) {
+        if (isNull(tablet, column, row)) {
+          row++;
           continue;
         }
-        long time = tablet.timestamps[row];
-        checkIsHistoryData(measurementId, time);
-        pointCount++;
-        switch (tsDataType) {
-          case INT32:
-            chunkWriters.get(measurementId).write(time, ((int[]) tablet.values[column])[row]);
-            break;
-          case DATE:
-            chunkWriters
-                .get(measurementId)
-                .write(
-                    time,
-                    DateUtils.parseDateExpressionToInt(((LocalDate[]) tablet.values[column])[row]));
-            break;
-          case INT64:
-          case TIMESTAMP:
-            chunkWriters.get(measurementId).write(time, ((long[]) tablet.values[column])[row]);
-            break;
-          case FLOAT:
-            chunkWriters.get(measurementId).write(time, ((float[]) tablet.values[column])[row]);
-            break;
-          case DOUBLE:
-            chunkWriters.get(measurementId).write(time, ((double[]) tablet.values[column])[row]);
-            break;
-          case BOOLEAN:
-            chunkWriters.get(measurementId).write(time, ((boolean[]) tablet.values[column])[row]);
-            break;
-          case TEXT:
-          case BLOB:
-          case STRING:
-            chunkWriters.get(measurementId).write(time, ((Binary[]) tablet.values[column])[row]);
-            break;
-          default:
-            throw new UnSupportedDataTypeException(
-                String.format("Data type %s is not supported.", tsDataType));
+        checkIsHistoryData(measurementId, tablet.timestamps[row]);
+        // the points of a run of non-null rows in ascending time order are written in batch, an
+        // out-of-order point ends the run and fails the check above in the next round
+        int runEnd = row + 1;
+        while (runEnd < endRowIndex
+            && !isNull(tablet, column, runEnd)
+            && tablet.timestamps[runEnd] > tablet.timestamps[runEnd - 1]) {
+          runEnd++;
         }
-        lastTimeMap.put(measurementId, time);
+        writeRun(chunkWriter, tsDataType, tablet.timestamps, tablet.values[column], row, runEnd);
+        pointCount += runEnd - row;
+        lastTimeMap.put(measurementId, tablet.timestamps[runEnd - 1]);
+        row = runEnd;
       }
       maxPointCount = Math.max(pointCount, maxPointCount);
     }
     return maxPointCount;
   }
 
+  private boolean isNull(Tablet tablet, int column, int row) {
+    return tablet.bitMaps != null
+        && tablet.bitMaps[column] != null
+        && tablet.bitMaps[column].isMarked(row);
+  }
+
+  private void writeRun(
+      ChunkWriterImpl chunkWriter,
+      TSDataType tsDataType,
+      long[] timestamps,
+      Object values,
+      int startRowIndex,
+      int endRowIndex) {
+    int batchSize = endRowIndex - startRowIndex;
+    switch (tsDataType) {
+      case INT32:
+        chunkWriter.write(timestamps, (int[]) values, batchSize, startRowIndex);
+        break;
+      case DATE:
+        for (int row = startRowIndex; row < endRowIndex; row++) {
+          chunkWriter.write(
+              timestamps[row], DateUtils.parseDateExpressionToInt(((LocalDate[]) values)[row]));
+        }
+        break;
+      case INT64:
+      case TIMESTAMP:
+        chunkWriter.write(timestamps, (long[]) values, batchSize, startRowIndex);
+        break;
+      case FLOAT:
+        chunkWriter.write(timestamps, (float[]) values, batchSize, startRowIndex);
+        break;
+      case DOUBLE:
+        chunkWriter.write(timestamps, (double[]) values, batchSize, startRowIndex);
+        break;
+      case BOOLEAN:
+        chunkWriter.write(timestamps, (boolean[]) values, batchSize, startRowIndex);
+        break;
+      case TEXT:
+      case BLOB:
+      case STRING:
+        chunkWriter.write(timestamps, (Binary[]) values, batchSize, startRowIndex);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("Data type %s is not supported.", tsDataType));
+    }
+  }
+
   @Override
   public long flushToFileWriter(TsFileIOWriter fileWriter) throws IOException {
     LOG.debug("start flush device id:{}", deviceId);
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.write.chunk;
+
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.encrypt.IEncryptor;
+import org.apache.tsfile.file.header.PageHeader;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.EncryptionType;
+import org.apache.tsfile.write.page.SealedPage;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compresses and encrypts the sealed pages of a chunk writer in the background, so that the
+ * encoding of the next page overlaps with the compression of the previous ones.
+ *
+ * <p>The pages are compressed on an executor shared by all the pipelines. Its queue is bounded, and
+ * a writer compresses the page in its own thread once the queue is full, which keeps the memory of
+ * the pending pages in check. The compressed pages are handed back to the chunk writer in the order
+ * they are sealed. This class is not thread safe, it is only used by the thread of its chunk
+ * writer.
+ */
+class PageCompressionPipeline {
+
+  private static final long KEEP_ALIVE_TIME_IN_SECONDS = 60;
+
+  private static final int QUEUE_CAPACITY_PER_THREAD = 4;
+
+  private static volatile ThreadPoolExecutor compressionExecutor;
+
+  /** Appends a compressed page to the page buffer of a chunk writer. */
+  @FunctionalInterface
+  interface PageAppender {
+
+    /**
+     * @param pageIndex the index of the page in its chunk
+     */
+    void append(SealedPage page, int pageIndex) throws IOException;
+  }
+
+  private ICompressor compressor;
+  private final IEncryptor encryptor;
+  private final PageAppender pageAppender;
+
+  private final Queue<CompressionTask> pendingPages = new ArrayDeque<>();
+
+  /** the max size the pending pages take in the page buffer once they are appended */
+  private long pendingSizeInByte;
+
+  private PageCompressionPipeline(
+      ICompressor compressor, IEncryptor encryptor, PageAppender pageAppender) {
+    this.compressor = compressor;
+    this.encryptor = encryptor;
+    this.pageAppender = pageAppender;
+  }
+
+  /**
+   * @return null if the pages of the chunk writer should be compressed in its own thread, i.e. the
+   *     pipeline is disabled or there is nothing to compress or encrypt
+   */
+  static PageCompressionPipeline getPipeline(
+      ICompressor compressor, IEncryptor encryptor, PageAppender pageAppender) {
+    if (TSFileDescriptor.getInstance().getConfig().getPageCompressionThreadNum() <= 0
+        || (compressor.getType() == CompressionType.UNCOMPRESSED
+            && encryptor.getEncryptionType() == EncryptionType.UNENCRYPTED)) {
+      return null;
+    }
+    return new PageCompressionPipeline(compressor, encryptor, pageAppender);
+  }
+
+  /** Sets the compressor of the pages submitted from now on. */
+  void setCompressor(ICompressor compressor) {
+    this.compressor = compressor;
+  }
+
+  /** Starts to compress the page in the background. */
+  void submit(SealedPage page, int pageIndex) {
+    ICompressor compressor = this.compressor;
+    CompressionTask task = new CompressionTask(page, pageIndex);
+    task.future =
+        getCompressionExecutor()
+            .submit(
+                () -> {
+                  page.compress(compressor, encryptor);
+                  return null;
+                });
+    pendingPages.add(task);
+    pendingSizeInByte += task.sizeInByte;
+  }
+
+  /** Appends the pages at the head of the queue which are compressed, without waiting. */
+  void appendCompressedPages() throws IOException {
+    while (!pendingPages.isEmpty() && pendingPages.peek().future.isDone()) {
+      appendFirstPage();
+    }
+  }
+
+  /** Waits for all the pending pages and appends them. */
+  void appendAllPages() throws IOException {
+    while (!pendingPages.isEmpty()) {
+      appendFirstPage();
+    }
+  }
+
+  private void appendFirstPage() throws IOException {
+    CompressionTask task = pendingPages.poll();
+    pendingSizeInByte -= task.sizeInByte;
+    try {
+      task.future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the page to be compressed", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Failed to compress page", e.getCause());
+    }
+    pageAppender.append(task.page, task.pageIndex);
+  }
+
+  boolean hasPendingPages() {
+    return !pendingPages.isEmpty();
+  }
+
+  long getPendingSizeInByte() {
+    return pendingSizeInByte;
+  }
+
+  private static ThreadPoolExecutor getCompressionExecutor() {
+    if (compressionExecutor == null) {
+      synchronized (PageCompressionPipeline.class) {
+        if (compressionExecutor == null) {
+          int threadNum = TSFileDescriptor.getInstance().getConfig().getPageCompressionThreadNum();
+          AtomicInteger threadIndex = new AtomicInteger();
+          ThreadPoolExecutor executor =
+              new ThreadPoolExecutor(
+                  threadNum,
+                  threadNum,
+                  KEEP_ALIVE_TIME_IN_SECONDS,
+                  TimeUnit.SECONDS,
+                  new ArrayBlockingQueue<>(threadNum * QUEUE_CAPACITY_PER_THREAD),
+                  r -> {
+                    Thread thread =
+                        new Thread(r, "TsFile-PageCompression-" + threadIndex.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                  },
+                  // compress the page in the writer thread if the executor falls behind
+                  new ThreadPoolExecutor.CallerRunsPolicy());
+          executor.allowCoreThreadTimeOut(true);
+          compressionExecutor = executor;
+        }
+      }
+    }
+    return compressionExecutor;
+  }
+
+  private static class CompressionTask {
+
+    private final SealedPage page;
+    private final int pageIndex;
+    private final long sizeInByte;
+    private Future<?> future;
+
+    private CompressionTask(SealedPage page, int pageIndex) {
+      this.page = page;
+      this.pageIndex = pageIndex;
+      this.sizeInByte =
+          page.getUncompressedSize()
+              + PageHeader.estimateMaxPageHeaderSizeWithoutStatistics()
+              + page.getStatistics().getSerializedSize();
+    }
+  }
+}
@@ -25,6 +25,7 @@ import org.apache.tsfile.encoding.encoder.Encoder;
 import org.apache.tsfile.encrypt.EncryptUtils;
 import org.apache.tsfile.encrypt.IEncryptor;
 import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.encoding.TsFileEncodingException;
 import org.apache.tsfile.exception.write.PageException;
 import org.apache.tsfile.file.header.ChunkHeader;
 import org.apache.tsfile.file.header.PageHeader;
@@ -34,6 +35,7 @@ import org.apache.tsfile.file.metadata.statistics.Statistics;
 import org.apache.tsfile.file.metadata.statistics.TimeStatistics;
 import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.tsfile.write.page.SealedPage;
 import org.apache.tsfile.write.page.TimePageWriter;
 import org.apache.tsfile.write.writer.TsFileIOWriter;
 
@@ -57,6 +59,13 @@ public class TimeChunkWriter {
 
   private IEncryptor encryptor;
 
+  /**
+   * the encryptor whose IV is derived from the position of a page, otherwise null. The position is
+   * only known when the chunk is flushed, so the pages are kept unencrypted in pageBuffer until
+   * then, and {@link #encryptor} does not encrypt.
+   */
+  private IEncryptor pageIvEncryptor;
+
   /** all pages of this chunk. */
   private PublicBAOS pageBuffer;
 
@@ -84,6 +93,9 @@ public class TimeChunkWriter {
 
   private Statistics<?> firstPageStatistics;
 
+  /** null if the pages are compressed in the thread of this writer. */
+  private PageCompressionPipeline pageCompressionPipeline;
+
   protected TimeChunkWriter() {}
 
   public TimeChunkWriter(
@@ -93,8 +105,9 @@ public class TimeChunkWriter {
       Encoder timeEncoder) {
     this.measurementId = measurementId;
     this.encodingType = encodingType;
-    this.compressionType = compressionType;
-    this.encryptor = EncryptUtils.encryptor;
+    this.pageIvEncryptor = EncryptUtils.encryptor.hasPageIv() ? EncryptUtils.encryptor : null;
+    this.encryptor =
+        pageIvEncryptor != null ? new IEncryptor.NoEncryptor() : EncryptUtils.encryptor;
     this.pageBuffer = new PublicBAOS();
 
     this.pageSizeThreshold = TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
@@ -106,8 +119,13 @@ public class TimeChunkWriter {
     // init statistics for this chunk and page
     this.statistics = new TimeStatistics();
 
-    this.pageWriter =
-        new TimePageWriter(timeEncoder, ICompressor.getCompressor(compressionType), this.encryptor);
+    ICompressor compressor = ICompressor.getCompressor(compressionType);
+    // no dictionary is trained for the time pages, so ZSTD_DICTIONARY falls back to ZSTD
+    this.compressionType = compressor.getType();
+    this.pageWriter = new TimePageWriter(timeEncoder, compressor, this.encryptor);
+    this.pageCompressionPipeline =
+        PageCompressionPipeline.getPipeline(
+            compressor, this.encryptor, this::appendPageToPageBuffer);
   }
 
   public TimeChunkWriter(
@@ -118,8 +136,8 @@ public class TimeChunkWriter {
       IEncryptor encryptor) {
     this.measurementId = measurementId;
     this.encodingType = encodingType;
-    this.compressionType = compressionType;
-    this.encryptor = encryptor;
+    this.pageIvEncryptor = encryptor.hasPageIv() ? encryptor : null;
+    this.encryptor = pageIvEncryptor != null ? new IEncryptor.NoEncryptor() : encryptor;
     this.pageBuffer = new PublicBAOS();
 
     this.pageSizeThreshold = TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
@@ -131,8 +149,13 @@ public class TimeChunkWriter {
     // init statistics for this chunk and page
     this.statistics = new TimeStatistics();
 
-    this.pageWriter =
-        new TimePageWriter(timeEncoder, ICompressor.getCompressor(compressionType), encryptor);
+    ICompressor compressor = ICompressor.getCompressor(compressionType);
+    // no dictionary is trained for the time pages, so ZSTD_DICTIONARY falls back to ZSTD
+    this.compressionType = compressor.getType();
+    this.pageWriter = new TimePageWriter(timeEncoder, compressor, this.encryptor);
+    this.pageCompressionPipeline =
+        PageCompressionPipeline.getPipeline(
+            compressor, this.encryptor, this::appendPageToPageBuffer);
   }
 
   public void write(long time) {
@@ -180,7 +203,17 @@ public class TimeChunkWriter {
 
   public void writePageToPageBuffer() {
     try {
-      if (numOfPages == 0) { // record the firstPageStatistics
+      boolean compressInBackground =
+          pageCompressionPipeline != null && pageWriter.getStatistics().getCount() != 0;
+      if (pageCompressionPipeline != null && !compressInBackground) {
+        // an empty page is written directly after the pages being compressed
+        pageCompressionPipeline.appendAllPages();
+      }
+      if (compressInBackground) {
+        // the page is compressed in the background and appended after the previous pages
+        pageCompressionPipeline.appendCompressedPages();
+        pageCompressionPipeline.submit(pageWriter.sealPage(), numOfPages);
+      } else if (numOfPages == 0) { // record the firstPageStatistics
         this.firstPageStatistics = pageWriter.getStatistics();
         this.sizeWithoutStatistic = pageWriter.writePageHeaderAndDataIntoBuff(pageBuffer, true);
       } else if (numOfPages == 1) { // put the firstPageStatistics into pageBuffer
@@ -206,8 +239,45 @@ public class TimeChunkWriter {
     }
   }
 
+  /** Appends a page compressed in the background, see {@link #writePageToPageBuffer()}. */
+  private void appendPageToPageBuffer(SealedPage page, int pageIndex) throws IOException {
+    if (pageIndex == 0) { // record the firstPageStatistics
+      this.firstPageStatistics = page.getStatistics();
+      this.sizeWithoutStatistic = page.writeTo(pageBuffer, true);
+    } else if (pageIndex == 1) { // put the firstPageStatistics into pageBuffer
+      byte[] b = pageBuffer.toByteArray();
+      pageBuffer.reset();
+      pageBuffer.write(b, 0, this.sizeWithoutStatistic);
+      firstPageStatistics.serialize(pageBuffer);
+      pageBuffer.write(b, this.sizeWithoutStatistic, b.length - this.sizeWithoutStatistic);
+      page.writeTo(pageBuffer, false);
+      firstPageStatistics = null;
+    } else {
+      page.writeTo(pageBuffer, false);
+    }
+  }
+
+  /** Waits for the pages compressed in the background, so that pageBuffer holds all the pages. */
+  private void appendPendingPages() {
+    if (pageCompressionPipeline == null || !pageCompressionPipeline.hasPendingPages()) {
+      return;
+    }
+    try {
+      pageCompressionPipeline.appendAllPages();
+    } catch (IOException e) {
+      throw new TsFileEncodingException(
+          "Failed to compress the pages of chunk " + measurementId + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Appends a compressed page to this chunk. The data is encrypted like the pages of this chunk,
+   * unless the IV of a page is derived from its position, see {@link IEncryptor#hasPageIv()}. The
+   * data should then be decrypted already.
+   */
   public void writePageHeaderAndDataIntoBuff(ByteBuffer data, PageHeader header)
       throws PageException {
+    appendPendingPages();
     // write the page header to pageBuffer
     try {
       logger.debug(
@@ -267,12 +337,14 @@ public class TimeChunkWriter {
 
   public long estimateMaxSeriesMemSize() {
     return pageBuffer.size()
+        + (pageCompressionPipeline == null ? 0 : pageCompressionPipeline.getPendingSizeInByte())
         + pageWriter.estimateMaxMemSize()
         + PageHeader.estimateMaxPageHeaderSizeWithoutStatistics()
         + pageWriter.getStatistics().getSerializedSize();
   }
 
   public long getCurrentChunkSize() {
+    appendPendingPages();
     if (pageBuffer.size() == 0) {
       return 0;
     }
@@ -310,9 +382,22 @@ public class TimeChunkWriter {
    * @throws IOException exception in IO
    */
   public void writeAllPagesOfChunkToTsFile(TsFileIOWriter writer) throws IOException {
+    if (pageCompressionPipeline != null) {
+      pageCompressionPipeline.appendAllPages();
+    }
     if (statistics.getCount() == 0) {
       return;
     }
+    if (pageIvEncryptor != null) {
+      // the IVs are derived from the offset of the chunk header, which starts here
+      EncryptUtils.encryptChunkData(
+          pageIvEncryptor,
+          writer.getPos(),
+          ByteBuffer.wrap(pageBuffer.getBuf(), 0, pageBuffer.size()),
+          false,
+          numOfPages == 1,
+          TSDataType.VECTOR);
+    }
 
     // start to write this column chunk
     writer.startFlushChunk(
@@ -345,6 +430,7 @@ public class TimeChunkWriter {
 
   /** only used for test */
   public PublicBAOS getPageBuffer() {
+    appendPendingPages();
     return pageBuffer;
   }
 
@@ -18,33 +18,47 @@
  */
 package org.apache.tsfile.write.chunk;
 
+import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.compress.CompressionAdvisor;
 import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.encoding.decoder.ChunkDictionaryDecoder;
+import org.apache.tsfile.encoding.decoder.Decoder;
+import org.apache.tsfile.encoding.encoder.ChunkDictionaryEncoder;
 import org.apache.tsfile.encoding.encoder.Encoder;
+import org.apache.tsfile.encoding.encoder.EncodingAdvisor;
+import org.apache.tsfile.encoding.encoder.TSEncodingBuilder;
 import org.apache.tsfile.encrypt.EncryptUtils;
 import org.apache.tsfile.encrypt.IEncryptor;
 import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.encoding.TsFileEncodingException;
 import org.apache.tsfile.exception.write.PageException;
 import org.apache.tsfile.file.header.ChunkHeader;
 import org.apache.tsfile.file.header.PageHeader;
 import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
 import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.tsfile.write.page.SealedPage;
 import org.apache.tsfile.write.page.ValuePageWriter;
 import org.apache.tsfile.write.writer.TsFileIOWriter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ValueChunkWriter {
 
@@ -54,17 +68,53 @@ public class ValueChunkWriter {
 
   private final TSEncoding encodingType;
 
+  private final Encoder valueEncoder;
+
+  /**
+   * the value encoder if the values are encoded by {@link TSEncoding#CHUNK_DICTIONARY}, whose
+   * dictionary is written in front of the pages when the chunk is flushed, otherwise null.
+   */
+  private ChunkDictionaryEncoder chunkDictionaryEncoder;
+
+  /**
+   * The value encoding of the current chunk. It is {@link #encodingType} unless the encoding
+   * advisor chooses another one from the first page of the chunk.
+   */
+  private TSEncoding chunkEncodingType;
+
+  /** null if the encoding advisor is disabled. */
+  private final EncodingAdvisor encodingAdvisor;
+
   private final TSDataType dataType;
 
   private final CompressionType compressionType;
 
+  /**
+   * The compressor of the current chunk. It is the compressor of {@link #compressionType} unless
+   * the compression advisor chooses another one from the first page of the chunk.
+   */
+  private ICompressor compressor;
+
+  /** null if the compression advisor is disabled. */
+  private final CompressionAdvisor compressionAdvisor;
+
   private final IEncryptor encryptor;
 
+  /**
+   * the encryptor whose IV is derived from the position of a page, otherwise null. The position is
+   * only known when the chunk is flushed, so the pages are kept unencrypted in pageBuffer until
+   * then, and {@link #encryptor} does not encrypt.
+   */
+  private final IEncryptor pageIvEncryptor;
+
   /** all pages of this chunk. */
   private final PublicBAOS pageBuffer;
 
   private int numOfPages;
 
+  /** the number of pages a dictionary was tried for, so that it is not trained twice for them. */
+  private int numOfPagesOfTrainedDictionary;
+
   /** write data into current page */
   private ValuePageWriter pageWriter;
 
@@ -87,6 +137,9 @@ public class ValueChunkWriter {
 
   private Statistics<?> firstPageStatistics;
 
+  /** null if the pages are compressed in the thread of this writer. */
+  private final PageCompressionPipeline pageCompressionPipeline;
+
   public ValueChunkWriter(
       String measurementId,
       CompressionType compressionType,
@@ -95,9 +148,20 @@ public class ValueChunkWriter {
       Encoder valueEncoder) {
     this.measurementId = measurementId;
     this.encodingType = encodingType;
+    this.valueEncoder = valueEncoder;
+    this.chunkDictionaryEncoder =
+        valueEncoder instanceof ChunkDictionaryEncoder
+            ? (ChunkDictionaryEncoder) valueEncoder
+            : null;
+    this.chunkEncodingType = encodingType;
+    this.encodingAdvisor = EncodingAdvisor.getAdvisor(TSFileDescriptor.getInstance().getConfig());
+    this.compressionAdvisor =
+        CompressionAdvisor.getAdvisor(TSFileDescriptor.getInstance().getConfig());
     this.dataType = dataType;
     this.compressionType = compressionType;
-    this.encryptor = EncryptUtils.encryptor;
+    this.pageIvEncryptor = EncryptUtils.encryptor.hasPageIv() ? EncryptUtils.encryptor : null;
+    this.encryptor =
+        pageIvEncryptor != null ? new IEncryptor.NoEncryptor() : EncryptUtils.encryptor;
     this.pageBuffer = new PublicBAOS();
     this.pageSizeThreshold = TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
     this.maxNumberOfPointsInPage =
@@ -107,9 +171,11 @@ public class ValueChunkWriter {
     // init statistics for this chunk and page
     this.statistics = Statistics.getStatsByType(dataType);
 
-    this.pageWriter =
-        new ValuePageWriter(
-            valueEncoder, ICompressor.getCompressor(compressionType), dataType, this.encryptor);
+    this.compressor = ICompressor.getCompressor(compressionType);
+    this.pageWriter = new ValuePageWriter(valueEncoder, compressor, dataType, this.encryptor);
+    this.pageCompressionPipeline =
+        PageCompressionPipeline.getPipeline(
+            compressor, this.encryptor, this::appendPageToPageBuffer);
   }
 
   public ValueChunkWriter(
@@ -121,9 +187,19 @@ public class ValueChunkWriter {
       IEncryptor encryptor) {
     this.measurementId = measurementId;
     this.encodingType = encodingType;
+    this.valueEncoder = valueEncoder;
+    this.chunkDictionaryEncoder =
+        valueEncoder instanceof ChunkDictionaryEncoder
+            ? (ChunkDictionaryEncoder) valueEncoder
+            : null;
+    this.chunkEncodingType = encodingType;
+    this.encodingAdvisor = EncodingAdvisor.getAdvisor(TSFileDescriptor.getInstance().getConfig());
+    this.compressionAdvisor =
+        CompressionAdvisor.getAdvisor(TSFileDescriptor.getInstance().getConfig());
     this.dataType = dataType;
     this.compressionType = compressionType;
-    this.encryptor = encryptor;
+    this.pageIvEncryptor = encryptor.hasPageIv() ? encryptor : null;
+    this.encryptor = pageIvEncryptor != null ? new IEncryptor.NoEncryptor() : encryptor;
     this.pageBuffer = new PublicBAOS();
     this.pageSizeThreshold = TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
     this.maxNumberOfPointsInPage =
@@ -133,9 +209,11 @@ public class ValueChunkWriter {
     // init statistics for this chunk and page
     this.statistics = Statistics.getStatsByType(dataType);
 
-    this.pageWriter =
-        new ValuePageWriter(
-            valueEncoder, ICompressor.getCompressor(compressionType), dataType, encryptor);
+    this.compressor = ICompressor.getCompressor(compressionType);
+    this.pageWriter = new ValuePageWriter(valueEncoder, compressor, dataType, this.encryptor);
+    this.pageCompressionPipeline =
+        PageCompressionPipeline.getPipeline(
+            compressor, this.encryptor, this::appendPageToPageBuffer);
   }
 
   public void write(long time, long value, boolean isNull) {
@@ -187,6 +265,14 @@ public class ValueChunkWriter {
   }
 
   public void writeEmptyPageToPageBuffer() throws IOException {
+    if (pageCompressionPipeline != null) {
+      // the empty page is written after the pages being compressed
+      pageCompressionPipeline.appendAllPages();
+    }
+    appendEmptyPageToPageBuffer();
+  }
+
+  private void appendEmptyPageToPageBuffer() throws IOException {
     if (numOfPages == 1 && firstPageStatistics != null) {
       // if the first page is not an empty page
       byte[] b = pageBuffer.toByteArray();
@@ -202,7 +288,37 @@ public class ValueChunkWriter {
 
   public void writePageToPageBuffer() {
     try {
-      if (numOfPages == 0) {
+      if (numOfPages == 0
+          && encodingAdvisor != null
+          && chunkDictionaryEncoder == null
+          && pageWriter.getStatistics().getCount() != 0) {
+        // choose the value encoding of this chunk from its first page
+        chunkEncodingType =
+            pageWriter.adviseValueEncoding(encodingAdvisor, dataType, chunkEncodingType);
+      }
+      SealedPage sealedPage = null;
+      if (numOfPages == 0
+          && compressionAdvisor != null
+          && pageWriter.getStatistics().getCount() != 0) {
+        // choose the compression of this chunk from its first page
+        sealedPage = pageWriter.sealPage();
+        setCompressor(compressionAdvisor.advise(sealedPage.getUncompressedData()));
+      }
+      boolean compressInBackground =
+          pageCompressionPipeline != null && pageWriter.getStatistics().getCount() != 0;
+      if (pageCompressionPipeline != null && !compressInBackground) {
+        // an empty page is written directly after the pages being compressed
+        pageCompressionPipeline.appendAllPages();
+      }
+      if (compressInBackground) {
+        // the page is compressed in the background and appended after the previous pages
+        pageCompressionPipeline.appendCompressedPages();
+        pageCompressionPipeline.submit(
+            sealedPage != null ? sealedPage : pageWriter.sealPage(), numOfPages);
+      } else if (sealedPage != null) {
+        sealedPage.compress(compressor, encryptor);
+        appendPageToPageBuffer(sealedPage, numOfPages);
+      } else if (numOfPages == 0) {
         if (pageWriter.getStatistics().getCount() != 0) {
           // record the firstPageStatistics if it is not empty page
           this.firstPageStatistics = pageWriter.getStatistics();
@@ -225,6 +341,11 @@ public class ValueChunkWriter {
       // update statistics of this chunk
       numOfPages++;
       this.statistics.mergeStatistics(pageWriter.getStatistics());
+      if (chunkDictionaryEncoder != null
+          && chunkDictionaryEncoder.getMaxDictionaryByteSize()
+              > TSFileDescriptor.getInstance().getConfig().getChunkDictionaryMaxSizeInByte()) {
+        fallBackToPlainEncoding();
+      }
     } catch (IOException e) {
       logger.error("meet error in pageWriter.writePageHeaderAndDataIntoBuff,ignore this page:", e);
     } finally {
@@ -233,8 +354,77 @@ public class ValueChunkWriter {
     }
   }
 
+  /** Appends a page compressed in the background, see {@link #writePageToPageBuffer()}. */
+  private void appendPageToPageBuffer(SealedPage page, int pageIndex) throws IOException {
+    if (pageIndex == 0) { // record the firstPageStatistics
+      this.firstPageStatistics = page.getStatistics();
+      this.sizeWithoutStatistic = page.writeTo(pageBuffer, true);
+    } else if (pageIndex == 1) { // put the firstPageStatistics into pageBuffer
+      if (firstPageStatistics != null) { // Consider previous page is an empty page
+        byte[] b = pageBuffer.toByteArray();
+        pageBuffer.reset();
+        pageBuffer.write(b, 0, this.sizeWithoutStatistic);
+        firstPageStatistics.serialize(pageBuffer);
+        pageBuffer.write(b, this.sizeWithoutStatistic, b.length - this.sizeWithoutStatistic);
+      }
+      page.writeTo(pageBuffer, false);
+      firstPageStatistics = null;
+    } else {
+      page.writeTo(pageBuffer, false);
+    }
+  }
+
+  /** Waits for the pages compressed in the background, so that pageBuffer holds all the pages. */
+  private void appendPendingPages() {
+    if (pageCompressionPipeline == null || !pageCompressionPipeline.hasPendingPages()) {
+      return;
+    }
+    try {
+      pageCompressionPipeline.appendAllPages();
+    } catch (IOException e) {
+      throw new TsFileEncodingException(
+          "Failed to compress the pages of chunk " + measurementId + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Appends a compressed page to this chunk. The data is encrypted like the pages of this chunk,
+   * unless the IV of a page is derived from its position, see {@link IEncryptor#hasPageIv()}. The
+   * data should then be decrypted already.
+   */
   public void writePageHeaderAndDataIntoBuff(ByteBuffer data, PageHeader header)
       throws PageException {
+    appendPendingPages();
+    if (encodingType == TSEncoding.CHUNK_DICTIONARY) {
+      throw new PageException(
+          "Cannot append a page to a chunk encoded by " + TSEncoding.CHUNK_DICTIONARY);
+    }
+    if (compressionType == CompressionType.ZSTD_DICTIONARY) {
+      // the page may be compressed by the dictionary of its own chunk
+      throw new PageException(
+          "Cannot append a page to a chunk compressed by " + CompressionType.ZSTD_DICTIONARY);
+    }
+    if (header.getUncompressedSize() != 0
+        && (chunkEncodingType != encodingType || compressor.getType() != compressionType)) {
+      // the advisors have changed the encoding or the compression of this chunk, so the page is
+      // written again in the format of the chunk
+      try {
+        appendPageToPageBuffer(
+            rewritePage(
+                data,
+                header,
+                compressionType,
+                chunkEncodingType == encodingType
+                    ? null
+                    : Decoder.getDecoderByType(encodingType, dataType)),
+            numOfPages);
+      } catch (IOException | RuntimeException e) {
+        throw new PageException("Failed to rewrite the page " + header, e);
+      }
+      statistics.mergeStatistics(header.getStatistics());
+      numOfPages++;
+      return;
+    }
     // write the page header to pageBuffer
     try {
       logger.debug(
@@ -294,6 +484,187 @@ public class ValueChunkWriter {
     }
   }
 
+  /**
+   * Uncompresses a page compressed by {@code compressionType}, and writes it again with the
+   * encoding and the compression of this chunk. The bitmap is kept as it is.
+   *
+   * @param valueDecoder the decoder of the values, null if they are kept as they are
+   */
+  private SealedPage rewritePage(
+      ByteBuffer data, PageHeader header, CompressionType compressionType, Decoder valueDecoder)
+      throws IOException {
+    ByteBuffer pageData =
+        ChunkReader.decryptAndUncompressPageData(
+            header, IUnCompressor.getUnCompressor(compressionType), data, encryptor.getDecryptor());
+    int size = pageData.getInt(pageData.position());
+    int headLength = Integer.BYTES + (size + 7) / 8;
+    ByteBuffer valueBuffer = pageData.slice();
+    valueBuffer.position(headLength);
+
+    PublicBAOS out = new PublicBAOS(pageData.remaining());
+    out.write(pageData.array(), pageData.arrayOffset() + pageData.position(), headLength);
+    if (valueDecoder == null) {
+      out.write(
+          valueBuffer.array(),
+          valueBuffer.arrayOffset() + valueBuffer.position(),
+          valueBuffer.remaining());
+    } else {
+      EncodingAdvisor.transcode(
+          dataType,
+          valueDecoder,
+          chunkEncodingType,
+          valueBuffer,
+          (int) header.getStatistics().getCount(),
+          out);
+    }
+
+    SealedPage page =
+        new SealedPage(ByteBuffer.wrap(out.getBuf(), 0, out.size()), header.getStatistics());
+    page.compress(compressor, encryptor);
+    return page;
+  }
+
+  /**
+   * Encodes the pages of this chunk by PLAIN instead, because the dictionary of {@link
+   * TSEncoding#CHUNK_DICTIONARY} has grown larger than {@link
+   * TSFileConfig#getChunkDictionaryMaxSizeInByte()}.
+   */
+  private void fallBackToPlainEncoding() throws IOException {
+    appendPendingPages();
+    ChunkDictionaryEncoder dictionaryEncoder = chunkDictionaryEncoder;
+    chunkDictionaryEncoder = null;
+    chunkEncodingType = TSEncoding.PLAIN;
+    pageWriter.setValueEncoder(
+        TSEncodingBuilder.getEncodingBuilder(chunkEncodingType).getEncoder(dataType));
+
+    ByteBuffer pages = ByteBuffer.wrap(pageBuffer.toByteArray());
+    int pageNum = numOfPages;
+    Statistics<? extends Serializable> onlyPageStatistics = firstPageStatistics;
+    pageBuffer.reset();
+    numOfPages = 0;
+    numOfPagesOfTrainedDictionary = 0;
+    sizeWithoutStatistic = 0;
+    firstPageStatistics = null;
+    for (int i = 0; i < pageNum; i++) {
+      PageHeader header =
+          pageNum == 1
+              ? PageHeader.deserializeFrom(pages, onlyPageStatistics)
+              : PageHeader.deserializeFrom(pages, dataType);
+      if (header.getUncompressedSize() == 0) {
+        appendEmptyPageToPageBuffer();
+        continue;
+      }
+      appendPageToPageBuffer(
+          rewritePage(
+              pages,
+              header,
+              compressor.getType(),
+              new ChunkDictionaryDecoder(dictionaryEncoder.getDictionary())),
+          numOfPages);
+      numOfPages++;
+    }
+    dictionaryEncoder.resetDictionary();
+  }
+
+  /**
+   * Compresses the pages by a trained dictionary before the size of the chunk is computed, so that
+   * the computed size is the one flushed.
+   */
+  private void compressByTrainedDictionaryIfNeeded() {
+    if (compressionType != CompressionType.ZSTD_DICTIONARY) {
+      return;
+    }
+    try {
+      compressByTrainedDictionary();
+    } catch (IOException e) {
+      throw new TsFileEncodingException(
+          "Failed to compress the pages of chunk "
+              + measurementId
+              + " by a dictionary: "
+              + e.getMessage());
+    }
+  }
+
+  /**
+   * Compresses the pages of this chunk by ZSTD with a dictionary trained from its first pages, see
+   * {@link CompressionType#ZSTD_DICTIONARY}. The pages are kept as they are if they are too few to
+   * train a dictionary, or the dictionary and the pages compressed by it are not smaller than the
+   * pages compressed without it. A chunk encoded by {@link TSEncoding#CHUNK_DICTIONARY} has a
+   * dictionary block already, so it is compressed without a dictionary.
+   */
+  private void compressByTrainedDictionary() throws IOException {
+    if (numOfPages < 2
+        || numOfPages == numOfPagesOfTrainedDictionary
+        || chunkDictionaryEncoder != null
+        || compressor.getType() != CompressionType.ZSTD) {
+      return;
+    }
+    int dictionarySize =
+        TSFileDescriptor.getInstance().getConfig().getZstdDictionaryMaxSizeInByte();
+    long maxSampleSize = (long) dictionarySize * ICompressor.ZstdCompressor.DICTIONARY_SAMPLE_RATIO;
+    byte[] pages = pageBuffer.toByteArray();
+    ByteBuffer pageData = ByteBuffer.wrap(pages);
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(CompressionType.ZSTD);
+    List<PageHeader> headers = new ArrayList<>(numOfPages);
+    // null for an empty page
+    List<byte[]> uncompressedPages = new ArrayList<>(numOfPages);
+    List<byte[]> samples = new ArrayList<>();
+    long sampleSize = 0;
+    for (int i = 0; i < numOfPages; i++) {
+      PageHeader header = PageHeader.deserializeFrom(pageData, dataType);
+      headers.add(header);
+      if (header.getUncompressedSize() == 0) {
+        uncompressedPages.add(null);
+        continue;
+      }
+      byte[] uncompressed =
+          ChunkReader.decryptAndUncompressPageData(
+                  header, unCompressor, pageData, encryptor.getDecryptor())
+              .array();
+      uncompressedPages.add(uncompressed);
+      if (sampleSize < maxSampleSize) {
+        samples.add(uncompressed);
+        sampleSize += uncompressed.length;
+      }
+    }
+    numOfPagesOfTrainedDictionary = numOfPages;
+    ICompressor.ZstdCompressor dictionaryCompressor;
+    try {
+      dictionaryCompressor =
+          new ICompressor.ZstdCompressor(
+              ((ICompressor.ZstdCompressor) compressor).getCompressionLevel(),
+              ICompressor.ZstdCompressor.trainDictionary(samples, dictionarySize));
+    } catch (IOException e) {
+      logger.debug("Compress chunk {} without a dictionary: {}", measurementId, e.getMessage());
+      return;
+    }
+
+    ICompressor plainCompressor = compressor;
+    int pageNum = numOfPages;
+    pageBuffer.reset();
+    numOfPages = 0;
+    setCompressor(dictionaryCompressor);
+    for (int i = 0; i < pageNum; i++) {
+      if (uncompressedPages.get(i) == null) {
+        appendEmptyPageToPageBuffer();
+        continue;
+      }
+      SealedPage page =
+          new SealedPage(ByteBuffer.wrap(uncompressedPages.get(i)), headers.get(i).getStatistics());
+      page.compress(compressor, encryptor);
+      appendPageToPageBuffer(page, numOfPages);
+      numOfPages++;
+    }
+    int dictionaryBlockSize =
+        dictionaryCompressor.writeDictionary(encryptor, new ByteArrayOutputStream());
+    if (pageBuffer.size() + dictionaryBlockSize >= pages.length) {
+      // the dictionary does not pay off
+      pageBuffer.reset();
+      pageBuffer.write(pages, 0, pages.length);
+      setCompressor(plainCompressor);
+    }
+  }
+
   public void writeToFileWriter(TsFileIOWriter tsfileWriter) throws IOException {
     sealCurrentPage();
     writeAllPagesOfChunkToTsFile(tsfileWriter);
@@ -304,16 +675,34 @@ public class ValueChunkWriter {
     sizeWithoutStatistic = 0;
     firstPageStatistics = null;
     this.statistics = Statistics.getStatsByType(dataType);
+    if (chunkDictionaryEncoder != null) {
+      chunkDictionaryEncoder.resetDictionary();
+    }
+    if (compressionAdvisor != null || compressor.getType() == CompressionType.ZSTD_DICTIONARY) {
+      // the next chunk starts over with the configured compression
+      setCompressor(ICompressor.getCompressor(compressionType));
+    }
+    if (chunkEncodingType != encodingType) {
+      // the next chunk starts over with the configured encoding
+      chunkEncodingType = encodingType;
+      pageWriter.setValueEncoder(valueEncoder);
+      if (valueEncoder instanceof ChunkDictionaryEncoder) {
+        chunkDictionaryEncoder = (ChunkDictionaryEncoder) valueEncoder;
+      }
+    }
   }
 
   public long estimateMaxSeriesMemSize() {
     return pageBuffer.size()
+        + (pageCompressionPipeline == null ? 0 : pageCompressionPipeline.getPendingSizeInByte())
+        + getMaxDictionaryByteSize()
         + pageWriter.estimateMaxMemSize()
         + PageHeader.estimateMaxPageHeaderSizeWithoutStatistics()
         + pageWriter.getStatistics().getSerializedSize();
   }
 
   public long getCurrentChunkSize() {
+    appendPendingPages();
     /**
      * It may happen if subsequent write operations are all out of order, then count of statistics
      * in this chunk will be 0 and this chunk will not be flushed.
@@ -328,9 +717,40 @@ public class ValueChunkWriter {
       return ChunkHeader.getSerializedSize(measurementId, 0);
     }
 
-    // return the serialized size of the chunk header + all pages
-    return ChunkHeader.getSerializedSize(measurementId, pageBuffer.size())
-        + (long) pageBuffer.size();
+    compressByTrainedDictionaryIfNeeded();
+    // return the serialized size of the chunk header + the dictionary + all pages
+    long dataSize = pageBuffer.size() + getDictionaryByteSize();
+    return ChunkHeader.getSerializedSize(measurementId, (int) dataSize) + dataSize;
+  }
+
+  private void setCompressor(ICompressor compressor) {
+    this.compressor = compressor;
+    if (pageWriter != null) {
+      pageWriter.setCompressor(compressor);
+    }
+    if (pageCompressionPipeline != null) {
+      pageCompressionPipeline.setCompressor(compressor);
+    }
+  }
+
+  private int getDictionaryByteSize() {
+    if (chunkDictionaryEncoder == null && compressor.getType() != CompressionType.ZSTD_DICTIONARY) {
+      return 0;
+    }
+    try {
+      if (chunkDictionaryEncoder == null) {
+        return ((ICompressor.ZstdCompressor) compressor)
+            .writeDictionary(encryptor, new ByteArrayOutputStream());
+      }
+      return chunkDictionaryEncoder.getDictionaryByteSize(compressor, encryptor);
+    } catch (IOException e) {
+      throw new TsFileEncodingException(
+          "Failed to serialize the dictionary of chunk " + measurementId + ": " + e.getMessage());
+    }
+  }
+
+  private long getMaxDictionaryByteSize() {
+    return chunkDictionaryEncoder == null ? 0 : chunkDictionaryEncoder.getMaxDictionaryByteSize();
   }
 
   public boolean checkPageSizeAndMayOpenANewPage() {
@@ -386,6 +806,12 @@ public class ValueChunkWriter {
    * @throws IOException exception in IO
    */
   public void writeAllPagesOfChunkToTsFile(TsFileIOWriter writer) throws IOException {
+    if (pageCompressionPipeline != null) {
+      pageCompressionPipeline.appendAllPages();
+    }
+    if (compressionType == CompressionType.ZSTD_DICTIONARY && statistics.getCount() != 0) {
+      compressByTrainedDictionary();
+    }
     if (statistics.getCount() == 0) {
       if (pageBuffer.size() == 0) {
         return;
@@ -398,7 +824,7 @@ public class ValueChunkWriter {
           measurementId,
           compressionType,
           dataType,
-          encodingType,
+          chunkEncodingType,
           statistics,
           0,
           0,
@@ -407,30 +833,64 @@ public class ValueChunkWriter {
       return;
     }
 
+    // the dictionary of the chunk is written in front of all pages
+    PublicBAOS dictionaryBuffer = null;
+    if (chunkDictionaryEncoder != null) {
+      dictionaryBuffer = new PublicBAOS();
+      chunkDictionaryEncoder.writeDictionary(compressor, encryptor, dictionaryBuffer);
+    } else if (compressor.getType() == CompressionType.ZSTD_DICTIONARY) {
+      dictionaryBuffer = new PublicBAOS();
+      ((ICompressor.ZstdCompressor) compressor).writeDictionary(encryptor, dictionaryBuffer);
+    }
+    int expectedSize = pageBuffer.size() + (dictionaryBuffer == null ? 0 : dictionaryBuffer.size());
+    if (pageIvEncryptor != null) {
+      // the IVs are derived from the offset of the chunk header, which starts here
+      long chunkOffset = writer.getPos();
+      if (dictionaryBuffer != null) {
+        EncryptUtils.encryptChunkData(
+            pageIvEncryptor,
+            chunkOffset,
+            ByteBuffer.wrap(dictionaryBuffer.getBuf(), 0, dictionaryBuffer.size()),
+            true,
+            false,
+            dataType);
+      }
+      EncryptUtils.encryptChunkData(
+          pageIvEncryptor,
+          chunkOffset,
+          ByteBuffer.wrap(pageBuffer.getBuf(), 0, pageBuffer.size()),
+          false,
+          numOfPages == 1,
+          dataType);
+    }
+
     // start to write this column chunk
     writer.startFlushChunk(
         measurementId,
-        compressionType,
+        compressor.getType(),
         dataType,
-        encodingType,
+        chunkEncodingType,
         statistics,
-        pageBuffer.size(),
+        expectedSize,
         numOfPages,
         TsFileConstant.VALUE_COLUMN_MASK);
 
     long dataOffset = writer.getPos();
 
     // write all pages of this column
+    if (dictionaryBuffer != null) {
+      writer.writeBytesToStream(dictionaryBuffer);
+    }
     writer.writeBytesToStream(pageBuffer);
 
     int dataSize = (int) (writer.getPos() - dataOffset);
-    if (dataSize != pageBuffer.size()) {
+    if (dataSize != expectedSize) {
       throw new IOException(
           "Bytes written is inconsistent with the size of data: "
               + dataSize
               + " !="
               + " "
-              + pageBuffer.size());
+              + expectedSize);
     }
 
     writer.endCurrentChunk();
@@ -450,6 +910,7 @@ public class ValueChunkWriter {
 
   /** only used for test */
   public PublicBAOS getPageBuffer() {
+    appendPendingPages();
     return pageBuffer;
   }
 
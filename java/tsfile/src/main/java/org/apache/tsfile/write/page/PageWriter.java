@@ -20,25 +20,20 @@ package org.apache.tsfile.write.page;
 
 import org.apache.tsfile.compress.ICompressor;
 import org.apache.tsfile.encoding.encoder.Encoder;
+import org.apache.tsfile.encoding.encoder.EncodingAdvisor;
 import org.apache.tsfile.encrypt.EncryptUtils;
 import org.apache.tsfile.encrypt.IEncryptor;
 import org.apache.tsfile.enums.TSDataType;
-import org.apache.tsfile.file.metadata.enums.CompressionType;
-import org.apache.tsfile.file.metadata.enums.EncryptionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
 import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.WritableByteChannel;
 
 /**
  * This writer is used to write time-value into a page. It consists of a time encoder, a value
@@ -46,8 +41,6 @@ import java.nio.channels.WritableByteChannel;
  */
 public class PageWriter {
 
-  private static final Logger logger = LoggerFactory.getLogger(PageWriter.class);
-
   private ICompressor compressor;
 
   private IEncryptor encryptor;
@@ -72,7 +65,8 @@ public class PageWriter {
   public PageWriter(IMeasurementSchema measurementSchema) {
     this(measurementSchema.getTimeEncoder(), measurementSchema.getValueEncoder());
     this.statistics = Statistics.getStatsByType(measurementSchema.getType());
-    this.compressor = ICompressor.getCompressor(measurementSchema.getCompressor());
+    this.compressor =
+        ICompressor.getCompressor(measurementSchema.getCompressor(), measurementSchema.getProps());
   }
 
   private PageWriter(Encoder timeEncoder, Encoder valueEncoder) {
@@ -90,7 +84,8 @@ public class PageWriter {
   public PageWriter(IMeasurementSchema measurementSchema, IEncryptor encryptor) {
     this(measurementSchema.getTimeEncoder(), measurementSchema.getValueEncoder(), encryptor);
     this.statistics = Statistics.getStatsByType(measurementSchema.getType());
-    this.compressor = ICompressor.getCompressor(measurementSchema.getCompressor());
+    this.compressor =
+        ICompressor.getCompressor(measurementSchema.getCompressor(), measurementSchema.getProps());
   }
 
   private PageWriter(Encoder timeEncoder, Encoder valueEncoder, IEncryptor encryptor) {
@@ -152,56 +147,86 @@ public class PageWriter {
 
   /** write time series into encoder */
   public void write(long[] timestamps, boolean[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
-      timeEncoder.encode(timestamps[i], timeOut);
-      valueEncoder.encode(values[i], valueOut);
+    write(timestamps, values, batchSize, 0);
+  }
+
+  /** write time series into encoder */
+  public void write(long[] timestamps, boolean[] values, int batchSize, int arrayOffset) {
+    timeEncoder.encode(timestamps, arrayOffset, batchSize, timeOut);
+    valueEncoder.encode(values, arrayOffset, batchSize, valueOut);
+    if (batchSize != 0) {
+      statistics.update(timestamps, values, batchSize, arrayOffset);
     }
-    statistics.update(timestamps, values, batchSize);
   }
 
   /** write time series into encoder */
   public void write(long[] timestamps, int[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
-      timeEncoder.encode(timestamps[i], timeOut);
-      valueEncoder.encode(values[i], valueOut);
+    write(timestamps, values, batchSize, 0);
+  }
+
+  /** write time series into encoder */
+  public void write(long[] timestamps, int[] values, int batchSize, int arrayOffset) {
+    timeEncoder.encode(timestamps, arrayOffset, batchSize, timeOut);
+    valueEncoder.encode(values, arrayOffset, batchSize, valueOut);
+    if (batchSize != 0) {
+      statistics.update(timestamps, values, batchSize, arrayOffset);
     }
-    statistics.update(timestamps, values, batchSize);
   }
 
   /** write time series into encoder */
   public void write(long[] timestamps, long[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
-      timeEncoder.encode(timestamps[i], timeOut);
-      valueEncoder.encode(values[i], valueOut);
+    write(timestamps, values, batchSize, 0);
+  }
+
+  /** write time series into encoder */
+  public void write(long[] timestamps, long[] values, int batchSize, int arrayOffset) {
+    timeEncoder.encode(timestamps, arrayOffset, batchSize, timeOut);
+    valueEncoder.encode(values, arrayOffset, batchSize, valueOut);
+    if (batchSize != 0) {
+      statistics.update(timestamps, values, batchSize, arrayOffset);
     }
-    statistics.update(timestamps, values, batchSize);
   }
 
   /** write time series into encoder */
   public void write(long[] timestamps, float[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
-      timeEncoder.encode(timestamps[i], timeOut);
-      valueEncoder.encode(values[i], valueOut);
+    write(timestamps, values, batchSize, 0);
+  }
+
+  /** write time series into encoder */
+  public void write(long[] timestamps, float[] values, int batchSize, int arrayOffset) {
+    timeEncoder.encode(timestamps, arrayOffset, batchSize, timeOut);
+    valueEncoder.encode(values, arrayOffset, batchSize, valueOut);
+    if (batchSize != 0) {
+      statistics.update(timestamps, values, batchSize, arrayOffset);
     }
-    statistics.update(timestamps, values, batchSize);
   }
 
   /** write time series into encoder */
   public void write(long[] timestamps, double[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
-      timeEncoder.encode(timestamps[i], timeOut);
-      valueEncoder.encode(values[i], valueOut);
+    write(timestamps, values, batchSize, 0);
+  }
+
+  /** write time series into encoder */
+  public void write(long[] timestamps, double[] values, int batchSize, int arrayOffset) {
+    timeEncoder.encode(timestamps, arrayOffset, batchSize, timeOut);
+    valueEncoder.encode(values, arrayOffset, batchSize, valueOut);
+    if (batchSize != 0) {
+      statistics.update(timestamps, values, batchSize, arrayOffset);
     }
-    statistics.update(timestamps, values, batchSize);
   }
 
   /** write time series into encoder */
   public void write(long[] timestamps, Binary[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
-      timeEncoder.encode(timestamps[i], timeOut);
-      valueEncoder.encode(values[i], valueOut);
+    write(timestamps, values, batchSize, 0);
+  }
+
+  /** write time series into encoder */
+  public void write(long[] timestamps, Binary[] values, int batchSize, int arrayOffset) {
+    timeEncoder.encode(timestamps, arrayOffset, batchSize, timeOut);
+    valueEncoder.encode(values, arrayOffset, batchSize, valueOut);
+    if (batchSize != 0) {
+      statistics.update(timestamps, values, batchSize, arrayOffset);
     }
-    statistics.update(timestamps, values, batchSize);
   }
 
   /** flush all data remained in encoders. */
@@ -226,6 +251,14 @@ public class PageWriter {
     return buffer;
   }
 
+  /**
+   * Seals the current page, whose data is then compressed and written by the returned page. The
+   * page writer should be reset before the next page is written.
+   */
+  public SealedPage sealPage() throws IOException {
+    return new SealedPage(getUncompressedBytes(), statistics);
+  }
+
   /** write the page header and data into the PageWriter's output stream. */
   public int writePageHeaderAndDataIntoBuff(PublicBAOS pageBuffer, boolean first)
       throws IOException {
@@ -233,66 +266,9 @@ public class PageWriter {
       return 0;
     }
 
-    ByteBuffer pageData = getUncompressedBytes();
-    int uncompressedSize = pageData.remaining();
-    int compressedSize;
-    byte[] compressedBytes = null;
-
-    if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
-      compressedSize = uncompressedSize;
-    } else if (compressor.getType().equals(CompressionType.GZIP)) {
-      compressedBytes =
-          compressor.compress(pageData.array(), pageData.position(), uncompressedSize);
-      compressedSize = compressedBytes.length;
-    } else {
-      compressedBytes = new byte[compressor.getMaxBytesForCompression(uncompressedSize)];
-      // data is never a directByteBuffer now, so we can use data.array()
-      compressedSize =
-          compressor.compress(
-              pageData.array(), pageData.position(), uncompressedSize, compressedBytes);
-    }
-
-    // write the page header to IOWriter
-    int sizeWithoutStatistic = 0;
-    if (first) {
-      sizeWithoutStatistic +=
-          ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
-      sizeWithoutStatistic +=
-          ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
-    } else {
-      ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
-      ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
-      statistics.serialize(pageBuffer);
-    }
-
-    // write page content to temp PBAOS
-    logger.trace("start to flush a page data into buffer, buffer position {} ", pageBuffer.size());
-    if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
-      if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
-        try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
-          channel.write(pageData);
-        }
-      } else {
-        byte[] encryptedBytes = null;
-        encryptedBytes = encryptor.encrypt(pageData.array(), pageData.position(), uncompressedSize);
-        // data is never a directByteBuffer now, so we can use data.array()
-        int encryptedSize = encryptedBytes.length;
-        pageBuffer.write(encryptedBytes, 0, encryptedSize);
-      }
-
-    } else {
-      if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
-        pageBuffer.write(compressedBytes, 0, compressedSize);
-      } else {
-        byte[] encryptedBytes = null;
-        encryptedBytes = encryptor.encrypt(compressedBytes, 0, compressedSize);
-        // data is never a directByteBuffer now, so we can use data.array()
-        int encryptedSize = encryptedBytes.length;
-        pageBuffer.write(encryptedBytes, 0, encryptedSize);
-      }
-    }
-    logger.trace("start to flush a page data into buffer, buffer position {} ", pageBuffer.size());
-    return sizeWithoutStatistic;
+    SealedPage page = sealPage();
+    page.compress(compressor, encryptor);
+    return page.writeTo(pageBuffer, first);
   }
 
   /**
@@ -308,6 +284,24 @@ public class PageWriter {
         + valueEncoder.getMaxByteSize();
   }
 
+  /**
+   * Chooses the value encoding from the values of the current page with {@code advisor}. The values
+   * written so far are encoded again with the chosen encoding, which also encodes the values
+   * written later.
+   *
+   * @param encoding the current value encoding
+   * @return the chosen encoding
+   */
+  public TSEncoding adviseValueEncoding(
+      EncodingAdvisor advisor, TSDataType dataType, TSEncoding encoding) throws IOException {
+    valueEncoder.flush(valueOut);
+    ByteBuffer encodedValues = ByteBuffer.wrap(valueOut.toByteArray());
+    valueOut.reset();
+    valueEncoder =
+        advisor.reencode(dataType, encoding, encodedValues, (int) statistics.getCount(), valueOut);
+    return valueEncoder.getType();
+  }
+
   /** reset this page */
   public void reset(IMeasurementSchema measurementSchema) {
     timeOut.reset();
@@ -315,6 +309,10 @@ public class PageWriter {
     statistics = Statistics.getStatsByType(measurementSchema.getType());
   }
 
+  public void setCompressor(ICompressor compressor) {
+    this.compressor = compressor;
+  }
+
   public void setTimeEncoder(Encoder encoder) {
     this.timeEncoder = encoder;
   }
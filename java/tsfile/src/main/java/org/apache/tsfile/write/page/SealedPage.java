@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tsfile.write.page;
+
+import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.encrypt.IEncryptor;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.EncryptionType;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.utils.PublicBAOS;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A page whose points are all encoded, but which is not compressed or encrypted yet.
+ *
+ * <p>{@link #compress(ICompressor, IEncryptor)} touches neither the page writer nor the chunk
+ * writer, so it may run in another thread. The compressed page is then written into the page buffer
+ * of its chunk by {@link #writeTo(PublicBAOS, boolean)} in the thread of the chunk writer.
+ */
+public class SealedPage {
+
+  private static final Logger logger = LoggerFactory.getLogger(SealedPage.class);
+
+  private final ByteBuffer pageData;
+
+  private final Statistics<? extends Serializable> statistics;
+
+  private final int uncompressedSize;
+
+  /** size of the compressed data, which is the size recorded in the page header */
+  private int compressedSize;
+
+  /** the compressed and encrypted data, null if the page data is written as it is */
+  private ByteBuffer storedData;
+
+  private boolean compressed;
+
+  public SealedPage(ByteBuffer pageData, Statistics<? extends Serializable> statistics) {
+    this.pageData = pageData;
+    this.statistics = statistics;
+    this.uncompressedSize = pageData.remaining();
+  }
+
+  /**
+   * Compresses and then encrypts the page data. A direct page is compressed into direct memory if
+   * the codec {@link ICompressor#supportDirectBuffer() supports it}, so that the uncompressed page
+   * is not copied into the heap.
+   */
+  public void compress(ICompressor compressor, IEncryptor encryptor) throws IOException {
+    ByteBuffer compressedData = null;
+    if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
+      compressedSize = uncompressedSize;
+    } else if (compressor.getType().equals(CompressionType.GZIP)) {
+      // the maximum compressed size of GZIP is only an estimate, so the compressor sizes the result
+      byte[] compressedBytes;
+      if (pageData.hasArray()) {
+        compressedBytes =
+            compressor.compress(
+                pageData.array(), pageData.arrayOffset() + pageData.position(), uncompressedSize);
+      } else {
+        byte[] input = new byte[uncompressedSize];
+        pageData.duplicate().get(input);
+        compressedBytes = compressor.compress(input);
+      }
+      compressedSize = compressedBytes.length;
+      compressedData = ByteBuffer.wrap(compressedBytes);
+    } else {
+      int maxSize = compressor.getMaxBytesForCompression(uncompressedSize);
+      compressedData =
+          pageData.isDirect() && compressor.supportDirectBuffer()
+              ? ByteBuffer.allocateDirect(maxSize)
+              : ByteBuffer.allocate(maxSize);
+      compressedSize = compressor.compressBuffer(pageData, compressedData);
+      compressedData.limit(compressedSize);
+    }
+
+    if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
+      storedData = compressedData;
+    } else if (compressedData == null) {
+      ByteBuffer encrypted = ByteBuffer.allocate(uncompressedSize);
+      encrypted.limit(encryptor.encrypt(pageData.duplicate(), encrypted));
+      storedData = encrypted;
+    } else if (compressedData.hasArray()) {
+      // the compressed bytes belong to this page only, so they are encrypted in place
+      byte[] bytes = compressedData.array();
+      storedData =
+          ByteBuffer.wrap(bytes, 0, encryptor.encrypt(compressedData, ByteBuffer.wrap(bytes)));
+    } else {
+      ByteBuffer encrypted = ByteBuffer.allocate(compressedSize);
+      encrypted.limit(encryptor.encrypt(compressedData, encrypted));
+      storedData = encrypted;
+    }
+    compressed = true;
+  }
+
+  /**
+   * Writes the page header and the compressed page data into the page buffer. The statistics are
+   * left out of the header of the first page, the chunk writer puts them back if another page
+   * follows.
+   *
+   * @return the size of the page header without the statistics if it is the first page, otherwise 0
+   */
+  public int writeTo(PublicBAOS pageBuffer, boolean first) throws IOException {
+    if (!compressed) {
+      throw new IllegalStateException("The page should be compressed before it is written");
+    }
+    int sizeWithoutStatistic = 0;
+    if (first) {
+      sizeWithoutStatistic +=
+          ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
+      sizeWithoutStatistic +=
+          ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
+    } else {
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
+      statistics.serialize(pageBuffer);
+    }
+
+    // write page content to temp PBAOS
+    logger.trace("start to flush a page data into buffer, buffer position {} ", pageBuffer.size());
+    ByteBuffer data = storedData == null ? pageData.duplicate() : storedData.duplicate();
+    if (data.hasArray()) {
+      pageBuffer.write(data.array(), data.arrayOffset() + data.position(), data.remaining());
+    } else {
+      try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
+        channel.write(data);
+      }
+    }
+    logger.trace("finish flushing a page data into buffer, buffer position {} ", pageBuffer.size());
+    return sizeWithoutStatistic;
+  }
+
+  /**
+   * @return the uncompressed page data, which should not be modified
+   */
+  public ByteBuffer getUncompressedData() {
+    return pageData.duplicate();
+  }
+
+  public Statistics<? extends Serializable> getStatistics() {
+    return statistics;
+  }
+
+  public int getUncompressedSize() {
+    return uncompressedSize;
+  }
+}
@@ -22,19 +22,11 @@ import org.apache.tsfile.compress.ICompressor;
 import org.apache.tsfile.encoding.encoder.Encoder;
 import org.apache.tsfile.encrypt.EncryptUtils;
 import org.apache.tsfile.encrypt.IEncryptor;
-import org.apache.tsfile.file.metadata.enums.CompressionType;
-import org.apache.tsfile.file.metadata.enums.EncryptionType;
 import org.apache.tsfile.file.metadata.statistics.TimeStatistics;
 import org.apache.tsfile.utils.PublicBAOS;
-import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.WritableByteChannel;
 
 /**
  * This writer is used to write time into a page. It consists of a time encoder and respective
@@ -42,8 +34,6 @@ import java.nio.channels.WritableByteChannel;
  */
 public class TimePageWriter {
 
-  private static final Logger logger = LoggerFactory.getLogger(TimePageWriter.class);
-
   private final ICompressor compressor;
 
   private final IEncryptor encryptor;
@@ -82,9 +72,7 @@ public class TimePageWriter {
 
   /** write time series into encoder */
   public void write(long[] timestamps, int batchSize, int arrayOffset) {
-    for (int i = arrayOffset; i < batchSize + arrayOffset; i++) {
-      timeEncoder.encode(timestamps[i], timeOut);
-    }
+    timeEncoder.encode(timestamps, arrayOffset, batchSize, timeOut);
     if (batchSize != 0) {
       statistics.update(timestamps, batchSize, arrayOffset);
     }
@@ -109,6 +97,14 @@ public class TimePageWriter {
     return buffer;
   }
 
+  /**
+   * Seals the current page, whose data is then compressed and written by the returned page. The
+   * page writer should be reset before the next page is written.
+   */
+  public SealedPage sealPage() throws IOException {
+    return new SealedPage(getUncompressedBytes(), statistics);
+  }
+
   /** write the page header and data into the PageWriter's output stream. */
   public int writePageHeaderAndDataIntoBuff(PublicBAOS pageBuffer, boolean first)
       throws IOException {
@@ -116,68 +112,9 @@ public class TimePageWriter {
       return 0;
     }
 
-    ByteBuffer pageData = getUncompressedBytes();
-    int uncompressedSize = pageData.remaining();
-    int compressedSize;
-    byte[] compressedBytes = null;
-
-    if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
-      compressedSize = uncompressedSize;
-    } else if (compressor.getType().equals(CompressionType.GZIP)) {
-      compressedBytes =
-          compressor.compress(pageData.array(), pageData.position(), uncompressedSize);
-      compressedSize = compressedBytes.length;
-    } else {
-      compressedBytes = new byte[compressor.getMaxBytesForCompression(uncompressedSize)];
-      // data is never a directByteBuffer now, so we can use data.array()
-      compressedSize =
-          compressor.compress(
-              pageData.array(), pageData.position(), uncompressedSize, compressedBytes);
-    }
-
-    // write the page header to IOWriter
-    int sizeWithoutStatistic = 0;
-    if (first) {
-      sizeWithoutStatistic +=
-          ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
-      sizeWithoutStatistic +=
-          ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
-    } else {
-      ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
-      ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
-      statistics.serialize(pageBuffer);
-    }
-
-    // write page content to temp PBAOS
-    logger.trace(
-        "start to flush a time page data into buffer, buffer position {} ", pageBuffer.size());
-    if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
-      if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
-        try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
-          channel.write(pageData);
-        }
-      } else {
-        byte[] encryptedBytes = null;
-        encryptedBytes = encryptor.encrypt(pageData.array(), pageData.position(), uncompressedSize);
-        // data is never a directByteBuffer now, so we can use data.array()
-        int encryptedSize = encryptedBytes.length;
-        pageBuffer.write(encryptedBytes, 0, encryptedSize);
-      }
-
-    } else {
-      if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
-        pageBuffer.write(compressedBytes, 0, compressedSize);
-      } else {
-        byte[] encryptedBytes = null;
-        encryptedBytes = encryptor.encrypt(compressedBytes, 0, compressedSize);
-        // data is never a directByteBuffer now, so we can use data.array()
-        int encryptedSize = encryptedBytes.length;
-        pageBuffer.write(encryptedBytes, 0, encryptedSize);
-      }
-    }
-    logger.trace(
-        "finish flushing a time page data into buffer, buffer position {} ", pageBuffer.size());
-    return sizeWithoutStatistic;
+    SealedPage page = sealPage();
+    page.compress(compressor, encryptor);
+    return page.writeTo(pageBuffer, first);
   }
 
   /**
@@ -20,33 +20,26 @@ package org.apache.tsfile.write.page;
 
 import org.apache.tsfile.compress.ICompressor;
 import org.apache.tsfile.encoding.encoder.Encoder;
+import org.apache.tsfile.encoding.encoder.EncodingAdvisor;
 import org.apache.tsfile.encrypt.EncryptUtils;
 import org.apache.tsfile.encrypt.IEncryptor;
 import org.apache.tsfile.enums.TSDataType;
-import org.apache.tsfile.file.metadata.enums.CompressionType;
-import org.apache.tsfile.file.metadata.enums.EncryptionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
 import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.WritableByteChannel;
 
 /**
  * This writer is used to write value into a page. It consists of a value encoder and respective
  * OutputStream.
  */
 public class ValuePageWriter {
-  private static final Logger logger = LoggerFactory.getLogger(ValuePageWriter.class);
-
-  private final ICompressor compressor;
+  private ICompressor compressor;
 
   private final IEncryptor encryptor;
 
@@ -168,73 +161,109 @@ public class ValuePageWriter {
   /** write time series into encoder */
   public void write(
       long[] timestamps, boolean[] values, boolean[] isNull, int batchSize, int arrayOffset) {
-    for (int i = arrayOffset; i < batchSize + arrayOffset; i++) {
+    // the values between two nulls are encoded at once
+    int end = arrayOffset + batchSize;
+    int runStart = arrayOffset;
+    for (int i = arrayOffset; i < end; i++) {
       setBit(isNull[i]);
-      if (!isNull[i]) {
-        valueEncoder.encode(values[i], valueOut);
+      if (isNull[i]) {
+        valueEncoder.encode(values, runStart, i - runStart, valueOut);
+        runStart = i + 1;
+      } else {
         statistics.update(timestamps[i], values[i]);
       }
     }
+    valueEncoder.encode(values, runStart, end - runStart, valueOut);
   }
 
   /** write time series into encoder */
   public void write(
       long[] timestamps, int[] values, boolean[] isNull, int batchSize, int arrayOffset) {
-    for (int i = arrayOffset; i < batchSize + arrayOffset; i++) {
+    // the values between two nulls are encoded at once
+    int end = arrayOffset + batchSize;
+    int runStart = arrayOffset;
+    for (int i = arrayOffset; i < end; i++) {
       setBit(isNull[i]);
-      if (!isNull[i]) {
-        valueEncoder.encode(values[i], valueOut);
+      if (isNull[i]) {
+        valueEncoder.encode(values, runStart, i - runStart, valueOut);
+        runStart = i + 1;
+      } else {
         statistics.update(timestamps[i], values[i]);
       }
     }
+    valueEncoder.encode(values, runStart, end - runStart, valueOut);
   }
 
   /** write time series into encoder */
   public void write(
       long[] timestamps, long[] values, boolean[] isNull, int batchSize, int arrayOffset) {
-    for (int i = arrayOffset; i < batchSize + arrayOffset; i++) {
+    // the values between two nulls are encoded at once
+    int end = arrayOffset + batchSize;
+    int runStart = arrayOffset;
+    for (int i = arrayOffset; i < end; i++) {
       setBit(isNull[i]);
-      if (!isNull[i]) {
-        valueEncoder.encode(values[i], valueOut);
+      if (isNull[i]) {
+        valueEncoder.encode(values, runStart, i - runStart, valueOut);
+        runStart = i + 1;
+      } else {
         statistics.update(timestamps[i], values[i]);
       }
     }
+    valueEncoder.encode(values, runStart, end - runStart, valueOut);
   }
 
   /** write time series into encoder */
   public void write(
       long[] timestamps, float[] values, boolean[] isNull, int batchSize, int arrayOffset) {
-    for (int i = arrayOffset; i < batchSize + arrayOffset; i++) {
+    // the values between two nulls are encoded at once
+    int end = arrayOffset + batchSize;
+    int runStart = arrayOffset;
+    for (int i = arrayOffset; i < end; i++) {
       setBit(isNull[i]);
-      if (!isNull[i]) {
-        valueEncoder.encode(values[i], valueOut);
+      if (isNull[i]) {
+        valueEncoder.encode(values, runStart, i - runStart, valueOut);
+        runStart = i + 1;
+      } else {
         statistics.update(timestamps[i], values[i]);
       }
     }
+    valueEncoder.encode(values, runStart, end - runStart, valueOut);
   }
 
   /** write time series into encoder */
   public void write(
       long[] timestamps, double[] values, boolean[] isNull, int batchSize, int arrayOffset) {
-    for (int i = arrayOffset; i < batchSize + arrayOffset; i++) {
+    // the values between two nulls are encoded at once
+    int end = arrayOffset + batchSize;
+    int runStart = arrayOffset;
+    for (int i = arrayOffset; i < end; i++) {
       setBit(isNull[i]);
-      if (!isNull[i]) {
-        valueEncoder.encode(values[i], valueOut);
+      if (isNull[i]) {
+        valueEncoder.encode(values, runStart, i - runStart, valueOut);
+        runStart = i + 1;
+      } else {
         statistics.update(timestamps[i], values[i]);
       }
     }
+    valueEncoder.encode(values, runStart, end - runStart, valueOut);
   }
 
   /** write time series into encoder */
   public void write(
       long[] timestamps, Binary[] values, boolean[] isNull, int batchSize, int arrayOffset) {
-    for (int i = arrayOffset; i < batchSize + arrayOffset; i++) {
+    // the values between two nulls are encoded at once
+    int end = arrayOffset + batchSize;
+    int runStart = arrayOffset;
+    for (int i = arrayOffset; i < end; i++) {
       setBit(isNull[i]);
-      if (!isNull[i]) {
-        valueEncoder.encode(values[i], valueOut);
+      if (isNull[i]) {
+        valueEncoder.encode(values, runStart, i - runStart, valueOut);
+        runStart = i + 1;
+      } else {
         statistics.update(timestamps[i], values[i]);
       }
     }
+    valueEncoder.encode(values, runStart, end - runStart, valueOut);
   }
 
   /** flush all data remained in encoders. */
@@ -265,6 +294,14 @@ public class ValuePageWriter {
     return ReadWriteForEncodingUtils.writeUnsignedVarInt(0, pageBuffer);
   }
 
+  /**
+   * Seals the current page, whose data is then compressed and written by the returned page. The
+   * page writer should be reset before the next page is written.
+   */
+  public SealedPage sealPage() throws IOException {
+    return new SealedPage(getUncompressedBytes(), statistics);
+  }
+
   /** write the page header and data into the PageWriter's output stream. */
   public int writePageHeaderAndDataIntoBuff(PublicBAOS pageBuffer, boolean first)
       throws IOException {
@@ -275,66 +312,9 @@ public class ValuePageWriter {
       return writeEmptyPageIntoBuff(pageBuffer);
     }
 
-    ByteBuffer pageData = getUncompressedBytes();
-    int uncompressedSize = pageData.remaining();
-    int compressedSize;
-    byte[] compressedBytes = null;
-
-    if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
-      compressedSize = uncompressedSize;
-    } else if (compressor.getType().equals(CompressionType.GZIP)) {
-      compressedBytes =
-          compressor.compress(pageData.array(), pageData.position(), uncompressedSize);
-      compressedSize = compressedBytes.length;
-    } else {
-      compressedBytes = new byte[compressor.getMaxBytesForCompression(uncompressedSize)];
-      // data is never a directByteBuffer now, so we can use data.array()
-      compressedSize =
-          compressor.compress(
-              pageData.array(), pageData.position(), uncompressedSize, compressedBytes);
-    }
-
-    // write the page header to IOWriter
-    int sizeWithoutStatistic = 0;
-    if (first) {
-      sizeWithoutStatistic +=
-          ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
-      sizeWithoutStatistic +=
-          ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
-    } else {
-      ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
-      ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
-      statistics.serialize(pageBuffer);
-    }
-
-    // write page content to temp PBAOS
-    logger.trace("start to flush a page data into buffer, buffer position {} ", pageBuffer.size());
-    if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
-      if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
-        try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
-          channel.write(pageData);
-        }
-      } else {
-        byte[] encryptedBytes = null;
-        encryptedBytes = encryptor.encrypt(pageData.array(), pageData.position(), uncompressedSize);
-        // data is never a directByteBuffer now, so we can use data.array()
-        int encryptedSize = encryptedBytes.length;
-        pageBuffer.write(encryptedBytes, 0, encryptedSize);
-      }
-
-    } else {
-      if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
-        pageBuffer.write(compressedBytes, 0, compressedSize);
-      } else {
-        byte[] encryptedBytes = null;
-        encryptedBytes = encryptor.encrypt(compressedBytes, 0, compressedSize);
-        // data is never a directByteBuffer now, so we can use data.array()
-        int encryptedSize = encryptedBytes.length;
-        pageBuffer.write(encryptedBytes, 0, encryptedSize);
-      }
-    }
-    logger.trace("start to flush a page data into buffer, buffer position {} ", pageBuffer.size());
-    return sizeWithoutStatistic;
+    SealedPage page = sealPage();
+    page.compress(compressor, encryptor);
+    return page.writeTo(pageBuffer, first);
   }
 
   /**
@@ -347,6 +327,24 @@ public class ValuePageWriter {
     return Integer.BYTES + bitmapOut.size() + 1 + valueOut.size() + valueEncoder.getMaxByteSize();
   }
 
+  /**
+   * Chooses the value encoding from the values of the current page with {@code advisor}. The values
+   * written so far are encoded again with the chosen encoding, which also encodes the values
+   * written later.
+   *
+   * @param encoding the current value encoding
+   * @return the chosen encoding
+   */
+  public TSEncoding adviseValueEncoding(
+      EncodingAdvisor advisor, TSDataType dataType, TSEncoding encoding) throws IOException {
+    valueEncoder.flush(valueOut);
+    ByteBuffer encodedValues = ByteBuffer.wrap(valueOut.toByteArray());
+    valueOut.reset();
+    valueEncoder =
+        advisor.reencode(dataType, encoding, encodedValues, (int) statistics.getCount(), valueOut);
+    return valueEncoder.getType();
+  }
+
   /** reset this page */
   public void reset(TSDataType dataType) {
     bitmapOut.reset();
@@ -356,6 +354,10 @@ public class ValuePageWriter {
     statistics = Statistics.getStatsByType(dataType);
   }
 
+  public void setCompressor(ICompressor compressor) {
+    this.compressor = compressor;
+  }
+
   public void setValueEncoder(Encoder encoder) {
     this.valueEncoder = encoder;
   }
@@ -66,8 +66,19 @@ public class LocalTsFileOutput extends OutputStream implements TsFileOutput {
 
   @Override
   public void write(ByteBuffer b) throws IOException {
-    bufferedStream.write(b.array());
-    position += b.array().length;
+    if (b.hasArray()) {
+      // the buffer may be a slice of a larger read, so only its own content is written
+      bufferedStream.write(b.array(), b.arrayOffset(), b.capacity());
+      position += b.capacity();
+    } else {
+      // e.g. a view of a memory-mapped file, write all of its content like the heap case
+      ByteBuffer content = b.duplicate();
+      content.clear();
+      byte[] bytes = new byte[content.remaining()];
+      content.get(bytes);
+      bufferedStream.write(bytes);
+      position += bytes.length;
+    }
   }
 
   @Override
@@ -18,6 +18,8 @@
  */
 package org.apache.tsfile.write.writer;
 
+import org.apache.tsfile.common.cache.BlockCache;
+import org.apache.tsfile.common.cache.PageCache;
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.common.constant.TsFileConstant;
@@ -311,7 +313,7 @@ public class TsFileIOWriter implements AutoCloseable {
             out.getPosition(),
             chunkMetadata.getStatistics());
     chunkHeader.serializeTo(out.wrapAsStream());
-    out.write(chunk.getData());
+    out.write(chunk.getDataToCopyTo(currentChunkMetadata.getOffsetOfChunkHeader()));
     endCurrentChunk();
     if (logger.isDebugEnabled()) {
       logger.debug(
@@ -362,7 +364,7 @@ public class TsFileIOWriter implements AutoCloseable {
             out.getPosition(),
             chunk.getChunkStatistic());
     chunkHeader.serializeTo(out.wrapAsStream());
-    out.write(chunk.getData());
+    out.write(chunk.getDataToCopyTo(currentChunkMetadata.getOffsetOfChunkHeader()));
     endCurrentChunk();
   }
 
@@ -405,6 +407,9 @@ public class TsFileIOWriter implements AutoCloseable {
       if (chunkMetadataFile.exists()) {
         FileUtils.delete(chunkMetadataFile);
       }
+      // the blocks and pages read before the file is sealed are out of date
+      BlockCache.getInstance().invalidate(file.getPath());
+      PageCache.getInstance().invalidate(file.getPath());
     }
     canWrite = false;
   }
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tsfile.common;
+
+import org.apache.tsfile.common.cache.Cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class CacheTest {
+
+  /** A cache written against the interface before it had containsKey, put and getStats. */
+  private static class MapCache implements Cache<Integer, String> {
+
+    private final Map<Integer, String> map = new HashMap<>();
+
+    @Override
+    public String get(Integer key) {
+      return map.get(key);
+    }
+
+    @Override
+    public void clear() {
+      map.clear();
+    }
+  }
+
+  @Test
+  public void testDefaultMethods() {
+    MapCache cache = new MapCache();
+    cache.map.put(1, "a");
+    Assert.assertTrue(cache.containsKey(1));
+    Assert.assertFalse(cache.containsKey(2));
+    Assert.assertEquals(0, cache.getStats().getHitCount());
+    Assert.assertEquals(0, cache.getStats().getMissCount());
+    Assert.assertThrows(UnsupportedOperationException.class, () -> cache.put(2, "b"));
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.common;
+
+import org.apache.tsfile.common.cache.Cache;
+import org.apache.tsfile.common.cache.FrequencySketch;
+import org.apache.tsfile.common.cache.LRUCache;
+import org.apache.tsfile.common.cache.WTinyLFUCache;
+import org.apache.tsfile.common.cache.WeightedLRUCache;
+import org.apache.tsfile.exception.cache.CacheException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class WTinyLFUCacheTest {
+
+  private static final int CACHE_SIZE = 100;
+  private static final int HOT_KEY_NUM = 50;
+
+  @Test
+  public void testFrequencySketch() {
+    FrequencySketch<Integer> sketch = new FrequencySketch<>(CACHE_SIZE);
+    for (int i = 0; i < 10; i++) {
+      sketch.increment(1);
+    }
+    sketch.increment(2);
+    Assert.assertTrue(sketch.frequency(1) >= 10);
+    Assert.assertTrue(sketch.frequency(1) > sketch.frequency(2));
+    Assert.assertEquals(0, sketch.frequency(3));
+
+    // the counters are halved after enough accesses, so the old frequencies fade out
+    for (int i = 0; i < 100 * CACHE_SIZE; i++) {
+      sketch.increment(1000 + i);
+    }
+    Assert.assertTrue(sketch.frequency(1) < 10);
+  }
+
+  @Test
+  public void testScanResistance() throws IOException, CacheException {
+    Cache<Integer, Integer> tinyLfuCache =
+        new WTinyLFUCache<Integer, Integer>(CACHE_SIZE) {
+          @Override
+          protected Integer loadObjectByKey(Integer key) {
+            return key;
+          }
+        };
+    Cache<Integer, Integer> lruCache =
+        new LRUCache<Integer, Integer>(CACHE_SIZE) {
+          @Override
+          protected Integer loadObjectByKey(Integer key) {
+            return key;
+          }
+        };
+    double tinyLfuHitRate = hitRateOfHotKeysAfterScan(tinyLfuCache);
+    double lruHitRate = hitRateOfHotKeysAfterScan(lruCache);
+    Assert.assertTrue(tinyLfuHitRate > 0.9);
+    Assert.assertTrue(lruHitRate < 0.2);
+  }
+
+  @Test
+  public void testWeightedCacheScanResistance() throws IOException, CacheException {
+    WeightedLRUCache<Integer, Integer> tinyLfuCache =
+        new WeightedLRUCache<>(CACHE_SIZE, value -> 1, key -> key, CACHE_SIZE);
+    WeightedLRUCache<Integer, Integer> lruCache =
+        new WeightedLRUCache<>(CACHE_SIZE, value -> 1, key -> key);
+    double tinyLfuHitRate = hitRateOfHotKeysAfterScan(tinyLfuCache);
+    double lruHitRate = hitRateOfHotKeysAfterScan(lruCache);
+    Assert.assertTrue(tinyLfuHitRate > 0.5);
+    Assert.assertTrue(lruHitRate < 0.2);
+    Assert.assertTrue(tinyLfuCache.getStats().getRejectionCount() > 0);
+  }
+
+  /**
+   * access the hot keys several times, then scan many cold keys once, while the hot keys are still
+   * accessed now and then, at last access the hot keys again.
+   */
+  private double hitRateOfHotKeysAfterScan(Cache<Integer, Integer> cache)
+      throws IOException, CacheException {
+    for (int round = 0; round < 5; round++) {
+      for (int key = 0; key < HOT_KEY_NUM; key++) {
+        Assert.assertEquals(key, (int) cache.get(key));
+      }
+    }
+    for (int key = HOT_KEY_NUM; key < 40 * CACHE_SIZE; key++) {
+      Assert.assertEquals(key, (int) cache.get(key));
+      if (key % 10 == 0) {
+        int hotKey = (key / 10) % HOT_KEY_NUM;
+        Assert.assertEquals(hotKey, (int) cache.get(hotKey));
+      }
+    }
+    cache.getStats().reset();
+    for (int key = 0; key < HOT_KEY_NUM; key++) {
+      Assert.assertEquals(key, (int) cache.get(key));
+    }
+    return cache.getStats().getHitRate();
+  }
+}
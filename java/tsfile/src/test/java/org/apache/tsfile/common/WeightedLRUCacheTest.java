@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.common;
+
+import org.apache.tsfile.common.cache.WeightedLRUCache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WeightedLRUCacheTest {
+
+  @Test
+  public void testEvictByWeight() throws IOException {
+    WeightedLRUCache<Integer, Integer> cache =
+        new WeightedLRUCache<>(100, value -> value, key -> key);
+    for (int i = 20; i < 30; i++) {
+      Assert.assertEquals(i, (int) cache.get(i));
+      Assert.assertTrue(cache.weight() <= 100);
+    }
+    // the latest values are kept
+    Assert.assertTrue(cache.containsKey(29));
+    Assert.assertTrue(cache.containsKey(28));
+    Assert.assertFalse(cache.containsKey(20));
+
+    // a value heavier than the capacity is returned but not cached
+    Assert.assertEquals(200, (int) cache.get(200));
+    Assert.assertFalse(cache.containsKey(200));
+
+    cache.removeIf(key -> key % 2 == 0);
+    Assert.assertFalse(cache.containsKey(28));
+    Assert.assertTrue(cache.containsKey(29));
+
+    cache.clear();
+    Assert.assertEquals(0, cache.size());
+    Assert.assertEquals(0, cache.weight());
+  }
+
+  @Test
+  public void testSingleFlightLoading() throws Exception {
+    WeightedLRUCache<Integer, Integer> cache = new WeightedLRUCache<>(100, value -> 1);
+    AtomicInteger loadCount = new AtomicInteger();
+    CountDownLatch loading = new CountDownLatch(1);
+    WeightedLRUCache.CacheLoader<Integer, Integer> loader =
+        key -> {
+          loadCount.incrementAndGet();
+          try {
+            loading.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return key * 10;
+        };
+
+    int threadNum = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threadNum);
+    try {
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < threadNum; i++) {
+        futures.add(executor.submit(() -> cache.get(1, loader)));
+      }
+      // let the other threads reach the cache before the load finishes
+      Thread.sleep(200);
+      loading.countDown();
+      for (Future<Integer> future : futures) {
+        Assert.assertEquals(10, (int) future.get());
+      }
+      Assert.assertEquals(1, loadCount.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testLoadingFailure() {
+    WeightedLRUCache<Integer, Integer> cache =
+        new WeightedLRUCache<>(
+            100,
+            value -> 1,
+            key -> {
+              throw new IOException("failed to load " + key);
+            });
+    try {
+      cache.get(1);
+      Assert.fail();
+    } catch (IOException e) {
+      Assert.assertEquals("failed to load 1", e.getMessage());
+    }
+    Assert.assertFalse(cache.containsKey(1));
+  }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.tsfile.compress;
 
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.ReadWriteIOUtils;
 
@@ -31,6 +32,7 @@ import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class CompressTest {
@@ -142,4 +144,99 @@ public class CompressTest {
     uncompressed.position(0);
     assertEquals(inputString, ReadWriteIOUtils.readStringFromDirectByteBuffer(uncompressed));
   }
+
+  @Test
+  public void uncompressBufferTest() throws IOException {
+    byte[] origin = new byte[10000];
+    for (int i = 0; i < origin.length; i++) {
+      origin[i] = (byte) (i % 100 < 50 ? i % 7 : i % 13);
+    }
+    for (CompressionType type :
+        new CompressionType[] {
+          CompressionType.UNCOMPRESSED,
+          CompressionType.SNAPPY,
+          CompressionType.LZ4,
+          CompressionType.GZIP,
+          CompressionType.ZSTD,
+          CompressionType.LZMA2
+        }) {
+      byte[] compressed = ICompressor.getCompressor(type).compress(origin);
+      IUnCompressor unCompressor = IUnCompressor.getUnCompressor(type);
+      for (boolean directInput : new boolean[] {false, true}) {
+        for (boolean directOutput : new boolean[] {false, true}) {
+          // the input is a read-only view at an offset, like a page of a memory mapped chunk
+          ByteBuffer chunk =
+              directInput
+                  ? ByteBuffer.allocateDirect(compressed.length + 10)
+                  : ByteBuffer.allocate(compressed.length + 10);
+          chunk.position(10);
+          chunk.put(compressed);
+          chunk.position(10);
+          ByteBuffer input = directInput ? chunk.slice().asReadOnlyBuffer() : chunk.slice();
+          ByteBuffer output =
+              directOutput
+                  ? ByteBuffer.allocateDirect(origin.length)
+                  : ByteBuffer.allocate(origin.length);
+
+          assertEquals(origin.length, unCompressor.uncompressBuffer(input, output));
+          // the positions are not changed
+          assertEquals(0, input.position());
+          assertEquals(0, output.position());
+          byte[] uncompressed = new byte[origin.length];
+          output.get(uncompressed);
+          assertArrayEquals(type + " " + directInput + " " + directOutput, origin, uncompressed);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void compressBufferTest() throws IOException {
+    byte[] origin = new byte[10000];
+    for (int i = 0; i < origin.length; i++) {
+      origin[i] = (byte) (i % 100 < 50 ? i % 7 : i % 13);
+    }
+    for (CompressionType type :
+        new CompressionType[] {
+          CompressionType.SNAPPY,
+          CompressionType.LZ4,
+          CompressionType.GZIP,
+          CompressionType.ZSTD,
+          CompressionType.LZMA2
+        }) {
+      ICompressor compressor = ICompressor.getCompressor(type);
+      IUnCompressor unCompressor = IUnCompressor.getUnCompressor(type);
+      int maxSize = Math.max(compressor.getMaxBytesForCompression(origin.length), origin.length);
+      for (boolean directInput : new boolean[] {false, true}) {
+        for (boolean directOutput : new boolean[] {false, true}) {
+          // both buffers start at an offset, like a page in the middle of a chunk
+          ByteBuffer page =
+              directInput
+                  ? ByteBuffer.allocateDirect(origin.length + 10)
+                  : ByteBuffer.allocate(origin.length + 10);
+          page.position(10);
+          page.put(origin);
+          page.position(10);
+          ByteBuffer input = page.slice();
+          ByteBuffer chunk =
+              directOutput
+                  ? ByteBuffer.allocateDirect(maxSize + 10)
+                  : ByteBuffer.allocate(maxSize + 10);
+          chunk.position(10);
+          ByteBuffer output = chunk.slice();
+
+          int compressedSize = compressor.compressBuffer(input, output);
+          // the positions are not changed
+          assertEquals(0, input.position());
+          assertEquals(0, output.position());
+          byte[] compressed = new byte[compressedSize];
+          output.get(compressed);
+          assertArrayEquals(
+              type + " " + directInput + " " + directOutput,
+              origin,
+              unCompressor.uncompress(compressed));
+        }
+      }
+    }
+  }
 }
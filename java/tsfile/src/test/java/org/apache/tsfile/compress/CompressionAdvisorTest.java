@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.compress;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.tsfile.read.TsFileReader;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.common.RowRecord;
+import org.apache.tsfile.read.expression.QueryExpression;
+import org.apache.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.TSRecord;
+import org.apache.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class CompressionAdvisorTest {
+
+  private static final int POINT_NUM = 1000;
+
+  private final File f = FSFactoryProducer.getFSFactory().getFile("CompressionAdvisorTest.tsfile");
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private final String oldCandidates = config.getCompressionAdvisorCandidates();
+  private final String oldObjective = config.getCompressionAdvisorObjective();
+
+  @Before
+  public void setUp() {
+    if (f.exists() && !f.delete()) {
+      throw new RuntimeException("can not delete " + f.getAbsolutePath());
+    }
+  }
+
+  @After
+  public void tearDown() {
+    if (f.exists()) {
+      f.delete();
+    }
+    config.setCompressionAdvisorCandidates(oldCandidates);
+    config.setCompressionAdvisorObjective(oldObjective);
+  }
+
+  @Test
+  public void testParseCandidates() {
+    List<ICompressor> candidates =
+        CompressionAdvisor.parseCandidates("UNCOMPRESSED, LZ4,ZSTD,ZSTD:9");
+    Assert.assertEquals(4, candidates.size());
+    Assert.assertEquals(CompressionType.UNCOMPRESSED, candidates.get(0).getType());
+    Assert.assertEquals(CompressionType.LZ4, candidates.get(1).getType());
+    Assert.assertEquals(CompressionType.ZSTD, candidates.get(2).getType());
+    Assert.assertEquals(9, ((ICompressor.ZstdCompressor) candidates.get(3)).getCompressionLevel());
+
+    try {
+      CompressionAdvisor.parseCandidates("LZ4:1");
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      // only ZSTD supports a compression level
+    }
+
+    config.setCompressionAdvisorCandidates("");
+    Assert.assertNull(CompressionAdvisor.getAdvisor(config));
+  }
+
+  @Test
+  public void testAdviseIncompressible() {
+    byte[] data = new byte[64 * 1024];
+    new Random(7).nextBytes(data);
+    CompressionAdvisor advisor =
+        new CompressionAdvisor(
+            CompressionAdvisor.parseCandidates("UNCOMPRESSED,LZ4,SNAPPY,ZSTD"),
+            CompressionAdvisor.Objective.SPEED,
+            0.1);
+    ByteBuffer sample = ByteBuffer.wrap(data);
+    Assert.assertEquals(CompressionType.UNCOMPRESSED, advisor.advise(sample).getType());
+    // the position of the sample is not changed
+    Assert.assertEquals(0, sample.position());
+  }
+
+  @Test
+  public void testAdviseCompressible() {
+    byte[] data = new byte[64 * 1024];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i % 7);
+    }
+    List<ICompressor> candidates = CompressionAdvisor.parseCandidates("UNCOMPRESSED,LZ4,ZSTD:9");
+    CompressionAdvisor speedAdvisor =
+        new CompressionAdvisor(candidates, CompressionAdvisor.Objective.SPEED, 0.1);
+    Assert.assertNotEquals(
+        CompressionType.UNCOMPRESSED, speedAdvisor.advise(ByteBuffer.wrap(data)).getType());
+
+    CompressionAdvisor sizeAdvisor =
+        new CompressionAdvisor(candidates, CompressionAdvisor.Objective.SIZE, 0.1);
+    ICompressor chosen = sizeAdvisor.advise(ByteBuffer.wrap(data));
+    for (ICompressor candidate : candidates) {
+      Assert.assertTrue(compressedSize(chosen, data) <= compressedSize(candidate, data));
+    }
+  }
+
+  @Test
+  public void testWriteWithAdvisor() throws IOException, WriteProcessException {
+    config.setCompressionAdvisorCandidates("UNCOMPRESSED,LZ4,ZSTD");
+    config.setCompressionAdvisorObjective(CompressionAdvisor.Objective.SPEED.name());
+    List<IMeasurementSchema> schemas = new ArrayList<>();
+    // random values, which are not worth compressing
+    schemas.add(
+        new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.PLAIN, CompressionType.SNAPPY));
+    // constant values, which are worth compressing
+    schemas.add(
+        new MeasurementSchema(
+            "s2", TSDataType.INT64, TSEncoding.PLAIN, CompressionType.UNCOMPRESSED));
+    String deviceId = "root.sg.d1";
+    String alignedDeviceId = "root.sg.d2";
+    long[] values = new long[POINT_NUM];
+    Random random = new Random(7);
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = random.nextLong();
+    }
+    try (TsFileWriter tsFileWriter = new TsFileWriter(f)) {
+      tsFileWriter.registerTimeseries(new Path(deviceId), schemas);
+      tsFileWriter.registerAlignedTimeseries(new Path(alignedDeviceId), schemas);
+      for (int i = 0; i < POINT_NUM; i++) {
+        for (String device : Arrays.asList(deviceId, alignedDeviceId)) {
+          TSRecord record = new TSRecord(i, device);
+          record.addTuple(new LongDataPoint("s1", values[i]));
+          record.addTuple(new LongDataPoint("s2", 42));
+          if (device.equals(deviceId)) {
+            tsFileWriter.write(record);
+          } else {
+            tsFileWriter.writeAligned(record);
+          }
+        }
+      }
+    }
+
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(f.getAbsolutePath())) {
+      for (String device : Arrays.asList(deviceId, alignedDeviceId)) {
+        for (List<ChunkMetadata> chunkMetadataList :
+            reader
+                .readChunkMetadataInDevice(IDeviceID.Factory.DEFAULT_FACTORY.create(device))
+                .values()) {
+          for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+            CompressionType compressionType =
+                reader.readMemChunk(chunkMetadata).getHeader().getCompressionType();
+            if (chunkMetadata.getMeasurementUid().equals("s1")) {
+              Assert.assertEquals(CompressionType.UNCOMPRESSED, compressionType);
+            } else if (chunkMetadata.getMeasurementUid().equals("s2")) {
+              Assert.assertNotEquals(CompressionType.UNCOMPRESSED, compressionType);
+            }
+          }
+        }
+      }
+
+      TsFileReader tsFileReader = new TsFileReader(reader);
+      for (String device : Arrays.asList(deviceId, alignedDeviceId)) {
+        QueryDataSet dataSet =
+            tsFileReader.query(
+                QueryExpression.create(
+                    Arrays.asList(new Path(device, "s1", true), new Path(device, "s2", true)),
+                    null));
+        int count = 0;
+        while (dataSet.hasNext()) {
+          RowRecord record = dataSet.next();
+          Assert.assertEquals(count, record.getTimestamp());
+          Assert.assertEquals(values[count], record.getFields().get(0).getLongV());
+          Assert.assertEquals(42, record.getFields().get(1).getLongV());
+          count++;
+        }
+        Assert.assertEquals(POINT_NUM, count);
+      }
+    }
+  }
+
+  private static int compressedSize(ICompressor compressor, byte[] data) {
+    try {
+      return compressor.getType() == CompressionType.UNCOMPRESSED
+          ? data.length
+          : compressor.compress(data, 0, data.length).length;
+    } catch (IOException e) {
+      Assert.fail(e.getMessage());
+      return -1;
+    }
+  }
+}
@@ -19,6 +19,9 @@
 
 package org.apache.tsfile.compress;
 
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.utils.ReadWriteIOUtils;
 
 import org.junit.After;
@@ -29,6 +32,9 @@ import org.junit.Test;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
 public class ZstdTest {
@@ -106,4 +112,77 @@ public class ZstdTest {
     unCompressor.uncompress(compressed, offset, compressedLength, uncompressed, 0);
     Assert.assertArrayEquals(origin, uncompressed);
   }
+
+  @Test
+  public void testCompressionLevel() throws IOException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    int originLevel = config.getZstdCompressionLevel();
+    try {
+      config.setZstdCompressionLevel(5);
+      Assert.assertEquals(5, new ICompressor.ZstdCompressor().getCompressionLevel());
+      ICompressor compressor = ICompressor.getCompressor(CompressionType.ZSTD, null);
+      Assert.assertEquals(5, ((ICompressor.ZstdCompressor) compressor).getCompressionLevel());
+      compressor =
+          ICompressor.getCompressor(
+              CompressionType.ZSTD,
+              Collections.singletonMap(ICompressor.ZstdCompressor.COMPRESSION_LEVEL, "1"));
+      Assert.assertEquals(1, ((ICompressor.ZstdCompressor) compressor).getCompressionLevel());
+    } finally {
+      config.setZstdCompressionLevel(originLevel);
+    }
+
+    byte[] origin = randomString(100000).getBytes(StandardCharsets.UTF_8);
+    IUnCompressor unCompressor = new IUnCompressor.ZstdUnCompressor();
+    for (int level : new int[] {-1, 1, 3, 9, 19}) {
+      byte[] compressed = new ICompressor.ZstdCompressor(level).compress(origin);
+      Assert.assertArrayEquals(origin, unCompressor.uncompress(compressed));
+    }
+  }
+
+  @Test
+  public void testDictionary() throws IOException {
+    List<byte[]> samples = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      samples.add(samplePage(i));
+    }
+    byte[] dictionary = ICompressor.ZstdCompressor.trainDictionary(samples, 4096);
+    Assert.assertTrue(dictionary.length > 0 && dictionary.length <= 4096);
+
+    ICompressor dictionaryCompressor = new ICompressor.ZstdCompressor(3, dictionary);
+    IUnCompressor dictionaryUnCompressor = new IUnCompressor.ZstdUnCompressor(dictionary);
+    ICompressor compressor = new ICompressor.ZstdCompressor(3);
+    IUnCompressor unCompressor = new IUnCompressor.ZstdUnCompressor();
+    long sizeWithDictionary = 0;
+    long sizeWithoutDictionary = 0;
+    for (int i = 2000; i < 2100; i++) {
+      byte[] page = samplePage(i);
+      // the compressors of a thread share the native context, so interleave them
+      byte[] compressedWithDictionary = dictionaryCompressor.compress(page);
+      byte[] compressed = compressor.compress(page);
+      Assert.assertArrayEquals(page, dictionaryUnCompressor.uncompress(compressedWithDictionary));
+      Assert.assertArrayEquals(page, unCompressor.uncompress(compressed));
+
+      byte[] uncompressed = new byte[page.length];
+      dictionaryUnCompressor.uncompress(
+          compressedWithDictionary, 0, compressedWithDictionary.length, uncompressed, 0);
+      Assert.assertArrayEquals(page, uncompressed);
+
+      sizeWithDictionary += compressedWithDictionary.length;
+      sizeWithoutDictionary += compressed.length;
+    }
+    Assert.assertTrue(sizeWithDictionary < sizeWithoutDictionary);
+  }
+
+  private byte[] samplePage(int index) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 8; i++) {
+      builder
+          .append("{\"device\":\"root.sg.d")
+          .append((index + i) % 50)
+          .append("\",\"status\":\"running\",\"temperature\":")
+          .append(ThreadLocalRandom.current().nextInt(1000))
+          .append("}");
+    }
+    return builder.toString().getBytes(StandardCharsets.UTF_8);
+  }
 }
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tsfile.encoding.bitpacking;
+
+import org.apache.tsfile.utils.BytesUtils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class BitUnpackerTest {
+
+  private static final int[] COUNTS = {0, 1, 63, 64, 65, 128, 200};
+
+  @Test
+  public void testUnpackInts() {
+    Random random = new Random(1);
+    for (int width = 0; width <= 32; width++) {
+      for (int count : COUNTS) {
+        byte[] bytes = new byte[(count * width + 7) / 8];
+        int[] expected = new int[count];
+        for (int i = 0; i < count; i++) {
+          expected[i] = width == 0 ? 0 : random.nextInt() >>> (32 - width);
+          BytesUtils.intToBytes(expected[i], bytes, width * i, width);
+        }
+        long[] words = new long[BitUnpacker.getWordNum(bytes.length)];
+        BitUnpacker.loadWords(bytes, bytes.length, words);
+        int[] values = new int[count];
+        BitUnpacker.unpackInts(words, width, values, count);
+        for (int i = 0; i < count; i++) {
+          assertEquals("width " + width + ", count " + count, expected[i], values[i]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testUnpackLongs() {
+    Random random = new Random(2);
+    for (int width = 0; width <= 64; width++) {
+      for (int count : COUNTS) {
+        byte[] bytes = new byte[(count * width + 7) / 8];
+        long[] expected = new long[count];
+        for (int i = 0; i < count; i++) {
+          expected[i] = width == 0 ? 0 : random.nextLong() >>> (64 - width);
+          BytesUtils.longToBytes(expected[i], bytes, width * i, width);
+        }
+        long[] words = new long[BitUnpacker.getWordNum(bytes.length)];
+        BitUnpacker.loadWords(bytes, bytes.length, words);
+        long[] values = new long[count];
+        BitUnpacker.unpackLongs(words, width, values, count);
+        for (int i = 0; i < count; i++) {
+          assertEquals("width " + width + ", count " + count, expected[i], values[i]);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.encoding.encoder.DoubleAlpEncoder;
+import org.apache.tsfile.encoding.encoder.DoublePrecisionEncoderV2;
+import org.apache.tsfile.encoding.encoder.Encoder;
+import org.apache.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AlpDecoderTest {
+
+  private static final int[] COUNTS = {1, 7, 8, 1023, 1024, 1025, 3000};
+
+  @Test
+  public void testDecimalDoubles() throws IOException {
+    Random random = new Random(1);
+    for (int count : COUNTS) {
+      double[] values = new double[count];
+      for (int i = 0; i < count; i++) {
+        values[i] = (random.nextInt(2000000) - 1000000) / 100.0;
+      }
+      checkDoubles(values);
+    }
+  }
+
+  @Test
+  public void testSpecialDoubles() throws IOException {
+    Random random = new Random(2);
+    for (int count : COUNTS) {
+      double[] values = new double[count];
+      for (int i = 0; i < count; i++) {
+        switch (i % 7) {
+          case 0:
+            values[i] = Double.NaN;
+            break;
+          case 1:
+            values[i] = -0.0;
+            break;
+          case 2:
+            values[i] = Double.POSITIVE_INFINITY;
+            break;
+          case 3:
+            values[i] = Double.MAX_VALUE;
+            break;
+          case 4:
+            values[i] = random.nextDouble();
+            break;
+          default:
+            values[i] = random.nextInt(1000) / 10.0;
+        }
+      }
+      checkDoubles(values);
+    }
+  }
+
+  @Test
+  public void testRandomDoubles() throws IOException {
+    Random random = new Random(3);
+    double[] values = new double[3000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = random.nextGaussian();
+    }
+    checkDoubles(values);
+  }
+
+  @Test
+  public void testDecimalFloats() throws IOException {
+    Random random = new Random(4);
+    for (int count : COUNTS) {
+      float[] values = new float[count];
+      for (int i = 0; i < count; i++) {
+        values[i] = (random.nextInt(20000) - 10000) / 10f;
+      }
+      checkFloats(values);
+    }
+  }
+
+  @Test
+  public void testSpecialFloats() throws IOException {
+    Random random = new Random(5);
+    for (int count : COUNTS) {
+      float[] values = new float[count];
+      for (int i = 0; i < count; i++) {
+        switch (i % 5) {
+          case 0:
+            values[i] = Float.NaN;
+            break;
+          case 1:
+            values[i] = -0.0f;
+            break;
+          case 2:
+            values[i] = Float.NEGATIVE_INFINITY;
+            break;
+          case 3:
+            values[i] = random.nextFloat();
+            break;
+          default:
+            values[i] = random.nextInt(1000) / 100f;
+        }
+      }
+      checkFloats(values);
+    }
+  }
+
+  @Test
+  public void testSmallerThanGorilla() throws IOException {
+    double[] values = new double[3000];
+    Random random = new Random(6);
+    values[0] = 230.15;
+    for (int i = 1; i < values.length; i++) {
+      values[i] = Math.round((values[i - 1] + random.nextInt(21) - 10) * 100) / 100.0;
+    }
+    assertTrue(
+        encode(new DoubleAlpEncoder(), values).length
+            < encode(new DoublePrecisionEncoderV2(), values).length);
+  }
+
+  @Test
+  public void testSkip() throws IOException {
+    double[] values = new double[3000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = i / 4.0;
+    }
+    Encoder encoder = new DoubleAlpEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encoder.encode(values, 0, values.length, out);
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = Decoder.getDecoderByType(TSEncoding.ALP, TSDataType.DOUBLE);
+    assertEquals(5, decoder.skip(buffer, TSDataType.DOUBLE, 5));
+    assertEquals(values[5], decoder.readDouble(buffer), 0);
+    assertEquals(2000, decoder.skip(buffer, TSDataType.DOUBLE, 2000));
+    assertEquals(values[2006], decoder.readDouble(buffer), 0);
+    assertEquals(993, decoder.skip(buffer, TSDataType.DOUBLE, 2000));
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  private static void checkDoubles(double[] values) throws IOException {
+    Encoder encoder =
+        TSEncodingBuilder.getEncodingBuilder(TSEncoding.ALP).getEncoder(TSDataType.DOUBLE);
+    ByteBuffer buffer = ByteBuffer.wrap(encode(encoder, values));
+
+    // the encoded data may hold several pages flushed one after another
+    Decoder decoder = Decoder.getDecoderByType(TSEncoding.ALP, TSDataType.DOUBLE);
+    for (int page = 0; page < 2; page++) {
+      for (double value : values) {
+        assertTrue(decoder.hasNext(buffer));
+        assertEquals(
+            Double.doubleToRawLongBits(value),
+            Double.doubleToRawLongBits(decoder.readDouble(buffer)));
+      }
+    }
+    assertFalse(decoder.hasNext(buffer));
+
+    buffer.rewind();
+    decoder.reset();
+    double[] decoded = new double[values.length * 2];
+    assertEquals(decoded.length, decoder.readDoubles(buffer, decoded, 0, decoded.length + 1));
+    for (int i = 0; i < decoded.length; i++) {
+      assertEquals(
+          Double.doubleToRawLongBits(values[i % values.length]),
+          Double.doubleToRawLongBits(decoded[i]));
+    }
+  }
+
+  private static void checkFloats(float[] values) throws IOException {
+    Encoder encoder =
+        TSEncodingBuilder.getEncodingBuilder(TSEncoding.ALP).getEncoder(TSDataType.FLOAT);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int page = 0; page < 2; page++) {
+      for (float value : values) {
+        encoder.encode(value, out);
+      }
+      encoder.flush(out);
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+
+    Decoder decoder = Decoder.getDecoderByType(TSEncoding.ALP, TSDataType.FLOAT);
+    float[] decoded = new float[values.length];
+    for (int page = 0; page < 2; page++) {
+      assertEquals(values.length, decoder.readFloats(buffer, decoded, 0, values.length));
+      assertArrayEquals(values, decoded, 0);
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  /** Encodes the values twice, the first time one by one and the second time in bulk. */
+  private static byte[] encode(Encoder encoder, double[] values) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (double value : values) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    encoder.encode(values, 0, values.length, out);
+    encoder.flush(out);
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.encoding.encoder.ChunkDictionaryEncoder;
+import org.apache.tsfile.encrypt.EncryptUtils;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.utils.Binary;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ChunkDictionaryDecoderTest {
+
+  private static final String[] CITIES = {"beijing", "shanghai", "shenzhen", "hangzhou", ""};
+
+  private static final int PAGE_NUM = 3;
+  private static final int PAGE_SIZE = 500;
+
+  @Test
+  public void testPagesSharingDictionary() throws IOException {
+    for (CompressionType compressionType :
+        new CompressionType[] {CompressionType.UNCOMPRESSED, CompressionType.LZ4}) {
+      ChunkDictionaryEncoder encoder = new ChunkDictionaryEncoder();
+      List<ByteBuffer> pages = encodePages(encoder);
+      assertEquals(CITIES.length, encoder.getDictionarySize());
+
+      ByteArrayOutputStream dictionaryOut = new ByteArrayOutputStream();
+      int dictionarySize =
+          encoder.writeDictionary(
+              ICompressor.getCompressor(compressionType), EncryptUtils.encryptor, dictionaryOut);
+      assertEquals(dictionaryOut.size(), dictionarySize);
+      encoder.resetDictionary();
+      assertEquals(0, encoder.getDictionarySize());
+
+      Binary[] dictionary =
+          ChunkDictionaryDecoder.readDictionary(
+              ByteBuffer.wrap(dictionaryOut.toByteArray()),
+              IUnCompressor.getUnCompressor(compressionType),
+              null);
+      assertEquals(CITIES.length, dictionary.length);
+
+      ChunkDictionaryDecoder decoder = new ChunkDictionaryDecoder(dictionary);
+      int index = 0;
+      for (ByteBuffer page : pages) {
+        decoder.reset();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+          assertEquals(value(index++), decoder.readBinary(page));
+        }
+        assertFalse(decoder.hasNext(page));
+      }
+    }
+  }
+
+  @Test
+  public void testReadIdsAndSkip() throws IOException {
+    ChunkDictionaryEncoder encoder = new ChunkDictionaryEncoder();
+    ByteBuffer page = encodePages(encoder).get(0);
+    ByteArrayOutputStream dictionaryOut = new ByteArrayOutputStream();
+    encoder.writeDictionary(
+        ICompressor.getCompressor(CompressionType.UNCOMPRESSED),
+        EncryptUtils.encryptor,
+        dictionaryOut);
+    Binary[] dictionary =
+        ChunkDictionaryDecoder.readDictionary(
+            ByteBuffer.wrap(dictionaryOut.toByteArray()),
+            IUnCompressor.getUnCompressor(CompressionType.UNCOMPRESSED),
+            null);
+
+    ChunkDictionaryDecoder decoder = new ChunkDictionaryDecoder(dictionary);
+    assertEquals(100, decoder.skip(page, TSDataType.STRING, 100));
+    int[] ids = new int[150];
+    assertEquals(150, decoder.readIds(page, ids, 0, ids.length));
+    for (int i = 0; i < ids.length; i++) {
+      assertEquals(value(100 + i), dictionary[ids[i]]);
+    }
+    Binary[] binaries = new Binary[PAGE_SIZE];
+    assertEquals(PAGE_SIZE - 250, decoder.readBinaries(page, binaries, 0, binaries.length));
+    Binary[] expected = new Binary[PAGE_SIZE];
+    for (int i = 0; i < PAGE_SIZE - 250; i++) {
+      expected[i] = value(250 + i);
+    }
+    assertArrayEquals(expected, binaries);
+    assertFalse(decoder.hasNext(page));
+  }
+
+  private static List<ByteBuffer> encodePages(ChunkDictionaryEncoder encoder) throws IOException {
+    List<ByteBuffer> pages = new ArrayList<>();
+    int index = 0;
+    for (int page = 0; page < PAGE_NUM; page++) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (int i = 0; i < PAGE_SIZE; i++) {
+        encoder.encode(value(index++), out);
+      }
+      encoder.flush(out);
+      pages.add(ByteBuffer.wrap(out.toByteArray()));
+    }
+    return pages;
+  }
+
+  private static Binary value(int index) {
+    return new Binary(CITIES[index * 7 % CITIES.length], StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.encoding.encoder.Encoder;
+import org.apache.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.Binary;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/** Checks that the bulk read and skip methods of the decoders agree with the per-value methods. */
+public class DecoderBulkReadTest {
+
+  private static final int POINT_NUM = 3000;
+  private static final int[] BATCH_SIZES = {1, 7, 128, 1000, POINT_NUM + 1};
+  private static final int[] SKIP_SIZES = {1, 5, 129, 700};
+
+  @Test
+  public void testPlain() throws IOException {
+    for (TSDataType dataType :
+        new TSDataType[] {
+          TSDataType.BOOLEAN,
+          TSDataType.INT32,
+          TSDataType.INT64,
+          TSDataType.FLOAT,
+          TSDataType.DOUBLE,
+          TSDataType.TEXT
+        }) {
+      check(TSEncoding.PLAIN, dataType);
+    }
+  }
+
+  @Test
+  public void testRle() throws IOException {
+    for (TSDataType dataType :
+        new TSDataType[] {
+          TSDataType.BOOLEAN,
+          TSDataType.INT32,
+          TSDataType.INT64,
+          TSDataType.FLOAT,
+          TSDataType.DOUBLE
+        }) {
+      check(TSEncoding.RLE, dataType);
+    }
+  }
+
+  @Test
+  public void testNumericEncodings() throws IOException {
+    for (TSEncoding encoding :
+        new TSEncoding[] {
+          TSEncoding.TS_2DIFF,
+          TSEncoding.GORILLA,
+          TSEncoding.CHIMP,
+          TSEncoding.SPRINTZ,
+          TSEncoding.RLBE
+        }) {
+      for (TSDataType dataType :
+          new TSDataType[] {
+            TSDataType.INT32, TSDataType.INT64, TSDataType.FLOAT, TSDataType.DOUBLE
+          }) {
+        check(encoding, dataType);
+      }
+    }
+  }
+
+  @Test
+  public void testIntegerEncodings() throws IOException {
+    for (TSEncoding encoding :
+        new TSEncoding[] {TSEncoding.ZIGZAG, TSEncoding.REGULAR, TSEncoding.PFOR}) {
+      check(encoding, TSDataType.INT32);
+      check(encoding, TSDataType.INT64);
+    }
+  }
+
+  @Test
+  public void testDictionary() throws IOException {
+    check(TSEncoding.DICTIONARY, TSDataType.TEXT);
+  }
+
+  private void check(TSEncoding encoding, TSDataType dataType) throws IOException {
+    ByteBuffer encoded = encode(encoding, dataType);
+    for (int batchSize : BATCH_SIZES) {
+      String message = encoding + " " + dataType + " batch size " + batchSize;
+      Decoder expectedDecoder = Decoder.getDecoderByType(encoding, dataType);
+      Decoder decoder = Decoder.getDecoderByType(encoding, dataType);
+      ByteBuffer expectedBuffer = encoded.duplicate();
+      ByteBuffer buffer = encoded.duplicate();
+      int total = 0;
+      int count;
+      switch (dataType) {
+        case BOOLEAN:
+          boolean[] booleans = new boolean[batchSize + 1];
+          while ((count = decoder.readBooleans(buffer, booleans, 1, batchSize)) > 0) {
+            for (int i = 1; i <= count; i++) {
+              Assert.assertEquals(
+                  message, expectedDecoder.readBoolean(expectedBuffer), booleans[i]);
+            }
+            total += count;
+          }
+          break;
+        case INT32:
+          int[] ints = new int[batchSize + 1];
+          while ((count = decoder.readInts(buffer, ints, 1, batchSize)) > 0) {
+            for (int i = 1; i <= count; i++) {
+              Assert.assertEquals(message, expectedDecoder.readInt(expectedBuffer), ints[i]);
+            }
+            total += count;
+          }
+          break;
+        case INT64:
+          long[] longs = new long[batchSize + 1];
+          while ((count = decoder.readLongs(buffer, longs, 1, batchSize)) > 0) {
+            for (int i = 1; i <= count; i++) {
+              Assert.assertEquals(message, expectedDecoder.readLong(expectedBuffer), longs[i]);
+            }
+            total += count;
+          }
+          break;
+        case FLOAT:
+          float[] floats = new float[batchSize + 1];
+          while ((count = decoder.readFloats(buffer, floats, 1, batchSize)) > 0) {
+            for (int i = 1; i <= count; i++) {
+              Assert.assertEquals(message, expectedDecoder.readFloat(expectedBuffer), floats[i], 0);
+            }
+            total += count;
+          }
+          break;
+        case DOUBLE:
+          double[] doubles = new double[batchSize + 1];
+          while ((count = decoder.readDoubles(buffer, doubles, 1, batchSize)) > 0) {
+            for (int i = 1; i <= count; i++) {
+              Assert.assertEquals(
+                  message, expectedDecoder.readDouble(expectedBuffer), doubles[i], 0);
+            }
+            total += count;
+          }
+          break;
+        case TEXT:
+          Binary[] binaries = new Binary[batchSize + 1];
+          while ((count = decoder.readBinaries(buffer, binaries, 1, batchSize)) > 0) {
+            for (int i = 1; i <= count; i++) {
+              Assert.assertEquals(message, expectedDecoder.readBinary(expectedBuffer), binaries[i]);
+            }
+            total += count;
+          }
+          break;
+        default:
+          Assert.fail(message);
+      }
+      Assert.assertEquals(message, POINT_NUM, total);
+      Assert.assertFalse(message, expectedDecoder.hasNext(expectedBuffer));
+      Assert.assertFalse(message, decoder.hasNext(buffer));
+    }
+    for (int skipSize : SKIP_SIZES) {
+      checkSkip(encoding, dataType, encoded, skipSize);
+    }
+  }
+
+  /** Skips {@code skipSize} values and reads one value alternately. */
+  private void checkSkip(TSEncoding encoding, TSDataType dataType, ByteBuffer encoded, int skipSize)
+      throws IOException {
+    String message = encoding + " " + dataType + " skip size " + skipSize;
+    Decoder expectedDecoder = Decoder.getDecoderByType(encoding, dataType);
+    Decoder decoder = Decoder.getDecoderByType(encoding, dataType);
+    ByteBuffer expectedBuffer = encoded.duplicate();
+    ByteBuffer buffer = encoded.duplicate();
+    int total = 0;
+    while (total < POINT_NUM) {
+      int skipped = decoder.skip(buffer, dataType, skipSize);
+      Assert.assertEquals(message, Math.min(skipSize, POINT_NUM - total), skipped);
+      for (int i = 0; i < skipped; i++) {
+        readValue(expectedDecoder, expectedBuffer, dataType);
+      }
+      total += skipped;
+      if (total < POINT_NUM) {
+        Assert.assertEquals(
+            message,
+            readValue(expectedDecoder, expectedBuffer, dataType),
+            readValue(decoder, buffer, dataType));
+        total++;
+      }
+    }
+    Assert.assertEquals(message, 0, decoder.skip(buffer, dataType, skipSize));
+    Assert.assertFalse(message, expectedDecoder.hasNext(expectedBuffer));
+    Assert.assertFalse(message, decoder.hasNext(buffer));
+  }
+
+  private Object readValue(Decoder decoder, ByteBuffer buffer, TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return decoder.readBoolean(buffer);
+      case INT32:
+        return decoder.readInt(buffer);
+      case INT64:
+        return decoder.readLong(buffer);
+      case FLOAT:
+        return decoder.readFloat(buffer);
+      case DOUBLE:
+        return decoder.readDouble(buffer);
+      case TEXT:
+        return decoder.readBinary(buffer);
+      default:
+        throw new IllegalArgumentException(dataType.toString());
+    }
+  }
+
+  private ByteBuffer encode(TSEncoding encoding, TSDataType dataType) throws IOException {
+    Encoder encoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(dataType);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Random random = new Random(encoding.ordinal() * 31L + dataType.ordinal());
+    long value = 0;
+    for (int i = 0; i < POINT_NUM; i++) {
+      if (encoding == TSEncoding.REGULAR) {
+        // regular data with a missing point now and then
+        value += i % 500 == 499 ? 20 : 10;
+      } else if (i % 300 < 100) {
+        // a run of repeated values
+        value = i / 300;
+      } else {
+        value = value + random.nextInt(1000) - 500;
+      }
+      switch (dataType) {
+        case BOOLEAN:
+          encoder.encode(value % 3 == 0, out);
+          break;
+        case INT32:
+          encoder.encode((int) value, out);
+          break;
+        case INT64:
+          encoder.encode(value, out);
+          break;
+        case FLOAT:
+          encoder.encode(value / 100f, out);
+          break;
+        case DOUBLE:
+          encoder.encode(value / 100d, out);
+          break;
+        case TEXT:
+          encoder.encode(new Binary(String.valueOf(value % 50), TSFileConfig.STRING_CHARSET), out);
+          break;
+        default:
+          Assert.fail(dataType.toString());
+      }
+    }
+    encoder.flush(out);
+    return ByteBuffer.wrap(out.toByteArray());
+  }
+}
@@ -32,6 +32,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -158,6 +159,21 @@ public class IntRleDecoderTest {
     }
   }
 
+  @Test
+  public void testBitPackingReadAllWidths() throws IOException {
+    // the bit-packed runs of every width are unpacked a word at a time, the last group of each run
+    // is cut short
+    Random random = new Random(7);
+    for (int width = 1; width <= 32; width++) {
+      List<Integer> list = new ArrayList<>();
+      for (int i = 0; i < 1003; i++) {
+        int value = random.nextInt();
+        list.add(width == 32 ? value : value & ((1 << width) - 1));
+      }
+      testLength(list, false, 2);
+    }
+  }
+
   @Test
   public void testBitPackingReadHeader() throws IOException {
     for (int i = 1; i < 505; i++) {
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.encoding.encoder.DeltaBinaryEncoder;
+import org.apache.tsfile.encoding.encoder.Encoder;
+import org.apache.tsfile.encoding.encoder.PforEncoder;
+import org.apache.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PforDecoderTest {
+
+  private static final int[] COUNTS = {1, 2, 9, 127, 128, 129, 1000};
+
+  @Test
+  public void testInts() throws IOException {
+    Random random = new Random(1);
+    for (int count : COUNTS) {
+      int[] values = new int[count];
+      for (int i = 0; i < count; i++) {
+        values[i] = i % 50 == 7 ? random.nextInt() : random.nextInt(100);
+      }
+      checkInts(values);
+    }
+  }
+
+  @Test
+  public void testIntOverflow() throws IOException {
+    int[] values = {
+      Integer.MAX_VALUE, Integer.MIN_VALUE, 0, Integer.MAX_VALUE, -1, Integer.MIN_VALUE, 1, 1, 1
+    };
+    checkInts(values);
+  }
+
+  @Test
+  public void testLongs() throws IOException {
+    Random random = new Random(2);
+    for (int count : COUNTS) {
+      long[] values = new long[count];
+      for (int i = 0; i < count; i++) {
+        values[i] = i % 50 == 7 ? random.nextLong() : random.nextInt(100);
+      }
+      checkLongs(values);
+    }
+  }
+
+  @Test
+  public void testLongOverflow() throws IOException {
+    long[] values = {
+      Long.MAX_VALUE, Long.MIN_VALUE, 0, Long.MAX_VALUE, -1, Long.MIN_VALUE, 1, 1, 1
+    };
+    checkLongs(values);
+  }
+
+  @Test
+  public void testTimestampsWithJumps() throws IOException {
+    long[] timestamps = new long[1000];
+    long time = 1700000000000L;
+    Random random = new Random(3);
+    for (int i = 0; i < timestamps.length; i++) {
+      // irregular sampling with a clock jump now and then
+      time += i % 100 == 50 ? 3600_000L : 1000 + random.nextInt(20);
+      timestamps[i] = time;
+    }
+    checkLongs(timestamps);
+
+    int pforSize = encode(new PforEncoder.LongPforEncoder(), timestamps).length;
+    int ts2diffSize = encode(new DeltaBinaryEncoder.LongDeltaEncoder(), timestamps).length;
+    assertTrue(pforSize < ts2diffSize);
+  }
+
+  @Test
+  public void testSkip() throws IOException {
+    long[] values = new long[1000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = i * 3L;
+    }
+    Encoder encoder = new PforEncoder.LongPforEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encoder.encode(values, 0, values.length, out);
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = Decoder.getDecoderByType(TSEncoding.PFOR, TSDataType.INT64);
+    assertEquals(5, decoder.skip(buffer, TSDataType.INT64, 5));
+    assertEquals(values[5], decoder.readLong(buffer));
+    assertEquals(500, decoder.skip(buffer, TSDataType.INT64, 500));
+    assertEquals(values[506], decoder.readLong(buffer));
+    assertEquals(493, decoder.skip(buffer, TSDataType.INT64, 1000));
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  private static void checkInts(int[] values) throws IOException {
+    Encoder encoder =
+        TSEncodingBuilder.getEncodingBuilder(TSEncoding.PFOR).getEncoder(TSDataType.INT32);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int value : values) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    encoder.encode(values, 0, values.length, out);
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+
+    Decoder decoder = Decoder.getDecoderByType(TSEncoding.PFOR, TSDataType.INT32);
+    for (int value : values) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(value, decoder.readInt(buffer));
+    }
+    int[] decoded = new int[values.length];
+    assertEquals(values.length, decoder.readInts(buffer, decoded, 0, values.length + 1));
+    assertArrayEquals(values, decoded);
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  private static void checkLongs(long[] values) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(encode(new PforEncoder.LongPforEncoder(), values));
+
+    Decoder decoder = Decoder.getDecoderByType(TSEncoding.PFOR, TSDataType.INT64);
+    for (long value : values) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(value, decoder.readLong(buffer));
+    }
+    assertFalse(decoder.hasNext(buffer));
+
+    buffer.rewind();
+    decoder.reset();
+    long[] decoded = new long[values.length];
+    assertEquals(values.length, decoder.readLongs(buffer, decoded, 0, values.length));
+    assertArrayEquals(values, decoded);
+  }
+
+  private static byte[] encode(Encoder encoder, long[] values) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (long value : values) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    return out.toByteArray();
+  }
+}
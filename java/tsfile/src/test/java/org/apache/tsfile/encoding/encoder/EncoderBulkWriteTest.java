@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.encoder;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.Binary;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/** Checks that the bulk encode methods of the encoders agree with the per-value methods. */
+public class EncoderBulkWriteTest {
+
+  private static final int POINT_NUM = 3000;
+  private static final int[] BATCH_SIZES = {1, 7, 128, 1000};
+
+  @Test
+  public void testPlain() throws IOException {
+    for (TSDataType dataType :
+        new TSDataType[] {
+          TSDataType.BOOLEAN,
+          TSDataType.INT32,
+          TSDataType.INT64,
+          TSDataType.FLOAT,
+          TSDataType.DOUBLE,
+          TSDataType.TEXT
+        }) {
+      check(TSEncoding.PLAIN, dataType);
+    }
+  }
+
+  @Test
+  public void testRle() throws IOException {
+    for (TSDataType dataType :
+        new TSDataType[] {
+          TSDataType.BOOLEAN,
+          TSDataType.INT32,
+          TSDataType.INT64,
+          TSDataType.FLOAT,
+          TSDataType.DOUBLE
+        }) {
+      check(TSEncoding.RLE, dataType);
+    }
+  }
+
+  @Test
+  public void testNumericEncodings() throws IOException {
+    for (TSEncoding encoding :
+        new TSEncoding[] {
+          TSEncoding.TS_2DIFF,
+          TSEncoding.GORILLA,
+          TSEncoding.CHIMP,
+          TSEncoding.SPRINTZ,
+          TSEncoding.RLBE
+        }) {
+      for (TSDataType dataType :
+          new TSDataType[] {
+            TSDataType.INT32, TSDataType.INT64, TSDataType.FLOAT, TSDataType.DOUBLE
+          }) {
+        check(encoding, dataType);
+      }
+    }
+  }
+
+  @Test
+  public void testRlbeAcrossBlocks() throws IOException {
+    // RLBE writes a block every 10000 values
+    for (TSDataType dataType :
+        new TSDataType[] {
+          TSDataType.INT32, TSDataType.INT64, TSDataType.FLOAT, TSDataType.DOUBLE
+        }) {
+      check(TSEncoding.RLBE, dataType, 25003);
+    }
+  }
+
+  @Test
+  public void testIntegerEncodings() throws IOException {
+    for (TSEncoding encoding :
+        new TSEncoding[] {TSEncoding.ZIGZAG, TSEncoding.REGULAR, TSEncoding.PFOR}) {
+      check(encoding, TSDataType.INT32);
+      check(encoding, TSDataType.INT64);
+    }
+  }
+
+  @Test
+  public void testDictionary() throws IOException {
+    check(TSEncoding.DICTIONARY, TSDataType.TEXT);
+  }
+
+  private void check(TSEncoding encoding, TSDataType dataType) throws IOException {
+    check(encoding, dataType, POINT_NUM);
+  }
+
+  private void check(TSEncoding encoding, TSDataType dataType, int pointNum) throws IOException {
+    long[] longs = generateValues(encoding, dataType, pointNum);
+    boolean[] booleans = new boolean[pointNum];
+    int[] ints = new int[pointNum];
+    float[] floats = new float[pointNum];
+    double[] doubles = new double[pointNum];
+    Binary[] binaries = new Binary[pointNum];
+    for (int i = 0; i < pointNum; i++) {
+      booleans[i] = longs[i] % 3 == 0;
+      ints[i] = (int) longs[i];
+      floats[i] = longs[i] / 100f;
+      doubles[i] = longs[i] / 100d;
+      binaries[i] = new Binary(String.valueOf(longs[i] % 50), TSFileConfig.STRING_CHARSET);
+    }
+
+    Encoder expectedEncoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(dataType);
+    ByteArrayOutputStream expectedOut = new ByteArrayOutputStream();
+    for (int i = 0; i < pointNum; i++) {
+      switch (dataType) {
+        case BOOLEAN:
+          expectedEncoder.encode(booleans[i], expectedOut);
+          break;
+        case INT32:
+          expectedEncoder.encode(ints[i], expectedOut);
+          break;
+        case INT64:
+          expectedEncoder.encode(longs[i], expectedOut);
+          break;
+        case FLOAT:
+          expectedEncoder.encode(floats[i], expectedOut);
+          break;
+        case DOUBLE:
+          expectedEncoder.encode(doubles[i], expectedOut);
+          break;
+        case TEXT:
+          expectedEncoder.encode(binaries[i], expectedOut);
+          break;
+        default:
+          Assert.fail(dataType.toString());
+      }
+    }
+    expectedEncoder.flush(expectedOut);
+    byte[] expected = expectedOut.toByteArray();
+
+    int[] batchSizes = Arrays.copyOf(BATCH_SIZES, BATCH_SIZES.length + 1);
+    batchSizes[BATCH_SIZES.length] = pointNum;
+    for (int batchSize : batchSizes) {
+      Encoder encoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(dataType);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (int offset = 0; offset < pointNum; offset += batchSize) {
+        int length = Math.min(batchSize, pointNum - offset);
+        switch (dataType) {
+          case BOOLEAN:
+            encoder.encode(booleans, offset, length, out);
+            encoder.encode(booleans, offset, 0, out);
+            break;
+          case INT32:
+            encoder.encode(ints, offset, length, out);
+            encoder.encode(ints, offset, 0, out);
+            break;
+          case INT64:
+            encoder.encode(longs, offset, length, out);
+            encoder.encode(longs, offset, 0, out);
+            break;
+          case FLOAT:
+            encoder.encode(floats, offset, length, out);
+            encoder.encode(floats, offset, 0, out);
+            break;
+          case DOUBLE:
+            encoder.encode(doubles, offset, length, out);
+            encoder.encode(doubles, offset, 0, out);
+            break;
+          case TEXT:
+            encoder.encode(binaries, offset, length, out);
+            encoder.encode(binaries, offset, 0, out);
+            break;
+          default:
+            Assert.fail(dataType.toString());
+        }
+      }
+      encoder.flush(out);
+      Assert.assertArrayEquals(
+          encoding + " " + dataType + " batch size " + batchSize, expected, out.toByteArray());
+    }
+  }
+
+  private long[] generateValues(TSEncoding encoding, TSDataType dataType, int pointNum) {
+    long[] values = new long[pointNum];
+    Random random = new Random(encoding.ordinal() * 31L + dataType.ordinal());
+    long value = 0;
+    for (int i = 0; i < pointNum; i++) {
+      if (encoding == TSEncoding.REGULAR) {
+        // regular data with a missing point now and then
+        value += i % 500 == 499 ? 20 : 10;
+      } else if (i % 300 < 100) {
+        // a run of repeated values
+        value = i / 300;
+      } else {
+        value = value + random.nextInt(1000) - 500;
+      }
+      values[i] = value;
+    }
+    return values;
+  }
+}
@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.encoder;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.encoding.decoder.Decoder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.header.PageHeader;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.tsfile.read.TsFileReader;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.common.RowRecord;
+import org.apache.tsfile.read.expression.QueryExpression;
+import org.apache.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.TsFileGeneratorUtils;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.chunk.AlignedChunkWriterImpl;
+import org.apache.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.tsfile.write.page.PageWriter;
+import org.apache.tsfile.write.page.TimePageWriter;
+import org.apache.tsfile.write.page.ValuePageWriter;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.writer.TsFileIOWriter;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class EncodingAdvisorTest {
+
+  private static final int POINT_NUM = 1000;
+
+  private final File f = FSFactoryProducer.getFSFactory().getFile("EncodingAdvisorTest.tsfile");
+  private final String deviceId = "root.sg.d1";
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private final boolean oldEncodingAdvisorEnabled = config.isEncodingAdvisorEnabled();
+
+  @Before
+  public void setUp() {
+    if (f.exists() && !f.delete()) {
+      throw new RuntimeException("can not delete " + f.getAbsolutePath());
+    }
+  }
+
+  @After
+  public void tearDown() {
+    if (f.exists()) {
+      f.delete();
+    }
+    config.setEncodingAdvisorEnabled(oldEncodingAdvisorEnabled);
+  }
+
+  @Test
+  public void testAdviseSmallest() throws IOException {
+    long[] values = new long[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = 1000L * i;
+    }
+    EncodingAdvisor advisor = new EncodingAdvisor(EncodingAdvisor.Objective.SIZE);
+    TSEncoding chosen = advisor.advise(TSDataType.INT64, values, POINT_NUM);
+    int chosenSize = encodedSize(chosen, values);
+    Assert.assertTrue(chosenSize <= encodedSize(TSEncoding.TS_2DIFF, values));
+    Assert.assertTrue(chosenSize < encodedSize(TSEncoding.PLAIN, values));
+  }
+
+  @Test
+  public void testAdviseLossless() throws IOException {
+    float[] values = new float[POINT_NUM];
+    Random random = new Random(7);
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = random.nextFloat() * 1000;
+    }
+    for (EncodingAdvisor.Objective objective : EncodingAdvisor.Objective.values()) {
+      EncodingAdvisor advisor = new EncodingAdvisor(objective);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      Encoder encoder =
+          advisor.reencode(
+              TSDataType.FLOAT, TSEncoding.PLAIN, encode(TSEncoding.PLAIN, values), POINT_NUM, out);
+      encoder.flush(out);
+      // the float encodings rounding the values to a precision are not eligible
+      Assert.assertNotEquals(TSEncoding.TS_2DIFF, encoder.getType());
+      Assert.assertNotEquals(TSEncoding.RLE, encoder.getType());
+
+      Decoder decoder = Decoder.getDecoderByType(encoder.getType(), TSDataType.FLOAT);
+      float[] decoded = new float[POINT_NUM];
+      Assert.assertEquals(
+          POINT_NUM, decoder.readFloats(ByteBuffer.wrap(out.toByteArray()), decoded, 0, POINT_NUM));
+      Assert.assertArrayEquals(values, decoded, 0);
+    }
+  }
+
+  @Test
+  public void testAdviseText() {
+    Binary[] values = new Binary[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = new Binary("a long enough status text " + i % 3, TSFileConfig.STRING_CHARSET);
+    }
+    EncodingAdvisor advisor = new EncodingAdvisor(EncodingAdvisor.Objective.SIZE);
+    Assert.assertEquals(TSEncoding.DICTIONARY, advisor.advise(TSDataType.TEXT, values, POINT_NUM));
+    // DICTIONARY does not support STRING
+    Assert.assertEquals(TSEncoding.PLAIN, advisor.advise(TSDataType.STRING, values, POINT_NUM));
+  }
+
+  @Test
+  public void testWriteWithAdvisor() throws IOException, WriteProcessException {
+    config.setEncodingAdvisorEnabled(true);
+    List<IMeasurementSchema> schemas = new ArrayList<>();
+    schemas.add(
+        new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.PLAIN, CompressionType.LZ4));
+    String alignedDeviceId = "root.sg.d2";
+    try (TsFileWriter tsFileWriter = new TsFileWriter(f)) {
+      tsFileWriter.registerTimeseries(new Path(deviceId), schemas);
+      tsFileWriter.registerAlignedTimeseries(new Path(alignedDeviceId), schemas);
+      TsFileGeneratorUtils.writeWithTablet(tsFileWriter, deviceId, schemas, POINT_NUM, 0, 0, false);
+      TsFileGeneratorUtils.writeWithTablet(
+          tsFileWriter, alignedDeviceId, schemas, POINT_NUM, 0, 0, true);
+    }
+
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(f.getAbsolutePath())) {
+      for (String device : Arrays.asList(deviceId, alignedDeviceId)) {
+        for (List<ChunkMetadata> chunkMetadataList :
+            reader
+                .readChunkMetadataInDevice(IDeviceID.Factory.DEFAULT_FACTORY.create(device))
+                .values()) {
+          for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+            if (!chunkMetadata.getMeasurementUid().isEmpty()) {
+              Assert.assertNotEquals(
+                  TSEncoding.PLAIN,
+                  reader.readMemChunk(chunkMetadata).getHeader().getEncodingType());
+            }
+          }
+        }
+      }
+
+      TsFileReader tsFileReader = new TsFileReader(reader);
+      for (String device : Arrays.asList(deviceId, alignedDeviceId)) {
+        QueryDataSet dataSet =
+            tsFileReader.query(
+                QueryExpression.create(
+                    Collections.singletonList(new Path(device, "s1", true)), null));
+        int count = 0;
+        while (dataSet.hasNext()) {
+          RowRecord record = dataSet.next();
+          Assert.assertEquals(count, record.getTimestamp());
+          Assert.assertEquals(count, record.getFields().get(0).getLongV());
+          count++;
+        }
+        Assert.assertEquals(POINT_NUM, count);
+      }
+    }
+  }
+
+  @Test
+  public void testAppendPageWithAdvisor() throws IOException, WriteProcessException {
+    config.setEncodingAdvisorEnabled(true);
+    MeasurementSchema schema =
+        new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.PLAIN, CompressionType.LZ4);
+    String alignedDeviceId = "root.sg.d2";
+    try (TsFileIOWriter writer = new TsFileIOWriter(f)) {
+      // the advisor changes the encoding of the first page, and the appended page is encoded by
+      // PLAIN and compressed by LZ4 as the schema says
+      ChunkWriterImpl chunkWriter = new ChunkWriterImpl(schema);
+      PageWriter pageWriter = new PageWriter(schema);
+      pageWriter.setCompressor(ICompressor.getCompressor(CompressionType.LZ4));
+      for (int i = 0; i < POINT_NUM; i++) {
+        chunkWriter.write(i, (long) i);
+        pageWriter.write(POINT_NUM + i, (long) POINT_NUM + i);
+      }
+      chunkWriter.sealCurrentPage();
+      ByteBuffer page = pageWriter.getUncompressedBytes();
+      chunkWriter.writePageHeaderAndDataIntoBuff(
+          compress(page),
+          new PageHeader(page.remaining(), compress(page).remaining(), pageWriter.getStatistics()));
+      writer.startChunkGroup(IDeviceID.Factory.DEFAULT_FACTORY.create(deviceId));
+      chunkWriter.writeToFileWriter(writer);
+      writer.endChunkGroup();
+
+      AlignedChunkWriterImpl alignedChunkWriter =
+          new AlignedChunkWriterImpl(Collections.singletonList(schema));
+      TimePageWriter timePageWriter =
+          new TimePageWriter(
+              schema.getTimeEncoder(), ICompressor.getCompressor(CompressionType.LZ4));
+      ValuePageWriter valuePageWriter =
+          new ValuePageWriter(
+              schema.getValueEncoder(),
+              ICompressor.getCompressor(CompressionType.LZ4),
+              TSDataType.INT64);
+      for (int i = 0; i < POINT_NUM; i++) {
+        alignedChunkWriter.write(i, (long) i, false);
+        alignedChunkWriter.write(i);
+        timePageWriter.write(POINT_NUM + i);
+        valuePageWriter.write(POINT_NUM + i, (long) POINT_NUM + i, false);
+      }
+      alignedChunkWriter.sealCurrentPage();
+      ByteBuffer timePage = timePageWriter.getUncompressedBytes();
+      alignedChunkWriter.writePageHeaderAndDataIntoTimeBuff(
+          compress(timePage),
+          new PageHeader(
+              timePage.remaining(),
+              compress(timePage).remaining(),
+              timePageWriter.getStatistics()));
+      ByteBuffer valuePage = valuePageWriter.getUncompressedBytes();
+      alignedChunkWriter.writePageHeaderAndDataIntoValueBuff(
+          compress(valuePage),
+          new PageHeader(
+              valuePage.remaining(),
+              compress(valuePage).remaining(),
+              valuePageWriter.getStatistics()),
+          0);
+      writer.startChunkGroup(IDeviceID.Factory.DEFAULT_FACTORY.create(alignedDeviceId));
+      alignedChunkWriter.writeToFileWriter(writer);
+      writer.endChunkGroup();
+      writer.endFile();
+    }
+
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(f.getAbsolutePath())) {
+      for (String device : Arrays.asList(deviceId, alignedDeviceId)) {
+        for (List<ChunkMetadata> chunkMetadataList :
+            reader
+                .readChunkMetadataInDevice(IDeviceID.Factory.DEFAULT_FACTORY.create(device))
+                .values()) {
+          for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+            if (!chunkMetadata.getMeasurementUid().isEmpty()) {
+              Assert.assertNotEquals(
+                  TSEncoding.PLAIN,
+                  reader.readMemChunk(chunkMetadata).getHeader().getEncodingType());
+            }
+          }
+        }
+      }
+
+      TsFileReader tsFileReader = new TsFileReader(reader);
+      for (String device : Arrays.asList(deviceId, alignedDeviceId)) {
+        QueryDataSet dataSet =
+            tsFileReader.query(
+                QueryExpression.create(
+                    Collections.singletonList(new Path(device, "s1", true)), null));
+        int count = 0;
+        while (dataSet.hasNext()) {
+          RowRecord record = dataSet.next();
+          Assert.assertEquals(count, record.getTimestamp());
+          Assert.assertEquals(count, record.getFields().get(0).getLongV());
+          count++;
+        }
+        Assert.assertEquals(2 * POINT_NUM, count);
+      }
+    }
+  }
+
+  private static ByteBuffer compress(ByteBuffer data) throws IOException {
+    byte[] uncompressed = new byte[data.remaining()];
+    data.duplicate().get(uncompressed);
+    return ByteBuffer.wrap(ICompressor.getCompressor(CompressionType.LZ4).compress(uncompressed));
+  }
+
+  private static ByteBuffer encode(TSEncoding encoding, float[] values) {
+    Encoder encoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(TSDataType.FLOAT);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encoder.encode(values, 0, values.length, out);
+    try {
+      encoder.flush(out);
+    } catch (IOException e) {
+      Assert.fail(e.getMessage());
+    }
+    return ByteBuffer.wrap(out.toByteArray());
+  }
+
+  private static int encodedSize(TSEncoding encoding, long[] values) throws IOException {
+    Encoder encoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(TSDataType.INT64);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encoder.encode(values, 0, values.length, out);
+    encoder.flush(out);
+    return out.size();
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tsfile.encoding.kernel;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertSame;
+
+public class DecodeKernelsTest {
+
+  @Test
+  public void testFallBackToScalarKernel() {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    boolean enabled = config.isVectorDecodeEnabled();
+    try {
+      config.setVectorDecodeEnabled(false);
+      assertSame(DecodeKernels.getScalarKernel(), DecodeKernels.getKernel());
+      // the vector module is not on the classpath of this module
+      config.setVectorDecodeEnabled(true);
+      assertSame(DecodeKernels.getScalarKernel(), DecodeKernels.getKernel());
+    } finally {
+      config.setVectorDecodeEnabled(enabled);
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tsfile.encrypt;
+
+import org.apache.tsfile.file.metadata.enums.EncryptionType;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class AES128OffsetIvTest {
+  private final byte[] key = "mkmkmkmkmkmkmkmk".getBytes(StandardCharsets.UTF_8);
+
+  private byte[] randomBytes(int length) {
+    byte[] bytes = new byte[length];
+    ThreadLocalRandom.current().nextBytes(bytes);
+    return bytes;
+  }
+
+  @Test
+  public void testPageRoundTrip() throws IOException {
+    byte[] unencrypted = randomBytes(100000);
+    IEncryptor encryptor = IEncryptor.getEncryptor(EncryptionType.AES128_OFFSET_IV, key);
+    IDecryptor decryptor = IDecryptor.getDecryptor(EncryptionType.AES128_OFFSET_IV, key);
+    Assert.assertTrue(encryptor.hasPageIv());
+    Assert.assertTrue(decryptor.hasPageIv());
+
+    byte[] encrypted = encryptor.getPageEncryptor(1024, 3).encrypt(unencrypted);
+    Assert.assertArrayEquals(unencrypted, decryptor.getPageDecryptor(1024, 3).decrypt(encrypted));
+    Assert.assertArrayEquals(
+        unencrypted,
+        decryptor.getEncryptor().getPageEncryptor(1024, 3).getDecryptor().decrypt(encrypted));
+  }
+
+  @Test
+  public void testPagesUseDifferentKeystreams() throws IOException {
+    byte[] unencrypted = new byte[4096];
+    IEncryptor encryptor = IEncryptor.getEncryptor(EncryptionType.AES128_OFFSET_IV, key);
+    byte[] page0 = encryptor.getPageEncryptor(1024, 0).encrypt(unencrypted);
+    byte[] page1 = encryptor.getPageEncryptor(1024, 1).encrypt(unencrypted);
+    byte[] dictionary =
+        encryptor.getPageEncryptor(1024, EncryptUtils.DICTIONARY_PAGE_INDEX).encrypt(unencrypted);
+    byte[] otherChunk = encryptor.getPageEncryptor(2048, 0).encrypt(unencrypted);
+    Assert.assertFalse(Arrays.equals(page0, page1));
+    Assert.assertFalse(Arrays.equals(page0, dictionary));
+    Assert.assertFalse(Arrays.equals(page1, dictionary));
+    Assert.assertFalse(Arrays.equals(page0, otherChunk));
+    // the same page must be encrypted the same way, otherwise it could not be read back
+    Assert.assertArrayEquals(page0, encryptor.getPageEncryptor(1024, 0).encrypt(unencrypted));
+  }
+
+  @Test
+  public void testDataKeyStaysCompatibleWithAES128() throws IOException {
+    // the data key in the file metadata is still encrypted as it is by AES128
+    byte[] dataKey = randomBytes(16);
+    byte[] expected = new IEncryptor.AES128Encryptor(key).encrypt(dataKey);
+    Assert.assertArrayEquals(
+        expected, IEncryptor.getEncryptor(EncryptionType.AES128_OFFSET_IV, key).encrypt(dataKey));
+  }
+
+  @Test
+  public void testOtherTypesHaveNoPageIv() {
+    Assert.assertFalse(IEncryptor.getEncryptor(EncryptionType.AES128, key).hasPageIv());
+    Assert.assertFalse(IDecryptor.getDecryptor(EncryptionType.AES128, key).hasPageIv());
+    Assert.assertFalse(IEncryptor.getEncryptor(EncryptionType.SM4128, key).hasPageIv());
+    IEncryptor aes = IEncryptor.getEncryptor(EncryptionType.AES128, key);
+    Assert.assertSame(aes, aes.getPageEncryptor(1024, 1));
+  }
+}
@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tsfile.encrypt;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.encoding.decoder.Decoder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.header.ChunkHeader;
+import org.apache.tsfile.file.header.PageHeader;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.TsFileReader;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.BatchData;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.common.Field;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.common.RowRecord;
+import org.apache.tsfile.read.expression.QueryExpression;
+import org.apache.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.tsfile.read.reader.page.PageReader;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.TsFileGeneratorForTest;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.TSRecord;
+import org.apache.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.tsfile.write.record.datapoint.StringDataPoint;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.schema.Schema;
+import org.apache.tsfile.write.writer.TsFileIOWriter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class AES128OffsetIvTsFileReadWriteTest {
+  private static final int POINT_NUM = 1000;
+  private final double delta = 0.0000001;
+  private final String path = TsFileGeneratorForTest.getTestTsFilePath("root.sg1", 0, 0, 1);
+  private final String copyPath = TsFileGeneratorForTest.getTestTsFilePath("root.sg1", 0, 0, 2);
+  private final IDeviceID deviceID = IDeviceID.Factory.DEFAULT_FACTORY.create("device_1");
+  private final IDeviceID alignedDeviceID = IDeviceID.Factory.DEFAULT_FACTORY.create("device_2");
+
+  private TSFileConfig conf = TSFileDescriptor.getInstance().getConfig();
+  private int maxNumberOfPointsInPage;
+
+  @Before
+  public void setUp() {
+    conf.setEncryptFlag("true");
+    conf.setEncryptType("AES128_OFFSET_IV");
+    conf.setEncryptKey("thisisourtestkey");
+    maxNumberOfPointsInPage = conf.getMaxNumberOfPointsInPage();
+    // several pages in a chunk, so that each page gets its own IV
+    conf.setMaxNumberOfPointsInPage(100);
+    for (String filePath : Arrays.asList(path, copyPath)) {
+      File f = new File(filePath);
+      if (f.exists()) {
+        assertTrue(f.delete());
+      }
+      if (!f.getParentFile().exists()) {
+        assertTrue(f.getParentFile().mkdirs());
+      }
+    }
+  }
+
+  @After
+  public void tearDown() {
+    conf.setMaxNumberOfPointsInPage(maxNumberOfPointsInPage);
+    conf.setEncryptKey("abcdefghijklmnop");
+    conf.setEncryptType("UNENCRYPTED");
+    conf.setEncryptFlag("false");
+    for (String filePath : Arrays.asList(path, copyPath)) {
+      File f = new File(filePath);
+      if (f.exists()) {
+        assertTrue(f.delete());
+      }
+    }
+  }
+
+  @Test
+  public void readWriteTest() throws IOException, WriteProcessException {
+    writeData();
+    readNonAlignedData(path);
+    readSeries(
+        path,
+        new Path(alignedDeviceID, "a1", true),
+        (i, field) -> assertEquals(i, field.getLongV()),
+        POINT_NUM);
+    readSeries(
+        path,
+        new Path(alignedDeviceID, "a2", true),
+        (i, field) -> assertEquals(i * 1.5, field.getDoubleV(), delta),
+        POINT_NUM - POINT_NUM / 3);
+  }
+
+  @Test
+  public void copyChunkTest() throws IOException, WriteProcessException {
+    writeData();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(path);
+        TsFileWriter tsFileWriter = new TsFileWriter(new File(copyPath), new Schema(), conf)) {
+      TsFileIOWriter ioWriter = tsFileWriter.getIOWriter();
+      ioWriter.startChunkGroup(deviceID);
+      // the chunks are copied in the reverse order, so they land on other offsets
+      for (String measurement : Arrays.asList("s3", "s2", "s1")) {
+        ChunkMetadata chunkMetadata =
+            reader.getChunkMetadataList(new Path(deviceID, measurement, true)).get(0);
+        Chunk chunk = reader.readMemChunk(chunkMetadata);
+        assertNotEquals(chunkMetadata.getOffsetOfChunkHeader(), ioWriter.getPos());
+        ioWriter.writeChunk(chunk, chunkMetadata);
+      }
+      ioWriter.endChunkGroup();
+    }
+    readNonAlignedData(copyPath);
+  }
+
+  @Test
+  public void readPageWithoutPositionTest() throws IOException, WriteProcessException {
+    writeData();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(path)) {
+      // the IVs of the pages can not be derived without the offset of the chunk and the page index
+      long chunkOffset =
+          reader
+              .getChunkMetadataList(new Path(deviceID, "s1", true))
+              .get(0)
+              .getOffsetOfChunkHeader();
+      reader.position(chunkOffset);
+      ChunkHeader chunkHeader = reader.readChunkHeader(reader.readMarker());
+      PageHeader pageHeader = reader.readPageHeader(TSDataType.INT64, true);
+      long pageOffset = reader.position();
+      assertThrows(
+          UnsupportedOperationException.class,
+          () -> reader.readPage(pageHeader, chunkHeader.getCompressionType()));
+      assertThrows(
+          UnsupportedOperationException.class,
+          () -> reader.readPage(pageHeader, chunkHeader.getCompressionType(), pageOffset));
+      assertEquals(pageOffset, reader.position());
+
+      ByteBuffer pageData =
+          reader.readPage(pageHeader, chunkHeader.getCompressionType(), chunkOffset, 0);
+      BatchData batchData =
+          new PageReader(
+                  pageData,
+                  TSDataType.INT64,
+                  Decoder.getDecoderByType(TSEncoding.TS_2DIFF, TSDataType.INT64),
+                  Decoder.getDecoderByType(
+                      TSEncoding.valueOf(conf.getTimeEncoder()), TSDataType.INT64))
+              .getAllSatisfiedPageData();
+      assertEquals(pageHeader.getNumOfValues(), batchData.length());
+      for (long i = 1; batchData.hasCurrent(); i++, batchData.next()) {
+        assertEquals(i, batchData.currentTime());
+        assertEquals(i, batchData.getLong());
+      }
+
+      chunkOffset =
+          reader
+              .getChunkMetadataList(new Path(deviceID, "s2", true))
+              .get(0)
+              .getOffsetOfChunkHeader();
+      reader.position(chunkOffset);
+      ChunkHeader dictionaryChunkHeader = reader.readChunkHeader(reader.readMarker());
+      assertThrows(
+          UnsupportedOperationException.class,
+          () -> reader.readChunkDictionary(dictionaryChunkHeader.getCompressionType()));
+      assertEquals(
+          10,
+          reader.readChunkDictionary(dictionaryChunkHeader.getCompressionType(), chunkOffset)
+              .length);
+    }
+  }
+
+  private void writeData() throws IOException, WriteProcessException {
+    try (TsFileWriter tsFileWriter = new TsFileWriter(new File(path), new Schema(), conf)) {
+      tsFileWriter.registerTimeseries(
+          new Path(deviceID), new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.TS_2DIFF));
+      tsFileWriter.registerTimeseries(
+          new Path(deviceID),
+          new MeasurementSchema("s2", TSDataType.TEXT, TSEncoding.CHUNK_DICTIONARY));
+      tsFileWriter.registerTimeseries(
+          new Path(deviceID), new MeasurementSchema("s3", TSDataType.INT32, TSEncoding.PLAIN));
+      List<IMeasurementSchema> alignedSchemas = new ArrayList<>();
+      alignedSchemas.add(new MeasurementSchema("a1", TSDataType.INT64, TSEncoding.PLAIN));
+      alignedSchemas.add(new MeasurementSchema("a2", TSDataType.DOUBLE, TSEncoding.GORILLA));
+      tsFileWriter.registerAlignedTimeseries(new Path(alignedDeviceID), alignedSchemas);
+
+      for (long i = 1; i <= POINT_NUM; i++) {
+        TSRecord tsRecord = new TSRecord(i, deviceID);
+        tsRecord.addTuple(new LongDataPoint("s1", i));
+        tsRecord.addTuple(
+            new StringDataPoint("s2", new Binary("value" + i % 10, TSFileConfig.STRING_CHARSET)));
+        // s3 only has one page
+        if (i <= 10) {
+          tsRecord.addTuple(new IntDataPoint("s3", (int) i));
+        }
+        tsFileWriter.write(tsRecord);
+
+        TSRecord alignedRecord = new TSRecord(i, alignedDeviceID);
+        alignedRecord.addTuple(new LongDataPoint("a1", i));
+        // a2 has nulls, so its pages do not line up with the time pages point by point
+        if (i % 3 != 0) {
+          alignedRecord.addTuple(new DoubleDataPoint("a2", i * 1.5));
+        }
+        tsFileWriter.writeAligned(alignedRecord);
+      }
+    }
+  }
+
+  private void readNonAlignedData(String filePath) throws IOException {
+    readSeries(
+        filePath,
+        new Path(deviceID, "s1", true),
+        (i, field) -> assertEquals(i, field.getLongV()),
+        POINT_NUM);
+    readSeries(
+        filePath,
+        new Path(deviceID, "s2", true),
+        (i, field) -> assertEquals("value" + i % 10, field.getStringValue()),
+        POINT_NUM);
+    readSeries(
+        filePath,
+        new Path(deviceID, "s3", true),
+        (i, field) -> assertEquals(i, field.getIntV()),
+        10);
+  }
+
+  private void readSeries(String filePath, Path series, ReadDataPointProxy proxy, int expectedCount)
+      throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(filePath);
+        TsFileReader readTsFile = new TsFileReader(reader)) {
+      QueryExpression queryExpression =
+          QueryExpression.create(new ArrayList<>(Arrays.asList(series)), null);
+      QueryDataSet queryDataSet = readTsFile.query(queryExpression);
+      int count = 0;
+      while (queryDataSet.hasNext()) {
+        RowRecord r = queryDataSet.next();
+        proxy.assertEqualProxy(r.getTimestamp(), r.getFields().get(0));
+        count++;
+      }
+      assertEquals(expectedCount, count);
+    }
+  }
+
+  private interface ReadDataPointProxy {
+
+    void assertEqualProxy(long i, Field field);
+  }
+}
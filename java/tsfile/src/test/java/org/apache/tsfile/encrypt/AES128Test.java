@@ -24,7 +24,13 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
 
 public class AES128Test {
@@ -73,4 +79,57 @@ public class AES128Test {
     System.out.println("decryption time cost:" + (System.currentTimeMillis() - time));
     Assert.assertArrayEquals(unencrypted, decrypted);
   }
+
+  @Test
+  public void testByteBuffer() {
+    byte[] unencrypted = randomString(100000).getBytes(StandardCharsets.UTF_8);
+    IEncryptor encryptor = new IEncryptor.AES128Encryptor(key.getBytes(StandardCharsets.UTF_8));
+    IDecryptor decryptor = new IDecryptor.AES128Decryptor(key.getBytes(StandardCharsets.UTF_8));
+    byte[] expected = encryptor.encrypt(unencrypted);
+
+    // encrypt a direct buffer into a heap buffer
+    ByteBuffer direct = ByteBuffer.allocateDirect(unencrypted.length);
+    direct.put(unencrypted).flip();
+    ByteBuffer encrypted = ByteBuffer.allocate(unencrypted.length);
+    Assert.assertEquals(unencrypted.length, encryptor.encrypt(direct, encrypted));
+    Assert.assertEquals(0, direct.position());
+    Assert.assertEquals(0, encrypted.position());
+    Assert.assertArrayEquals(expected, encrypted.array());
+
+    // decrypt in place
+    Assert.assertEquals(unencrypted.length, decryptor.decrypt(encrypted, encrypted));
+    Assert.assertArrayEquals(unencrypted, encrypted.array());
+  }
+
+  @Test
+  public void testConcurrentDecryption() throws Exception {
+    IEncryptor encryptor = new IEncryptor.AES128Encryptor(key.getBytes(StandardCharsets.UTF_8));
+    IDecryptor decryptor = new IDecryptor.AES128Decryptor(key.getBytes(StandardCharsets.UTF_8));
+    List<byte[]> pages = new ArrayList<>();
+    List<byte[]> encryptedPages = new ArrayList<>();
+    for (int i = 0; i < 64; i++) {
+      byte[] page = randomString(1000 + i * 100).getBytes(StandardCharsets.UTF_8);
+      pages.add(page);
+      encryptedPages.add(encryptor.encrypt(page));
+    }
+
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<byte[]>> results = new ArrayList<>();
+      for (byte[] encryptedPage : encryptedPages) {
+        results.add(
+            pool.submit(
+                () -> {
+                  ByteBuffer decrypted = ByteBuffer.allocate(encryptedPage.length);
+                  decryptor.decrypt(ByteBuffer.wrap(encryptedPage), decrypted);
+                  return decrypted.array();
+                }));
+      }
+      for (int i = 0; i < pages.size(); i++) {
+        Assert.assertArrayEquals(pages.get(i), results.get(i).get());
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
 }
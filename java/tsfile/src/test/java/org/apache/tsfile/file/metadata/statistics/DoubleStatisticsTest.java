@@ -41,6 +41,27 @@ public class DoubleStatisticsTest {
     assertEquals(2.32d, doubleStats.getLastValue(), maxError);
   }
 
+  @Test
+  public void testUpdateBatch() {
+    long[] times = new long[] {0, 1, 2, 3, 4, 5};
+    double[] values = new double[] {9.5d, 1.34d, -2.32d, 7.1d, 0.3d, 8.8d};
+    Statistics<Double> pointStats = new DoubleStatistics();
+    for (int i = 1; i < 5; i++) {
+      pointStats.update(times[i], values[i]);
+    }
+    Statistics<Double> batchStats = new DoubleStatistics();
+    batchStats.update(times, values, 2, 1);
+    batchStats.update(times, values, 2, 3);
+    assertEquals(pointStats.getCount(), batchStats.getCount());
+    assertEquals(pointStats.getStartTime(), batchStats.getStartTime());
+    assertEquals(pointStats.getEndTime(), batchStats.getEndTime());
+    assertEquals(pointStats.getMaxValue(), batchStats.getMaxValue(), 0);
+    assertEquals(pointStats.getMinValue(), batchStats.getMinValue(), 0);
+    assertEquals(pointStats.getSumDoubleValue(), batchStats.getSumDoubleValue(), 0);
+    assertEquals(pointStats.getFirstValue(), batchStats.getFirstValue(), 0);
+    assertEquals(pointStats.getLastValue(), batchStats.getLastValue(), 0);
+  }
+
   @Test
   public void testMerge() {
     Statistics<Double> doubleStats1 = new DoubleStatistics();
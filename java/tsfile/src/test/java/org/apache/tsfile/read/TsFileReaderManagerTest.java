@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tsfile.read;
+
+import org.apache.tsfile.utils.FileGenerator;
+import org.apache.tsfile.utils.TsFileGeneratorForTest;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class TsFileReaderManagerTest {
+
+  private static final int FILE_NUM = 3;
+  private final List<String> filePaths = new ArrayList<>();
+
+  @Before
+  public void before() throws IOException {
+    for (int i = 0; i < FILE_NUM; i++) {
+      String filePath = TsFileGeneratorForTest.getTestTsFilePath("root.sg1", 0, 0, 10 + i);
+      FileGenerator.generateFile(100, 10, filePath);
+      filePaths.add(filePath);
+    }
+  }
+
+  @After
+  public void after() {
+    for (String filePath : filePaths) {
+      FileGenerator.after(filePath);
+    }
+  }
+
+  @Test
+  public void testReferenceAndEviction() throws IOException {
+    try (TsFileReaderManager manager = new TsFileReaderManager(2)) {
+      TsFileSequenceReader reader0 = manager.get(filePaths.get(0));
+      Assert.assertSame(reader0, manager.get(filePaths.get(0)));
+      Assert.assertEquals(1, manager.getMissCount());
+      Assert.assertEquals(1, manager.getHitCount());
+      Assert.assertEquals(0.5, manager.getHitRate(), 0.0001);
+      Assert.assertTrue(manager.getOpenTimeInNanos() > 0);
+      manager.release(reader0);
+      manager.release(reader0);
+
+      TsFileSequenceReader reader1 = manager.get(filePaths.get(1));
+      manager.release(reader1);
+      Assert.assertEquals(2, manager.getOpenFileNum());
+      // the least recently used reader is closed
+      TsFileSequenceReader reader2 = manager.get(filePaths.get(2));
+      Assert.assertEquals(2, manager.getOpenFileNum());
+      Assert.assertEquals(1, manager.getEvictionCount());
+      assertClosed(reader0);
+      Assert.assertNotNull(reader1.readFileMetadata());
+
+      // the referenced readers are not closed even if there are too many
+      reader1 = manager.get(filePaths.get(1));
+      reader0 = manager.get(filePaths.get(0));
+      Assert.assertEquals(3, manager.getOpenFileNum());
+      Assert.assertNotNull(reader0.readFileMetadata());
+      manager.release(reader2);
+      Assert.assertEquals(2, manager.getOpenFileNum());
+      assertClosed(reader2);
+
+      // a referenced reader is closed on the last release after its file is closed
+      manager.closeFile(filePaths.get(0));
+      Assert.assertNotNull(reader0.readFileMetadata());
+      Assert.assertNotSame(reader0, manager.get(filePaths.get(0)));
+      manager.release(reader0);
+      assertClosed(reader0);
+    }
+  }
+
+  @Test
+  public void testConcurrentGet() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try (TsFileReaderManager manager = new TsFileReaderManager(2)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  for (int j = 0; j < 200; j++) {
+                    String filePath =
+                        filePaths.get(ThreadLocalRandom.current().nextInt(filePaths.size()));
+                    TsFileSequenceReader reader = manager.get(filePath);
+                    try {
+                      Assert.assertEquals(
+                          new File(filePath).getAbsolutePath(), reader.getFileName());
+                      Assert.assertNotNull(reader.readFileMetadata());
+                      Assert.assertTrue(reader.fileSize() > 0);
+                    } finally {
+                      manager.release(reader);
+                    }
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      Assert.assertTrue(manager.getOpenFileNum() <= 2);
+      Assert.assertEquals(1600, manager.getHitCount() + manager.getMissCount());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private static void assertClosed(TsFileSequenceReader reader) {
+    try {
+      reader.fileSize();
+      Assert.fail("the reader should be closed");
+    } catch (IOException e) {
+      // expected
+    }
+  }
+}
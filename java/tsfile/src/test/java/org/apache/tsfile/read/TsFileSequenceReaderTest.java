@@ -19,6 +19,8 @@
 
 package org.apache.tsfile.read;
 
+import org.apache.tsfile.common.cache.BlockCache;
+import org.apache.tsfile.common.cache.PageCache;
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.constant.TestConstant;
@@ -32,8 +34,12 @@ import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
 import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.file.metadata.IDeviceID.Factory;
+import org.apache.tsfile.file.metadata.TimeseriesMetadata;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.common.BatchData;
+import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
 import org.apache.tsfile.utils.BloomFilter;
 import org.apache.tsfile.utils.FileGenerator;
 import org.apache.tsfile.utils.Pair;
@@ -57,6 +63,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -150,6 +159,202 @@ public class TsFileSequenceReaderTest {
     reader.close();
   }
 
+  @Test
+  public void testReadMemChunks() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+      List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+      for (List<ChunkMetadata> metadataList :
+          reader
+              .readChunkMetadataInDevice(IDeviceID.Factory.DEFAULT_FACTORY.create("d2"))
+              .values()) {
+        chunkMetadataList.addAll(metadataList);
+        chunkMetadataList.add(null);
+      }
+      List<Chunk> chunks = reader.readMemChunks(chunkMetadataList);
+      Assert.assertEquals(chunkMetadataList.size(), chunks.size());
+      for (int i = 0; i < chunkMetadataList.size(); i++) {
+        if (chunkMetadataList.get(i) == null) {
+          Assert.assertNull(chunks.get(i));
+          continue;
+        }
+        Chunk expected = reader.readMemChunk(chunkMetadataList.get(i));
+        Assert.assertEquals(
+            expected.getHeader().getMeasurementID(), chunks.get(i).getHeader().getMeasurementID());
+        Assert.assertEquals(
+            expected.getHeader().getSerializedSize(),
+            chunks.get(i).getHeader().getSerializedSize());
+        Assert.assertEquals(expected.getData(), chunks.get(i).getData());
+        // the chunk does not keep the merged buffer of the coalesced read alive
+        ByteBuffer data = chunks.get(i).getData();
+        if (data.hasArray()) {
+          Assert.assertEquals(data.remaining(), data.array().length);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testReadRanges() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+      long fileSize = reader.fileSize();
+      List<Pair<Long, Integer>> ranges = new ArrayList<>();
+      ranges.add(new Pair<>(fileSize - 100, 50));
+      ranges.add(new Pair<>(0L, 10));
+      ranges.add(new Pair<>(5L, 20));
+      ranges.add(new Pair<>(fileSize - 10, 10));
+      List<ByteBuffer> buffers = reader.readRanges(ranges);
+      Assert.assertEquals(ranges.size(), buffers.size());
+      for (int i = 0; i < ranges.size(); i++) {
+        ByteBuffer expected = reader.readData(ranges.get(i).left, ranges.get(i).right);
+        Assert.assertEquals(expected, buffers.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void testReadWithBlockCache() throws IOException {
+    BlockCache blockCache = BlockCache.getInstance();
+    blockCache.invalidate(FILE_PATH);
+    Map<IDeviceID, List<TimeseriesMetadata>> expected;
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+      expected = reader.getAllTimeseriesMetadata(true);
+    }
+
+    long cachedBlockNum = 0;
+    for (int i = 0; i < 2; i++) {
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+        reader.setBlockCacheEnabled(true);
+        Map<IDeviceID, List<TimeseriesMetadata>> actual = reader.getAllTimeseriesMetadata(true);
+        Assert.assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<IDeviceID, List<TimeseriesMetadata>> entry : expected.entrySet()) {
+          Assert.assertEquals(entry.getValue().size(), actual.get(entry.getKey()).size());
+        }
+      }
+      if (i == 0) {
+        cachedBlockNum = blockCache.size();
+        Assert.assertTrue(cachedBlockNum > 0);
+      } else {
+        // the second reader reads the same blocks from the cache
+        Assert.assertEquals(cachedBlockNum, blockCache.size());
+      }
+    }
+
+    blockCache.invalidate(FILE_PATH);
+    Assert.assertEquals(0, blockCache.size());
+  }
+
+  @Test
+  public void testReadWithPageCache() throws IOException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    boolean pageCacheEnabled = config.isPageCacheEnabled();
+    PageCache pageCache = PageCache.getInstance();
+    pageCache.invalidate(FILE_PATH);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+      List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+      for (List<TimeseriesMetadata> timeseriesMetadataList :
+          reader.getAllTimeseriesMetadata(true).values()) {
+        for (TimeseriesMetadata timeseriesMetadata : timeseriesMetadataList) {
+          for (IChunkMetadata chunkMetadata : timeseriesMetadata.getChunkMetadataList()) {
+            chunkMetadataList.add((ChunkMetadata) chunkMetadata);
+          }
+        }
+      }
+      List<Long> expected = readAllValues(reader, chunkMetadataList);
+
+      config.setPageCacheEnabled(true);
+      Assert.assertEquals(expected, readAllValues(reader, chunkMetadataList));
+      long cachedPageNum = pageCache.size();
+      Assert.assertTrue(cachedPageNum > 0);
+      long hitCount = pageCache.getStats().getHitCount();
+      // the pages are decompressed only once
+      Assert.assertEquals(expected, readAllValues(reader, chunkMetadataList));
+      Assert.assertEquals(cachedPageNum, pageCache.size());
+      Assert.assertTrue(pageCache.getStats().getHitCount() >= hitCount + cachedPageNum);
+    } finally {
+      config.setPageCacheEnabled(pageCacheEnabled);
+      pageCache.invalidate(FILE_PATH);
+    }
+    Assert.assertEquals(0, pageCache.size());
+  }
+
+  private List<Long> readAllValues(
+      TsFileSequenceReader reader, List<ChunkMetadata> chunkMetadataList) throws IOException {
+    List<Long> times = new ArrayList<>();
+    for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+      ChunkReader chunkReader = new ChunkReader(reader.readMemChunk(chunkMetadata));
+      while (chunkReader.hasNextSatisfiedPage()) {
+        BatchData batchData = chunkReader.nextPageData();
+        while (batchData.hasCurrent()) {
+          times.add(batchData.currentTime());
+          times.add((long) batchData.currentValue().hashCode());
+          batchData.next();
+        }
+      }
+    }
+    return times;
+  }
+
+  @Test
+  public void testConcurrentPositionalRead() throws Exception {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH, true, true)) {
+      Map<IDeviceID, List<TimeseriesMetadata>> allTimeseriesMetadata =
+          reader.getAllTimeseriesMetadata(true);
+      List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+      for (List<TimeseriesMetadata> timeseriesMetadataList : allTimeseriesMetadata.values()) {
+        for (TimeseriesMetadata timeseriesMetadata : timeseriesMetadataList) {
+          for (IChunkMetadata chunkMetadata : timeseriesMetadata.getChunkMetadataList()) {
+            chunkMetadataList.add((ChunkMetadata) chunkMetadata);
+          }
+        }
+      }
+
+      ExecutorService pool = Executors.newFixedThreadPool(8);
+      try {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+          futures.add(
+              pool.submit(
+                  () -> {
+                    for (int round = 0; round < 10; round++) {
+                      for (IDeviceID device : allTimeseriesMetadata.keySet()) {
+                        Assert.assertEquals(
+                            allTimeseriesMetadata.get(device).size(),
+                            reader.readDeviceMetadata(device).size());
+                      }
+                      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+                        long offset = chunkMetadata.getOffsetOfChunkHeader();
+                        Chunk chunk = reader.readMemChunk(chunkMetadata);
+                        Assert.assertEquals(
+                            chunkMetadata.getMeasurementUid(),
+                            chunk.getHeader().getMeasurementID());
+                        byte marker = reader.readMarker(offset);
+                        Assert.assertEquals(chunk.getHeader().getChunkType(), marker);
+                        if ((marker & 0x3F) == MetaMarker.CHUNK_HEADER) {
+                          PageHeader pageHeader =
+                              reader.readPageHeader(
+                                  chunk.getHeader().getDataType(),
+                                  true,
+                                  offset + chunk.getHeader().getSerializedSize());
+                          Assert.assertTrue(pageHeader.getCompressedSize() > 0);
+                        }
+                      }
+                    }
+                    return null;
+                  }));
+        }
+        // the position of the reader is irrelevant to the positional reads
+        for (int i = 0; i < 1000; i++) {
+          reader.position(i % reader.fileSize());
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+      } finally {
+        pool.shutdownNow();
+      }
+    }
+  }
+
   @Test
   public void testReadChunkMetadataInSimilarDevice() throws IOException, WriteProcessException {
     File testFile = new File(TestConstant.BASE_OUTPUT_PATH + "test.tsfile");
@@ -24,6 +24,7 @@ import org.apache.tsfile.read.common.block.column.BinaryColumn;
 import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
 import org.apache.tsfile.read.common.block.column.BooleanColumn;
 import org.apache.tsfile.read.common.block.column.BooleanColumnBuilder;
+import org.apache.tsfile.read.common.block.column.DictionaryColumn;
 import org.apache.tsfile.read.common.block.column.DoubleColumn;
 import org.apache.tsfile.read.common.block.column.DoubleColumnBuilder;
 import org.apache.tsfile.read.common.block.column.FloatColumn;
@@ -36,11 +37,14 @@ import org.apache.tsfile.read.common.block.column.NullColumn;
 import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
 import org.apache.tsfile.read.common.block.column.TimeColumn;
 import org.apache.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.BytesUtils;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Optional;
+
 public class ColumnTest {
 
   @Test
@@ -366,4 +370,66 @@ public class ColumnTest {
     Assert.assertEquals(1, column.getLong(0));
     Assert.assertEquals(1, column.getLong(1));
   }
+
+  @Test
+  public void dictionaryColumnSubColumnTest() {
+    DictionaryColumn dictionaryColumn1 = createDictionaryColumn();
+    dictionaryColumn1 = (DictionaryColumn) dictionaryColumn1.subColumn(5);
+    Assert.assertEquals(5, dictionaryColumn1.getPositionCount());
+    Assert.assertEquals("2", dictionaryColumn1.getBinary(0).toString());
+    Assert.assertEquals("0", dictionaryColumn1.getBinary(4).toString());
+
+    DictionaryColumn dictionaryColumn2 = (DictionaryColumn) dictionaryColumn1.subColumn(3);
+    Assert.assertEquals(2, dictionaryColumn2.getPositionCount());
+    Assert.assertEquals("2", dictionaryColumn2.getBinary(0).toString());
+    Assert.assertEquals("0", dictionaryColumn2.getBinary(1).toString());
+
+    Assert.assertSame(dictionaryColumn1.getIds(), dictionaryColumn2.getIds());
+    Assert.assertSame(dictionaryColumn1.getDictionary(), dictionaryColumn2.getDictionary());
+  }
+
+  @Test
+  public void dictionaryColumnSubColumnCopyTest() {
+    DictionaryColumn dictionaryColumn1 = createDictionaryColumn();
+    dictionaryColumn1 = (DictionaryColumn) dictionaryColumn1.subColumnCopy(5);
+    Assert.assertEquals(5, dictionaryColumn1.getPositionCount());
+    Assert.assertEquals("2", dictionaryColumn1.getBinary(0).toString());
+    Assert.assertEquals("0", dictionaryColumn1.getBinary(4).toString());
+
+    DictionaryColumn dictionaryColumn2 = (DictionaryColumn) dictionaryColumn1.subColumnCopy(3);
+    Assert.assertEquals(2, dictionaryColumn2.getPositionCount());
+    Assert.assertEquals("2", dictionaryColumn2.getBinary(0).toString());
+    Assert.assertEquals("0", dictionaryColumn2.getBinary(1).toString());
+
+    Assert.assertNotSame(dictionaryColumn1.getIds(), dictionaryColumn2.getIds());
+  }
+
+  @Test
+  public void dictionaryColumnMaterializeTest() {
+    DictionaryColumn dictionaryColumn = createDictionaryColumn();
+    Binary[] binaries = dictionaryColumn.getBinaries();
+    Assert.assertEquals(10, binaries.length);
+    Assert.assertSame(binaries, dictionaryColumn.getBinaries());
+
+    // the values are materialized, so the regions are plain binary columns
+    Column region = dictionaryColumn.getRegion(5, 3);
+    Assert.assertTrue(region instanceof BinaryColumn);
+    Assert.assertEquals("2", region.getBinary(0).toString());
+
+    dictionaryColumn.reverse();
+    Assert.assertEquals("0", dictionaryColumn.getBinary(0).toString());
+    Assert.assertEquals("0", dictionaryColumn.getBinary(9).toString());
+    Assert.assertEquals("2", dictionaryColumn.getBinary(7).toString());
+  }
+
+  private DictionaryColumn createDictionaryColumn() {
+    Binary[] dictionary = {
+      BytesUtils.valueOf("0"), BytesUtils.valueOf("1"), BytesUtils.valueOf("2")
+    };
+    int[] ids = new int[10];
+    for (int i = 0; i < 10; i++) {
+      ids[i] = i % 3;
+    }
+    return new DictionaryColumn(10, Optional.empty(), ids, dictionary);
+  }
 }
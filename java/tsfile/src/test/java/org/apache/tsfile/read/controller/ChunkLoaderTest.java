@@ -32,6 +32,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ChunkLoaderTest {
@@ -64,4 +65,25 @@ public class ChunkLoaderTest {
       Assert.assertEquals(chunkHeader.getDataSize(), chunk.getData().remaining());
     }
   }
+
+  @Test
+  public void testLoadChunksNotCached() throws IOException {
+    fileReader = new TsFileSequenceReader(FILE_PATH);
+    MetadataQuerierByFileImpl metadataQuerierByFile = new MetadataQuerierByFileImpl(fileReader);
+    List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+    for (IChunkMetadata chunkMetadata :
+        metadataQuerierByFile.getChunkMetaDataList(new Path("d2", "s1", true))) {
+      chunkMetadataList.add((ChunkMetadata) chunkMetadata);
+    }
+
+    // the cache is too small to keep any chunk, the chunks are still loaded by the batch read
+    CachedChunkLoaderImpl seriesChunkLoader = new CachedChunkLoaderImpl(fileReader, 1);
+    List<Chunk> chunks = seriesChunkLoader.loadChunks(chunkMetadataList);
+    Assert.assertEquals(chunkMetadataList.size(), chunks.size());
+    for (int i = 0; i < chunks.size(); i++) {
+      Chunk expected = fileReader.readMemChunk(chunkMetadataList.get(i));
+      Assert.assertEquals(expected.getData(), chunks.get(i).getData());
+    }
+    Assert.assertEquals(0, seriesChunkLoader.getChunkCacheStats().getHitCount());
+  }
 }
@@ -179,6 +179,26 @@ public class OperatorTest {
     Assert.assertTrue(andFilter2.satisfyDouble(1000L, 51d));
   }
 
+  @Test
+  public void testExtractTimeFilter() {
+    Filter timeFilter = TimeFilterApi.gt(100L);
+    Assert.assertSame(timeFilter, FilterFactory.extractTimeFilter(timeFilter));
+
+    Filter timeRange = FilterFactory.and(timeFilter, TimeFilterApi.lt(200L));
+    Assert.assertSame(timeRange, FilterFactory.extractTimeFilter(timeRange));
+
+    Filter valueFilter = ValueFilterApi.gt(DEFAULT_MEASUREMENT_INDEX, 50, TSDataType.INT32);
+    Assert.assertNull(FilterFactory.extractTimeFilter(valueFilter));
+    Assert.assertSame(
+        timeFilter, FilterFactory.extractTimeFilter(FilterFactory.and(valueFilter, timeFilter)));
+
+    Filter extracted = FilterFactory.extractTimeFilter(FilterFactory.and(timeRange, valueFilter));
+    Assert.assertTrue(extracted.satisfy(150L, null));
+    Assert.assertFalse(extracted.satisfy(250L, null));
+
+    Assert.assertNull(FilterFactory.extractTimeFilter(FilterFactory.or(timeFilter, valueFilter)));
+  }
+
   @Test(expected = ClassCastException.class)
   public void testWrongUsage() {
     Filter andFilter =
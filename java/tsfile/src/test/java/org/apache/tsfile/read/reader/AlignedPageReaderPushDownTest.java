@@ -32,6 +32,7 @@ import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.filter.basic.Filter;
+import org.apache.tsfile.read.filter.factory.FilterFactory;
 import org.apache.tsfile.read.filter.factory.TimeFilterApi;
 import org.apache.tsfile.read.filter.factory.ValueFilterApi;
 import org.apache.tsfile.read.reader.page.AlignedPageReader;
@@ -546,4 +547,34 @@ public class AlignedPageReaderPushDownTest {
     Assert.assertEquals(60, tsBlock4.getTimeByIndex(0));
     Assert.assertEquals(69, tsBlock4.getTimeByIndex(9));
   }
+
+  @Test
+  public void testFilterOnOtherColumn() throws IOException {
+    Filter filter =
+        FilterFactory.and(TimeFilterApi.gtEq(20L), ValueFilterApi.gt(1, 50, TSDataType.INT32));
+    AlignedPageReader alignedPageReader1 = generateAlignedPageReader(null);
+    alignedPageReader1.addRecordFilter(filter);
+    TsBlock tsBlock1 = alignedPageReader1.getAllSatisfiedData();
+    Assert.assertEquals(39, tsBlock1.getPositionCount());
+    for (int i = 0; i < tsBlock1.getPositionCount(); i++) {
+      Assert.assertEquals(51 + i, tsBlock1.getTimeByIndex(i));
+      Assert.assertEquals(51 + i, tsBlock1.getColumn(0).getInt(i));
+      Assert.assertEquals(51 + i, tsBlock1.getColumn(1).getInt(i));
+    }
+
+    AlignedPageReader alignedPageReader2 =
+        generateAlignedPageReaderUsingLazyLoad(null, Arrays.asList(true, false));
+    alignedPageReader2.setDeleteIntervalList(
+        Arrays.asList(Collections.singletonList(new TimeRange(60, 69)), Collections.emptyList()));
+    alignedPageReader2.addRecordFilter(filter);
+    alignedPageReader2.setLimitOffset(new PaginationController(20, 5));
+    TsBlock tsBlock2 = alignedPageReader2.getAllSatisfiedData();
+    Assert.assertEquals(20, tsBlock2.getPositionCount());
+    for (int i = 0; i < tsBlock2.getPositionCount(); i++) {
+      long time = 56 + i;
+      Assert.assertEquals(time, tsBlock2.getTimeByIndex(i));
+      Assert.assertEquals(time >= 60 && time <= 69, tsBlock2.getColumn(0).isNull(i));
+      Assert.assertEquals(time, tsBlock2.getColumn(1).getInt(i));
+    }
+  }
 }
@@ -0,0 +1,320 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.reader;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.tsfile.read.TsFileCheckStatus;
+import org.apache.tsfile.read.TsFileReader;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.common.RowRecord;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.column.DictionaryColumn;
+import org.apache.tsfile.read.expression.QueryExpression;
+import org.apache.tsfile.read.expression.impl.SingleSeriesExpression;
+import org.apache.tsfile.read.filter.basic.Filter;
+import org.apache.tsfile.read.filter.factory.FilterFactory;
+import org.apache.tsfile.read.filter.factory.TimeFilterApi;
+import org.apache.tsfile.read.filter.factory.ValueFilterApi;
+import org.apache.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.TSRecord;
+import org.apache.tsfile.write.record.datapoint.StringDataPoint;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.schema.Schema;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+public class ChunkDictionaryReaderTest {
+
+  private static final int POINT_NUM = 1000;
+  private static final String[] CITIES = {"beijing", "shanghai", "shenzhen", "hangzhou"};
+
+  private final File f =
+      FSFactoryProducer.getFSFactory().getFile("ChunkDictionaryReaderTest.tsfile");
+  private final String deviceId = "root.sg.d1";
+  private final String alignedDeviceId = "root.sg.d2";
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private final int oldMaxPointNumInPage = config.getMaxNumberOfPointsInPage();
+
+  @Before
+  public void setUp() throws IOException, WriteProcessException {
+    if (f.exists() && !f.delete()) {
+      throw new RuntimeException("can not delete " + f.getAbsolutePath());
+    }
+    config.setMaxNumberOfPointsInPage(100);
+    List<IMeasurementSchema> schemas = new ArrayList<>();
+    schemas.add(
+        new MeasurementSchema(
+            "s1", TSDataType.STRING, TSEncoding.CHUNK_DICTIONARY, CompressionType.LZ4));
+    schemas.add(
+        new MeasurementSchema(
+            "s2", TSDataType.TEXT, TSEncoding.CHUNK_DICTIONARY, CompressionType.UNCOMPRESSED));
+    try (TsFileWriter tsFileWriter = new TsFileWriter(f)) {
+      tsFileWriter.registerTimeseries(new Path(deviceId), schemas);
+      tsFileWriter.registerAlignedTimeseries(new Path(alignedDeviceId), schemas);
+      for (int i = 0; i < POINT_NUM; i++) {
+        TSRecord record = new TSRecord(i, deviceId);
+        record.addTuple(new StringDataPoint("s1", value(i)));
+        record.addTuple(new StringDataPoint("s2", value(i + 1)));
+        tsFileWriter.write(record);
+        TSRecord alignedRecord = new TSRecord(i, alignedDeviceId);
+        alignedRecord.addTuple(new StringDataPoint("s1", value(i)));
+        if (i % 3 != 0) {
+          alignedRecord.addTuple(new StringDataPoint("s2", value(i + 1)));
+        }
+        tsFileWriter.writeAligned(alignedRecord);
+      }
+    }
+  }
+
+  @After
+  public void tearDown() {
+    config.setMaxNumberOfPointsInPage(oldMaxPointNumInPage);
+    if (f.exists()) {
+      f.delete();
+    }
+  }
+
+  @Test
+  public void testDictionaryColumn() throws IOException {
+    Binary shanghai = value(1);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(f.getAbsolutePath())) {
+      List<ChunkMetadata> chunkMetadataList =
+          reader.getChunkMetadataList(new Path(deviceId, "s1", true));
+      Filter[] filters = {
+        null,
+        ValueFilterApi.eq(ValueFilterApi.DEFAULT_MEASUREMENT_INDEX, shanghai, TSDataType.STRING),
+        ValueFilterApi.in(
+            ValueFilterApi.DEFAULT_MEASUREMENT_INDEX,
+            new HashSet<>(Arrays.asList(shanghai, value(3))),
+            TSDataType.STRING),
+        FilterFactory.and(
+            TimeFilterApi.gtEq(500),
+            ValueFilterApi.notEq(
+                ValueFilterApi.DEFAULT_MEASUREMENT_INDEX, shanghai, TSDataType.STRING)),
+        FilterFactory.or(
+            TimeFilterApi.lt(100),
+            ValueFilterApi.eq(
+                ValueFilterApi.DEFAULT_MEASUREMENT_INDEX, shanghai, TSDataType.STRING))
+      };
+      for (Filter filter : filters) {
+        List<Long> expectedTimes = new ArrayList<>();
+        for (int i = 0; i < POINT_NUM; i++) {
+          if (filter == null || filter.satisfyBinary(i, value(i))) {
+            expectedTimes.add((long) i);
+          }
+        }
+        List<Long> times = new ArrayList<>();
+        for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+          Chunk chunk = reader.readMemChunk(chunkMetadata);
+          Assert.assertEquals(TSEncoding.CHUNK_DICTIONARY, chunk.getHeader().getEncodingType());
+          ChunkReader chunkReader = new ChunkReader(chunk, filter);
+          for (IPageReader pageReader : chunkReader.loadPageReaderList()) {
+            TsBlock tsBlock = pageReader.getAllSatisfiedData();
+            Assert.assertTrue(tsBlock.getColumn(0) instanceof DictionaryColumn);
+            for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+              long time = tsBlock.getTimeByIndex(i);
+              Assert.assertEquals(value((int) time), tsBlock.getColumn(0).getBinary(i));
+              times.add(time);
+            }
+          }
+        }
+        Assert.assertEquals(expectedTimes, times);
+      }
+    }
+  }
+
+  @Test
+  public void testQuery() throws IOException {
+    Binary shanghai = value(1);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(f.getAbsolutePath());
+        TsFileReader tsFileReader = new TsFileReader(reader)) {
+      QueryDataSet dataSet =
+          tsFileReader.query(
+              QueryExpression.create(
+                  Collections.singletonList(new Path(deviceId, "s1", true)),
+                  new SingleSeriesExpression(
+                      new Path(deviceId, "s1", true),
+                      ValueFilterApi.eq(
+                          ValueFilterApi.DEFAULT_MEASUREMENT_INDEX, shanghai, TSDataType.STRING))));
+      int count = 0;
+      while (dataSet.hasNext()) {
+        RowRecord record = dataSet.next();
+        Assert.assertEquals(1, record.getTimestamp() % CITIES.length);
+        Assert.assertEquals(shanghai, record.getFields().get(0).getBinaryV());
+        count++;
+      }
+      Assert.assertEquals(POINT_NUM / CITIES.length, count);
+
+      dataSet =
+          tsFileReader.query(
+              QueryExpression.create(
+                  Arrays.asList(
+                      new Path(alignedDeviceId, "s1", true), new Path(alignedDeviceId, "s2", true)),
+                  null));
+      count = 0;
+      while (dataSet.hasNext()) {
+        RowRecord record = dataSet.next();
+        Assert.assertEquals(count, record.getTimestamp());
+        Assert.assertEquals(value(count), record.getFields().get(0).getBinaryV());
+        if (count % 3 != 0) {
+          Assert.assertEquals(value(count + 1), record.getFields().get(1).getBinaryV());
+        } else {
+          Assert.assertNull(record.getFields().get(1));
+        }
+        count++;
+      }
+      Assert.assertEquals(POINT_NUM, count);
+    }
+  }
+
+  @Test
+  public void testSelfCheck() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(f.getAbsolutePath())) {
+      Assert.assertEquals(
+          TsFileCheckStatus.COMPLETE_FILE,
+          reader.selfCheck(new Schema(), new ArrayList<>(), false));
+      for (String device : Arrays.asList(deviceId, alignedDeviceId)) {
+        for (List<ChunkMetadata> chunkMetadataList :
+            reader
+                .readChunkMetadataInDevice(IDeviceID.Factory.DEFAULT_FACTORY.create(device))
+                .values()) {
+          for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+            Assert.assertNotEquals(
+                TsFileCheckStatus.FILE_EXISTS_MISTAKES,
+                reader.checkChunkAndPagesStatistics(chunkMetadata));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testMergeChunkByAppendPage() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(f.getAbsolutePath())) {
+      ChunkMetadata chunkMetadata =
+          reader.getChunkMetadataList(new Path(deviceId, "s1", true)).get(0);
+      Chunk chunk = reader.readMemChunk(chunkMetadata);
+      try {
+        chunk.mergeChunkByAppendPage(reader.readMemChunk(chunkMetadata));
+        Assert.fail("the pages of a chunk encoded by CHUNK_DICTIONARY should not be appended");
+      } catch (IOException e) {
+        Assert.assertTrue(e.getMessage().contains(TSEncoding.CHUNK_DICTIONARY.name()));
+      }
+    }
+  }
+
+  @Test
+  public void testFallBackToPlain() throws IOException, WriteProcessException {
+    File file = FSFactoryProducer.getFSFactory().getFile("ChunkDictionaryFallBackTest.tsfile");
+    int oldMaxDictionarySize = config.getChunkDictionaryMaxSizeInByte();
+    config.setChunkDictionaryMaxSizeInByte(1024);
+    try {
+      List<IMeasurementSchema> schemas =
+          Collections.singletonList(
+              new MeasurementSchema(
+                  "s1", TSDataType.STRING, TSEncoding.CHUNK_DICTIONARY, CompressionType.LZ4));
+      try (TsFileWriter tsFileWriter = new TsFileWriter(file)) {
+        tsFileWriter.registerTimeseries(new Path(deviceId), schemas);
+        tsFileWriter.registerAlignedTimeseries(new Path(alignedDeviceId), schemas);
+        for (int i = 0; i < POINT_NUM; i++) {
+          // every value is distinct, so the dictionary outgrows the limit after a few pages
+          TSRecord record = new TSRecord(i, deviceId);
+          record.addTuple(new StringDataPoint("s1", distinctValue(i)));
+          tsFileWriter.write(record);
+          TSRecord alignedRecord = new TSRecord(i, alignedDeviceId);
+          if (i % 150 >= 100) {
+            // leave some pages empty
+            alignedRecord.addTuple(new StringDataPoint("s1", distinctValue(i)));
+          }
+          tsFileWriter.writeAligned(alignedRecord);
+        }
+      }
+
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getAbsolutePath());
+          TsFileReader tsFileReader = new TsFileReader(reader)) {
+        for (String device : Arrays.asList(deviceId, alignedDeviceId)) {
+          for (ChunkMetadata chunkMetadata :
+              reader.getChunkMetadataList(new Path(device, "s1", true))) {
+            Assert.assertEquals(
+                TSEncoding.PLAIN, reader.readMemChunk(chunkMetadata).getHeader().getEncodingType());
+          }
+        }
+        QueryDataSet dataSet =
+            tsFileReader.query(
+                QueryExpression.create(
+                    Arrays.asList(
+                        new Path(deviceId, "s1", true), new Path(alignedDeviceId, "s1", true)),
+                    null));
+        int count = 0;
+        while (dataSet.hasNext()) {
+          RowRecord record = dataSet.next();
+          Assert.assertEquals(count, record.getTimestamp());
+          Assert.assertEquals(distinctValue(count), record.getFields().get(0).getBinaryV());
+          if (count % 150 >= 100) {
+            Assert.assertEquals(distinctValue(count), record.getFields().get(1).getBinaryV());
+          } else {
+            Assert.assertNull(record.getFields().get(1));
+          }
+          count++;
+        }
+        Assert.assertEquals(POINT_NUM, count);
+      }
+    } finally {
+      config.setChunkDictionaryMaxSizeInByte(oldMaxDictionarySize);
+      if (file.exists()) {
+        file.delete();
+      }
+    }
+  }
+
+  private static Binary distinctValue(int index) {
+    return new Binary("value-" + index, StandardCharsets.UTF_8);
+  }
+
+  private static Binary value(int index) {
+    return new Binary(CITIES[index % CITIES.length], StandardCharsets.UTF_8);
+  }
+}
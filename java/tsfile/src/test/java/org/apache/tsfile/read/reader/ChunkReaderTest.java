@@ -18,6 +18,7 @@
  */
 package org.apache.tsfile.read.reader;
 
+import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.constant.TestConstant;
 import org.apache.tsfile.exception.write.WriteProcessException;
@@ -25,7 +26,10 @@ import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.read.TsFileSequenceReader;
 import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.tsfile.read.reader.series.PaginationController;
+import org.apache.tsfile.utils.ByteBufferPool;
 import org.apache.tsfile.utils.FilePathUtils;
 import org.apache.tsfile.utils.TsFileGeneratorUtils;
 
@@ -106,4 +110,35 @@ public class ChunkReaderTest {
       }
     }
   }
+
+  @Test
+  public void testReleasePageDataOnClose() throws IOException, WriteProcessException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    long bufferPoolSize = config.getBufferPoolSizeInByte();
+    ByteBufferPool pool = ByteBufferPool.getInstance();
+    // a page larger than a decoding batch
+    file = TsFileGeneratorUtils.generateNonAlignedTsFile(file.getPath(), 1, 1, 3000, 0, 0, 0, 5000);
+    try (TsFileSequenceReader tsFileSequenceReader = new TsFileSequenceReader(file.getPath())) {
+      config.setBufferPoolSizeInByte(1024 * 1024);
+      pool.clear();
+      ChunkMetadata chunkMetadata =
+          tsFileSequenceReader
+              .getChunkMetadataList(new Path(testStorageGroup + PATH_SEPARATOR + "d0", "s0", true))
+              .get(0);
+      ChunkReader chunkReader = new ChunkReader(tsFileSequenceReader.readMemChunk(chunkMetadata));
+      IPageReader pageReader = chunkReader.loadPageReaderList().get(0);
+      // the limit stops the decoding before the end of the page
+      pageReader.setLimitOffset(new PaginationController(10, 0));
+      TsBlock tsBlock = pageReader.getAllSatisfiedData();
+      Assert.assertEquals(10, tsBlock.getPositionCount());
+      Assert.assertEquals(0, pool.getRetainedSizeInByte());
+
+      chunkReader.close();
+      Assert.assertTrue(pool.getRetainedSizeInByte() > 0);
+      Assert.assertTrue(chunkReader.loadPageReaderList().isEmpty());
+    } finally {
+      config.setBufferPoolSizeInByte(bufferPoolSize);
+      pool.clear();
+    }
+  }
 }
@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.reader;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.constant.TestConstant;
+import org.apache.tsfile.encrypt.EncryptUtils;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.header.PageHeader;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.BatchData;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.tsfile.read.reader.page.LazyLoadPageData;
+import org.apache.tsfile.utils.ByteBufferPool;
+import org.apache.tsfile.utils.TsFileGeneratorUtils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.tsfile.common.constant.TsFileConstant.PATH_SEPARATOR;
+
+public class MappedTsFileInputTest {
+
+  private final File dataFile = new File(TestConstant.BASE_OUTPUT_PATH + "mappedInput.dat");
+  private final File tsFile = new File(TestConstant.BASE_OUTPUT_PATH + "mappedInput.tsfile");
+  private final boolean oldMemoryMappedReadEnabled =
+      TSFileDescriptor.getInstance().getConfig().isMemoryMappedReadEnabled();
+  private final CompressionType oldCompressor =
+      TSFileDescriptor.getInstance().getConfig().getCompressor();
+  private final long oldBufferPoolSize =
+      TSFileDescriptor.getInstance().getConfig().getBufferPoolSizeInByte();
+  private byte[] content;
+
+  @Before
+  public void setUp() throws IOException {
+    dataFile.getParentFile().mkdirs();
+    content = new byte[100];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) i;
+    }
+    Files.write(dataFile.toPath(), content);
+  }
+
+  @After
+  public void tearDown() {
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setMemoryMappedReadEnabled(oldMemoryMappedReadEnabled);
+    TSFileDescriptor.getInstance().getConfig().setCompressor(oldCompressor.name());
+    TSFileDescriptor.getInstance().getConfig().setBufferPoolSizeInByte(oldBufferPoolSize);
+    dataFile.delete();
+    tsFile.delete();
+  }
+
+  @Test
+  public void testReadAcrossSegments() throws IOException {
+    MappedTsFileInput input = new MappedTsFileInput(dataFile.toPath(), 16);
+    try {
+      Assert.assertEquals(content.length, input.size());
+
+      ByteBuffer buffer = ByteBuffer.allocate(40);
+      Assert.assertEquals(40, input.read(buffer, 10));
+      buffer.flip();
+      for (int i = 0; i < 40; i++) {
+        Assert.assertEquals(content[10 + i], buffer.get());
+      }
+
+      // sequential reads move the position
+      input.position(95);
+      buffer.clear();
+      Assert.assertEquals(5, input.read(buffer));
+      Assert.assertEquals(100, input.position());
+      Assert.assertEquals(-1, input.read(buffer));
+    } finally {
+      input.close();
+    }
+  }
+
+  @Test
+  public void testReadSlice() throws IOException {
+    MappedTsFileInput input = new MappedTsFileInput(dataFile.toPath(), 16);
+    try {
+      ByteBuffer slice = input.readSlice(17, 10);
+      Assert.assertNotNull(slice);
+      Assert.assertTrue(slice.isReadOnly());
+      Assert.assertEquals(0, slice.position());
+      Assert.assertEquals(10, slice.limit());
+      for (int i = 0; i < 10; i++) {
+        Assert.assertEquals(content[17 + i], slice.get(i));
+      }
+      // across two segments or beyond the end of the file
+      Assert.assertNull(input.readSlice(10, 10));
+      Assert.assertNull(input.readSlice(96, 10));
+    } finally {
+      input.close();
+    }
+  }
+
+  @Test
+  public void testReadTsFile() throws IOException, WriteProcessException {
+    int deviceNum = 2;
+    int measurementNum = 5;
+    TsFileGeneratorUtils.generateNonAlignedTsFile(
+        tsFile.getPath(), deviceNum, measurementNum, 500, 0, 0, 0, 100);
+
+    List<Object> expected = readAllValues(deviceNum, measurementNum);
+    TSFileDescriptor.getInstance().getConfig().setMemoryMappedReadEnabled(true);
+    Assert.assertTrue(
+        FSFactoryProducer.getFileInputFactory().getTsFileInput(tsFile.getPath())
+            instanceof MappedTsFileInput);
+    Assert.assertEquals(expected, readAllValues(deviceNum, measurementNum));
+  }
+
+  @Test
+  public void testReadCompressedTsFile() throws IOException, WriteProcessException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    for (CompressionType type :
+        new CompressionType[] {
+          CompressionType.SNAPPY, CompressionType.ZSTD, CompressionType.GZIP
+        }) {
+      config.setMemoryMappedReadEnabled(false);
+      config.setCompressor(type.name());
+      tsFile.delete();
+      TsFileGeneratorUtils.generateNonAlignedTsFile(tsFile.getPath(), 1, 2, 500, 0, 0, 0, 100);
+
+      List<Object> expected = readAllValues(1, 2);
+      config.setMemoryMappedReadEnabled(true);
+      Assert.assertEquals(type.name(), expected, readAllValues(1, 2));
+    }
+  }
+
+  @Test
+  public void testUncompressPageInDirectMemory() throws IOException {
+    byte[] origin = new byte[4096];
+    for (int i = 0; i < origin.length; i++) {
+      origin[i] = (byte) (i % 10);
+    }
+    TSFileDescriptor.getInstance().getConfig().setBufferPoolSizeInByte(1024 * 1024);
+    ByteBufferPool directPool = ByteBufferPool.getDirectInstance();
+    for (CompressionType type :
+        new CompressionType[] {
+          CompressionType.SNAPPY, CompressionType.LZ4, CompressionType.ZSTD, CompressionType.GZIP
+        }) {
+      byte[] compressed = ICompressor.getCompressor(type).compress(origin);
+      ByteBuffer chunkData = ByteBuffer.allocateDirect(compressed.length);
+      chunkData.put(compressed);
+      chunkData.flip();
+      chunkData = chunkData.asReadOnlyBuffer();
+      PageHeader pageHeader = new PageHeader(origin.length, compressed.length, null);
+      IUnCompressor unCompressor = IUnCompressor.getUnCompressor(type);
+      boolean expectDirect = type != CompressionType.GZIP;
+
+      ByteBuffer pageData =
+          ChunkReader.uncompressPageData(pageHeader, unCompressor, chunkData.duplicate());
+      Assert.assertEquals(expectDirect, pageData.isDirect());
+      Assert.assertArrayEquals(origin, toBytes(pageData));
+
+      LazyLoadPageData lazyLoadPageData =
+          new LazyLoadPageData(chunkData, 0, unCompressor, EncryptUtils.decryptor);
+      pageData = lazyLoadPageData.uncompressPageData(pageHeader, ByteBufferPool.getInstance());
+      Assert.assertEquals(expectDirect, pageData.isDirect());
+      Assert.assertArrayEquals(origin, toBytes(pageData));
+      long retainedSize = directPool.getRetainedSizeInByte();
+      lazyLoadPageData.releasePageData();
+      if (expectDirect) {
+        // the direct buffer is given back to the pool of direct buffers
+        Assert.assertEquals(retainedSize + 4096, directPool.getRetainedSizeInByte());
+      }
+    }
+    directPool.clear();
+  }
+
+  private static byte[] toBytes(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+
+  private List<Object> readAllValues(int deviceNum, int measurementNum) throws IOException {
+    List<Object> values = new ArrayList<>();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFile.getPath())) {
+      for (int i = 0; i < deviceNum; i++) {
+        for (int j = 0; j < measurementNum; j++) {
+          List<ChunkMetadata> chunkMetadataList =
+              reader.getChunkMetadataList(
+                  new Path(
+                      TsFileGeneratorUtils.testStorageGroup + PATH_SEPARATOR + "d" + i,
+                      "s" + j,
+                      true));
+          for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+            Chunk chunk = reader.readMemChunk(chunkMetadata);
+            ChunkReader chunkReader = new ChunkReader(chunk);
+            while (chunkReader.hasNextSatisfiedPage()) {
+              BatchData batchData = chunkReader.nextPageData();
+              while (batchData.hasCurrent()) {
+                values.add(batchData.currentTime());
+                values.add(batchData.currentValue());
+                batchData.next();
+              }
+            }
+          }
+        }
+      }
+    }
+    return values;
+  }
+}
@@ -32,6 +32,7 @@ import org.apache.tsfile.read.filter.factory.FilterFactory;
 import org.apache.tsfile.read.filter.factory.TimeFilterApi;
 import org.apache.tsfile.read.filter.factory.ValueFilterApi;
 import org.apache.tsfile.read.reader.series.AbstractFileSeriesReader;
+import org.apache.tsfile.read.reader.series.ChunkPrefetchMetrics;
 import org.apache.tsfile.read.reader.series.FileSeriesReader;
 import org.apache.tsfile.utils.TsFileGeneratorForTest;
 
@@ -107,6 +108,38 @@ public class ReaderTest {
     }
   }
 
+  @Test
+  public void readWithChunkPrefetchTest() throws IOException {
+    int chunkPrefetchDepth = TSFileDescriptor.getInstance().getConfig().getChunkPrefetchDepth();
+    TSFileDescriptor.getInstance().getConfig().setChunkPrefetchDepth(2);
+    try {
+      long prefetchedChunkNum = ChunkPrefetchMetrics.getInstance().getPrefetchedChunkNum();
+      CachedChunkLoaderImpl seriesChunkLoader = new CachedChunkLoaderImpl(fileReader);
+      List<IChunkMetadata> chunkMetadataList =
+          metadataQuerierByFile.getChunkMetaDataList(new Path("d1", "s1", true));
+      AbstractFileSeriesReader seriesReader =
+          new FileSeriesReader(seriesChunkLoader, chunkMetadataList, null);
+
+      int count = 0;
+      long startTime = TsFileGeneratorForTest.START_TIMESTAMP;
+      while (seriesReader.hasNextBatch()) {
+        BatchData data = seriesReader.nextBatch();
+        while (data.hasCurrent()) {
+          Assert.assertEquals(startTime, data.currentTime());
+          data.next();
+          startTime++;
+          count++;
+        }
+      }
+      Assert.assertEquals(rowCount, count);
+      Assert.assertEquals(
+          prefetchedChunkNum + chunkMetadataList.size(),
+          ChunkPrefetchMetrics.getInstance().getPrefetchedChunkNum());
+    } finally {
+      TSFileDescriptor.getInstance().getConfig().setChunkPrefetchDepth(chunkPrefetchDepth);
+    }
+  }
+
   @Test
   public void readWithFilterTest() throws IOException {
     CachedChunkLoaderImpl seriesChunkLoader = new CachedChunkLoaderImpl(fileReader);
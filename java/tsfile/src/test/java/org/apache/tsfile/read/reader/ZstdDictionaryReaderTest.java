@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tsfile.read.reader;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.tsfile.read.TsFileCheckStatus;
+import org.apache.tsfile.read.TsFileReader;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.common.RowRecord;
+import org.apache.tsfile.read.expression.QueryExpression;
+import org.apache.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.TSRecord;
+import org.apache.tsfile.write.record.datapoint.StringDataPoint;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.schema.Schema;
+import org.apache.tsfile.write.writer.TsFileIOWriter;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ZstdDictionaryReaderTest {
+
+  private static final int POINT_NUM = 2000;
+  private static final String[] STATUS = {"running", "stopped", "maintaining"};
+
+  private final File f =
+      FSFactoryProducer.getFSFactory().getFile("ZstdDictionaryReaderTest.tsfile");
+  private final File copy =
+      FSFactoryProducer.getFSFactory().getFile("ZstdDictionaryReaderTestCopy.tsfile");
+  private final String deviceId = "root.sg.d1";
+  private final String alignedDeviceId = "root.sg.d2";
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private final int oldMaxPointNumInPage = config.getMaxNumberOfPointsInPage();
+
+  @Before
+  public void setUp() {
+    // many small pages, which a dictionary compresses much better
+    config.setMaxNumberOfPointsInPage(10);
+  }
+
+  @After
+  public void tearDown() {
+    config.setMaxNumberOfPointsInPage(oldMaxPointNumInPage);
+    config.setEncryptKey("abcdefghijklmnop");
+    config.setEncryptType("UNENCRYPTED");
+    config.setEncryptFlag("false");
+    for (File file : Arrays.asList(f, copy)) {
+      if (file.exists()) {
+        file.delete();
+      }
+    }
+  }
+
+  @Test
+  public void testCompressByTrainedDictionary() throws IOException, WriteProcessException {
+    writeData();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(f.getAbsolutePath())) {
+      Chunk dictionaryChunk =
+          reader.readMemChunk(reader.getChunkMetadataList(new Path(deviceId, "s1", true)).get(0));
+      Chunk plainChunk =
+          reader.readMemChunk(reader.getChunkMetadataList(new Path(deviceId, "s2", true)).get(0));
+      Assert.assertEquals(
+          CompressionType.ZSTD_DICTIONARY, dictionaryChunk.getHeader().getCompressionType());
+      Assert.assertEquals(CompressionType.ZSTD, plainChunk.getHeader().getCompressionType());
+      // the dictionary and the pages compressed by it are smaller than the pages without it
+      Assert.assertTrue(
+          dictionaryChunk.getHeader().getDataSize() < plainChunk.getHeader().getDataSize());
+
+      Assert.assertEquals(
+          CompressionType.ZSTD_DICTIONARY,
+          reader
+              .readMemChunk(
+                  reader.getChunkMetadataList(new Path(alignedDeviceId, "s1", true)).get(0))
+              .getHeader()
+              .getCompressionType());
+      // a chunk of a single page is too small to train a dictionary
+      Assert.assertEquals(
+          CompressionType.ZSTD,
+          reader
+              .readMemChunk(reader.getChunkMetadataList(new Path(deviceId, "s3", true)).get(0))
+              .getHeader()
+              .getCompressionType());
+
+      try {
+        dictionaryChunk.mergeChunkByAppendPage(plainChunk);
+        Assert.fail("the pages of a chunk compressed by ZSTD_DICTIONARY should not be appended");
+      } catch (IOException e) {
+        Assert.assertTrue(e.getMessage().contains(CompressionType.ZSTD_DICTIONARY.name()));
+      }
+    }
+    readData(f);
+    checkFile(f);
+  }
+
+  @Test
+  public void testEncrypted() throws IOException, WriteProcessException {
+    for (String encryptType : Arrays.asList("AES128", "AES128_OFFSET_IV")) {
+      config.setEncryptFlag("true");
+      config.setEncryptType(encryptType);
+      config.setEncryptKey("thisisourtestkey");
+      writeData();
+      readData(f);
+      checkFile(f);
+
+      // the chunks are copied to other offsets
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(f.getAbsolutePath());
+          TsFileWriter tsFileWriter = new TsFileWriter(copy, new Schema(), config)) {
+        TsFileIOWriter ioWriter = tsFileWriter.getIOWriter();
+        ioWriter.startChunkGroup(IDeviceID.Factory.DEFAULT_FACTORY.create(deviceId));
+        for (String measurement : Arrays.asList("s3", "s2", "s1")) {
+          ChunkMetadata chunkMetadata =
+              reader.getChunkMetadataList(new Path(deviceId, measurement, true)).get(0);
+          ioWriter.writeChunk(reader.readMemChunk(chunkMetadata), chunkMetadata);
+        }
+        ioWriter.endChunkGroup();
+      }
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(copy.getAbsolutePath());
+          TsFileReader tsFileReader = new TsFileReader(reader)) {
+        QueryDataSet dataSet =
+            tsFileReader.query(
+                QueryExpression.create(
+                    Arrays.asList(new Path(deviceId, "s1", true), new Path(deviceId, "s2", true)),
+                    null));
+        int count = 0;
+        while (dataSet.hasNext()) {
+          RowRecord record = dataSet.next();
+          Assert.assertEquals(value(count), record.getFields().get(0).getBinaryV());
+          Assert.assertEquals(value(count), record.getFields().get(1).getBinaryV());
+          count++;
+        }
+        Assert.assertEquals(POINT_NUM, count);
+      }
+    }
+  }
+
+  private void writeData() throws IOException, WriteProcessException {
+    for (File file : Arrays.asList(f, copy)) {
+      if (file.exists() && !file.delete()) {
+        throw new RuntimeException("can not delete " + file.getAbsolutePath());
+      }
+    }
+    List<IMeasurementSchema> schemas = new ArrayList<>();
+    schemas.add(
+        new MeasurementSchema(
+            "s1", TSDataType.TEXT, TSEncoding.PLAIN, CompressionType.ZSTD_DICTIONARY));
+    schemas.add(
+        new MeasurementSchema("s2", TSDataType.TEXT, TSEncoding.PLAIN, CompressionType.ZSTD));
+    schemas.add(
+        new MeasurementSchema(
+            "s3", TSDataType.TEXT, TSEncoding.PLAIN, CompressionType.ZSTD_DICTIONARY));
+    try (TsFileWriter tsFileWriter = new TsFileWriter(f, new Schema(), config)) {
+      tsFileWriter.registerTimeseries(new Path(deviceId), schemas);
+      tsFileWriter.registerAlignedTimeseries(new Path(alignedDeviceId), schemas.subList(0, 2));
+      for (int i = 0; i < POINT_NUM; i++) {
+        TSRecord record = new TSRecord(i, deviceId);
+        record.addTuple(new StringDataPoint("s1", value(i)));
+        record.addTuple(new StringDataPoint("s2", value(i)));
+        if (i < 5) {
+          record.addTuple(new StringDataPoint("s3", value(i)));
+        }
+        tsFileWriter.write(record);
+        TSRecord alignedRecord = new TSRecord(i, alignedDeviceId);
+        if (i % 50 >= 10) {
+          // leave some pages empty
+          alignedRecord.addTuple(new StringDataPoint("s1", value(i)));
+        }
+        alignedRecord.addTuple(new StringDataPoint("s2", value(i)));
+        tsFileWriter.writeAligned(alignedRecord);
+      }
+    }
+  }
+
+  private void readData(File file) throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getAbsolutePath());
+        TsFileReader tsFileReader = new TsFileReader(reader)) {
+      QueryDataSet dataSet =
+          tsFileReader.query(
+              QueryExpression.create(
+                  Arrays.asList(
+                      new Path(deviceId, "s1", true),
+                      new Path(deviceId, "s3", true),
+                      new Path(alignedDeviceId, "s1", true),
+                      new Path(alignedDeviceId, "s2", true)),
+                  null));
+      int count = 0;
+      while (dataSet.hasNext()) {
+        RowRecord record = dataSet.next();
+        Assert.assertEquals(count, record.getTimestamp());
+        Assert.assertEquals(value(count), record.getFields().get(0).getBinaryV());
+        if (count < 5) {
+          Assert.assertEquals(value(count), record.getFields().get(1).getBinaryV());
+        } else {
+          Assert.assertNull(record.getFields().get(1));
+        }
+        if (count % 50 >= 10) {
+          Assert.assertEquals(value(count), record.getFields().get(2).getBinaryV());
+        } else {
+          Assert.assertNull(record.getFields().get(2));
+        }
+        Assert.assertEquals(value(count), record.getFields().get(3).getBinaryV());
+        count++;
+      }
+      Assert.assertEquals(POINT_NUM, count);
+    }
+  }
+
+  private void checkFile(File file) throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getAbsolutePath())) {
+      Assert.assertEquals(
+          TsFileCheckStatus.COMPLETE_FILE,
+          reader.selfCheck(new Schema(), new ArrayList<>(), false));
+      for (List<ChunkMetadata> chunkMetadataList :
+          reader
+              .readChunkMetadataInDevice(IDeviceID.Factory.DEFAULT_FACTORY.create(deviceId))
+              .values()) {
+        for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+          Assert.assertNotEquals(
+              TsFileCheckStatus.FILE_EXISTS_MISTAKES,
+              reader.checkChunkAndPagesStatistics(chunkMetadata));
+        }
+      }
+    }
+  }
+
+  private static Binary value(int index) {
+    return new Binary(
+        "{\"device\":\"root.sg.d"
+            + index % 50
+            + "\",\"status\":\""
+            + STATUS[index % STATUS.length]
+            + "\",\"temperature\":"
+            + index * 37 % 1000
+            + "}",
+        StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.reader.series;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.header.ChunkHeader;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.controller.IChunkLoader;
+import org.apache.tsfile.read.filter.basic.Filter;
+import org.apache.tsfile.read.reader.IChunkReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ChunkPrefetcherTest {
+
+  private static final int CHUNK_SIZE = 1024 * 1024;
+
+  @Test
+  public void testTakeInOrder() throws IOException {
+    TestChunkLoader chunkLoader = new TestChunkLoader();
+    ChunkPrefetcher prefetcher = new ChunkPrefetcher(chunkLoader, 2, Long.MAX_VALUE);
+    ChunkMetadata chunkMetadata1 = newChunkMetadata(1);
+    ChunkMetadata chunkMetadata2 = newChunkMetadata(2);
+    prefetcher.prefetch(chunkMetadata1);
+    prefetcher.prefetch(chunkMetadata2);
+    Assert.assertFalse(prefetcher.canPrefetch());
+
+    Assert.assertEquals(1, getOffset(prefetcher.take(chunkMetadata1)));
+    Assert.assertEquals(2, getOffset(prefetcher.take(chunkMetadata2)));
+    Assert.assertTrue(prefetcher.canPrefetch());
+    Assert.assertEquals(1, chunkLoader.getLoadCount(1));
+    Assert.assertEquals(1, chunkLoader.getLoadCount(2));
+  }
+
+  @Test
+  public void testTakeOutOfOrder() throws IOException {
+    TestChunkLoader chunkLoader = new TestChunkLoader();
+    ChunkPrefetcher prefetcher = new ChunkPrefetcher(chunkLoader, 2, Long.MAX_VALUE);
+    ChunkMetadata chunkMetadata1 = newChunkMetadata(1);
+    ChunkMetadata chunkMetadata2 = newChunkMetadata(2);
+    prefetcher.prefetch(chunkMetadata1);
+    prefetcher.prefetch(chunkMetadata2);
+
+    // the first chunk is skipped by the reader, it is dropped from the queue
+    Assert.assertEquals(2, getOffset(prefetcher.take(chunkMetadata2)));
+    Assert.assertTrue(prefetcher.canPrefetch());
+
+    // a chunk that was never prefetched drops the whole queue
+    ChunkMetadata chunkMetadata3 = newChunkMetadata(3);
+    ChunkMetadata chunkMetadata4 = newChunkMetadata(4);
+    prefetcher.prefetch(chunkMetadata3);
+    prefetcher.prefetch(chunkMetadata4);
+    Assert.assertFalse(prefetcher.canPrefetch());
+    Assert.assertEquals(5, getOffset(prefetcher.take(newChunkMetadata(5))));
+    Assert.assertTrue(prefetcher.canPrefetch());
+  }
+
+  @Test
+  public void testReserveBudgetForRunningLoads() throws Exception {
+    TestChunkLoader chunkLoader = new TestChunkLoader();
+    ChunkPrefetcher prefetcher = new ChunkPrefetcher(chunkLoader, 4, CHUNK_SIZE);
+    ChunkMetadata chunkMetadata1 = newChunkMetadata(1);
+    prefetcher.prefetch(chunkMetadata1);
+    prefetcher.take(chunkMetadata1);
+    Assert.assertTrue(prefetcher.canPrefetch());
+
+    // the size of the last loaded chunk is reserved before the next load completes
+    chunkLoader.blockLoads();
+    ChunkMetadata chunkMetadata2 = newChunkMetadata(2);
+    prefetcher.prefetch(chunkMetadata2);
+    Assert.assertFalse(prefetcher.canPrefetch());
+    chunkLoader.unblockLoads();
+    Assert.assertEquals(2, getOffset(prefetcher.take(chunkMetadata2)));
+    Assert.assertTrue(prefetcher.canPrefetch());
+  }
+
+  @Test
+  public void testCloseWaitsForRunningLoads() throws Exception {
+    TestChunkLoader chunkLoader = new TestChunkLoader();
+    ChunkPrefetcher prefetcher = new ChunkPrefetcher(chunkLoader, 2, Long.MAX_VALUE);
+    chunkLoader.blockLoads();
+    prefetcher.prefetch(newChunkMetadata(1));
+    Assert.assertTrue(chunkLoader.awaitLoadStarted());
+
+    Thread unblocker =
+        new Thread(
+            () -> {
+              try {
+                Thread.sleep(100);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              chunkLoader.unblockLoads();
+            });
+    unblocker.start();
+    prefetcher.close();
+    Assert.assertTrue(chunkLoader.isLoadFinished());
+    unblocker.join();
+  }
+
+  private static ChunkMetadata newChunkMetadata(long offset) {
+    return new ChunkMetadata(
+        "s1",
+        TSDataType.INT64,
+        TSEncoding.PLAIN,
+        CompressionType.UNCOMPRESSED,
+        offset,
+        Statistics.getStatsByType(TSDataType.INT64));
+  }
+
+  private static long getOffset(List<Chunk> chunks) {
+    Assert.assertEquals(1, chunks.size());
+    return chunks.get(0).getOffsetOfChunkHeader();
+  }
+
+  private static class TestChunkLoader implements IChunkLoader {
+
+    private final Map<Long, Integer> loadCounts = new ConcurrentHashMap<>();
+    private volatile CountDownLatch blocker = new CountDownLatch(0);
+    private final CountDownLatch loadStarted = new CountDownLatch(1);
+    private final AtomicBoolean loadFinished = new AtomicBoolean();
+
+    @Override
+    public Chunk loadChunk(ChunkMetadata chunkMetaData) throws IOException {
+      loadStarted.countDown();
+      try {
+        blocker.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+      loadCounts.merge(chunkMetaData.getOffsetOfChunkHeader(), 1, Integer::sum);
+      Chunk chunk =
+          new Chunk(
+              new ChunkHeader(
+                  "s1",
+                  CHUNK_SIZE,
+                  TSDataType.INT64,
+                  CompressionType.UNCOMPRESSED,
+                  TSEncoding.PLAIN,
+                  1),
+              ByteBuffer.allocate(CHUNK_SIZE));
+      chunk.setLocation(null, chunkMetaData.getOffsetOfChunkHeader());
+      loadFinished.set(true);
+      return chunk;
+    }
+
+    private int getLoadCount(long offset) {
+      return loadCounts.getOrDefault(offset, 0);
+    }
+
+    private void blockLoads() {
+      blocker = new CountDownLatch(1);
+    }
+
+    private void unblockLoads() {
+      blocker.countDown();
+    }
+
+    private boolean awaitLoadStarted() throws InterruptedException {
+      return loadStarted.await(10, TimeUnit.SECONDS);
+    }
+
+    private boolean isLoadFinished() {
+      return loadFinished.get();
+    }
+
+    @Override
+    public void close() {}
+
+    @Override
+    public IChunkReader getChunkReader(IChunkMetadata chunkMetaData, Filter globalTimeFilter) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tsfile.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class ByteBufferPoolTest {
+
+  @Test
+  public void testAllocateAndRelease() {
+    ByteBufferPool pool = new ByteBufferPool(1024 * 1024, 64 * 1024);
+    ByteBuffer buffer = pool.allocate(3000);
+    Assert.assertEquals(4096, buffer.capacity());
+    Assert.assertEquals(0, buffer.position());
+    Assert.assertEquals(3000, buffer.limit());
+
+    Assert.assertTrue(pool.release(buffer));
+    Assert.assertEquals(4096, pool.getRetainedSizeInByte());
+    // the buffers of the same size class are reused
+    ByteBuffer reused = pool.allocate(4000);
+    Assert.assertSame(buffer, reused);
+    Assert.assertEquals(4000, reused.limit());
+    Assert.assertEquals(0, pool.getRetainedSizeInByte());
+    // the buffers of other size classes are not
+    Assert.assertTrue(pool.release(reused));
+    Assert.assertNotSame(reused, pool.allocate(5000));
+
+    pool.clear();
+    Assert.assertEquals(0, pool.getRetainedSizeInByte());
+  }
+
+  @Test
+  public void testNotPooled() {
+    ByteBufferPool pool = new ByteBufferPool(8 * 1024, 64 * 1024);
+    // larger than the max buffer size
+    ByteBuffer buffer = pool.allocate(100 * 1024);
+    Assert.assertEquals(100 * 1024, buffer.capacity());
+    Assert.assertFalse(pool.release(buffer));
+    // not allocated by the pool
+    Assert.assertFalse(pool.release(ByteBuffer.allocate(3000)));
+    Assert.assertFalse(pool.release(ByteBuffer.allocateDirect(4096)));
+    // the pool is full
+    Assert.assertTrue(pool.release(pool.allocate(8 * 1024)));
+    Assert.assertFalse(pool.release(ByteBuffer.allocate(1024)));
+    Assert.assertEquals(8 * 1024, pool.getRetainedSizeInByte());
+
+    ByteBufferPool disabledPool = new ByteBufferPool(0, 64 * 1024);
+    buffer = disabledPool.allocate(3000);
+    Assert.assertEquals(3000, buffer.capacity());
+    Assert.assertFalse(disabledPool.release(buffer));
+  }
+
+  @Test
+  public void testDirectPool() {
+    ByteBufferPool pool = new ByteBufferPool(1024 * 1024, 64 * 1024, true);
+    Assert.assertTrue(pool.isDirect());
+    ByteBuffer buffer = pool.allocate(3000);
+    Assert.assertTrue(buffer.isDirect());
+    Assert.assertEquals(4096, buffer.capacity());
+    Assert.assertEquals(3000, buffer.limit());
+
+    Assert.assertTrue(pool.release(buffer));
+    Assert.assertSame(buffer, pool.allocate(4000));
+    // a pool only takes back the buffers of its own kind
+    Assert.assertFalse(pool.release(ByteBuffer.allocate(4096)));
+    Assert.assertFalse(pool.release(buffer.asReadOnlyBuffer()));
+    Assert.assertFalse(new ByteBufferPool(1024 * 1024, 64 * 1024).release(buffer));
+    // larger than the max buffer size
+    Assert.assertTrue(pool.allocate(100 * 1024).isDirect());
+  }
+
+  @Test
+  public void testOnlyLentBuffersAreTakenBack() {
+    ByteBufferPool pool = new ByteBufferPool(1024 * 1024, 64 * 1024);
+    ByteBuffer buffer = pool.allocate(3000);
+    // views of a lent buffer and foreign buffers of a size class are not taken
+    ByteBuffer slice = buffer.duplicate();
+    slice.limit(2048);
+    Assert.assertFalse(pool.release(slice.slice()));
+    Assert.assertFalse(pool.release(buffer.duplicate()));
+    Assert.assertFalse(pool.release(ByteBuffer.allocate(4096)));
+    Assert.assertEquals(0, pool.getRetainedSizeInByte());
+
+    Assert.assertTrue(pool.release(buffer));
+    // a buffer released twice is pooled once
+    Assert.assertFalse(pool.release(buffer));
+    Assert.assertEquals(4096, pool.getRetainedSizeInByte());
+    Assert.assertSame(buffer, pool.allocate(4000));
+    Assert.assertNotSame(buffer, pool.allocate(4000));
+  }
+}
@@ -88,6 +88,7 @@ public class TsFileIntegrityCheckingTool {
           case MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER:
           case MetaMarker.ONLY_ONE_PAGE_TIME_CHUNK_HEADER:
           case MetaMarker.ONLY_ONE_PAGE_VALUE_CHUNK_HEADER:
+            long chunkOffset = reader.position() - 1;
             ChunkHeader header = reader.readChunkHeader(marker);
             if (header.getDataSize() == 0) {
               // empty value chunk
@@ -110,7 +111,8 @@ public class TsFileIntegrityCheckingTool {
                   reader.readPageHeader(
                       header.getDataType(),
                       (header.getChunkType() & 0x3F) == MetaMarker.CHUNK_HEADER);
-              ByteBuffer pageData = reader.readPage(pageHeader, header.getCompressionType());
+              ByteBuffer pageData =
+                  reader.readPage(pageHeader, header.getCompressionType(), chunkOffset, pageIndex);
               if ((header.getChunkType() & (byte) TsFileConstant.TIME_COLUMN_MASK)
                   == (byte) TsFileConstant.TIME_COLUMN_MASK) { // Time Chunk
                 TimePageReader timePageReader =
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tsfile.write.page;
+
+import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.encrypt.IEncryptor;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.EncryptionType;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.utils.PublicBAOS;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class SealedPageTest {
+
+  @Test
+  public void testDirectPageData() throws IOException {
+    byte[] data = new byte[20000];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i % 100 < 50 ? i % 7 : i % 13);
+    }
+    for (CompressionType compressionType :
+        new CompressionType[] {
+          CompressionType.UNCOMPRESSED,
+          CompressionType.SNAPPY,
+          CompressionType.LZ4,
+          CompressionType.GZIP,
+          CompressionType.ZSTD,
+          CompressionType.LZMA2
+        }) {
+      for (EncryptionType encryptionType :
+          new EncryptionType[] {EncryptionType.UNENCRYPTED, EncryptionType.AES128}) {
+        ICompressor compressor = ICompressor.getCompressor(compressionType);
+        IEncryptor encryptor =
+            IEncryptor.getEncryptor(
+                encryptionType, "0123456789abcdef".getBytes(StandardCharsets.UTF_8));
+
+        byte[] expected = compressAndWrite(ByteBuffer.wrap(data), compressor, encryptor);
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data);
+        direct.flip();
+        byte[] actual = compressAndWrite(direct, compressor, encryptor);
+        Assert.assertArrayEquals(compressionType + " " + encryptionType, expected, actual);
+        // the page data is not consumed
+        Assert.assertEquals(data.length, direct.remaining());
+      }
+    }
+  }
+
+  private byte[] compressAndWrite(ByteBuffer pageData, ICompressor compressor, IEncryptor encryptor)
+      throws IOException {
+    SealedPage page = new SealedPage(pageData, Statistics.getStatsByType(TSDataType.INT64));
+    page.compress(compressor, encryptor);
+    PublicBAOS out = new PublicBAOS();
+    page.writeTo(out, true);
+    return out.toByteArray();
+  }
+}
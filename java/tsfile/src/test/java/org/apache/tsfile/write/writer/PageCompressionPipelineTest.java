@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.write.writer;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.constant.TestConstant;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.utils.TsFileGeneratorUtils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * The pages compressed in the background should be written exactly as the ones compressed inline.
+ */
+public class PageCompressionPipelineTest {
+
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private final File syncFile = new File(TestConstant.BASE_OUTPUT_PATH + "syncCompression.tsfile");
+  private final File pipelineFile =
+      new File(TestConstant.BASE_OUTPUT_PATH + "pipelineCompression.tsfile");
+
+  private CompressionType oldCompressor;
+  private int oldMaxNumberOfPointsInPage;
+  private int oldPageCompressionThreadNum;
+
+  @Before
+  public void setUp() {
+    syncFile.getParentFile().mkdirs();
+    oldCompressor = config.getCompressor();
+    oldMaxNumberOfPointsInPage = config.getMaxNumberOfPointsInPage();
+    oldPageCompressionThreadNum = config.getPageCompressionThreadNum();
+  }
+
+  @After
+  public void tearDown() {
+    config.setCompressor(oldCompressor.name());
+    config.setMaxNumberOfPointsInPage(oldMaxNumberOfPointsInPage);
+    config.setPageCompressionThreadNum(oldPageCompressionThreadNum);
+    syncFile.delete();
+    pipelineFile.delete();
+  }
+
+  @Test
+  public void testNonAlignedChunks() throws IOException, WriteProcessException {
+    for (CompressionType compressionType :
+        new CompressionType[] {CompressionType.LZ4, CompressionType.GZIP, CompressionType.ZSTD}) {
+      config.setCompressor(compressionType.name());
+
+      config.setPageCompressionThreadNum(0);
+      TsFileGeneratorUtils.generateNonAlignedTsFile(syncFile.getPath(), 2, 5, 1000, 0, 0, 0, 100);
+      config.setPageCompressionThreadNum(2);
+      TsFileGeneratorUtils.generateNonAlignedTsFile(
+          pipelineFile.getPath(), 2, 5, 1000, 0, 0, 0, 100);
+
+      Assert.assertArrayEquals(
+          compressionType.name(),
+          Files.readAllBytes(syncFile.toPath()),
+          Files.readAllBytes(pipelineFile.toPath()));
+    }
+  }
+
+  @Test
+  public void testAlignedChunks() throws IOException, WriteProcessException {
+    config.setCompressor(CompressionType.SNAPPY.name());
+
+    config.setPageCompressionThreadNum(0);
+    TsFileGeneratorUtils.generateAlignedTsFile(syncFile.getPath(), 2, 5, 1000, 0, 0, 0, 100);
+    config.setPageCompressionThreadNum(2);
+    TsFileGeneratorUtils.generateAlignedTsFile(pipelineFile.getPath(), 2, 5, 1000, 0, 0, 0, 100);
+
+    Assert.assertArrayEquals(
+        Files.readAllBytes(syncFile.toPath()), Files.readAllBytes(pipelineFile.toPath()));
+  }
+}
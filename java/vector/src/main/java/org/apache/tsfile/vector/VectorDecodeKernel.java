@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tsfile.vector;
+
+import org.apache.tsfile.encoding.kernel.DecodeKernel;
+import org.apache.tsfile.encoding.kernel.ScalarDecodeKernel;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The decode kernels on the Vector API, which process as many values at a time as the preferred
+ * vector of the CPU holds, e.g. 16 ints with AVX-512. The values left over whole vectors are
+ * processed by the scalar kernels.
+ *
+ * <p>TsFile loads this class by reflection if {@code vector_decode_enabled} is set, see {@code
+ * DecodeKernels}.
+ */
+public class VectorDecodeKernel implements DecodeKernel {
+
+  private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Long> LONG_SPECIES = LongVector.SPECIES_PREFERRED;
+
+  /** Ints of as many lanes as {@link #LONG_SPECIES}, which the unpacked longs are narrowed to. */
+  private static final VectorSpecies<Integer> NARROW_INT_SPECIES =
+      VectorSpecies.of(int.class, VectorShape.forBitSize(LONG_SPECIES.vectorBitSize() / 2));
+
+  /** Bytes of the same shape as {@link #LONG_SPECIES}, which the bitmap is loaded by. */
+  private static final VectorSpecies<Byte> BITMAP_SPECIES = LONG_SPECIES.withLanes(byte.class);
+
+  /** Number of values unpacked by a block, whose bits fill up exactly bit-width words. */
+  private static final int VALUES_PER_BLOCK = 64;
+
+  /** The word of each value of a block relative to the first word of the block, by bit-width. */
+  private static final int[][] WORD_INDEXES = new int[65][VALUES_PER_BLOCK];
+
+  /** The bit of its word that each value of a block starts at, by bit-width. */
+  private static final long[][] SHIFTS = new long[65][VALUES_PER_BLOCK];
+
+  static {
+    for (int width = 1; width <= 64; width++) {
+      for (int i = 0; i < VALUES_PER_BLOCK; i++) {
+        WORD_INDEXES[width][i] = (i * width) >>> 6;
+        SHIFTS[width][i] = (i * width) & 63;
+      }
+    }
+  }
+
+  private final ScalarDecodeKernel scalarKernel = new ScalarDecodeKernel();
+
+  @Override
+  public void prefixSum(int[] values, int count, int base, int minDelta) {
+    int lanes = INT_SPECIES.length();
+    IntVector zero = IntVector.zero(INT_SPECIES);
+    int previous = base;
+    int i = 0;
+    for (int bound = INT_SPECIES.loopBound(count); i < bound; i += lanes) {
+      IntVector sum = IntVector.fromArray(INT_SPECIES, values, i).add(minDelta);
+      // the sums of the lanes in log(lanes) steps, each adds the lanes shifted by a power of 2
+      for (int shift = 1; shift < lanes; shift <<= 1) {
+        sum = sum.add(zero.slice(lanes - shift, sum));
+      }
+      sum = sum.add(previous);
+      sum.intoArray(values, i);
+      previous = sum.lane(lanes - 1);
+    }
+    for (; i < count; i++) {
+      values[i] = previous + minDelta + values[i];
+      previous = values[i];
+    }
+  }
+
+  @Override
+  public void prefixSum(long[] values, int count, long base, long minDelta) {
+    int lanes = LONG_SPECIES.length();
+    LongVector zero = LongVector.zero(LONG_SPECIES);
+    long previous = base;
+    int i = 0;
+    for (int bound = LONG_SPECIES.loopBound(count); i < bound; i += lanes) {
+      LongVector sum = LongVector.fromArray(LONG_SPECIES, values, i).add(minDelta);
+      for (int shift = 1; shift < lanes; shift <<= 1) {
+        sum = sum.add(zero.slice(lanes - shift, sum));
+      }
+      sum = sum.add(previous);
+      sum.intoArray(values, i);
+      previous = sum.lane(lanes - 1);
+    }
+    for (; i < count; i++) {
+      values[i] = previous + minDelta + values[i];
+      previous = values[i];
+    }
+  }
+
+  @Override
+  public void zigzagDecode(int[] values, int offset, int count) {
+    int i = 0;
+    for (int bound = INT_SPECIES.loopBound(count); i < bound; i += INT_SPECIES.length()) {
+      IntVector n = IntVector.fromArray(INT_SPECIES, values, offset + i);
+      n.lanewise(VectorOperators.LSHR, 1)
+          .lanewise(VectorOperators.XOR, n.and(1).neg())
+          .intoArray(values, offset + i);
+    }
+    scalarKernel.zigzagDecode(values, offset + i, count - i);
+  }
+
+  @Override
+  public void zigzagDecode(long[] values, int offset, int count) {
+    int i = 0;
+    for (int bound = LONG_SPECIES.loopBound(count); i < bound; i += LONG_SPECIES.length()) {
+      LongVector n = LongVector.fromArray(LONG_SPECIES, values, offset + i);
+      n.lanewise(VectorOperators.LSHR, 1)
+          .lanewise(VectorOperators.XOR, n.and(1L).neg())
+          .intoArray(values, offset + i);
+    }
+    scalarKernel.zigzagDecode(values, offset + i, count - i);
+  }
+
+  @Override
+  public void unpackInts(long[] words, int width, int[] values, int count) {
+    if (width <= 0 || width > 32) {
+      scalarKernel.unpackInts(words, width, values, count);
+      return;
+    }
+    int i = 0;
+    // the next word of the last value of a block is read as well
+    for (int w = 0; i + VALUES_PER_BLOCK <= count && w + width < words.length; w += width) {
+      for (int lane = 0;
+          lane < VALUES_PER_BLOCK;
+          lane += LONG_SPECIES.length(), i += LONG_SPECIES.length()) {
+        ((IntVector)
+                unpackLanes(words, w, width, lane)
+                    .convertShape(VectorOperators.L2I, NARROW_INT_SPECIES, 0))
+            .intoArray(values, i);
+      }
+    }
+    for (; i < count; i++) {
+      values[i] = (int) extract(words, (long) i * width, width);
+    }
+  }
+
+  @Override
+  public void unpackLongs(long[] words, int width, long[] values, int count) {
+    if (width <= 0 || width > 64) {
+      scalarKernel.unpackLongs(words, width, values, count);
+      return;
+    }
+    int i = 0;
+    for (int w = 0; i + VALUES_PER_BLOCK <= count && w + width < words.length; w += width) {
+      for (int lane = 0;
+          lane < VALUES_PER_BLOCK;
+          lane += LONG_SPECIES.length(), i += LONG_SPECIES.length()) {
+        unpackLanes(words, w, width, lane).intoArray(values, i);
+      }
+    }
+    for (; i < count; i++) {
+      values[i] = extract(words, (long) i * width, width);
+    }
+  }
+
+  /**
+   * Unpacks the values of a block starting at the given lane, each is gathered from its word and
+   * the next one.
+   *
+   * @param blockWord the first word of the block
+   */
+  private static LongVector unpackLanes(long[] words, int blockWord, int width, int lane) {
+    LongVector shift = LongVector.fromArray(LONG_SPECIES, SHIFTS[width], lane);
+    LongVector high =
+        LongVector.fromArray(LONG_SPECIES, words, blockWord, WORD_INDEXES[width], lane)
+            .lanewise(VectorOperators.LSHL, shift);
+    // a shift of 64 is taken as 0, so the values starting at a word take nothing of the next one
+    LongVector low =
+        LongVector.fromArray(LONG_SPECIES, words, blockWord + 1, WORD_INDEXES[width], lane)
+            .lanewise(VectorOperators.LSHR, shift.neg().add(64L))
+            .blend(0L, shift.eq(0L));
+    return high.or(low).lanewise(VectorOperators.LSHR, 64 - width);
+  }
+
+  /** Extracts the value of {@code width} bits that starts at the given bit of the words. */
+  private static long extract(long[] words, long bitIndex, int width) {
+    int wordIndex = (int) (bitIndex >>> 6);
+    int shift = (int) (bitIndex & 63);
+    long value = words[wordIndex] << shift;
+    if (shift + width > 64) {
+      value |= words[wordIndex + 1] >>> (64 - shift);
+    }
+    return value >>> (64 - width);
+  }
+
+  @Override
+  public int countSetBits(byte[] bitmap, int startIndex, int endIndex) {
+    // the bits up to a byte boundary and the bytes left over whole vectors are counted as scalars
+    int startByte = (startIndex + 7) / 8;
+    int endByte = endIndex / 8;
+    if (endByte - startByte < BITMAP_SPECIES.length()) {
+      return scalarKernel.countSetBits(bitmap, startIndex, endIndex);
+    }
+    int count = scalarKernel.countSetBits(bitmap, startIndex, startByte * 8);
+    LongVector sum = LongVector.zero(LONG_SPECIES);
+    int b = startByte;
+    for (int bound = startByte + BITMAP_SPECIES.loopBound(endByte - startByte);
+        b < bound;
+        b += BITMAP_SPECIES.length()) {
+      sum =
+          sum.add(
+              bitCount(
+                  (LongVector)
+                      ByteVector.fromArray(BITMAP_SPECIES, bitmap, b).reinterpretAsLongs()));
+    }
+    count += (int) sum.reduceLanes(VectorOperators.ADD);
+    return count + scalarKernel.countSetBits(bitmap, b * 8, endIndex);
+  }
+
+  /** The population count of each lane, by the bit tricks of {@link Long#bitCount(long)}. */
+  private static LongVector bitCount(LongVector x) {
+    x = x.sub(x.lanewise(VectorOperators.LSHR, 1).and(0x5555555555555555L));
+    x =
+        x.and(0x3333333333333333L)
+            .add(x.lanewise(VectorOperators.LSHR, 2).and(0x3333333333333333L));
+    x = x.add(x.lanewise(VectorOperators.LSHR, 4)).and(0x0f0f0f0f0f0f0f0fL);
+    return x.mul(0x0101010101010101L).lanewise(VectorOperators.LSHR, 56);
+  }
+
+  @Override
+  public String toString() {
+    return "VectorDecodeKernel{intLanes="
+        + INT_SPECIES.length()
+        + ", longLanes="
+        + LONG_SPECIES.length()
+        + "}";
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tsfile.vector;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.encoding.bitpacking.BitUnpacker;
+import org.apache.tsfile.encoding.decoder.DeltaBinaryDecoder;
+import org.apache.tsfile.encoding.encoder.DeltaBinaryEncoder;
+import org.apache.tsfile.encoding.kernel.DecodeKernel;
+import org.apache.tsfile.encoding.kernel.DecodeKernels;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VectorDecodeKernelTest {
+
+  private static final int[] COUNTS = {0, 1, 7, 63, 64, 65, 128, 200, 1000};
+
+  private final DecodeKernel scalar = DecodeKernels.getScalarKernel();
+  private final DecodeKernel vector = new VectorDecodeKernel();
+
+  @Test
+  public void testPrefixSum() {
+    Random random = new Random(1);
+    for (int count : COUNTS) {
+      int[] ints = random.ints(count).toArray();
+      int[] expectedInts = Arrays.copyOf(ints, count);
+      scalar.prefixSum(expectedInts, count, 17, -5);
+      vector.prefixSum(ints, count, 17, -5);
+      assertArrayEquals("count " + count, expectedInts, ints);
+
+      long[] longs = random.longs(count).toArray();
+      long[] expectedLongs = Arrays.copyOf(longs, count);
+      scalar.prefixSum(expectedLongs, count, -17L, 5L);
+      vector.prefixSum(longs, count, -17L, 5L);
+      assertArrayEquals("count " + count, expectedLongs, longs);
+    }
+  }
+
+  @Test
+  public void testZigzagDecode() {
+    Random random = new Random(2);
+    for (int count : COUNTS) {
+      for (int offset : new int[] {0, 3}) {
+        int[] ints = random.ints(offset + count + 2).toArray();
+        int[] expectedInts = Arrays.copyOf(ints, ints.length);
+        scalar.zigzagDecode(expectedInts, offset, count);
+        vector.zigzagDecode(ints, offset, count);
+        assertArrayEquals("count " + count, expectedInts, ints);
+
+        long[] longs = random.longs(offset + count + 2).toArray();
+        long[] expectedLongs = Arrays.copyOf(longs, longs.length);
+        scalar.zigzagDecode(expectedLongs, offset, count);
+        vector.zigzagDecode(longs, offset, count);
+        assertArrayEquals("count " + count, expectedLongs, longs);
+      }
+    }
+  }
+
+  @Test
+  public void testUnpack() {
+    Random random = new Random(3);
+    for (int width = 0; width <= 64; width++) {
+      for (int count : COUNTS) {
+        byte[] bytes = new byte[(count * width + 7) / 8];
+        random.nextBytes(bytes);
+        long[] words = new long[BitUnpacker.getWordNum(bytes.length)];
+        BitUnpacker.loadWords(bytes, bytes.length, words);
+
+        long[] expectedLongs = new long[count];
+        long[] longs = new long[count];
+        scalar.unpackLongs(words, width, expectedLongs, count);
+        vector.unpackLongs(words, width, longs, count);
+        assertArrayEquals("width " + width + ", count " + count, expectedLongs, longs);
+
+        if (width <= 32) {
+          int[] expectedInts = new int[count];
+          int[] ints = new int[count];
+          scalar.unpackInts(words, width, expectedInts, count);
+          vector.unpackInts(words, width, ints, count);
+          assertArrayEquals("width " + width + ", count " + count, expectedInts, ints);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCountSetBits() {
+    Random random = new Random(4);
+    byte[] bitmap = new byte[300];
+    random.nextBytes(bitmap);
+    for (int start = 0; start < 20; start++) {
+      for (int end = start; end <= bitmap.length * 8; end += 13) {
+        assertEquals(
+            "bits " + start + " to " + end,
+            scalar.countSetBits(bitmap, start, end),
+            vector.countSetBits(bitmap, start, end));
+      }
+    }
+  }
+
+  @Test
+  public void testDecodeByVectorKernel() throws IOException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    boolean enabled = config.isVectorDecodeEnabled();
+    config.setVectorDecodeEnabled(true);
+    try {
+      assertTrue(DecodeKernels.getKernel() instanceof VectorDecodeKernel);
+
+      Random random = new Random(5);
+      long[] expected = new long[1000];
+      for (int i = 1; i < expected.length; i++) {
+        expected[i] = expected[i - 1] + random.nextInt(1000) - 100;
+      }
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      DeltaBinaryEncoder encoder = new DeltaBinaryEncoder.LongDeltaEncoder();
+      for (long value : expected) {
+        encoder.encode(value, out);
+      }
+      encoder.flush(out);
+
+      ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+      DeltaBinaryDecoder decoder = new DeltaBinaryDecoder.LongDeltaDecoder();
+      for (long value : expected) {
+        assertTrue(decoder.hasNext(buffer));
+        assertEquals(value, decoder.readLong(buffer));
+      }
+    } finally {
+      config.setVectorDecodeEnabled(enabled);
+    }
+  }
+}